@@ -0,0 +1,76 @@
+package com.podio.sdk;
+
+import java.util.Random;
+
+/**
+ * Describes how often, and how long apart, idempotent requests failing with a transient error (no
+ * connection, no response or a 5xx server error) are retried. The delay grows exponentially with
+ * each attempt, up to a maximum, and is randomized (jittered) so that clients failing at the same
+ * time don't all retry at the same time. A delay requested by the API, through a Retry-After
+ * header, is always honored.
+ */
+public final class Backoff {
+
+    /**
+     * Three retries, half a second apart initially, then doubling up to at most 30 seconds.
+     */
+    public static final Backoff DEFAULT = new Backoff(3, 500L, 30000L, 2.0);
+
+    /**
+     * Never retry.
+     */
+    public static final Backoff NONE = new Backoff(0, 0L, 0L, 1.0);
+
+    private final int maxRetries;
+    private final long initialDelayMillis;
+    private final long maxDelayMillis;
+    private final double multiplier;
+
+    /**
+     * @param maxRetries
+     *         The maximum number of retries of a request.
+     * @param initialDelayMillis
+     *         The delay before the first retry.
+     * @param maxDelayMillis
+     *         The maximum delay between any two attempts.
+     * @param multiplier
+     *         The factor the delay is multiplied by for each retry.
+     */
+    public Backoff(int maxRetries, long initialDelayMillis, long maxDelayMillis, double multiplier) {
+        if (maxRetries < 0 || initialDelayMillis < 0L || maxDelayMillis < initialDelayMillis || multiplier < 1.0) {
+            throw new IllegalArgumentException("Invalid backoff: " + maxRetries + ", " + initialDelayMillis + ", " + maxDelayMillis + ", " + multiplier);
+        }
+
+        this.maxRetries = maxRetries;
+        this.initialDelayMillis = initialDelayMillis;
+        this.maxDelayMillis = maxDelayMillis;
+        this.multiplier = multiplier;
+    }
+
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    /**
+     * Returns the delay before the given retry. The delay is picked at random between half and the
+     * full exponentially grown delay.
+     *
+     * @param retry
+     *         The number of the retry, zero for the first retry.
+     * @param retryAfterMillis
+     *         The delay requested by the API, or a negative number if it didn't say.
+     * @param random
+     *         The source of the jitter.
+     *
+     * @return The delay in milliseconds.
+     */
+    public long getDelayMillis(int retry, long retryAfterMillis, Random random) {
+        double delay = initialDelayMillis * Math.pow(multiplier, Math.max(retry, 0));
+        long ceiling = (long) Math.min(delay, maxDelayMillis);
+        long half = ceiling / 2L;
+        long jittered = half + (long) (random.nextDouble() * (ceiling - half));
+
+        return Math.max(jittered, retryAfterMillis);
+    }
+
+}
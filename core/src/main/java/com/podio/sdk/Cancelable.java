@@ -0,0 +1,15 @@
+package com.podio.sdk;
+
+/**
+ * Something that can be canceled, typically a pending operation that a {@link RequestScope} keeps
+ * track of.
+ */
+public interface Cancelable {
+
+    /**
+     * Cancels the operation. Canceling an operation that already is canceled, or has finished, has
+     * no effect.
+     */
+    public void cancel();
+
+}
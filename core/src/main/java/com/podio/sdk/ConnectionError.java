@@ -0,0 +1,48 @@
+
+package com.podio.sdk;
+
+import java.net.ConnectException;
+import java.net.NoRouteToHostException;
+import java.net.UnknownHostException;
+
+/**
+ * This class represents a client side error caused by an invalid connection state (typically
+ * DISCONNECTED, CONNECTING or DISCONNECTING).
+ *
+ */
+public class ConnectionError extends PodioError {
+
+    /**
+     * Creates a connection error for the given cause. Failing to resolve, or to connect to, the
+     * host happens before any part of the request has been written, in which case a
+     * {@link NotSentError} is returned, as the request may safely be sent again. The connection may
+     * have been lost after the request was sent for any other cause.
+     *
+     * @param cause
+     *         The exception raised by the HTTP stack.
+     *
+     * @return A connection error describing the cause.
+     */
+    public static ConnectionError fromCause(Throwable cause) {
+        for (Throwable t = cause; t != null; t = t.getCause()) {
+            if (t instanceof UnknownHostException || t instanceof ConnectException || t instanceof NoRouteToHostException) {
+                return new NotSentError(cause);
+            }
+        }
+
+        return new ConnectionError(cause);
+    }
+
+    public ConnectionError(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    public ConnectionError(String message) {
+        super(message);
+    }
+
+    public ConnectionError(Throwable cause) {
+        super(cause);
+    }
+
+}
@@ -0,0 +1,206 @@
+package com.podio.sdk;
+
+import com.podio.sdk.internal.CallbackManager;
+import com.podio.sdk.internal.CompletionLatch;
+
+import java.util.ArrayList;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Executor;
+
+/**
+ * A {@link Request} that is resolved explicitly by calling {@link #resolve(Object)} or
+ * {@link #reject(Throwable)}, rather than by a network or disk operation. It's the building block
+ * of the {@link Requests} combinators, but may just as well be used to adapt any other asynchronous
+ * operation to the request API. Only the first resolution counts, any subsequent attempts to
+ * resolve the request are ignored.
+ *
+ * @param <T>
+ *         The type of the result.
+ */
+public class DeferredRequest<T> implements Request<T> {
+    private final CallbackManager<T> callbackManager;
+    private final CompletionLatch completionLatch;
+    private final ArrayList<Request<?>> sources;
+
+    private T result;
+    private PodioError error;
+
+    /**
+     * Creates a request that calls its listeners on the thread that resolves it.
+     */
+    public DeferredRequest() {
+        this(null);
+    }
+
+    /**
+     * Creates a request that calls its listeners through the given executor.
+     *
+     * @param callbackExecutor
+     *         The executor to call the listeners through. If null, the listeners are called on the
+     *         thread that resolves the request.
+     */
+    public DeferredRequest(Executor callbackExecutor) {
+        this.callbackManager = new CallbackManager<T>(callbackExecutor);
+        this.completionLatch = new CompletionLatch();
+        this.sources = new ArrayList<Request<?>>();
+    }
+
+    @Override
+    public T waitForResult(long maxSeconds) throws PodioError {
+        completionLatch.await(maxSeconds);
+
+        if (error != null) {
+            throw error;
+        }
+
+        return result;
+    }
+
+    @Override
+    public synchronized DeferredRequest<T> withResultListener(ResultListener<T> resultListener) {
+        callbackManager.addResultListener(resultListener, completionLatch.isDone() && !completionLatch.isCanceled() && error == null, result);
+        return this;
+    }
+
+    @Override
+    public synchronized DeferredRequest<T> withErrorListener(ErrorListener errorListener) {
+        callbackManager.addErrorListener(errorListener, completionLatch.isDone() && !completionLatch.isCanceled() && error != null, error);
+        return this;
+    }
+
+    /**
+     * Accepts, but never calls, the given listener. A deferred request doesn't talk to the API
+     * itself, any session change caused by the requests it's composed of is delivered to their
+     * own session listeners and to the global ones.
+     */
+    @Override
+    public DeferredRequest<T> withSessionListener(SessionListener sessionListener) {
+        return this;
+    }
+
+    /**
+     * Cancels this request, unless it has already been resolved, together with any requests it's
+     * composed of. The listeners of a canceled request aren't called, while any threads waiting
+     * for its result are released with a {@link PodioError} caused by a {@link
+     * CancellationException}.
+     */
+    @Override
+    public void cancel() {
+        ArrayList<Request<?>> sources;
+
+        synchronized (this) {
+            if (completionLatch.isDone()) {
+                return;
+            }
+
+            error = new PodioError(new CancellationException("The request was canceled"));
+            completionLatch.cancel();
+            sources = new ArrayList<Request<?>>(this.sources);
+            this.sources.clear();
+        }
+
+        for (Request<?> source : sources) {
+            source.cancel();
+        }
+    }
+
+    /**
+     * Returns whether this request has been canceled.
+     *
+     * @return Boolean true if the request was canceled, boolean false otherwise.
+     */
+    public boolean isCanceled() {
+        return completionLatch.isCanceled();
+    }
+
+    /**
+     * Returns whether this request has been resolved, either with a result or with an error.
+     *
+     * @return Boolean true if the request is resolved, boolean false otherwise.
+     */
+    public boolean isDone() {
+        return completionLatch.isDone();
+    }
+
+    /**
+     * Resolves this request with the given result, unless it has already been resolved.
+     *
+     * @param result
+     *         The result to deliver to the result listeners.
+     *
+     * @return Boolean true if the request was resolved, boolean false if it already was resolved.
+     */
+    public boolean resolve(T result) {
+        synchronized (this) {
+            if (completionLatch.isDone()) {
+                return false;
+            }
+
+            this.result = result;
+            completionLatch.complete();
+            sources.clear();
+        }
+
+        callbackManager.deliverResultOnMainThread(result);
+        return true;
+    }
+
+    /**
+     * Resolves this request with the given error, unless it has already been resolved.
+     *
+     * @param cause
+     *         The cause of the failure. Any other errors than {@link PodioError}s are wrapped in
+     *         one.
+     *
+     * @return Boolean true if the request was resolved, boolean false if it already was resolved.
+     */
+    public boolean reject(Throwable cause) {
+        PodioError error = cause instanceof PodioError ? (PodioError) cause : new PodioError(cause);
+
+        synchronized (this) {
+            if (completionLatch.isDone()) {
+                return false;
+            }
+
+            this.error = error;
+            completionLatch.complete();
+            sources.clear();
+        }
+
+        callbackManager.deliverErrorOnMainThread(error);
+        return true;
+    }
+
+    /**
+     * Registers a request this request is composed of. The source request is canceled when this
+     * request is canceled, or right away if this request already is canceled.
+     *
+     * @param source
+     *         The request to cancel along with this request.
+     */
+    public void addSource(Request<?> source) {
+        synchronized (this) {
+            if (!completionLatch.isCanceled()) {
+                if (!completionLatch.isDone()) {
+                    sources.add(source);
+                }
+
+                return;
+            }
+        }
+
+        source.cancel();
+    }
+
+    /**
+     * Unregisters a source request, e.g. once it has delivered its result, so it isn't held on to
+     * for as long as this request is pending.
+     *
+     * @param source
+     *         The request to no longer cancel along with this request.
+     */
+    public synchronized void removeSource(Request<?> source) {
+        sources.remove(source);
+    }
+
+}
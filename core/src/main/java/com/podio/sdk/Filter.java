@@ -0,0 +1,193 @@
+package com.podio.sdk;
+
+import com.podio.sdk.internal.Utils;
+
+import java.io.UnsupportedEncodingException;
+
+public class Filter {
+    private static final String HEX_DIGITS = "0123456789ABCDEF";
+
+    /**
+     * Percent encodes the given string the same way as the Android Uri class does it: everything
+     * but letters, digits and the "_-!.~'()*" characters are encoded as UTF-8 bytes.
+     *
+     * @param string
+     *         The string to encode.
+     *
+     * @return The encoded string.
+     */
+    static String encode(String string) {
+        StringBuilder builder = null;
+        int length = string.length();
+
+        for (int i = 0; i < length; i++) {
+            char c = string.charAt(i);
+
+            if (isAllowed(c)) {
+                if (builder != null) {
+                    builder.append(c);
+                }
+            } else {
+                if (builder == null) {
+                    builder = new StringBuilder(length + 16);
+                    builder.append(string, 0, i);
+                }
+
+                // Encode surrogate pairs as one code point.
+                int end = Character.isHighSurrogate(c) && i + 1 < length ? i + 2 : i + 1;
+                byte[] bytes;
+
+                try {
+                    bytes = string.substring(i, end).getBytes("UTF-8");
+                } catch (UnsupportedEncodingException e) {
+                    // UTF-8 is always supported.
+                    throw new AssertionError(e);
+                }
+
+                for (byte b : bytes) {
+                    builder.append('%')
+                            .append(HEX_DIGITS.charAt((b & 0xf0) >> 4))
+                            .append(HEX_DIGITS.charAt(b & 0x0f));
+                }
+
+                i = end - 1;
+            }
+        }
+
+        return builder != null ? builder.toString() : string;
+    }
+
+    private static boolean isAllowed(char c) {
+        return (c >= 'A' && c <= 'Z')
+                || (c >= 'a' && c <= 'z')
+                || (c >= '0' && c <= '9')
+                || "_-!.~'()*".indexOf(c) != -1;
+    }
+
+    private final StringBuilder path;
+    private final StringBuilder endpoint;
+    private final StringBuilder query;
+    private Request.Priority priority;
+
+    protected Filter() {
+        this(null);
+    }
+
+    protected Filter(String path) {
+        this.path = new StringBuilder();
+        this.endpoint = new StringBuilder();
+        this.query = new StringBuilder();
+
+        if (Utils.notEmpty(path)) {
+            appendEncodedPath(this.path, path);
+            appendEncodedPath(this.endpoint, path);
+        }
+    }
+
+    private static void appendEncodedPath(StringBuilder path, String segment) {
+        int length = path.length();
+
+        if (length == 0 || path.charAt(length - 1) != '/') {
+            path.append('/');
+        }
+
+        path.append(segment);
+    }
+
+    private static boolean isId(String segment) {
+        int length = segment.length();
+
+        for (int i = 0; i < length; i++) {
+            if (!Character.isDigit(segment.charAt(i))) {
+                return false;
+            }
+        }
+
+        return length > 0;
+    }
+
+    protected Filter addQueryParameter(String key, String value) {
+        if (key == null) {
+            throw new IllegalArgumentException("The query parameter key mustn't be null");
+        }
+
+        query.append(query.length() == 0 ? '?' : '&')
+                .append(encode(key))
+                .append('=')
+                .append(value != null ? encode(value) : "");
+
+        return this;
+    }
+
+    protected Filter addPathSegment(String segment) {
+        if (segment == null) {
+            throw new IllegalArgumentException("The path segment mustn't be null");
+        }
+
+        String encoded = encode(segment);
+        appendEncodedPath(path, encoded);
+        appendEncodedPath(endpoint, isId(segment) ? "{id}" : encoded);
+        return this;
+    }
+
+    /**
+     * Sets the priority of the request targeting this filter.
+     *
+     * @param priority
+     *         The priority of the request, or null to leave it to the provider.
+     *
+     * @return This filter, to enable convenient chaining.
+     */
+    public Filter withPriority(Request.Priority priority) {
+        this.priority = priority;
+        return this;
+    }
+
+    /**
+     * Returns the priority of the request targeting this filter.
+     *
+     * @return The priority, or null if none has been set.
+     */
+    public Request.Priority getPriority() {
+        return priority;
+    }
+
+    /**
+     * Returns the path of this filter with any numeric ids replaced by a placeholder, e.g.
+     * "/item/app/{id}/filter". Requests targeting the same endpoint share the same template,
+     * regardless of the resources they act on.
+     *
+     * @return The endpoint template of this filter.
+     */
+    public String getEndpoint() {
+        return endpoint.toString();
+    }
+
+    /**
+     * Builds the URL described by this filter.
+     *
+     * @param scheme
+     *         The scheme of the URL, e.g. "https".
+     * @param authority
+     *         The authority of the URL, e.g. "api.podio.com".
+     *
+     * @return The URL with an encoded path and query.
+     */
+    public String buildUrl(String scheme, String authority) {
+        if (scheme == null) {
+            throw new IllegalArgumentException("The scheme mustn't be null");
+        }
+
+        StringBuilder url = new StringBuilder(scheme.length() + path.length() + query.length() + 32)
+                .append(scheme)
+                .append(':');
+
+        if (authority != null) {
+            url.append("//").append(authority);
+        }
+
+        return url.append(path)
+                .append(query)
+                .toString();
+    }
+}
@@ -0,0 +1,126 @@
+package com.podio.sdk;
+
+import com.podio.sdk.internal.Histogram;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@link RequestEventListener} keeping an in-memory histogram of the end-to-end latency of the
+ * requests per endpoint, i.e. the time from a request being issued until its listeners have been
+ * called. The histograms use a fixed amount of memory each, and are kept until {@link #reset()} is
+ * called.
+ */
+public class LatencyCollector extends RequestEventListener {
+
+    /**
+     * The latency percentiles of one endpoint.
+     */
+    public static final class Summary {
+        private final long count;
+        private final long errorCount;
+        private final long p50Nanos;
+        private final long p95Nanos;
+        private final long p99Nanos;
+        private final long maxNanos;
+
+        private Summary(long count, long errorCount, Histogram histogram) {
+            this.count = count;
+            this.errorCount = errorCount;
+            this.p50Nanos = histogram.getPercentile(50.0);
+            this.p95Nanos = histogram.getPercentile(95.0);
+            this.p99Nanos = histogram.getPercentile(99.0);
+            this.maxNanos = histogram.getMax();
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getErrorCount() {
+            return errorCount;
+        }
+
+        public long getP50Nanos() {
+            return p50Nanos;
+        }
+
+        public long getP95Nanos() {
+            return p95Nanos;
+        }
+
+        public long getP99Nanos() {
+            return p99Nanos;
+        }
+
+        public long getMaxNanos() {
+            return maxNanos;
+        }
+
+        @Override
+        public String toString() {
+            return "count=" + count +
+                    " errors=" + errorCount +
+                    " p50=" + TimeUnit.NANOSECONDS.toMillis(p50Nanos) + "ms" +
+                    " p95=" + TimeUnit.NANOSECONDS.toMillis(p95Nanos) + "ms" +
+                    " p99=" + TimeUnit.NANOSECONDS.toMillis(p99Nanos) + "ms" +
+                    " max=" + TimeUnit.NANOSECONDS.toMillis(maxNanos) + "ms";
+        }
+    }
+
+    private static final class Endpoint {
+        private final Histogram latency = new Histogram();
+        private long errorCount = 0L;
+    }
+
+    private final HashMap<String, Endpoint> endpoints = new HashMap<String, Endpoint>();
+
+    @Override
+    public void onDelivered(RequestTrace trace, long nanoTime, int retryCount, PodioError error) {
+        synchronized (endpoints) {
+            Endpoint endpoint = endpoints.get(trace.getKey());
+
+            if (endpoint == null) {
+                endpoint = new Endpoint();
+                endpoints.put(trace.getKey(), endpoint);
+            }
+
+            if (error != null) {
+                endpoint.errorCount++;
+            }
+
+            endpoint.latency.record(nanoTime - trace.getQueuedNanos());
+        }
+    }
+
+    /**
+     * Returns the latency percentiles of all endpoints requested so far.
+     *
+     * @return The summaries keyed by method and endpoint template, e.g. "GET /item/{id}", in
+     * alphabetical order.
+     */
+    public Map<String, Summary> getSummaries() {
+        TreeMap<String, Summary> result = new TreeMap<String, Summary>();
+
+        synchronized (endpoints) {
+            for (Map.Entry<String, Endpoint> entry : endpoints.entrySet()) {
+                Endpoint endpoint = entry.getValue();
+                result.put(entry.getKey(), new Summary(endpoint.latency.getCount(), endpoint.errorCount, endpoint.latency));
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Forgets all recorded latencies.
+     */
+    public void reset() {
+        synchronized (endpoints) {
+            endpoints.clear();
+        }
+    }
+
+}
@@ -0,0 +1,24 @@
+package com.podio.sdk;
+
+/**
+ * This class represents a client side error caused by a request failing before it was sent, e.g.
+ * while the device is offline, the host can't be connected to or the circuit breaker for the host
+ * is open. Unlike any other {@link ConnectionError} it guarantees that the request never reached
+ * the API, so even a non-idempotent request can safely be sent again.
+ *
+ */
+public class NotSentError extends ConnectionError {
+
+    public NotSentError(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    public NotSentError(String message) {
+        super(message);
+    }
+
+    public NotSentError(Throwable cause) {
+        super(cause);
+    }
+
+}
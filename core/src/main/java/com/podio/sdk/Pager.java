@@ -0,0 +1,451 @@
+package com.podio.sdk;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * A lazily loaded list on top of any offset paginated end point, e.g.
+ * {@link com.podio.sdk.provider.StreamProvider#getGlobalStream(int, int)}. Pages are fetched as
+ * the items are accessed, and the next page is prefetched when the consumer nears the end of the
+ * loaded items, so a scrolling list rarely has to wait.
+ * <p>
+ * The end points count their offsets from the newest item, so new items arriving while paging
+ * shift the remaining items towards higher offsets, and a page may repeat items already loaded.
+ * Such duplicates are dropped, by id. Only a limited number of pages are kept in memory at any
+ * time, the least recently accessed page is evicted when another page is loaded. Evicted pages
+ * are fetched again when accessed, at the offset they have most likely been shifted to.
+ * <p>
+ * A pager isn't bound to any thread, but its listener is called on the callback thread of the
+ * page requests.
+ *
+ * @param <T>
+ *         The type of the items.
+ */
+public class Pager<T> {
+
+    /**
+     * Creates the request for one page.
+     */
+    public interface PageSource<T> {
+
+        Request<T[]> getPage(int limit, int offset);
+
+    }
+
+    /**
+     * Tells which items are the same item.
+     */
+    public interface IdSelector<T> {
+
+        Object getId(T item);
+
+    }
+
+    /**
+     * Callback interface for getting notified when the pager has changed.
+     */
+    public interface Listener {
+
+        /**
+         * Called when a page has been loaded, i.e. when the item count may have grown or items
+         * that weren't resident may now be available.
+         */
+        void onPageLoaded();
+
+        /**
+         * Called when a page failed to load. No further pages are loaded until
+         * {@link Pager#retry()} is called.
+         *
+         * @param cause
+         *         The cause of the failure.
+         */
+        void onPageFailed(Throwable cause);
+
+    }
+
+    private static final class Page<T> {
+        private final int offset;
+        private final int firstIndex;
+        private final Object[] ids;
+        private final int duplicatesAtLoad;
+        private List<T> items;
+        private Request<T[]> request;
+
+        private Page(int offset, int firstIndex, Object[] ids, int duplicatesAtLoad, List<T> items) {
+            this.offset = offset;
+            this.firstIndex = firstIndex;
+            this.ids = ids;
+            this.duplicatesAtLoad = duplicatesAtLoad;
+            this.items = items;
+        }
+    }
+
+    private final PageSource<T> source;
+    private final IdSelector<T> idSelector;
+    private final int pageSize;
+    private final int prefetchDistance;
+    private final int maxResidentPages;
+
+    private final ArrayList<Page<T>> pages;
+    private final LinkedHashSet<Page<T>> residentPages;
+    private final HashSet<Object> seenIds;
+
+    private Listener listener;
+    private Request<T[]> nextPageRequest;
+    private int nextOffset;
+    private int count;
+    private int duplicates;
+    private int lastAccessedIndex;
+    private boolean isComplete;
+    private boolean isFailed;
+    private boolean isCanceled;
+
+    /**
+     * @param source
+     *         The source of the pages.
+     * @param idSelector
+     *         The selector of the ids to drop duplicate items by.
+     * @param pageSize
+     *         The number of items to request per page.
+     * @param prefetchDistance
+     *         The number of items from the end of the loaded items at which the next page is
+     *         requested.
+     * @param maxResidentPages
+     *         The maximum number of pages kept in memory.
+     */
+    public Pager(PageSource<T> source, IdSelector<T> idSelector, int pageSize, int prefetchDistance, int maxResidentPages) {
+        this.source = source;
+        this.idSelector = idSelector;
+        this.pageSize = Math.max(pageSize, 1);
+        this.prefetchDistance = Math.max(prefetchDistance, 0);
+        this.maxResidentPages = Math.max(maxResidentPages, 2);
+
+        this.pages = new ArrayList<Page<T>>();
+        this.residentPages = new LinkedHashSet<Page<T>>();
+        this.seenIds = new HashSet<Object>();
+
+        this.nextOffset = 0;
+        this.count = 0;
+        this.duplicates = 0;
+        this.lastAccessedIndex = 0;
+        this.isComplete = false;
+        this.isFailed = false;
+        this.isCanceled = false;
+    }
+
+    public synchronized void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Returns the number of items loaded so far, resident or not.
+     *
+     * @return The item count.
+     */
+    public synchronized int getCount() {
+        return count;
+    }
+
+    /**
+     * Returns whether the last page has been loaded.
+     *
+     * @return Boolean true if there are no more items to load, boolean false otherwise.
+     */
+    public synchronized boolean isComplete() {
+        return isComplete;
+    }
+
+    /**
+     * Loads the first page, unless it has already been requested. Subsequent pages are loaded as
+     * the items are accessed.
+     */
+    public void load() {
+        Request<T[]> request;
+
+        synchronized (this) {
+            request = requestNextPage();
+        }
+
+        listenTo(request, null);
+    }
+
+    /**
+     * Returns the item at the given index. If the index is close to the end of the loaded items
+     * the next page is requested, and if the page of the item isn't resident it's requested
+     * again.
+     *
+     * @param index
+     *         The zero based index of the item.
+     *
+     * @return The item, or null if its page isn't resident at the moment, or if the item
+     * couldn't be found when the page was loaded again.
+     */
+    public T get(int index) {
+        T item = null;
+        Request<T[]> nextPage = null;
+        Request<T[]> evictedPage = null;
+        Page<T> page;
+
+        synchronized (this) {
+            if (index < 0 || index >= count) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", count: " + count);
+            }
+
+            lastAccessedIndex = index;
+            page = findPage(index);
+
+            if (page.items != null) {
+                item = page.items.get(index - page.firstIndex);
+                residentPages.remove(page);
+                residentPages.add(page);
+            } else if (page.request == null && !isCanceled) {
+                int offset = page.offset + duplicates - page.duplicatesAtLoad;
+                evictedPage = source.getPage(pageSize, offset);
+                page.request = evictedPage;
+            }
+
+            if (count - 1 - index <= prefetchDistance) {
+                nextPage = requestNextPage();
+            }
+        }
+
+        listenTo(nextPage, null);
+        listenTo(evictedPage, page);
+
+        return item;
+    }
+
+    /**
+     * Resumes loading after a page failed to load.
+     */
+    public void retry() {
+        synchronized (this) {
+            isFailed = false;
+        }
+
+        load();
+    }
+
+    /**
+     * Cancels any pending page requests. No further pages are loaded.
+     */
+    public void cancel() {
+        ArrayList<Request<T[]>> requests = new ArrayList<Request<T[]>>();
+
+        synchronized (this) {
+            isCanceled = true;
+
+            if (nextPageRequest != null) {
+                requests.add(nextPageRequest);
+                nextPageRequest = null;
+            }
+
+            for (Page<T> page : pages) {
+                if (page.request != null) {
+                    requests.add(page.request);
+                    page.request = null;
+                }
+            }
+        }
+
+        for (Request<T[]> request : requests) {
+            request.cancel();
+        }
+    }
+
+    /**
+     * Requests the next page, unless it's already requested or there are no more pages. The
+     * caller must hold the lock of this pager.
+     *
+     * @return The new page request, or null if none was needed.
+     */
+    private Request<T[]> requestNextPage() {
+        if (nextPageRequest != null || isComplete || isFailed || isCanceled) {
+            return null;
+        }
+
+        nextPageRequest = source.getPage(pageSize, nextOffset);
+        return nextPageRequest;
+    }
+
+    private void listenTo(final Request<T[]> request, final Page<T> evictedPage) {
+        if (request == null) {
+            return;
+        }
+
+        request.withResultListener(new Request.ResultListener<T[]>() {
+            @Override
+            public boolean onRequestPerformed(T[] content) {
+                if (evictedPage != null) {
+                    onPageReloaded(request, evictedPage, content);
+                } else {
+                    onNextPageLoaded(request, content);
+                }
+
+                return false;
+            }
+        }).withErrorListener(new Request.ErrorListener() {
+            @Override
+            public boolean onErrorOccurred(Throwable cause) {
+                onPageFailed(request, evictedPage, cause);
+                return true;
+            }
+        });
+    }
+
+    private void onNextPageLoaded(Request<T[]> request, T[] content) {
+        Request<T[]> nextPage = null;
+        Listener listener;
+
+        synchronized (this) {
+            if (request != nextPageRequest) {
+                return;
+            }
+
+            List<T> loaded = content != null ? Arrays.asList(content) : Collections.<T>emptyList();
+            ArrayList<T> items = new ArrayList<T>(loaded.size());
+            ArrayList<Object> ids = new ArrayList<Object>(loaded.size());
+
+            for (T item : loaded) {
+                Object id = idSelector.getId(item);
+
+                if (seenIds.add(id)) {
+                    items.add(item);
+                    ids.add(id);
+                } else {
+                    // New items have pushed this one to a higher offset.
+                    duplicates++;
+                }
+            }
+
+            nextPageRequest = null;
+            isComplete = loaded.size() < pageSize;
+
+            if (!items.isEmpty()) {
+                Page<T> page = new Page<T>(nextOffset, count, ids.toArray(), duplicates, items);
+                pages.add(page);
+                makeResident(page);
+                count += items.size();
+            }
+
+            nextOffset += pageSize;
+
+            // A page of duplicates only may leave the consumer as close to the end as before.
+            if (count - 1 - lastAccessedIndex <= prefetchDistance) {
+                nextPage = requestNextPage();
+            }
+
+            listener = this.listener;
+        }
+
+        listenTo(nextPage, null);
+
+        if (listener != null) {
+            listener.onPageLoaded();
+        }
+    }
+
+    private void onPageReloaded(Request<T[]> request, Page<T> page, T[] content) {
+        Listener listener;
+
+        synchronized (this) {
+            if (request != page.request) {
+                return;
+            }
+
+            HashMap<Object, T> loaded = new HashMap<Object, T>();
+
+            if (content != null) {
+                for (T item : content) {
+                    loaded.put(idSelector.getId(item), item);
+                }
+            }
+
+            ArrayList<T> items = new ArrayList<T>(page.ids.length);
+
+            for (Object id : page.ids) {
+                items.add(loaded.get(id));
+            }
+
+            page.request = null;
+            page.items = items;
+            makeResident(page);
+            listener = this.listener;
+        }
+
+        if (listener != null) {
+            listener.onPageLoaded();
+        }
+    }
+
+    private void onPageFailed(Request<T[]> request, Page<T> evictedPage, Throwable cause) {
+        Listener listener;
+
+        synchronized (this) {
+            if (evictedPage != null) {
+                if (request != evictedPage.request) {
+                    return;
+                }
+
+                evictedPage.request = null;
+            } else {
+                if (request != nextPageRequest) {
+                    return;
+                }
+
+                nextPageRequest = null;
+                isFailed = true;
+            }
+
+            listener = this.listener;
+        }
+
+        if (listener != null) {
+            listener.onPageFailed(cause);
+        }
+    }
+
+    /**
+     * Marks the given page as the most recently used resident page, evicting the least recently
+     * used page if there are too many. The caller must hold the lock of this pager.
+     */
+    private void makeResident(Page<T> page) {
+        residentPages.remove(page);
+        residentPages.add(page);
+
+        if (residentPages.size() > maxResidentPages) {
+            Iterator<Page<T>> iterator = residentPages.iterator();
+            Page<T> evicted = iterator.next();
+            iterator.remove();
+            evicted.items = null;
+        }
+    }
+
+    /**
+     * Finds the page holding the item at the given index. The caller must hold the lock of this
+     * pager.
+     */
+    private Page<T> findPage(int index) {
+        int low = 0;
+        int high = pages.size() - 1;
+
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+
+            if (pages.get(middle).firstIndex <= index) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+
+        return pages.get(low);
+    }
+
+}
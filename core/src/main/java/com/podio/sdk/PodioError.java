@@ -1,8 +1,6 @@
 
 package com.podio.sdk;
 
-import com.android.volley.VolleyError;
-
 /**
  * This class represents a generic client side error with an undefined or unknown cause.
  *
@@ -26,8 +24,8 @@ public class PodioError extends RuntimeException {
         responseCode = 0;
     }
 
-    public PodioError(VolleyError volleyError, int responseCode) {
-        super(volleyError);
+    public PodioError(Throwable cause, int responseCode) {
+        super(cause);
         this.responseCode = responseCode;
     }
 
@@ -0,0 +1,87 @@
+
+package com.podio.sdk;
+
+public abstract class Provider {
+
+    protected Client client;
+    protected Client outbox;
+    protected Request.Priority priority = Request.Priority.NORMAL;
+
+    public void setClient(Client client) {
+        this.client = client;
+    }
+
+    /**
+     * Sets the client that queues the durable mutations of this provider, e.g. an outbox. Only the
+     * mutations a provider explicitly enqueues go through it, any other request is made through
+     * the regular client.
+     *
+     * @param outbox
+     *         The client to queue durable mutations in, or null to make them through the regular
+     *         client.
+     */
+    public void setOutbox(Client outbox) {
+        this.outbox = outbox;
+    }
+
+    /**
+     * Sets the priority of the requests made through this provider, unless a request is given a
+     * priority of its own.
+     *
+     * @param priority
+     *         The default priority of the requests of this provider.
+     */
+    public void setPriority(Request.Priority priority) {
+        this.priority = priority != null ? priority : Request.Priority.NORMAL;
+    }
+
+    public Request.Priority getPriority() {
+        return priority;
+    }
+
+    protected void validateClient() {
+        if (this.client == null) {
+            throw new NullPointerException("Your provider subclass MUST set a Client instance prior to a REST operation!");
+        }
+    }
+
+    protected <T> Request<T> delete(Filter filter) {
+        validateClient();
+        prioritize(filter);
+        return client.request(Request.Method.DELETE, filter, null, null);
+    }
+
+    protected <T> Request<T> get(Filter filter, Class<T> classOfResult) {
+        validateClient();
+        prioritize(filter);
+        return client.request(Request.Method.GET, filter, null, classOfResult);
+    }
+
+    protected <T> Request<T> post(Filter filter, Object item, Class<T> classOfItem) {
+        validateClient();
+        prioritize(filter);
+        return client.request(Request.Method.POST, filter, item, classOfItem);
+    }
+
+    protected <T> Request<T> put(Filter filter, Object item, Class<T> classOfItem) {
+        validateClient();
+        prioritize(filter);
+        return client.request(Request.Method.PUT, filter, item, classOfItem);
+    }
+
+    /**
+     * Makes a durable mutation through the outbox, if any, or the regular client otherwise.
+     */
+    protected <T> Request<T> enqueue(Request.Method method, Filter filter, Object item, Class<T> classOfItem) {
+        validateClient();
+        prioritize(filter);
+        return (outbox != null ? outbox : client).request(method, filter, item, classOfItem);
+    }
+
+    private void prioritize(Filter filter) {
+        if (filter.getPriority() == null) {
+            filter.withPriority(priority);
+        }
+    }
+
+}
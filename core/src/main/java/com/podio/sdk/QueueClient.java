@@ -15,7 +15,12 @@ public abstract class QueueClient {
     private ExecutorService executorService;
 
     protected QueueClient(int corePoolSize, int maxPoolSize, long waitTimeSeconds) {
-        executorService = new ThreadPoolExecutor(corePoolSize, maxPoolSize, waitTimeSeconds, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(Integer.MAX_VALUE));
+        ThreadPoolExecutor threadPoolExecutor = new ThreadPoolExecutor(corePoolSize, maxPoolSize, waitTimeSeconds, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(Integer.MAX_VALUE));
+
+        // The queue is unbounded, so the pool never grows beyond its core size. Let idle core
+        // threads go away too, if there is a wait time to go away after.
+        threadPoolExecutor.allowCoreThreadTimeOut(waitTimeSeconds > 0L);
+        executorService = threadPoolExecutor;
     }
 
     protected void execute(FutureTask<?> request) {
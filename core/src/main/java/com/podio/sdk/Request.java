@@ -1,12 +1,21 @@
 
 package com.podio.sdk;
 
-public interface Request<T> {
+public interface Request<T> extends Cancelable {
 
     public static enum Method {
         DELETE, GET, POST, PUT
     }
 
+    /**
+     * The urgency of a request. Requests with a higher priority are sent before any pending
+     * requests with a lower priority, while background requests are limited in how many of them
+     * may run at the same time, so there is always room for the requests the user is waiting for.
+     */
+    public static enum Priority {
+        IMMEDIATE, NORMAL, BACKGROUND
+    }
+
     /**
      * Callback interface for error events.
      *
@@ -81,6 +90,15 @@ public interface Request<T> {
      */
     public T waitForResult(long maxSeconds) throws PodioError;
 
+    /**
+     * Cancels this request. Its listeners won't be called after this, and any threads waiting in
+     * {@link #waitForResult(long)} are released with a {@link PodioError} caused by a {@link
+     * java.util.concurrent.CancellationException}. If the request hasn't been sent yet it's
+     * dropped, and any response arriving after the cancellation isn't parsed, unless another
+     * request shares the very same response.
+     */
+    public void cancel();
+
     public Request<T> withResultListener(ResultListener<T> contentListener);
 
     public Request<T> withErrorListener(ErrorListener errorListener);
@@ -0,0 +1,70 @@
+package com.podio.sdk;
+
+/**
+ * Gets notified as a request moves through the SDK, from being issued, through waiting in the
+ * request queue, sending, receiving and parsing, until its listeners have been called. All
+ * timestamps are {@link System#nanoTime()} values, so the time spent in each phase is the
+ * difference between two callbacks.
+ * <p>
+ * The callbacks are made on whichever thread the request happens to be on, the network threads
+ * included, and must therefore return quickly and never throw. All methods do nothing by default,
+ * so implementations only override the events they care about. A request that is retried goes
+ * through the network phases once per attempt.
+ */
+public abstract class RequestEventListener {
+
+    /**
+     * Called when a request has been issued by a provider.
+     */
+    public void onQueued(RequestTrace trace, long nanoTime) {
+    }
+
+    /**
+     * Called when a network thread picks up the request. The time since it was queued was spent
+     * waiting for the rate limit, for a free network thread or for a token refresh.
+     */
+    public void onNetworkStart(RequestTrace trace, long nanoTime) {
+    }
+
+    /**
+     * Called when the response headers have arrived. The time since the network start was spent
+     * resolving the host, connecting, negotiating TLS, sending the request and waiting for the
+     * server.
+     */
+    public void onResponseHeaders(RequestTrace trace, long nanoTime, int statusCode) {
+    }
+
+    /**
+     * Called when the response body has been read, or, for responses served from the HTTP cache,
+     * when the cached content is about to be parsed.
+     */
+    public void onResponseBody(RequestTrace trace, long nanoTime, long byteCount) {
+    }
+
+    /**
+     * Called when the response has been parsed into the requested result.
+     */
+    public void onParsed(RequestTrace trace, long nanoTime) {
+    }
+
+    /**
+     * Called when a failed attempt is about to be retried.
+     *
+     * @param retryCount
+     *         The number of retries so far, this one included.
+     */
+    public void onRetry(RequestTrace trace, long nanoTime, int retryCount) {
+    }
+
+    /**
+     * Called on the main thread, when the listeners of the request have been called.
+     *
+     * @param retryCount
+     *         The number of times the request was retried.
+     * @param error
+     *         The error the request failed with, or null if it succeeded.
+     */
+    public void onDelivered(RequestTrace trace, long nanoTime, int retryCount, PodioError error) {
+    }
+
+}
@@ -0,0 +1,97 @@
+package com.podio.sdk;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * Keeps track of the pending requests (or image loads) of a screen, a list item or any other user
+ * interface component, so they can all be canceled at once when the component goes away. This
+ * saves the bandwidth and processing time of responses nobody is waiting for any more.
+ * <p>
+ * The scope only holds weak references to what it tracks, so completed requests are simply
+ * forgotten as soon as nothing else refers to them.
+ */
+public class RequestScope {
+    private final Set<Cancelable> cancelables;
+    private boolean isClosed;
+
+    public RequestScope() {
+        this.cancelables = Collections.newSetFromMap(new WeakHashMap<Cancelable, Boolean>());
+        this.isClosed = false;
+    }
+
+    /**
+     * Adds the given request, or any other cancelable operation, to this scope. If the scope has
+     * been closed, then the operation is canceled right away.
+     *
+     * @param cancelable
+     *         The operation to track.
+     *
+     * @return The very same operation, for convenience.
+     */
+    public <C extends Cancelable> C track(C cancelable) {
+        if (cancelable == null) {
+            return null;
+        }
+
+        boolean cancelNow;
+
+        synchronized (cancelables) {
+            cancelNow = isClosed;
+
+            if (!cancelNow) {
+                cancelables.add(cancelable);
+            }
+        }
+
+        if (cancelNow) {
+            cancelable.cancel();
+        }
+
+        return cancelable;
+    }
+
+    /**
+     * Cancels all operations currently tracked by this scope. The scope remains open, so any
+     * operations added after this are tracked as usual.
+     */
+    public void cancel() {
+        ArrayList<Cancelable> snapshot;
+
+        synchronized (cancelables) {
+            snapshot = new ArrayList<Cancelable>(cancelables);
+            cancelables.clear();
+        }
+
+        // Cancel outside the lock, as canceling may call back into other code.
+        for (Cancelable cancelable : snapshot) {
+            cancelable.cancel();
+        }
+    }
+
+    /**
+     * Cancels all operations currently tracked by this scope and closes it. Any operations added
+     * after this are canceled right away.
+     */
+    public void close() {
+        synchronized (cancelables) {
+            isClosed = true;
+        }
+
+        cancel();
+    }
+
+    /**
+     * Returns whether this scope has been closed.
+     *
+     * @return Boolean true if the scope is closed, boolean false otherwise.
+     */
+    public boolean isClosed() {
+        synchronized (cancelables) {
+            return isClosed;
+        }
+    }
+
+}
@@ -0,0 +1,56 @@
+package com.podio.sdk;
+
+/**
+ * Identifies one request in the callbacks of a {@link RequestEventListener}. The trace is created
+ * when the request is issued and follows it through every attempt.
+ */
+public final class RequestTrace {
+
+    private final Request.Method method;
+    private final String endpoint;
+    private final long queuedNanos;
+    private final long requestByteCount;
+
+    /**
+     * @param method
+     *         The HTTP method of the request.
+     * @param endpoint
+     *         The endpoint template of the request, see {@link Filter#getEndpoint()}.
+     * @param queuedNanos
+     *         The {@link System#nanoTime()} at which the request was issued.
+     * @param requestByteCount
+     *         The size of the request body, in bytes.
+     */
+    public RequestTrace(Request.Method method, String endpoint, long queuedNanos, long requestByteCount) {
+        this.method = method;
+        this.endpoint = endpoint;
+        this.queuedNanos = queuedNanos;
+        this.requestByteCount = requestByteCount;
+    }
+
+    public Request.Method getMethod() {
+        return method;
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    public long getQueuedNanos() {
+        return queuedNanos;
+    }
+
+    public long getRequestByteCount() {
+        return requestByteCount;
+    }
+
+    /**
+     * Returns the key the requests are grouped by in metrics, e.g. "GET /item/{id}".
+     *
+     * @return The method and endpoint template of the request.
+     */
+    public String getKey() {
+        return method + " " + endpoint;
+    }
+
+}
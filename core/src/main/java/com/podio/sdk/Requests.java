@@ -0,0 +1,449 @@
+package com.podio.sdk;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Combinators composing {@link Request}s into new requests, without blocking any threads while
+ * waiting for the results. They work with any request implementation, as they only rely on the
+ * result and error listeners. A composed request delivers the first error of any of the requests
+ * it's composed of, while the source request doesn't deliver that error to its own global error
+ * listeners. Canceling a composed request also cancels the requests it's composed of.
+ * <p>
+ * The listeners of the composed requests are called through the callback executor, which the
+ * Podio facade sets up to be the main thread on Android.
+ */
+public final class Requests {
+
+    /**
+     * Transforms the result of a request into a new value.
+     *
+     * @param <A>
+     *         The type of the input.
+     * @param <B>
+     *         The type of the output.
+     */
+    public interface Transformation<A, B> {
+
+        B apply(A input);
+
+    }
+
+    /**
+     * Creates the next request in a chain of requests, based on the result of the previous one.
+     *
+     * @param <A>
+     *         The result type of the previous request.
+     * @param <B>
+     *         The result type of the next request.
+     */
+    public interface Continuation<A, B> {
+
+        Request<B> apply(A input);
+
+    }
+
+    /**
+     * Combines the results of two requests into one value.
+     *
+     * @param <A>
+     *         The result type of the first request.
+     * @param <B>
+     *         The result type of the second request.
+     * @param <R>
+     *         The type of the combined value.
+     */
+    public interface Combination<A, B, R> {
+
+        R combine(A first, B second);
+
+    }
+
+    private static final ThreadFactory TIMER_THREAD_FACTORY = new ThreadFactory() {
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "Podio-Requests");
+            thread.setDaemon(true);
+            return thread;
+        }
+    };
+
+    // Canceled timeouts are purged from the timer queue in batches of this size.
+    private static final int PURGE_INTERVAL = 256;
+
+    private static final AtomicInteger canceledTimeouts = new AtomicInteger();
+    private static volatile Executor callbackExecutor = null;
+    private static ScheduledThreadPoolExecutor timer = null;
+
+    /**
+     * Sets the executor the listeners of the composed requests are called through.
+     *
+     * @param executor
+     *         The callback executor. If null, the listeners are called on the thread that resolves
+     *         the composed request.
+     */
+    public static void setCallbackExecutor(Executor executor) {
+        callbackExecutor = executor;
+    }
+
+    /**
+     * Creates a new, unresolved, request calling its listeners through the callback executor.
+     *
+     * @return A new deferred request.
+     */
+    public static <T> DeferredRequest<T> newDeferredRequest() {
+        return new DeferredRequest<T>(callbackExecutor);
+    }
+
+    /**
+     * Creates a request that already is resolved with the given result.
+     *
+     * @param result
+     *         The result of the request.
+     *
+     * @return A resolved request.
+     */
+    public static <T> Request<T> success(T result) {
+        DeferredRequest<T> request = newDeferredRequest();
+        request.resolve(result);
+        return request;
+    }
+
+    /**
+     * Creates a request that already has failed with the given error.
+     *
+     * @param cause
+     *         The cause of the failure.
+     *
+     * @return A failed request.
+     */
+    public static <T> Request<T> failure(Throwable cause) {
+        DeferredRequest<T> request = newDeferredRequest();
+        request.reject(cause);
+        return request;
+    }
+
+    /**
+     * Creates a request delivering the transformed result of the given request. Any exception
+     * thrown by the transformation fails the new request.
+     *
+     * @param request
+     *         The source request.
+     * @param transformation
+     *         The transformation to apply to the result of the source request.
+     *
+     * @return A request delivering the transformed result.
+     */
+    public static <A, B> Request<B> map(Request<A> request, final Transformation<A, B> transformation) {
+        final DeferredRequest<B> result = newDeferredRequest();
+
+        request.withResultListener(new Request.ResultListener<A>() {
+            @Override
+            public boolean onRequestPerformed(A content) {
+                if (!result.isDone()) {
+                    try {
+                        result.resolve(transformation.apply(content));
+                    } catch (RuntimeException e) {
+                        result.reject(e);
+                    }
+                }
+
+                return false;
+            }
+        }).withErrorListener(rejectOn(result));
+
+        result.addSource(request);
+        return result;
+    }
+
+    /**
+     * Creates a request delivering the result of a second request, which is created from the
+     * result of the given request once it's available.
+     *
+     * @param request
+     *         The first request.
+     * @param continuation
+     *         Creates the second request from the result of the first one.
+     *
+     * @return A request delivering the result of the second request.
+     */
+    public static <A, B> Request<B> flatMap(Request<A> request, final Continuation<A, B> continuation) {
+        final DeferredRequest<B> result = newDeferredRequest();
+
+        request.withResultListener(new Request.ResultListener<A>() {
+            @Override
+            public boolean onRequestPerformed(A content) {
+                // Don't even start the next request if the chain has been canceled.
+                if (result.isDone()) {
+                    return false;
+                }
+
+                Request<B> next;
+                try {
+                    next = continuation.apply(content);
+                } catch (RuntimeException e) {
+                    result.reject(e);
+                    return false;
+                }
+
+                if (next == null) {
+                    result.resolve(null);
+                } else {
+                    forward(next, result);
+                }
+
+                return false;
+            }
+        }).withErrorListener(rejectOn(result));
+
+        result.addSource(request);
+        return result;
+    }
+
+    /**
+     * Creates a request delivering the combined results of the two given requests, once both have
+     * delivered their results. The requests run in parallel.
+     *
+     * @param first
+     *         The first request.
+     * @param second
+     *         The second request.
+     * @param combination
+     *         Combines the two results into one.
+     *
+     * @return A request delivering the combined result.
+     */
+    public static <A, B, R> Request<R> zip(Request<A> first, Request<B> second, final Combination<A, B, R> combination) {
+        List<Request<?>> requests = new ArrayList<Request<?>>(2);
+        requests.add(first);
+        requests.add(second);
+
+        return map(allOf(requests), new Transformation<List<Object>, R>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public R apply(List<Object> results) {
+                // The results are in the same order as the requests, so the casts are safe.
+                return combination.combine((A) results.get(0), (B) results.get(1));
+            }
+        });
+    }
+
+    /**
+     * Creates a request delivering the results of all the given requests, in the same order as
+     * the requests, once all of them have delivered their results. The requests run in parallel.
+     * If any of the requests fails, then the composed request fails right away.
+     *
+     * @param requests
+     *         The requests to wait for.
+     *
+     * @return A request delivering all results.
+     */
+    public static <T> Request<List<T>> allOf(List<? extends Request<? extends T>> requests) {
+        final DeferredRequest<List<T>> result = newDeferredRequest();
+        final int count = requests.size();
+
+        if (count == 0) {
+            result.resolve(Collections.<T>emptyList());
+            return result;
+        }
+
+        final ArrayList<T> results = new ArrayList<T>(Collections.<T>nCopies(count, null));
+        final int[] remaining = {count};
+
+        for (int i = 0; i < count; i++) {
+            final int index = i;
+            Request<? extends T> request = requests.get(i);
+
+            addResultListener(request, new Request.ResultListener<T>() {
+                @Override
+                public boolean onRequestPerformed(T content) {
+                    boolean isComplete;
+
+                    synchronized (results) {
+                        results.set(index, content);
+                        isComplete = --remaining[0] == 0;
+                    }
+
+                    if (isComplete) {
+                        result.resolve(results);
+                    }
+
+                    return false;
+                }
+            });
+
+            request.withErrorListener(rejectOn(result));
+            result.addSource(request);
+        }
+
+        return result;
+    }
+
+    /**
+     * Creates a request delivering the result of whichever of the given requests first delivers a
+     * result. The requests run in parallel. The composed request only fails if all the requests
+     * fail, in which case the error of the last one is delivered.
+     *
+     * @param requests
+     *         The requests to race.
+     *
+     * @return A request delivering the first result.
+     */
+    public static <T> Request<T> anyOf(List<? extends Request<? extends T>> requests) {
+        final DeferredRequest<T> result = newDeferredRequest();
+        final int[] remaining = {requests.size()};
+
+        if (remaining[0] == 0) {
+            result.reject(new PodioError("There are no requests to wait for"));
+            return result;
+        }
+
+        for (Request<? extends T> request : requests) {
+            addResultListener(request, new Request.ResultListener<T>() {
+                @Override
+                public boolean onRequestPerformed(T content) {
+                    result.resolve(content);
+                    return false;
+                }
+            });
+
+            request.withErrorListener(new Request.ErrorListener() {
+                @Override
+                public boolean onErrorOccurred(Throwable cause) {
+                    boolean isLast;
+
+                    synchronized (remaining) {
+                        isLast = --remaining[0] == 0;
+                    }
+
+                    if (isLast) {
+                        result.reject(cause);
+                    }
+
+                    return true;
+                }
+            });
+
+            result.addSource(request);
+        }
+
+        return result;
+    }
+
+    /**
+     * Creates a request delivering the result of the given request, unless it takes longer than
+     * the given time, in which case the new request fails with a {@link NoResponseError}. No
+     * thread is blocked while waiting.
+     *
+     * @param request
+     *         The request to put a time limit on.
+     * @param timeout
+     *         The maximum time to wait for the result.
+     * @param unit
+     *         The unit of the timeout.
+     *
+     * @return A request delivering the result of the given request, or a timeout error.
+     */
+    public static <T> Request<T> withTimeout(Request<T> request, long timeout, TimeUnit unit) {
+        final DeferredRequest<T> result = newDeferredRequest();
+
+        final ScheduledFuture<?> timeoutTask = getTimer().schedule(new Runnable() {
+            @Override
+            public void run() {
+                result.reject(new NoResponseError("The request timed out"));
+            }
+        }, timeout, unit);
+
+        request.withResultListener(new Request.ResultListener<T>() {
+            @Override
+            public boolean onRequestPerformed(T content) {
+                cancelTimeout(timeoutTask);
+                result.resolve(content);
+                return false;
+            }
+        }).withErrorListener(new Request.ErrorListener() {
+            @Override
+            public boolean onErrorOccurred(Throwable cause) {
+                cancelTimeout(timeoutTask);
+                result.reject(cause);
+                return true;
+            }
+        });
+
+        result.addSource(request);
+        return result;
+    }
+
+    /**
+     * Resolves the given deferred request with the result, or error, of the given source request.
+     * Canceling the deferred request cancels the source request as well.
+     *
+     * @param source
+     *         The request to forward the result of.
+     * @param target
+     *         The deferred request to resolve.
+     */
+    public static <T> void forward(Request<T> source, final DeferredRequest<T> target) {
+        source.withResultListener(new Request.ResultListener<T>() {
+            @Override
+            public boolean onRequestPerformed(T content) {
+                target.resolve(content);
+                return false;
+            }
+        }).withErrorListener(rejectOn(target));
+
+        target.addSource(source);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> void addResultListener(Request<? extends T> request, Request.ResultListener<T> listener) {
+        // The listener only consumes the result, so it can safely take any subtype of T.
+        ((Request<T>) request).withResultListener(listener);
+    }
+
+    /**
+     * Creates an error listener that fails the given request and consumes the error, as it will be
+     * delivered by the failed request instead.
+     */
+    private static Request.ErrorListener rejectOn(final DeferredRequest<?> request) {
+        return new Request.ErrorListener() {
+            @Override
+            public boolean onErrorOccurred(Throwable cause) {
+                request.reject(cause);
+                return true;
+            }
+        };
+    }
+
+    private static synchronized ScheduledThreadPoolExecutor getTimer() {
+        if (timer == null) {
+            timer = new ScheduledThreadPoolExecutor(1, TIMER_THREAD_FACTORY);
+        }
+
+        return timer;
+    }
+
+    /**
+     * Cancels the given timeout. Canceled timeouts stay in the timer queue until they expire, so
+     * they're purged once enough of them have piled up. Purging sweeps the whole queue, which is
+     * why it isn't done for every canceled timeout. The remove-on-cancel policy would avoid this
+     * altogether, but it's only available from Android API level 21.
+     */
+    private static void cancelTimeout(ScheduledFuture<?> timeoutTask) {
+        if (timeoutTask.cancel(false) && canceledTimeouts.incrementAndGet() % PURGE_INTERVAL == 0) {
+            getTimer().purge();
+        }
+    }
+
+    private Requests() {
+        // Hide the constructor of this utility class.
+    }
+
+}
@@ -0,0 +1,206 @@
+package com.podio.sdk;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.podio.sdk.internal.Utils;
+
+/**
+ * Holds the tokens of an authenticated Podio user or app. Each client instance operates on its
+ * own session, which enables a single process to act on behalf of several accounts at once. The
+ * static methods operate on the default session, which is the one the Podio facade uses.
+ */
+public class Session {
+
+    private static final Session DEFAULT_SESSION = new Session();
+
+    /**
+     * Returns the default session, which is the one the static methods of this class operate on.
+     *
+     * @return The default session.
+     */
+    public static Session getDefault() {
+        return DEFAULT_SESSION;
+    }
+
+    public static String accessToken() {
+        return DEFAULT_SESSION.getAccessToken();
+    }
+
+    public static long expires() {
+        return DEFAULT_SESSION.getExpires();
+    }
+
+    public static String refreshToken() {
+        return DEFAULT_SESSION.getRefreshToken();
+    }
+
+    public static String transferToken() {
+        return DEFAULT_SESSION.getTransferToken();
+    }
+
+    public static String reference() {
+        return DEFAULT_SESSION.getReference();
+    }
+
+    public static void set(String jsonString) {
+        DEFAULT_SESSION.update(jsonString);
+    }
+
+    public static void set(String accessToken, String refreshToken, long expires) {
+        DEFAULT_SESSION.update(accessToken, refreshToken, null, expires);
+    }
+
+    public static void set(String accessToken, String refreshToken, String transferToken, long expires) {
+        DEFAULT_SESSION.update(accessToken, refreshToken, transferToken, expires);
+    }
+
+    private static String optString(JsonObject jsonObject, String name) {
+        JsonElement element = jsonObject.get(name);
+        return element != null && element.isJsonPrimitive() ? element.getAsString() : null;
+    }
+
+    /**
+     * Returns the "ref" object of an authentication response as "type:id", e.g. "user:123", or
+     * null if the response doesn't say who it was issued for.
+     */
+    private static String optReference(JsonObject jsonObject) {
+        JsonElement element = jsonObject.get("ref");
+
+        if (element == null || !element.isJsonObject()) {
+            return null;
+        }
+
+        String type = optString(element.getAsJsonObject(), "type");
+        String id = optString(element.getAsJsonObject(), "id");
+
+        return type != null && id != null ? type + ":" + id : null;
+    }
+
+    private static long optLong(JsonObject jsonObject, String name) {
+        JsonElement element = jsonObject.get(name);
+
+        try {
+            return element != null && element.isJsonPrimitive() ? element.getAsLong() : 0L;
+        } catch (NumberFormatException e) {
+            return 0L;
+        }
+    }
+
+    private String accessToken;
+    private String refreshToken;
+    private String transferToken;
+    private long expires;
+    private String reference;
+    private long generation = 1L;
+
+    public synchronized String getAccessToken() {
+        return accessToken;
+    }
+
+    public synchronized long getExpires() {
+        return expires;
+    }
+
+    public synchronized String getRefreshToken() {
+        return refreshToken;
+    }
+
+    public synchronized String getTransferToken() {
+        return transferToken;
+    }
+
+    /**
+     * Returns the user or app the tokens were issued for, e.g. "user:123", or null if that isn't
+     * known. It isn't known for restored sessions until they have been refreshed.
+     *
+     * @return The reference of the authenticated user or app.
+     */
+    public synchronized String getReference() {
+        return reference;
+    }
+
+    /**
+     * Returns a number identifying the sign-in the tokens of this session originate from. It
+     * changes whenever the session is authenticated anew or replaced, but not when it's merely
+     * refreshed.
+     *
+     * @return The generation of this session.
+     */
+    public synchronized long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Updates this session with the tokens in the given authentication response JSON. Invalid
+     * JSON clears the access and refresh tokens.
+     *
+     * @param jsonString
+     *         The JSON response from the authentication end point.
+     */
+    public synchronized void update(String jsonString) {
+        generation++;
+        reference = null;
+        parse(jsonString);
+    }
+
+    /**
+     * Updates this session with the tokens in the given response to refreshing it. Unlike
+     * {@link #update(String)} this keeps the generation of the session, as the new tokens still
+     * belong to the same sign-in.
+     *
+     * @param jsonString
+     *         The JSON response from the authentication end point.
+     */
+    public synchronized void refresh(String jsonString) {
+        parse(jsonString);
+    }
+
+    public synchronized void update(String accessToken, String refreshToken, String transferToken, long expires) {
+        if (refreshToken == null || !refreshToken.equals(this.refreshToken)) {
+            // These may be the tokens of anyone.
+            generation++;
+            reference = null;
+        }
+
+        this.accessToken = accessToken;
+        this.refreshToken = refreshToken;
+        this.transferToken = transferToken;
+        this.expires = expires;
+    }
+
+    private void parse(String jsonString) {
+        try {
+            JsonObject jsonObject = new JsonParser().parse(jsonString).getAsJsonObject();
+            accessToken = optString(jsonObject, "access_token");
+            refreshToken = optString(jsonObject, "refresh_token");
+            transferToken = optString(jsonObject, "transfer_token");
+
+            String ref = optReference(jsonObject);
+            if (ref != null) {
+                reference = ref;
+            }
+
+            if (jsonObject.has("expires")) {
+                expires = optLong(jsonObject, "expires");
+            } else if (jsonObject.has("expires_in")) {
+                long expiresIn = optLong(jsonObject, "expires_in");
+                expires = Utils.currentTimeSeconds() + expiresIn;
+            }
+        } catch (JsonParseException e) {
+            // Input JSON was most likely invalid. Fallback to defaults.
+            accessToken = refreshToken = null;
+            expires = 0;
+        } catch (IllegalStateException e) {
+            // Input JSON was most likely not a JSON object. Fallback to defaults.
+            accessToken = refreshToken = null;
+            expires = 0;
+        } catch (NullPointerException e) {
+            // Input JSON was most likely a null pointer. Fallback to defaults.
+            accessToken = refreshToken = null;
+            expires = 0;
+        }
+    }
+
+}
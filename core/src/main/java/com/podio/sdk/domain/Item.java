@@ -42,6 +42,23 @@ public class Item implements Data {
             this.sort_nulls_last = false;
         }
 
+        /**
+         * Creates a copy of the given filter data, e.g. to fetch several pages of the same filter
+         * at the same time.
+         *
+         * @param other
+         *         The filter data to copy.
+         */
+        public FilterData(FilterData other) {
+            this.filters = new HashMap<String, Object>(other.filters);
+            this.sort_desc = other.sort_desc;
+            this.limit = other.limit;
+            this.offset = other.offset;
+            this.remember = other.remember;
+            this.sort_by = other.sort_by;
+            this.sort_nulls_last = other.sort_nulls_last;
+        }
+
         public void addConstraint(String key, Object value) {
             if (Utils.notEmpty(key) && value != null) {
                 filters.put(key, value);
@@ -1,14 +1,12 @@
 
 package com.podio.sdk.internal;
 
-import android.os.Handler;
-import android.os.Looper;
-
 import com.podio.sdk.PodioError;
 import com.podio.sdk.Request.ErrorListener;
 import com.podio.sdk.Request.ResultListener;
 
 import java.util.ArrayList;
+import java.util.concurrent.Executor;
 
 public class CallbackManager<T> {
     private static final ArrayList<ErrorListener> GLOBAL_ERROR_LISTENERS;
@@ -31,12 +29,37 @@ public class CallbackManager<T> {
                 null;
     }
 
+    /**
+     * Delivers the callbacks on the calling thread.
+     */
+    private static final Executor IMMEDIATE_EXECUTOR = new Executor() {
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+    };
+
+    private final Executor mainThreadExecutor;
     private final ArrayList<ResultListener<T>> resultListeners;
     private final ArrayList<ErrorListener> errorListeners;
     private final Object RESULT_LISTENER_LOCK = new Object();
     private final Object ERROR_LISTENER_LOCK = new Object();
 
     public CallbackManager() {
+        this(null);
+    }
+
+    /**
+     * Creates a new callback manager that delivers the "main thread" callbacks through the given
+     * executor. On Android this is an executor that posts to the main looper, while a plain Java
+     * environment, having no main thread, may just as well run the callbacks right away.
+     *
+     * @param mainThreadExecutor
+     *         The executor to deliver the main thread callbacks through. If null, they're
+     *         delivered on the calling thread.
+     */
+    public CallbackManager(Executor mainThreadExecutor) {
+        this.mainThreadExecutor = mainThreadExecutor != null ? mainThreadExecutor : IMMEDIATE_EXECUTOR;
         this.resultListeners = new ArrayList<ResultListener<T>>();
         this.errorListeners = new ArrayList<ErrorListener>();
     }
@@ -104,8 +127,7 @@ public class CallbackManager<T> {
     }
 
     public void deliverErrorOnMainThread(final Throwable error) {
-        Handler handler = new Handler(Looper.getMainLooper());
-        handler.post(new Runnable() {
+        mainThreadExecutor.execute(new Runnable() {
 
             @Override
             public void run() {
@@ -136,8 +158,7 @@ public class CallbackManager<T> {
     }
 
     public void deliverResultOnMainThread(final T result) {
-        Handler handler = new Handler(Looper.getMainLooper());
-        handler.post(new Runnable() {
+        mainThreadExecutor.execute(new Runnable() {
 
             @Override
             public void run() {
@@ -0,0 +1,128 @@
+package com.podio.sdk.internal;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps track of the health of one host. After a number of consecutive transient failures the
+ * circuit opens, and requests to the host fail right away rather than waiting for yet another
+ * time-out. Once the open period has passed a single trial request is let through: if it
+ * succeeds the circuit closes again, otherwise it's opened for twice as long as the last time, up
+ * to a maximum.
+ */
+public final class CircuitBreaker {
+
+    public static final int DEFAULT_FAILURE_THRESHOLD = 5;
+    public static final long DEFAULT_OPEN_MILLIS = 5000L;
+    public static final long DEFAULT_MAX_OPEN_MILLIS = 120000L;
+
+    private static final int CLOSED = 0;
+    private static final int OPEN = 1;
+    private static final int HALF_OPEN = 2;
+
+    private final int failureThreshold;
+    private final long minOpenNanos;
+    private final long maxOpenNanos;
+
+    private int state;
+    private int failures;
+    private long openNanos;
+    private long openUntil;
+    private long trialStarted;
+
+    public CircuitBreaker() {
+        this(DEFAULT_FAILURE_THRESHOLD, DEFAULT_OPEN_MILLIS, DEFAULT_MAX_OPEN_MILLIS);
+    }
+
+    /**
+     * @param failureThreshold
+     *         The number of consecutive failures that opens the circuit.
+     * @param openMillis
+     *         The time the circuit is kept open the first time.
+     * @param maxOpenMillis
+     *         The maximum time the circuit is kept open.
+     */
+    public CircuitBreaker(int failureThreshold, long openMillis, long maxOpenMillis) {
+        this.failureThreshold = Math.max(failureThreshold, 1);
+        this.minOpenNanos = TimeUnit.MILLISECONDS.toNanos(openMillis);
+        this.maxOpenNanos = Math.max(TimeUnit.MILLISECONDS.toNanos(maxOpenMillis), minOpenNanos);
+        this.state = CLOSED;
+        this.failures = 0;
+        this.openNanos = minOpenNanos;
+    }
+
+    /**
+     * Returns whether a request may be sent to the host. While the circuit is half open only one
+     * trial request is let through at a time.
+     *
+     * @return Boolean true if the request may be sent, boolean false if it should fail right
+     * away.
+     */
+    public boolean allowRequest() {
+        return allowRequest(System.nanoTime());
+    }
+
+    /**
+     * Reports that the host responded, even if with a client error.
+     */
+    public void onSuccess() {
+        onSuccess(System.nanoTime());
+    }
+
+    /**
+     * Reports that a request to the host failed with a transient error.
+     */
+    public void onFailure() {
+        onFailure(System.nanoTime());
+    }
+
+    public synchronized boolean isOpen() {
+        return state != CLOSED;
+    }
+
+    synchronized boolean allowRequest(long now) {
+        switch (state) {
+            case OPEN:
+                if (now - openUntil < 0L) {
+                    return false;
+                }
+
+                state = HALF_OPEN;
+                trialStarted = now;
+                return true;
+            case HALF_OPEN:
+                // Let another trial through if the previous one never reported back, e.g. because
+                // it was canceled.
+                if (now - trialStarted < openNanos) {
+                    return false;
+                }
+
+                trialStarted = now;
+                return true;
+            default:
+                return true;
+        }
+    }
+
+    synchronized void onSuccess(long now) {
+        state = CLOSED;
+        failures = 0;
+        openNanos = minOpenNanos;
+    }
+
+    synchronized void onFailure(long now) {
+        if (state == HALF_OPEN) {
+            // The trial failed, stay away for longer this time.
+            openNanos = Math.min(openNanos * 2L, maxOpenNanos);
+            open(now);
+        } else if (state == CLOSED && ++failures >= failureThreshold) {
+            open(now);
+        }
+    }
+
+    private void open(long now) {
+        state = OPEN;
+        failures = 0;
+        openUntil = now + openNanos;
+    }
+
+}
@@ -0,0 +1,91 @@
+package com.podio.sdk.internal;
+
+import com.podio.sdk.PodioError;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A one-shot latch that threads can wait on until a request has completed. Unlike a bare
+ * {@link Object#wait(long)} call, waiting for an already completed request returns immediately,
+ * spurious wake-ups don't end the wait prematurely, and the request may be canceled, which
+ * releases all waiting threads. Any state written before the latch is completed is visible to the
+ * threads returning from {@link #await(long)}.
+ */
+public final class CompletionLatch {
+    private static final int PENDING = 0;
+    private static final int COMPLETED = 1;
+    private static final int CANCELED = 2;
+
+    private final CountDownLatch latch = new CountDownLatch(1);
+    private final AtomicInteger state = new AtomicInteger(PENDING);
+
+    /**
+     * Marks the request as completed and releases all waiting threads.
+     *
+     * @return Boolean true if this call completed the latch, boolean false if it was already
+     * completed or canceled.
+     */
+    public boolean complete() {
+        return release(COMPLETED);
+    }
+
+    /**
+     * Marks the request as canceled and releases all waiting threads.
+     *
+     * @return Boolean true if this call canceled the latch, boolean false if it was already
+     * completed or canceled.
+     */
+    public boolean cancel() {
+        return release(CANCELED);
+    }
+
+    public boolean isDone() {
+        return state.get() != PENDING;
+    }
+
+    public boolean isCanceled() {
+        return state.get() == CANCELED;
+    }
+
+    /**
+     * Waits for the request to complete, at most the given number of seconds.
+     *
+     * @param maxSeconds
+     *         The maximum number of seconds to wait.
+     *
+     * @return Boolean true if the request has completed, boolean false if the wait timed out.
+     *
+     * @throws PodioError
+     *         If the request was canceled, or if the waiting thread was interrupted. The interrupted
+     *         state of the thread is retained.
+     */
+    public boolean await(long maxSeconds) throws PodioError {
+        boolean isReleased;
+
+        try {
+            isReleased = latch.await(Math.max(maxSeconds, 0), TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PodioError(e);
+        }
+
+        if (isCanceled()) {
+            throw new PodioError(new CancellationException("The request was canceled"));
+        }
+
+        return isReleased;
+    }
+
+    private boolean release(int newState) {
+        if (state.compareAndSet(PENDING, newState)) {
+            latch.countDown();
+            return true;
+        }
+
+        return false;
+    }
+
+}
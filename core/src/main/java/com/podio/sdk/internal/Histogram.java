@@ -0,0 +1,108 @@
+package com.podio.sdk.internal;
+
+/**
+ * A compact histogram of non-negative values, e.g. latencies in nanoseconds. The values are
+ * counted in exponentially growing buckets, each power of two split into eight sub-buckets, so
+ * any percentile is reported with an error of at most 12.5 percent, using a fixed amount of
+ * memory regardless of the number of recorded values.
+ */
+public final class Histogram {
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+    private final long[] counts;
+    private long count;
+    private long max;
+
+    public Histogram() {
+        this.counts = new long[(64 - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT];
+        this.count = 0L;
+        this.max = 0L;
+    }
+
+    /**
+     * Records a value. Negative values are recorded as zero.
+     *
+     * @param value
+     *         The value to record.
+     */
+    public synchronized void record(long value) {
+        long v = Math.max(value, 0L);
+        counts[indexOf(v)]++;
+        count++;
+        max = Math.max(max, v);
+    }
+
+    public synchronized long getCount() {
+        return count;
+    }
+
+    public synchronized long getMax() {
+        return max;
+    }
+
+    /**
+     * Returns the value below which the given percentage of the recorded values fall.
+     *
+     * @param percentile
+     *         The percentile, between 0 and 100.
+     *
+     * @return The upper bound of the bucket holding the percentile, or zero if nothing has been
+     * recorded.
+     */
+    public synchronized long getPercentile(double percentile) {
+        if (count == 0L) {
+            return 0L;
+        }
+
+        double clamped = Math.min(Math.max(percentile, 0.0), 100.0);
+        long rank = Math.max((long) Math.ceil(clamped / 100.0 * count), 1L);
+        long seen = 0L;
+
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+
+            if (seen >= rank) {
+                return Math.min(upperBoundOf(i), max);
+            }
+        }
+
+        return max;
+    }
+
+    public synchronized void reset() {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = 0L;
+        }
+
+        count = 0L;
+        max = 0L;
+    }
+
+    static int indexOf(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift) - SUB_BUCKET_COUNT;
+
+        return (shift + 1) * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    static long upperBoundOf(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+
+        int shift = index / SUB_BUCKET_COUNT - 1;
+        long mantissa = index % SUB_BUCKET_COUNT + SUB_BUCKET_COUNT;
+        long upper = ((mantissa + 1L) << shift) - 1L;
+
+        // The last bucket reaches beyond the largest long.
+        return upper < 0L ? Long.MAX_VALUE : upper;
+    }
+
+}
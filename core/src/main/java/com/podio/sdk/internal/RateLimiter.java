@@ -0,0 +1,187 @@
+package com.podio.sdk.internal;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A token bucket keeping the requests of one session within the rate limit of the API. Each request
+ * takes a token, and the tokens are refilled at the rate the API allows. The bucket adapts to the
+ * rate limit headers of the API responses: the limit sets the size and the refill rate of the
+ * bucket, while the number of remaining requests sets the number of available tokens. This way a
+ * busy session runs at the allowed rate rather than bursting into the limit and then being locked
+ * out.
+ * <p>
+ * Until the API has announced a limit, no requests are held back.
+ */
+public final class RateLimiter {
+
+    /**
+     * The period, in seconds, the rate limit of the API applies to.
+     */
+    public static final long DEFAULT_WINDOW_SECONDS = 3600L;
+
+    // The pause after a rate limit error, if neither the error nor any previous responses tell
+    // for how long to wait.
+    private static final long DEFAULT_PAUSE_NANOS = TimeUnit.SECONDS.toNanos(30L);
+
+    private final long windowNanos;
+
+    private double tokens;
+    private double capacity;
+    private double tokensPerNano;
+    private long lastRefill;
+    private long pausedUntil;
+    private boolean isPaused;
+
+    public RateLimiter() {
+        this(DEFAULT_WINDOW_SECONDS);
+    }
+
+    /**
+     * Creates a rate limiter for an API limiting the number of requests per the given period.
+     *
+     * @param windowSeconds
+     *         The period the rate limit applies to.
+     */
+    public RateLimiter(long windowSeconds) {
+        this.windowNanos = TimeUnit.SECONDS.toNanos(windowSeconds);
+        reset();
+    }
+
+    /**
+     * Forgets any announced limit, e.g. when a new user is authenticated.
+     */
+    public synchronized void reset() {
+        tokens = 0.0;
+        capacity = 0.0;
+        tokensPerNano = 0.0;
+        lastRefill = 0L;
+        pausedUntil = 0L;
+        isPaused = false;
+    }
+
+    /**
+     * Takes a token, if one is available.
+     *
+     * @return Boolean true if a request may be sent right away, boolean false if it has to wait.
+     */
+    public boolean tryAcquire() {
+        return tryAcquire(System.nanoTime());
+    }
+
+    /**
+     * Returns the time until a token is available.
+     *
+     * @return The delay in nanoseconds, zero if a request may be sent right away.
+     */
+    public long getDelayNanos() {
+        return getDelayNanos(System.nanoTime());
+    }
+
+    /**
+     * Adapts to the rate limit headers of an API response.
+     *
+     * @param limit
+     *         The number of requests allowed per period.
+     * @param remaining
+     *         The number of requests remaining in the current period.
+     */
+    public void onRateLimit(long limit, long remaining) {
+        onRateLimit(limit, remaining, System.nanoTime());
+    }
+
+    /**
+     * Pauses all requests after the API has rejected a request for exceeding the rate limit.
+     *
+     * @param retryAfterSeconds
+     *         The number of seconds the API asks us to wait, or a negative number if it didn't say.
+     */
+    public void onRateLimitExceeded(long retryAfterSeconds) {
+        onRateLimitExceeded(retryAfterSeconds, System.nanoTime());
+    }
+
+    synchronized boolean tryAcquire(long now) {
+        if (isPaused(now)) {
+            return false;
+        }
+
+        if (!isLimited()) {
+            return true;
+        }
+
+        refill(now);
+
+        if (tokens >= 1.0) {
+            tokens -= 1.0;
+            return true;
+        }
+
+        return false;
+    }
+
+    synchronized long getDelayNanos(long now) {
+        if (isPaused(now)) {
+            return pausedUntil - now;
+        }
+
+        if (!isLimited()) {
+            return 0L;
+        }
+
+        refill(now);
+
+        return tokens >= 1.0 ?
+                0L :
+                (long) Math.ceil((1.0 - tokens) / tokensPerNano);
+    }
+
+    synchronized void onRateLimit(long limit, long remaining, long now) {
+        if (limit <= 0L || remaining < 0L) {
+            return;
+        }
+
+        refill(now);
+
+        capacity = limit;
+        tokensPerNano = (double) limit / windowNanos;
+        // The API knows best how many requests are left, regardless of what we have estimated.
+        tokens = Math.min(remaining, capacity);
+        lastRefill = now;
+    }
+
+    synchronized void onRateLimitExceeded(long retryAfterSeconds, long now) {
+        long pauseNanos;
+
+        if (retryAfterSeconds >= 0L) {
+            pauseNanos = TimeUnit.SECONDS.toNanos(retryAfterSeconds);
+        } else if (isLimited()) {
+            // Resume at the allowed rate.
+            pauseNanos = (long) Math.ceil(1.0 / tokensPerNano);
+        } else {
+            pauseNanos = DEFAULT_PAUSE_NANOS;
+        }
+
+        tokens = 0.0;
+        lastRefill = now;
+        pausedUntil = now + pauseNanos;
+        isPaused = true;
+    }
+
+    private boolean isPaused(long now) {
+        // Compare the difference, as the nano time may overflow.
+        return isPaused && now - pausedUntil < 0L;
+    }
+
+    private boolean isLimited() {
+        return tokensPerNano > 0.0;
+    }
+
+    private void refill(long now) {
+        long elapsed = now - lastRefill;
+
+        if (elapsed > 0L) {
+            tokens = Math.min(capacity, tokens + elapsed * tokensPerNano);
+            lastRefill = now;
+        }
+    }
+
+}
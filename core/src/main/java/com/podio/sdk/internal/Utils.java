@@ -1,8 +1,6 @@
 
 package com.podio.sdk.internal;
 
-import android.annotation.SuppressLint;
-import android.net.Uri;
 
 import java.io.Closeable;
 import java.text.ParseException;
@@ -103,10 +101,6 @@ public class Utils {
         return collection == null || collection.size() == 0;
     }
 
-    public static boolean isEmpty(Uri uri) {
-        return uri == null || uri.equals(Uri.EMPTY);
-    }
-
     public static boolean isEmpty(byte[] array) {
         return array == null || array.length == 0;
     }
@@ -139,10 +133,6 @@ public class Utils {
         return !isEmpty(collection);
     }
 
-    public static boolean notEmpty(Uri uri) {
-        return !isEmpty(uri);
-    }
-
     public static boolean notEmpty(byte[] array) {
         return !isEmpty(array);
     }
@@ -286,7 +276,6 @@ public class Utils {
         }
     }
 
-    @SuppressLint("SimpleDateFormat")
     private static SimpleDateFormat getUtcSimpleDateFormat(String pattern) {
         TimeZone timeZone = TimeZone.getTimeZone("UTC");
         SimpleDateFormat simpleDateFormat = new SimpleDateFormat(pattern);
@@ -294,7 +283,6 @@ public class Utils {
         return simpleDateFormat;
     }
 
-    @SuppressLint("SimpleDateFormat")
     private static SimpleDateFormat getDefaultSimpleDateFormat(String pattern) {
         TimeZone timeZone = TimeZone.getDefault();
         SimpleDateFormat simpleDateFormat = new SimpleDateFormat(pattern);
@@ -1,13 +1,7 @@
 
 package com.podio.sdk.json;
 
-import com.google.gson.JsonDeserializationContext;
-import com.google.gson.JsonDeserializer;
 import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParseException;
-import com.google.gson.JsonSerializationContext;
-import com.google.gson.JsonSerializer;
 import com.podio.sdk.domain.ReferenceType;
 import com.podio.sdk.domain.stream.EventActivity;
 import com.podio.sdk.domain.stream.FileEventActivity;
@@ -22,20 +16,23 @@ import com.podio.sdk.domain.stream.UnknownEventActivity;
 import com.podio.sdk.domain.stream.VoteEventActivity;
 import com.podio.sdk.internal.DefaultHashMap;
 
-import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.Map;
 
 /**
  * EventActivity contains a dynamic "data" part that can have different content depending on the
- * type of activity so we need to have this deserializer/serializer to decide what kind of activity
+ * type of activity so we need to have this type adapter to decide what kind of activity
  * we are handling.
  *
  */
-class EventActivityDeserializerSerializer implements JsonDeserializer<EventActivity>, JsonSerializer<EventActivity> {
+class EventActivityTypeAdapterFactory extends PolymorphicTypeAdapterFactory<EventActivity> {
 
     private Map<ReferenceType, Class<? extends EventActivity>> mEventActivityClassesMap;
 
-    public EventActivityDeserializerSerializer() {
+    public EventActivityTypeAdapterFactory() {
+        super(EventActivity.class, "type");
+
         mEventActivityClassesMap = new DefaultHashMap<ReferenceType, Class<? extends EventActivity>>(UnknownEventActivity.class);
         mEventActivityClassesMap.put(ReferenceType.grant, GrantEventActivity.class);
         mEventActivityClassesMap.put(ReferenceType.item, ItemEventActivity.class);
@@ -49,19 +46,23 @@ class EventActivityDeserializerSerializer implements JsonDeserializer<EventActiv
     }
 
     @Override
-    public EventActivity deserialize(JsonElement element, Type type, JsonDeserializationContext gsonContext) throws JsonParseException {
-        if (element == null || element.isJsonNull()) {
-            return null;
-        }
+    protected Class<? extends EventActivity> getClassOf(JsonElement discriminator) {
+        ReferenceType referenceType = ReferenceType.getType(getAsString(discriminator));
 
-        JsonObject jsonObject = element.getAsJsonObject();
-        ReferenceType referenceType = ReferenceType.getType(jsonObject.get("type").getAsString());
+        return mEventActivityClassesMap.get(referenceType);
+    }
 
-        return gsonContext.deserialize(jsonObject, mEventActivityClassesMap.get(referenceType));
+    @Override
+    protected Class<? extends EventActivity> getClassOf(EventActivity value) {
+        return mEventActivityClassesMap.get(value.getType());
     }
 
     @Override
-    public JsonElement serialize(EventActivity eventActivity, Type typeOfSrc, JsonSerializationContext gsonContext) {
-        return gsonContext.serialize(eventActivity, mEventActivityClassesMap.get(eventActivity.getType()));
+    protected Collection<Class<? extends EventActivity>> getClasses() {
+        HashSet<Class<? extends EventActivity>> classes = new HashSet<Class<? extends EventActivity>>(mEventActivityClassesMap.values());
+        // Include the default class for unknown discriminators.
+        classes.add(mEventActivityClassesMap.get(null));
+
+        return classes;
     }
 }
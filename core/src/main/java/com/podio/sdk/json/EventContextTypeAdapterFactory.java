@@ -0,0 +1,54 @@
+
+package com.podio.sdk.json;
+
+import com.google.gson.JsonElement;
+import com.podio.sdk.domain.ReferenceType;
+import com.podio.sdk.domain.stream.EventContext;
+import com.podio.sdk.domain.stream.FileEventContext;
+import com.podio.sdk.domain.stream.StatusEventContext;
+import com.podio.sdk.domain.stream.UnknownEventContext;
+import com.podio.sdk.internal.DefaultHashMap;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+
+/**
+ * EventContext contains a dynamic "data" part that can have different content depending on the type
+ * of context so we need to have this type adapter to decide what kind of context we are
+ * handling.
+ *
+ */
+class EventContextTypeAdapterFactory extends PolymorphicTypeAdapterFactory<EventContext> {
+
+    private Map<ReferenceType, Class<? extends EventContext>> mEventContextClassesMap;
+
+    public EventContextTypeAdapterFactory() {
+        super(EventContext.class, "type");
+
+        mEventContextClassesMap = new DefaultHashMap<ReferenceType, Class<? extends EventContext>>(UnknownEventContext.class);
+        mEventContextClassesMap.put(ReferenceType.status, StatusEventContext.class);
+        mEventContextClassesMap.put(ReferenceType.file, FileEventContext.class);
+    }
+
+    @Override
+    protected Class<? extends EventContext> getClassOf(JsonElement discriminator) {
+        ReferenceType referenceType = ReferenceType.getType(getAsString(discriminator));
+
+        return mEventContextClassesMap.get(referenceType);
+    }
+
+    @Override
+    protected Class<? extends EventContext> getClassOf(EventContext value) {
+        return mEventContextClassesMap.get(value.getType());
+    }
+
+    @Override
+    protected Collection<Class<? extends EventContext>> getClasses() {
+        HashSet<Class<? extends EventContext>> classes = new HashSet<Class<? extends EventContext>>(mEventContextClassesMap.values());
+        // Include the default class for unknown discriminators.
+        classes.add(mEventContextClassesMap.get(null));
+
+        return classes;
+    }
+}
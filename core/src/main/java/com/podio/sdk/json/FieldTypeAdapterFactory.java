@@ -3,13 +3,10 @@ package com.podio.sdk.json;
 
 import com.google.gson.Gson;
 import com.google.gson.JsonArray;
-import com.google.gson.JsonDeserializationContext;
-import com.google.gson.JsonDeserializer;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
-import com.google.gson.JsonParseException;
-import com.google.gson.JsonSerializationContext;
-import com.google.gson.JsonSerializer;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
 import com.podio.sdk.domain.field.CalculationField;
 import com.podio.sdk.domain.field.DateField;
 import com.podio.sdk.domain.field.Field;
@@ -17,21 +14,26 @@ import com.podio.sdk.domain.field.NumberField;
 import com.podio.sdk.domain.field.TextField;
 import com.podio.sdk.internal.DefaultHashMap;
 
-import java.lang.reflect.Type;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
-// TODO: Investigate the possibilities offered by Gson TypeAdapter instead.
-// According to Google documentation it's the preferred way of
-// (de)serializing JSON as it's more efficient and has a smaller memory
-// footprint.
-class FieldDeserializerSerializer implements JsonDeserializer<Field>, JsonSerializer<Field> {
+/**
+ * Fields are bound to a concrete field class based on their "type" property. Fields of an unknown
+ * type are bound to the undefined type. Calculation fields are special as the class of their values
+ * depend on the return type in their configuration, hence they are read in full before they're
+ * bound.
+ */
+class FieldTypeAdapterFactory extends PolymorphicTypeAdapterFactory<Field> {
 
     private Map<CalculationField.ReturnType, Class<? extends Field.Value>> CalculationValueClassesMap;
     private Gson gson;
 
-    public FieldDeserializerSerializer() {
+    public FieldTypeAdapterFactory() {
+        super(Field.class, "type");
+
         CalculationValueClassesMap = new DefaultHashMap<CalculationField.ReturnType, Class<? extends Field.Value>>(TextField.Value.class);
         CalculationValueClassesMap.put(CalculationField.ReturnType.text, TextField.Value.class);
         CalculationValueClassesMap.put(CalculationField.ReturnType.date, DateField.Value.class);
@@ -41,60 +43,93 @@ class FieldDeserializerSerializer implements JsonDeserializer<Field>, JsonSerial
     }
 
     @Override
-    public Field deserialize(JsonElement element, Type type, JsonDeserializationContext gsonContext) throws JsonParseException {
-        if (element == null || element.isJsonNull()) {
-            return null;
+    protected Class<? extends Field> getClassOf(JsonElement discriminator) {
+        return getType(discriminator).getFieldClass();
+    }
+
+    @Override
+    protected Class<? extends Field> getClassOf(Field field) {
+        return field.getType().getFieldClass();
+    }
+
+    @Override
+    protected Collection<Class<? extends Field>> getClasses() {
+        ArrayList<Class<? extends Field>> classes = new ArrayList<Class<? extends Field>>();
+
+        for (Field.Type type : Field.Type.values()) {
+            classes.add(type.getFieldClass());
         }
 
-        JsonObject jsonObject = element.getAsJsonObject();
+        return classes;
+    }
+
+    @Override
+    protected Field read(Adapter adapter, JsonReader in, JsonObject prefix, Class<? extends Field> classOfValue) throws IOException {
+        Field.Type typeEnum = getType(prefix.get("type"));
+
+        if (typeEnum == Field.Type.undefined) {
+            // Overwrite the type in the json so we get undefined instead of
+            // null.
+            prefix.addProperty("type", Field.Type.undefined.name());
+        }
+
+        if (typeEnum == Field.Type.calculation) {
+            adapter.readRemainder(in, prefix);
+            return readCalculationField(adapter, prefix, classOfValue);
+        }
 
         // Ensure that we always have a "values" array, even if it's empty,
         // as this is needed when creating new items.
-        if (!jsonObject.has("values")) {
-            jsonObject.add("values", new JsonArray());
+        JsonObject defaults = new JsonObject();
+        defaults.add("values", new JsonArray());
+
+        return adapter.bind(in, prefix, classOfValue, defaults);
+    }
+
+    @Override
+    protected void write(Adapter adapter, JsonWriter out, Field field) throws IOException {
+        if (field.getType() == Field.Type.calculation) {
+            adapter.write(out, serializeCalculationField(adapter, field));
+        } else {
+            super.write(adapter, out, field);
         }
+    }
 
-        Field.Type typeEnum = Field.Type.undefined;
-        JsonElement fieldType = jsonObject.get("type");
+    private Field.Type getType(JsonElement fieldType) {
+        String type = getAsString(fieldType);
 
-        if (fieldType != null && !fieldType.isJsonNull()) {
+        if (type != null) {
             try {
-                typeEnum = Field.Type.valueOf(fieldType.getAsString());
+                return Field.Type.valueOf(type);
             } catch (IllegalArgumentException e) {
             }
         }
 
-        if (typeEnum == Field.Type.undefined) {
-            // Overwrite the type in the json so we get undefined instead of
-            // null.
-            jsonObject.addProperty("type", Field.Type.undefined.name());
-        }
+        return Field.Type.undefined;
+    }
 
-        if (typeEnum == Field.Type.calculation) {
-            JsonArray fieldValues = jsonObject.remove("values").getAsJsonArray();
-            jsonObject.add("values", new JsonArray());
-            Field field = gsonContext.deserialize(jsonObject, typeEnum.getFieldClass());
+    private Field readCalculationField(Adapter adapter, JsonObject jsonObject, Class<? extends Field> classOfValue) {
+        JsonElement values = jsonObject.remove("values");
+        jsonObject.add("values", new JsonArray());
+        Field field = adapter.fromJsonTree(jsonObject, classOfValue);
 
-            if (fieldValues.size() > 0) {
-                field.setValues(deserializeCalculationFieldValues(gsonContext, fieldValues, jsonObject));
-            }
-            return field;
+        if (values != null && values.isJsonArray() && values.getAsJsonArray().size() > 0) {
+            field.setValues(deserializeCalculationFieldValues(values.getAsJsonArray(), jsonObject));
         }
 
-        return gsonContext.deserialize(jsonObject, typeEnum.getFieldClass());
+        return field;
     }
 
     /**
      * This method will create Value objects of subclass type NumberField.Value, DateField.Value or
      * TextField.Value based on the return_type property of the given JSON object
      *
-     * @param gsonContext
      * @param jsonFieldValues
      * @param jsonField
      *
      * @return
      */
-    private ArrayList<Field.Value> deserializeCalculationFieldValues(JsonDeserializationContext gsonContext, JsonArray jsonFieldValues, JsonObject jsonField) {
+    private ArrayList<Field.Value> deserializeCalculationFieldValues(JsonArray jsonFieldValues, JsonObject jsonField) {
         JsonObject jsonConfig = jsonField.get("config").getAsJsonObject();
         CalculationField.ReturnType returnType = CalculationField.ReturnType.undefined;
 
@@ -114,24 +149,22 @@ class FieldDeserializerSerializer implements JsonDeserializer<Field>, JsonSerial
         return deserializedFieldValues;
     }
 
-    @Override
-    public JsonElement serialize(Field field, Type type, JsonSerializationContext gsonContext) {
-
-        if (field.getType() == Field.Type.calculation) {
-            return serializeCalculationField(field, gsonContext);
-        }
-
-        return gsonContext.serialize(field, field.getType().getFieldClass());
-    }
-
-    private JsonElement serializeCalculationField(Field field, JsonSerializationContext gsonContext) {
+    private JsonElement serializeCalculationField(Adapter adapter, Field field) {
 
         List<Field.Value> calculationValues = new ArrayList<>();
         CalculationField calculationField = (CalculationField) field;
         calculationValues.addAll(calculationField.getValues());
         calculationField.setValues(new ArrayList<Field.Value>());
 
-        JsonObject jsonField = gsonContext.serialize(field, field.getType().getFieldClass()).getAsJsonObject();
+        JsonObject jsonField;
+
+        try {
+            jsonField = adapter.toJsonTree(calculationField, CalculationField.class).getAsJsonObject();
+        } finally {
+            // Don't leave the field without its values just because it
+            // has been serialized.
+            calculationField.setValues(calculationValues);
+        }
 
         if (!calculationValues.isEmpty()) {
             JsonArray jsonCalculationArray = new JsonArray();
@@ -0,0 +1,181 @@
+
+package com.podio.sdk.json;
+
+import com.google.gson.FieldNamingPolicy;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import com.podio.sdk.domain.Application;
+import com.podio.sdk.domain.CalendarEvent;
+import com.podio.sdk.domain.Comment;
+import com.podio.sdk.domain.Conversation;
+import com.podio.sdk.domain.DataReference;
+import com.podio.sdk.domain.Item;
+import com.podio.sdk.domain.NotificationGroup;
+import com.podio.sdk.domain.Organization;
+import com.podio.sdk.domain.Profile;
+import com.podio.sdk.domain.Space;
+import com.podio.sdk.domain.Task;
+import com.podio.sdk.domain.TaskAction;
+import com.podio.sdk.domain.User;
+import com.podio.sdk.domain.View;
+import com.podio.sdk.domain.field.Field;
+import com.podio.sdk.domain.notification.Notification;
+import com.podio.sdk.domain.notification.NotificationContext;
+import com.podio.sdk.domain.reference.ReferenceGroup;
+import com.podio.sdk.domain.stream.EventActivity;
+import com.podio.sdk.domain.stream.EventContext;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UnsupportedEncodingException;
+
+public class JsonParser {
+
+    /**
+     * The naming policy of the shared Gson instance. The polymorphic type adapters need it when
+     * binding concrete classes field by field.
+     */
+    static final FieldNamingPolicy FIELD_NAMING_POLICY = FieldNamingPolicy.LOWER_CASE_WITH_UNDERSCORES;
+
+    private static final Class<?>[] POLYMORPHIC_CLASSES = {
+            Field.class,
+            Notification.class,
+            NotificationContext.class,
+            EventContext.class,
+            EventActivity.class,
+            TaskAction.class,
+            ReferenceGroup.class
+    };
+
+    private static final Gson GSON = new GsonBuilder()
+            .setFieldNamingPolicy(FIELD_NAMING_POLICY)
+            .setDateFormat("yyyy-MM-dd HH:mm:ss")
+            .registerTypeAdapterFactory(new FieldTypeAdapterFactory())
+            .registerTypeAdapterFactory(new NotificationTypeAdapterFactory())
+            .registerTypeAdapterFactory(new NotificationContextTypeAdapterFactory())
+            .registerTypeAdapterFactory(new EventContextTypeAdapterFactory())
+            .registerTypeAdapterFactory(new EventActivityTypeAdapterFactory())
+            .registerTypeAdapterFactory(new TaskActionTypeAdapterFactory())
+            .registerTypeAdapterFactory(new ReferenceGroupTypeAdapterFactory())
+            .registerTypeAdapter(DataReference.class, new DataReferenceDeserializer())
+            .disableHtmlEscaping()
+            .serializeNulls()
+            .create();
+
+    /**
+     * The domain models most commonly requested from the API. Their adapters, and the adapters of
+     * everything they reference, are built when the parser is prepared.
+     */
+    private static final Class<?>[] COMMON_CLASSES = {
+            Application[].class,
+            CalendarEvent[].class,
+            Comment.class,
+            Conversation[].class,
+            Conversation.Event[].class,
+            EventContext[].class,
+            Item.class,
+            Item.CreateResult.class,
+            Item.FilterResult.class,
+            NotificationGroup[].class,
+            Organization[].class,
+            Profile[].class,
+            ReferenceGroup[].class,
+            Space.class,
+            Task[].class,
+            User.class,
+            View[].class
+    };
+
+    /**
+     * Builds the Gson adapters for the most common domain models up front. Gson otherwise builds
+     * the adapter of a class, by reflection, the first time an object of that class is parsed,
+     * which adds noticeably to the latency of the first response of each kind. This method may be
+     * called from any thread and it's safe to call it more than once.
+     * <p/>
+     * This only removes the cost of the first use. Every object is still bound by reflection, field
+     * by field, as the domain models keep their state in private fields that no adapter outside
+     * their own package can assign otherwise. Parsing a response takes as long as it did before.
+     */
+    public static void prepare() {
+        prepare(COMMON_CLASSES);
+    }
+
+    /**
+     * Builds the Gson adapters for the given classes, and everything they reference, up front.
+     *
+     * @param classes
+     *         The classes to build adapters for.
+     */
+    public static void prepare(Class<?>... classes) {
+        for (Class<?> classOfValue : classes) {
+            GSON.getAdapter(classOfValue);
+        }
+
+        // The polymorphic adapters bind their concrete classes lazily.
+        for (Class<?> classOfValue : POLYMORPHIC_CLASSES) {
+            TypeAdapter<?> adapter = GSON.getAdapter(classOfValue);
+
+            if (adapter instanceof PolymorphicTypeAdapterFactory.Adapter) {
+                ((PolymorphicTypeAdapterFactory<?>.Adapter) adapter).prepare();
+            }
+        }
+    }
+
+    public static <T> T fromJson(String json, Class<T> classOfResult) {
+        try {
+            return GSON.fromJson(json, classOfResult);
+        } catch (JsonSyntaxException e) {
+            throw new JsonSyntaxException("Couldn't parse API error json: " + json, e);
+        } catch (IllegalStateException e) {
+            throw new IllegalStateException("Couldn't parse API error json: " + json, e);
+        }
+    }
+
+    /**
+     * Parses the given JSON bytes straight into an object of the given class, without creating an
+     * intermediate string representation of the JSON first.
+     *
+     * @param data
+     *         The raw JSON bytes.
+     * @param charsetName
+     *         The name of the char-set the bytes are encoded in.
+     * @param classOfResult
+     *         The class to parse the JSON into.
+     *
+     * @return The parsed object.
+     *
+     * @throws UnsupportedEncodingException
+     *         If the given char-set isn't supported.
+     */
+    public static <T> T fromJson(byte[] data, String charsetName, Class<T> classOfResult) throws UnsupportedEncodingException {
+        return fromJson(new InputStreamReader(new ByteArrayInputStream(data), charsetName), classOfResult);
+    }
+
+    /**
+     * Parses the JSON provided by the given reader into an object of the given class. The JSON is
+     * read as a stream, hence only the resulting object graph needs to fit in memory.
+     *
+     * @param reader
+     *         The source of the JSON.
+     * @param classOfResult
+     *         The class to parse the JSON into.
+     *
+     * @return The parsed object.
+     */
+    public static <T> T fromJson(Reader reader, Class<T> classOfResult) {
+        try {
+            return GSON.fromJson(reader, classOfResult);
+        } catch (JsonSyntaxException e) {
+            throw new JsonSyntaxException("Couldn't parse json stream into " + classOfResult.getName(), e);
+        } catch (IllegalStateException e) {
+            throw new IllegalStateException("Couldn't parse json stream into " + classOfResult.getName(), e);
+        }
+    }
+
+    public static <T> String toJson(T item) {
+        return GSON.toJson(item);
+    }
+}
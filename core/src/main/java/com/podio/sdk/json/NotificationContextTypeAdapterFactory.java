@@ -0,0 +1,59 @@
+
+package com.podio.sdk.json;
+
+import com.google.gson.JsonElement;
+import com.podio.sdk.domain.ReferenceType;
+import com.podio.sdk.domain.notification.AppNotificationContext;
+import com.podio.sdk.domain.notification.BatchNotificationContext;
+import com.podio.sdk.domain.notification.ItemNotificationContext;
+import com.podio.sdk.domain.notification.NotificationContext;
+import com.podio.sdk.domain.notification.UnknownNotificationContext;
+import com.podio.sdk.internal.DefaultHashMap;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+
+/**
+ * Notification context contains a dynamic "data" part that can have different content depending on
+ * the type of context so we need to have this type adapter to decide what kind of
+ * context we are handling.
+ *
+ */
+class NotificationContextTypeAdapterFactory extends PolymorphicTypeAdapterFactory<NotificationContext> {
+
+    private Map<ReferenceType, Class<? extends NotificationContext>> mNotificationContextClassesMap;
+
+    public NotificationContextTypeAdapterFactory() {
+        super(NotificationContext.class, "ref");
+
+        mNotificationContextClassesMap = new DefaultHashMap<ReferenceType, Class<? extends NotificationContext>>(UnknownNotificationContext.class);
+        mNotificationContextClassesMap.put(ReferenceType.app, AppNotificationContext.class);
+        mNotificationContextClassesMap.put(ReferenceType.item, ItemNotificationContext.class);
+        mNotificationContextClassesMap.put(ReferenceType.batch, BatchNotificationContext.class);
+    }
+
+    @Override
+    protected Class<? extends NotificationContext> getClassOf(JsonElement discriminator) {
+        // The type of a notification context is found in its nested "ref"
+        // object.
+        JsonElement type = discriminator != null && discriminator.isJsonObject() ? discriminator.getAsJsonObject().get("type") : null;
+        ReferenceType referenceType = ReferenceType.getType(getAsString(type));
+
+        return mNotificationContextClassesMap.get(referenceType);
+    }
+
+    @Override
+    protected Class<? extends NotificationContext> getClassOf(NotificationContext value) {
+        return mNotificationContextClassesMap.get(value.getReference().getType());
+    }
+
+    @Override
+    protected Collection<Class<? extends NotificationContext>> getClasses() {
+        HashSet<Class<? extends NotificationContext>> classes = new HashSet<Class<? extends NotificationContext>>(mNotificationContextClassesMap.values());
+        // Include the default class for unknown discriminators.
+        classes.add(mNotificationContextClassesMap.get(null));
+
+        return classes;
+    }
+}
@@ -1,13 +1,7 @@
 package com.podio.sdk.json;
 
 
-import com.google.gson.JsonDeserializationContext;
-import com.google.gson.JsonDeserializer;
 import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParseException;
-import com.google.gson.JsonSerializationContext;
-import com.google.gson.JsonSerializer;
 import com.podio.sdk.domain.notification.CommentNotification;
 import com.podio.sdk.domain.notification.GrantNotification;
 import com.podio.sdk.domain.notification.Notification;
@@ -17,20 +11,23 @@ import com.podio.sdk.domain.notification.UnknownNotification;
 import com.podio.sdk.domain.notification.VoteNotification;
 import com.podio.sdk.internal.DefaultHashMap;
 
-import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.Map;
 
 /**
  * Notifications contains a dynamic "data" part that can have different content depending on the
- * type of notifications so we need to have this deserializer/serializer to decide what kind of
+ * type of notifications so we need to have this type adapter to decide what kind of
  * notification we are handling.
  *
  */
-class NotificationDeserializerSerializer implements JsonDeserializer<Notification>, JsonSerializer<Notification> {
+class NotificationTypeAdapterFactory extends PolymorphicTypeAdapterFactory<Notification> {
 
     private Map<Notification.NotificationType, Class<? extends Notification>> mNotificationClassesMap;
 
-    public NotificationDeserializerSerializer() {
+    public NotificationTypeAdapterFactory() {
+        super(Notification.class, "type");
+
         mNotificationClassesMap = new DefaultHashMap<Notification.NotificationType, Class<? extends Notification>>(UnknownNotification.class);
         mNotificationClassesMap.put(Notification.NotificationType.comment, CommentNotification.class);
         mNotificationClassesMap.put(Notification.NotificationType.rating, RatingNotification.class);
@@ -40,20 +37,23 @@ class NotificationDeserializerSerializer implements JsonDeserializer<Notificatio
     }
 
     @Override
-    public Notification deserialize(JsonElement element, Type type, JsonDeserializationContext gsonContext) throws JsonParseException {
-        if (element == null || element.isJsonNull()) {
-            return null;
-        }
-
-        JsonObject jsonObject = element.getAsJsonObject();
+    protected Class<? extends Notification> getClassOf(JsonElement discriminator) {
+        Notification.NotificationType notificationType = Notification.NotificationType.getType(getAsString(discriminator));
 
-        Notification.NotificationType notificationType = Notification.NotificationType.getType(jsonObject.get("type").getAsString());
+        return mNotificationClassesMap.get(notificationType);
+    }
 
-        return gsonContext.deserialize(jsonObject, mNotificationClassesMap.get(notificationType));
+    @Override
+    protected Class<? extends Notification> getClassOf(Notification value) {
+        return mNotificationClassesMap.get(value.getType());
     }
 
     @Override
-    public JsonElement serialize(Notification notification, Type typeOfSrc, JsonSerializationContext gsonContext) {
-        return gsonContext.serialize(notification, mNotificationClassesMap.get(notification.getType()));
+    protected Collection<Class<? extends Notification>> getClasses() {
+        HashSet<Class<? extends Notification>> classes = new HashSet<Class<? extends Notification>>(mNotificationClassesMap.values());
+        // Include the default class for unknown discriminators.
+        classes.add(mNotificationClassesMap.get(null));
+
+        return classes;
     }
 }
@@ -0,0 +1,229 @@
+
+package com.podio.sdk.json;
+
+import com.google.gson.FieldNamingStrategy;
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.TypeAdapter;
+import com.google.gson.annotations.SerializedName;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Binds the properties of a JSON object to the fields of a concrete class. Some of the properties
+ * may already have been read into a {@link JsonObject} (as is the case when a polymorphic adapter
+ * has been looking for its discriminator), while the rest are read straight from the stream. This
+ * way only the properties preceding the discriminator are ever held as a tree.
+ * <p/>
+ * The fields are resolved in the same way as the Gson reflective adapter does it; static,
+ * transient and synthetic fields are ignored and {@link SerializedName} annotations are honored.
+ *
+ * @param <T>
+ *         The type of the bound objects.
+ */
+final class ObjectBinder<T> {
+
+    private static final class BoundField {
+        private final Field field;
+        private final TypeAdapter<?> adapter;
+        private final boolean isPrimitive;
+
+        private BoundField(Field field, TypeAdapter<?> adapter) {
+            this.field = field;
+            this.adapter = adapter;
+            this.isPrimitive = field.getType().isPrimitive();
+        }
+
+        private void read(JsonReader in, Object target) throws IOException, IllegalAccessException {
+            set(target, adapter.read(in));
+        }
+
+        private void read(JsonElement element, Object target) throws IllegalAccessException {
+            set(target, adapter.fromJsonTree(element));
+        }
+
+        private void set(Object target, Object value) throws IllegalAccessException {
+            // Mirror Gson: a JSON null never overwrites the default value of a primitive.
+            if (value != null || !isPrimitive) {
+                field.set(target, value);
+            }
+        }
+    }
+
+    /**
+     * Creates a new binder for the given class.
+     *
+     * @param gson
+     *         The Gson instance providing the adapters for the individual fields.
+     * @param classOfValue
+     *         The concrete class to bind JSON objects to.
+     * @param namingStrategy
+     *         The strategy translating field names to JSON property names.
+     *
+     * @return A binder, or null if the class (or any of its super classes) declares a field of a
+     * generic type that can't be resolved without the full reflective machinery of Gson.
+     */
+    static <T> ObjectBinder<T> create(Gson gson, Class<T> classOfValue, FieldNamingStrategy namingStrategy) {
+        HashMap<String, BoundField> boundFields = new HashMap<String, BoundField>();
+
+        for (Class<?> c = classOfValue; c != null && c != Object.class; c = c.getSuperclass()) {
+            for (Field field : c.getDeclaredFields()) {
+                int modifiers = field.getModifiers();
+
+                if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers) || field.isSynthetic()) {
+                    continue;
+                }
+
+                Type fieldType = field.getGenericType();
+
+                if (hasTypeVariable(fieldType)) {
+                    return null;
+                }
+
+                SerializedName serializedName = field.getAnnotation(SerializedName.class);
+                String name = serializedName != null ? serializedName.value() : namingStrategy.translateName(field);
+
+                if (!boundFields.containsKey(name)) {
+                    field.setAccessible(true);
+                    boundFields.put(name, new BoundField(field, gson.getAdapter(TypeToken.get(fieldType))));
+                }
+            }
+        }
+
+        return new ObjectBinder<T>(gson.getAdapter(classOfValue), boundFields);
+    }
+
+    private static boolean hasTypeVariable(Type type) {
+        if (type instanceof TypeVariable) {
+            return true;
+        }
+
+        if (type instanceof ParameterizedType) {
+            for (Type argument : ((ParameterizedType) type).getActualTypeArguments()) {
+                if (hasTypeVariable(argument)) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+
+        if (type instanceof GenericArrayType) {
+            return hasTypeVariable(((GenericArrayType) type).getGenericComponentType());
+        }
+
+        if (type instanceof WildcardType) {
+            WildcardType wildcardType = (WildcardType) type;
+
+            for (Type bound : wildcardType.getUpperBounds()) {
+                if (hasTypeVariable(bound)) {
+                    return true;
+                }
+            }
+
+            for (Type bound : wildcardType.getLowerBounds()) {
+                if (hasTypeVariable(bound)) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    private final TypeAdapter<T> instanceAdapter;
+    private final Map<String, BoundField> boundFields;
+
+    private ObjectBinder(TypeAdapter<T> instanceAdapter, Map<String, BoundField> boundFields) {
+        this.instanceAdapter = instanceAdapter;
+        this.boundFields = boundFields;
+    }
+
+    /**
+     * Creates a new object and binds the given, already read, properties to it followed by the
+     * remaining properties of the JSON object currently being read by the given reader. The end of
+     * the JSON object is consumed as well.
+     *
+     * @param in
+     *         The reader, positioned inside the JSON object.
+     * @param prefix
+     *         The properties that have already been read from the JSON object.
+     * @param defaults
+     *         Properties to bind if they're not present in the JSON object at all. May be null.
+     *
+     * @return The bound object.
+     *
+     * @throws IOException
+     *         If the reader fails to read the JSON.
+     */
+    T read(JsonReader in, JsonObject prefix, JsonObject defaults) throws IOException {
+        // Let Gson create the instance so we get the same constructor
+        // semantics as for any other class.
+        T value = instanceAdapter.fromJsonTree(new JsonObject());
+        Set<String> names = defaults != null ? new HashSet<String>() : null;
+
+        try {
+            for (Map.Entry<String, JsonElement> property : prefix.entrySet()) {
+                String name = property.getKey();
+                BoundField boundField = boundFields.get(name);
+
+                if (boundField != null) {
+                    boundField.read(property.getValue(), value);
+                }
+
+                if (names != null) {
+                    names.add(name);
+                }
+            }
+
+            while (in.hasNext()) {
+                String name = in.nextName();
+                BoundField boundField = boundFields.get(name);
+
+                if (boundField != null) {
+                    boundField.read(in, value);
+                } else {
+                    in.skipValue();
+                }
+
+                if (names != null) {
+                    names.add(name);
+                }
+            }
+
+            in.endObject();
+
+            if (defaults != null) {
+                for (Map.Entry<String, JsonElement> property : defaults.entrySet()) {
+                    String name = property.getKey();
+                    BoundField boundField = boundFields.get(name);
+
+                    if (boundField != null && !names.contains(name)) {
+                        boundField.read(property.getValue(), value);
+                    }
+                }
+            }
+        } catch (IllegalAccessException e) {
+            // The fields have all been made accessible when the binder
+            // was created.
+            throw new AssertionError(e);
+        }
+
+        return value;
+    }
+
+}
@@ -0,0 +1,278 @@
+
+package com.podio.sdk.json;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A streaming adapter factory for domain models where a discriminator property in the JSON (like
+ * "type" or "name") decides which concrete class to bind the JSON object to.
+ * <p/>
+ * While reading, only the properties up to and including the discriminator are buffered. The rest
+ * of the JSON object is bound straight from the stream. While writing, the object is streamed
+ * through the adapter of its concrete class without any intermediate tree.
+ * <p/>
+ * The factory only applies to the base class itself, the concrete classes are handled by Gson as
+ * usual.
+ *
+ * @param <T>
+ *         The polymorphic base class.
+ */
+abstract class PolymorphicTypeAdapterFactory<T> implements TypeAdapterFactory {
+
+    /**
+     * The Gson adapter for a polymorphic base class. An adapter holds the field bindings of the
+     * concrete classes it has encountered so far.
+     */
+    final class Adapter extends TypeAdapter<T> {
+        private final Gson gson;
+        private final TypeAdapter<JsonElement> elementAdapter;
+        private final ConcurrentHashMap<Class<?>, ObjectBinder<?>> binders;
+
+        private Adapter(Gson gson) {
+            this.gson = gson;
+            this.elementAdapter = gson.getAdapter(JsonElement.class);
+            this.binders = new ConcurrentHashMap<Class<?>, ObjectBinder<?>>();
+        }
+
+        @Override
+        public T read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+
+            JsonObject prefix = new JsonObject();
+            JsonElement discriminator = null;
+
+            in.beginObject();
+
+            while (in.hasNext()) {
+                String name = in.nextName();
+                JsonElement value = elementAdapter.read(in);
+                prefix.add(name, value);
+
+                if (discriminatorName.equals(name)) {
+                    discriminator = value;
+                    break;
+                }
+            }
+
+            return PolymorphicTypeAdapterFactory.this.read(this, in, prefix, getClassOf(discriminator));
+        }
+
+        @Override
+        public void write(JsonWriter out, T value) throws IOException {
+            if (value == null) {
+                out.nullValue();
+                return;
+            }
+
+            PolymorphicTypeAdapterFactory.this.write(this, out, value);
+        }
+
+        /**
+         * Creates the field bindings for all concrete classes known to the factory, so that they
+         * don't have to be created when the first object of each class is read.
+         */
+        void prepare() {
+            for (Class<? extends T> classOfValue : getClasses()) {
+                if (!binders.containsKey(classOfValue)) {
+                    ObjectBinder<?> binder = ObjectBinder.create(gson, classOfValue, JsonParser.FIELD_NAMING_POLICY);
+
+                    if (binder != null) {
+                        binders.put(classOfValue, binder);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Binds the buffered properties and the remainder of the JSON object being read to a new
+         * object of the given class.
+         *
+         * @param in
+         *         The reader, positioned inside the JSON object.
+         * @param prefix
+         *         The properties that have already been read.
+         * @param classOfValue
+         *         The concrete class to bind to.
+         * @param defaults
+         *         Properties to bind if they're not present in the JSON. May be null.
+         *
+         * @return The bound object.
+         *
+         * @throws IOException
+         *         If the reader fails to read the JSON.
+         */
+        @SuppressWarnings("unchecked")
+        <E extends T> E bind(JsonReader in, JsonObject prefix, Class<E> classOfValue, JsonObject defaults) throws IOException {
+            ObjectBinder<E> binder = (ObjectBinder<E>) binders.get(classOfValue);
+
+            if (binder == null) {
+                binder = ObjectBinder.create(gson, classOfValue, JsonParser.FIELD_NAMING_POLICY);
+
+                if (binder == null) {
+                    // The class can't be bound field by field. Read the rest
+                    // of the object and let Gson bind the full tree instead.
+                    readRemainder(in, prefix);
+
+                    if (defaults != null) {
+                        for (Map.Entry<String, JsonElement> property : defaults.entrySet()) {
+                            if (!prefix.has(property.getKey())) {
+                                prefix.add(property.getKey(), property.getValue());
+                            }
+                        }
+                    }
+
+                    return fromJsonTree(prefix, classOfValue);
+                }
+
+                binders.put(classOfValue, binder);
+            }
+
+            return binder.read(in, prefix, defaults);
+        }
+
+        /**
+         * Reads the remaining properties of the JSON object being read into the given tree,
+         * including the end of the object.
+         */
+        void readRemainder(JsonReader in, JsonObject prefix) throws IOException {
+            while (in.hasNext()) {
+                String name = in.nextName();
+                prefix.add(name, elementAdapter.read(in));
+            }
+
+            in.endObject();
+        }
+
+        <E> E fromJsonTree(JsonElement element, Class<E> classOfValue) {
+            return gson.getAdapter(classOfValue).fromJsonTree(element);
+        }
+
+        <E> JsonElement toJsonTree(E value, Class<E> classOfValue) {
+            return gson.getAdapter(classOfValue).toJsonTree(value);
+        }
+
+        @SuppressWarnings("unchecked")
+        void write(JsonWriter out, T value, Class<? extends T> classOfValue) throws IOException {
+            TypeAdapter<T> adapter = (TypeAdapter<T>) gson.getAdapter(classOfValue);
+            adapter.write(out, value);
+        }
+
+        void write(JsonWriter out, JsonElement element) throws IOException {
+            elementAdapter.write(out, element);
+        }
+    }
+
+    private final Class<T> baseClass;
+    private final String discriminatorName;
+
+    PolymorphicTypeAdapterFactory(Class<T> baseClass, String discriminatorName) {
+        this.baseClass = baseClass;
+        this.discriminatorName = discriminatorName;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <E> TypeAdapter<E> create(Gson gson, TypeToken<E> type) {
+        if (type.getRawType() != baseClass) {
+            return null;
+        }
+
+        return (TypeAdapter<E>) new Adapter(gson);
+    }
+
+    /**
+     * Returns the discriminator as a string.
+     *
+     * @param discriminator
+     *         The discriminator value, may be null.
+     *
+     * @return The string value, or null if there is no primitive discriminator value.
+     */
+    static String getAsString(JsonElement discriminator) {
+        return discriminator != null && discriminator.isJsonPrimitive() ? discriminator.getAsString() : null;
+    }
+
+    /**
+     * Returns the concrete class to bind a JSON object with the given discriminator to.
+     *
+     * @param discriminator
+     *         The value of the discriminator property, or null if the JSON object doesn't have one.
+     *
+     * @return The concrete class, never null.
+     */
+    protected abstract Class<? extends T> getClassOf(JsonElement discriminator);
+
+    /**
+     * Returns the concrete class to serialize the given object as.
+     *
+     * @param value
+     *         The object to serialize.
+     *
+     * @return The concrete class, never null.
+     */
+    protected abstract Class<? extends T> getClassOf(T value);
+
+    /**
+     * Returns all concrete classes this factory may bind JSON objects to.
+     *
+     * @return A collection of concrete classes.
+     */
+    protected abstract Collection<Class<? extends T>> getClasses();
+
+    /**
+     * Reads the remainder of a JSON object once the discriminator has been found. Subclasses may
+     * override this method in order to adjust the buffered properties before they're bound.
+     *
+     * @param adapter
+     *         The calling adapter.
+     * @param in
+     *         The reader, positioned right after the discriminator (or at the end of the JSON object
+     *         if there was no discriminator).
+     * @param prefix
+     *         The properties read so far, including the discriminator.
+     * @param classOfValue
+     *         The concrete class to bind to.
+     *
+     * @return The bound object.
+     *
+     * @throws IOException
+     *         If the reader fails to read the JSON.
+     */
+    protected T read(Adapter adapter, JsonReader in, JsonObject prefix, Class<? extends T> classOfValue) throws IOException {
+        return adapter.bind(in, prefix, classOfValue, null);
+    }
+
+    /**
+     * Writes the given, non-null, object as its concrete class.
+     *
+     * @param adapter
+     *         The calling adapter.
+     * @param out
+     *         The writer to write to.
+     * @param value
+     *         The object to write.
+     *
+     * @throws IOException
+     *         If the writer fails to write the JSON.
+     */
+    protected void write(Adapter adapter, JsonWriter out, T value) throws IOException {
+        adapter.write(out, value, getClassOf(value));
+    }
+
+}
@@ -2,13 +2,7 @@
 
 package com.podio.sdk.json;
 
-import com.google.gson.JsonDeserializationContext;
-import com.google.gson.JsonDeserializer;
 import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParseException;
-import com.google.gson.JsonSerializationContext;
-import com.google.gson.JsonSerializer;
 import com.podio.sdk.domain.reference.AppReferenceGroup;
 import com.podio.sdk.domain.reference.AppsReferenceGroup;
 import com.podio.sdk.domain.reference.OrganisationTagReferenceGroup;
@@ -20,20 +14,23 @@ import com.podio.sdk.domain.reference.TasksReferenceGroup;
 import com.podio.sdk.domain.reference.UnknownReferenceGroup;
 import com.podio.sdk.internal.DefaultHashMap;
 
-import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.Map;
 
 /**
  * Reference groups contains a dynamic "data" and "contents" part that can have different content
- * depending on the name of the group so we need to have this deserializer/serializer to decide what
+ * depending on the name of the group so we need to have this type adapter to decide what
  * kind of group we are handling.
  *
  */
-class ReferenceGroupDeserializerSerializer implements JsonDeserializer<ReferenceGroup>, JsonSerializer<ReferenceGroup> {
+class ReferenceGroupTypeAdapterFactory extends PolymorphicTypeAdapterFactory<ReferenceGroup> {
 
     private Map<ReferenceGroup.ReferenceGroupName, Class<? extends ReferenceGroup>> referenceGroupNameClassesMap;
 
-    public ReferenceGroupDeserializerSerializer() {
+    public ReferenceGroupTypeAdapterFactory() {
+        super(ReferenceGroup.class, "name");
+
         referenceGroupNameClassesMap = new DefaultHashMap<ReferenceGroup.ReferenceGroupName, Class<? extends ReferenceGroup>>(UnknownReferenceGroup.class);
         referenceGroupNameClassesMap.put(ReferenceGroup.ReferenceGroupName.space_contacts, SpaceContactsSpaceMembersReferenceGroup.class);
         referenceGroupNameClassesMap.put(ReferenceGroup.ReferenceGroupName.space_members, SpaceContactsSpaceMembersReferenceGroup.class);
@@ -46,19 +43,23 @@ class ReferenceGroupDeserializerSerializer implements JsonDeserializer<Reference
     }
 
     @Override
-    public ReferenceGroup deserialize(JsonElement element, Type type, JsonDeserializationContext gsonContext) throws JsonParseException {
-        if (element == null || element.isJsonNull()) {
-            return null;
-        }
+    protected Class<? extends ReferenceGroup> getClassOf(JsonElement discriminator) {
+        ReferenceGroup.ReferenceGroupName referenceGroupName = ReferenceGroup.ReferenceGroupName.getReferenceGroupName(getAsString(discriminator));
 
-        JsonObject jsonObject = element.getAsJsonObject();
-        ReferenceGroup.ReferenceGroupName referenceGroupName = ReferenceGroup.ReferenceGroupName.getReferenceGroupName(jsonObject.get("name").getAsString());
+        return referenceGroupNameClassesMap.get(referenceGroupName);
+    }
 
-        return gsonContext.deserialize(jsonObject, referenceGroupNameClassesMap.get(referenceGroupName));
+    @Override
+    protected Class<? extends ReferenceGroup> getClassOf(ReferenceGroup value) {
+        return referenceGroupNameClassesMap.get(value.getName());
     }
 
     @Override
-    public JsonElement serialize(ReferenceGroup referenceGroup, Type typeOfSrc, JsonSerializationContext gsonContext) {
-        return gsonContext.serialize(referenceGroup, referenceGroupNameClassesMap.get(referenceGroup.getName()));
+    protected Collection<Class<? extends ReferenceGroup>> getClasses() {
+        HashSet<Class<? extends ReferenceGroup>> classes = new HashSet<Class<? extends ReferenceGroup>>(referenceGroupNameClassesMap.values());
+        // Include the default class for unknown discriminators.
+        classes.add(referenceGroupNameClassesMap.get(null));
+
+        return classes;
     }
 }
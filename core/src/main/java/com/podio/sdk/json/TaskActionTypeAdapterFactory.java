@@ -0,0 +1,50 @@
+package com.podio.sdk.json;
+
+import com.google.gson.JsonElement;
+import com.podio.sdk.domain.AssignTaskAction;
+import com.podio.sdk.domain.TaskAction;
+import com.podio.sdk.domain.TextTaskAction;
+import com.podio.sdk.internal.DefaultHashMap;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+
+/**
+ * Notifications contains a dynamic "data" part that can have different content depending on the
+ * type of notifications so we need to have this type adapter to decide what kind of
+ * notification we are handling.
+ *
+ */
+class TaskActionTypeAdapterFactory extends PolymorphicTypeAdapterFactory<TaskAction> {
+
+    private Map<TaskAction.TaskActionType, Class<? extends TaskAction>> mTaskActionClassesMap;
+
+    public TaskActionTypeAdapterFactory() {
+        super(TaskAction.class, "type");
+
+        mTaskActionClassesMap = new DefaultHashMap<TaskAction.TaskActionType, Class<? extends TaskAction>>(TextTaskAction.class);
+        mTaskActionClassesMap.put(TaskAction.TaskActionType.assign, AssignTaskAction.class);
+    }
+
+    @Override
+    protected Class<? extends TaskAction> getClassOf(JsonElement discriminator) {
+        TaskAction.TaskActionType taskActionType = TaskAction.TaskActionType.getType(getAsString(discriminator));
+
+        return mTaskActionClassesMap.get(taskActionType);
+    }
+
+    @Override
+    protected Class<? extends TaskAction> getClassOf(TaskAction value) {
+        return mTaskActionClassesMap.get(value.getType());
+    }
+
+    @Override
+    protected Collection<Class<? extends TaskAction>> getClasses() {
+        HashSet<Class<? extends TaskAction>> classes = new HashSet<Class<? extends TaskAction>>(mTaskActionClassesMap.values());
+        // Include the default class for unknown discriminators.
+        classes.add(mTaskActionClassesMap.get(null));
+
+        return classes;
+    }
+}
@@ -0,0 +1,189 @@
+package com.podio.sdk.provider;
+
+import com.podio.sdk.DeferredRequest;
+import com.podio.sdk.Request;
+import com.podio.sdk.Requests;
+import com.podio.sdk.domain.Item;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Fetches all items of a filter, a page at a time, with a bounded number of page requests in
+ * flight. The first page tells how many items there are, after which the remaining pages are
+ * requested in parallel. The pages are handed to the listener either in order of their offsets,
+ * or as they arrive.
+ * <p>
+ * The page requests are ordinary requests, so they're kept within the rate limit of the session
+ * by the request client, and retried like any other request.
+ */
+final class BulkItemFetcher {
+
+    /**
+     * Creates the request for one page of the filter.
+     */
+    interface PageSource {
+
+        Request<Item.FilterResult> getPage(int offset, int limit);
+
+    }
+
+    private final PageSource source;
+    private final int firstOffset;
+    private final int pageSize;
+    private final int maxParallelRequests;
+    private final boolean isInOrder;
+    private final ItemProvider.PageListener listener;
+    private final DeferredRequest<Integer> result;
+
+    private final HashMap<Integer, Request<Item.FilterResult>> activeRequests;
+    private final TreeMap<Integer, List<Item>> arrivedPages;
+    private int endOffset;
+    private int nextOffset;
+    private int nextDeliveryOffset;
+    private int itemCount;
+
+    BulkItemFetcher(PageSource source, int firstOffset, int pageSize, int maxParallelRequests, boolean isInOrder, ItemProvider.PageListener listener) {
+        this.source = source;
+        this.firstOffset = Math.max(firstOffset, 0);
+        this.pageSize = Math.max(pageSize, 1);
+        this.maxParallelRequests = Math.max(maxParallelRequests, 1);
+        this.isInOrder = isInOrder;
+        this.listener = listener;
+        this.result = Requests.newDeferredRequest();
+
+        this.activeRequests = new HashMap<Integer, Request<Item.FilterResult>>();
+        this.arrivedPages = new TreeMap<Integer, List<Item>>();
+        this.endOffset = -1;
+        this.nextOffset = this.firstOffset + this.pageSize;
+        this.nextDeliveryOffset = this.firstOffset;
+        this.itemCount = 0;
+    }
+
+    /**
+     * Requests the first page. The remaining pages are requested once the first page has told how
+     * many there are.
+     *
+     * @return A request resolved with the number of fetched items once all pages have been handed
+     * to the listener. Canceling it cancels all outstanding page requests.
+     */
+    Request<Integer> start() {
+        synchronized (this) {
+            activeRequests.put(firstOffset, null);
+        }
+
+        fetch(firstOffset);
+        return result;
+    }
+
+    private void fetch(final int offset) {
+        final Request<Item.FilterResult> request = source.getPage(offset, pageSize);
+
+        synchronized (this) {
+            if (activeRequests.containsKey(offset)) {
+                activeRequests.put(offset, request);
+            }
+        }
+
+        result.addSource(request);
+        request.withResultListener(new Request.ResultListener<Item.FilterResult>() {
+            @Override
+            public boolean onRequestPerformed(Item.FilterResult content) {
+                result.removeSource(request);
+                onPageFetched(offset, content);
+                return false;
+            }
+        }).withErrorListener(new Request.ErrorListener() {
+            @Override
+            public boolean onErrorOccurred(Throwable cause) {
+                result.removeSource(request);
+                onPageFailed(cause);
+                return true;
+            }
+        });
+    }
+
+    private void onPageFetched(int offset, Item.FilterResult page) {
+        ArrayList<Integer> nextOffsets = new ArrayList<Integer>();
+        boolean isFinished;
+
+        synchronized (this) {
+            if (result.isDone() || !activeRequests.containsKey(offset)) {
+                return;
+            }
+
+            activeRequests.remove(offset);
+
+            if (offset == firstOffset) {
+                endOffset = page != null ? page.getFilteredCount() : 0;
+            }
+
+            arrivedPages.put(offset, page != null ? page.getItems() : new ArrayList<Item>());
+            deliverArrivedPages();
+
+            while (activeRequests.size() < maxParallelRequests && nextOffset < endOffset) {
+                activeRequests.put(nextOffset, null);
+                nextOffsets.add(nextOffset);
+                nextOffset += pageSize;
+            }
+
+            isFinished = activeRequests.isEmpty() && arrivedPages.isEmpty();
+        }
+
+        for (Integer nextOffset : nextOffsets) {
+            fetch(nextOffset);
+        }
+
+        if (isFinished) {
+            result.resolve(itemCount);
+        }
+    }
+
+    private void onPageFailed(Throwable cause) {
+        ArrayList<Request<Item.FilterResult>> canceled = new ArrayList<Request<Item.FilterResult>>();
+
+        synchronized (this) {
+            for (Request<Item.FilterResult> request : activeRequests.values()) {
+                if (request != null) {
+                    canceled.add(request);
+                }
+            }
+
+            activeRequests.clear();
+            arrivedPages.clear();
+        }
+
+        // The export is incomplete either way, there's no point in fetching any further pages.
+        result.reject(cause);
+
+        for (Request<Item.FilterResult> request : canceled) {
+            request.cancel();
+        }
+    }
+
+    /**
+     * Hands the arrived pages to the listener, in order of their offsets if so requested. The
+     * caller must hold the lock of this fetcher, so pages are never delivered concurrently.
+     */
+    private void deliverArrivedPages() {
+        while (!arrivedPages.isEmpty()) {
+            Map.Entry<Integer, List<Item>> page = arrivedPages.firstEntry();
+
+            if (isInOrder && page.getKey() != nextDeliveryOffset) {
+                return;
+            }
+
+            arrivedPages.remove(page.getKey());
+            nextDeliveryOffset += pageSize;
+            itemCount += page.getValue().size();
+
+            if (!result.isCanceled()) {
+                listener.onPage(page.getKey(), page.getValue());
+            }
+        }
+    }
+
+}
@@ -0,0 +1,307 @@
+package com.podio.sdk.provider;
+
+import com.podio.sdk.ApiError;
+import com.podio.sdk.Backoff;
+import com.podio.sdk.ConnectionError;
+import com.podio.sdk.DeferredRequest;
+import com.podio.sdk.NoResponseError;
+import com.podio.sdk.NotSentError;
+import com.podio.sdk.PodioError;
+import com.podio.sdk.Request;
+import com.podio.sdk.Requests;
+import com.podio.sdk.domain.Item;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Random;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes a stream of items with a bounded number of write requests in flight. The items are pulled
+ * from the iterator only as fast as the requests complete, and serialized on a worker thread, so
+ * neither the memory use nor the main thread depends on the number of items written. Failed
+ * writes are retried with a back-off, as long as retrying can't write an item twice.
+ */
+final class BulkItemWriter {
+
+    /**
+     * Creates the write request for one item. This method is executed on the worker thread.
+     */
+    interface Operation {
+
+        Request<Item.CreateResult> write(Item item);
+
+        /**
+         * Returns whether writing an item twice has the same effect as writing it once.
+         */
+        boolean isIdempotent();
+
+    }
+
+    private static final class Attempt {
+        private final int index;
+        private final Item item;
+        private final int retries;
+
+        private Attempt(int index, Item item, int retries) {
+            this.index = index;
+            this.item = item;
+            this.retries = retries;
+        }
+    }
+
+    private static final ThreadFactory WORKER_THREAD_FACTORY = new ThreadFactory() {
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "Podio-BulkWriter");
+            thread.setDaemon(true);
+            return thread;
+        }
+    };
+
+    private static final Random JITTER = new Random();
+
+    private static ScheduledThreadPoolExecutor worker = null;
+
+    private final Operation operation;
+    private final Iterator<? extends Item> items;
+    private final int maxParallelRequests;
+    private final Backoff backoff;
+    private final ItemProvider.WriteSink sink;
+    private final DeferredRequest<Integer> result;
+    private final Runnable pumpTask;
+
+    private final ArrayDeque<Attempt> retries;
+    private int activeRequests;
+    private int pendingRetries;
+    private int nextIndex;
+    private int writtenCount;
+    private boolean isExhausted;
+    private boolean isPumping;
+    private boolean isPumpRequested;
+
+    BulkItemWriter(Operation operation, Iterator<? extends Item> items, int maxParallelRequests, Backoff backoff, ItemProvider.WriteSink sink) {
+        this.operation = operation;
+        this.items = items;
+        this.maxParallelRequests = Math.max(maxParallelRequests, 1);
+        this.backoff = backoff != null ? backoff : Backoff.NONE;
+        this.sink = sink;
+        this.result = Requests.newDeferredRequest();
+        this.pumpTask = new Runnable() {
+            @Override
+            public void run() {
+                pump();
+            }
+        };
+
+        this.retries = new ArrayDeque<Attempt>();
+        this.activeRequests = 0;
+        this.pendingRetries = 0;
+        this.nextIndex = 0;
+        this.writtenCount = 0;
+        this.isExhausted = false;
+        this.isPumping = false;
+        this.isPumpRequested = false;
+    }
+
+    /**
+     * Starts writing the items.
+     *
+     * @return A request resolved with the number of successfully written items once every item has
+     * been either written or reported as failed. Canceling it stops pulling items and cancels any
+     * outstanding write requests.
+     */
+    Request<Integer> start() {
+        getWorker().execute(pumpTask);
+        return result;
+    }
+
+    /**
+     * Sends write requests until the maximum number of requests are in flight, or there are no
+     * more items to write. This method is executed on the worker thread, and only one pump per
+     * writer runs at a time, so the iterator is never accessed concurrently.
+     */
+    private void pump() {
+        synchronized (this) {
+            if (isPumping) {
+                isPumpRequested = true;
+                return;
+            }
+
+            isPumping = true;
+        }
+
+        try {
+            while (true) {
+                Attempt attempt;
+
+                synchronized (this) {
+                    if (result.isDone() || activeRequests >= maxParallelRequests) {
+                        break;
+                    }
+
+                    attempt = retries.poll();
+
+                    if (attempt == null && isExhausted) {
+                        break;
+                    }
+
+                    activeRequests++;
+                }
+
+                if (attempt == null) {
+                    if (items.hasNext()) {
+                        attempt = new Attempt(nextIndex++, items.next(), 0);
+                    } else {
+                        synchronized (this) {
+                            activeRequests--;
+                            isExhausted = true;
+                        }
+
+                        break;
+                    }
+                }
+
+                write(attempt);
+            }
+        } catch (RuntimeException e) {
+            // The iterator failed, there's no telling which items remain.
+            result.reject(e);
+        } finally {
+            boolean isRequested;
+
+            synchronized (this) {
+                isPumping = false;
+                isRequested = isPumpRequested;
+                isPumpRequested = false;
+            }
+
+            if (isRequested) {
+                getWorker().execute(pumpTask);
+            }
+        }
+
+        resolveIfFinished();
+    }
+
+    private void write(final Attempt attempt) {
+        final Request<Item.CreateResult> request = operation.write(attempt.item);
+        result.addSource(request);
+
+        request.withResultListener(new Request.ResultListener<Item.CreateResult>() {
+            @Override
+            public boolean onRequestPerformed(Item.CreateResult content) {
+                result.removeSource(request);
+                onWritten(attempt, content);
+                return false;
+            }
+        }).withErrorListener(new Request.ErrorListener() {
+            @Override
+            public boolean onErrorOccurred(Throwable cause) {
+                result.removeSource(request);
+                onFailed(attempt, cause);
+                return true;
+            }
+        });
+    }
+
+    private void onWritten(Attempt attempt, Item.CreateResult content) {
+        synchronized (this) {
+            activeRequests--;
+            writtenCount++;
+        }
+
+        if (!result.isDone()) {
+            sink.onItemWritten(attempt.index, attempt.item, content);
+        }
+
+        getWorker().execute(pumpTask);
+        resolveIfFinished();
+    }
+
+    private void onFailed(final Attempt attempt, Throwable cause) {
+        if (attempt.retries < backoff.getMaxRetries() && isRetriable(cause)) {
+            synchronized (this) {
+                activeRequests--;
+                pendingRetries++;
+            }
+
+            long delay = backoff.getDelayMillis(attempt.retries, -1L, JITTER);
+            getWorker().schedule(new Runnable() {
+                @Override
+                public void run() {
+                    synchronized (BulkItemWriter.this) {
+                        pendingRetries--;
+                        retries.add(new Attempt(attempt.index, attempt.item, attempt.retries + 1));
+                    }
+
+                    pump();
+                }
+            }, delay, TimeUnit.MILLISECONDS);
+
+            return;
+        }
+
+        synchronized (this) {
+            activeRequests--;
+        }
+
+        if (!result.isDone()) {
+            sink.onItemFailed(attempt.index, attempt.item, cause);
+        }
+
+        getWorker().execute(pumpTask);
+        resolveIfFinished();
+    }
+
+    /**
+     * Returns whether the given failure may be retried. A request that was refused before it was
+     * sent can always be retried, while a request that may have taken effect is only retried if
+     * it's idempotent. Note that a connection error doesn't prove the former; the connection may
+     * have been lost after the request body was sent.
+     */
+    private boolean isRetriable(Throwable cause) {
+        if (cause instanceof NotSentError) {
+            return true;
+        }
+
+        if (!operation.isIdempotent()) {
+            return false;
+        }
+
+        if (cause instanceof ConnectionError || cause instanceof NoResponseError) {
+            return true;
+        }
+
+        int responseCode = cause instanceof ApiError ?
+                ((ApiError) cause).getStatusCode() :
+                cause instanceof PodioError ? ((PodioError) cause).getResponseCode() : 0;
+
+        return responseCode >= 500;
+    }
+
+    private void resolveIfFinished() {
+        int writtenCount;
+
+        synchronized (this) {
+            if (!isExhausted || activeRequests > 0 || pendingRetries > 0 || !retries.isEmpty()) {
+                return;
+            }
+
+            writtenCount = this.writtenCount;
+        }
+
+        result.resolve(writtenCount);
+    }
+
+    private static synchronized ScheduledThreadPoolExecutor getWorker() {
+        if (worker == null) {
+            worker = new ScheduledThreadPoolExecutor(1, WORKER_THREAD_FACTORY);
+        }
+
+        return worker;
+    }
+
+}
@@ -1,12 +1,12 @@
 
 package com.podio.sdk.provider;
 
-import android.text.format.DateFormat;
 
 import com.podio.sdk.Filter;
 import com.podio.sdk.Provider;
 import com.podio.sdk.Request;
 import com.podio.sdk.domain.CalendarEvent;
+import com.podio.sdk.internal.Utils;
 
 import java.util.Date;
 
@@ -40,8 +40,8 @@ public class CalendarProvider extends Provider {
 
         public CalendarFilter withDateFromTo(Date from, Date to) {
 
-            String dateFrom = DateFormat.format("yyyy-MM-dd", from).toString();
-            String dateTo = DateFormat.format("yyyy-MM-dd", to).toString();
+            String dateFrom = Utils.formatDateDefault(from);
+            String dateTo = Utils.formatDateDefault(to);
             addQueryParameter("date_from", dateFrom);
             addQueryParameter("date_to", dateTo);
             return this;
@@ -53,7 +53,7 @@ public class CommentProvider extends Provider {
         CommentsFilter filter = new CommentsFilter();
         filter.withReference(type,id);
         Comment.Create create = new Comment.Create(value, fileIds);
-        return post(filter, create, Comment.class);
+        return enqueue(Request.Method.POST, filter, create, Comment.class);
     }
 
     public Request<Comment> getComment(long id) {
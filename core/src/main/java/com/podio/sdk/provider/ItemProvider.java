@@ -0,0 +1,485 @@
+
+package com.podio.sdk.provider;
+
+import com.podio.sdk.Backoff;
+import com.podio.sdk.Filter;
+import com.podio.sdk.Provider;
+import com.podio.sdk.Request;
+import com.podio.sdk.domain.Item;
+import com.podio.sdk.domain.ItemParticipation;
+
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Enables access to the item API end point.
+ *
+ */
+public class ItemProvider extends Provider {
+
+    static class Path extends Filter {
+
+        Path() {
+            super("item");
+        }
+
+        Path withApplicationId(long applicationId) {
+            addPathSegment("app");
+            addPathSegment(Long.toString(applicationId, 10));
+            return this;
+        }
+
+        Path withApplicationIdFilter(long applicationId) {
+            addPathSegment("app");
+            addPathSegment(Long.toString(applicationId, 10));
+            addPathSegment("filter");
+            return this;
+        }
+
+        Path withApplicationAndViewIdFilter(long applicationId, long viewId) {
+            addPathSegment("app");
+            addPathSegment(Long.toString(applicationId, 10));
+            addPathSegment("filter");
+            addPathSegment(Long.toString(viewId, 10));
+            return this;
+        }
+
+        Path withItemId(long itemId) {
+            addPathSegment(Long.toString(itemId, 10));
+            return this;
+        }
+
+        Path withParticipation(long itemId) {
+            addPathSegment(Long.toString(itemId, 10));
+            addPathSegment("participation");
+            return this;
+        }
+
+    }
+
+    /**
+     * Callback interface for receiving the pages of a bulk fetch.
+     */
+    public interface PageListener {
+
+        /**
+         * Called, on the callback thread of the request client, with each fetched page.
+         *
+         * @param offset
+         *         The zero-based offset of the first item on the page.
+         * @param items
+         *         The items on the page.
+         */
+        void onPage(int offset, List<Item> items);
+
+    }
+
+    /**
+     * Callback interface for receiving the outcome of each item of a bulk write.
+     */
+    public interface WriteSink {
+
+        /**
+         * Called, on the callback thread of the request client, when an item has been written.
+         *
+         * @param index
+         *         The zero-based position of the item in the written sequence.
+         * @param item
+         *         The written item.
+         * @param result
+         *         The response of the API.
+         */
+        void onItemWritten(int index, Item item, Item.CreateResult result);
+
+        /**
+         * Called, on the callback thread of the request client, when an item couldn't be written,
+         * and won't be retried.
+         *
+         * @param index
+         *         The zero-based position of the item in the written sequence.
+         * @param item
+         *         The item that couldn't be written.
+         * @param cause
+         *         The cause of the failure.
+         */
+        void onItemFailed(int index, Item item, Throwable cause);
+
+    }
+
+    /**
+     * Enables a forced set of methods to be called in order to be able to filter items.
+     *
+     */
+    public class ItemFilterProvider {
+        private final Item.FilterData filterData;
+        private Request.Priority priority;
+
+        /**
+         * Constructor.
+         */
+        private ItemFilterProvider() {
+            filterData = new Item.FilterData();
+        }
+
+        /**
+         * Prepares a filter constraint, used when fetching filtered items.
+         *
+         * @param key
+         *         The constraint key.
+         * @param value
+         *         The constraint value.
+         *
+         * @return This instance of the ItemFilterProvider, to enable convenient chaining.
+         *
+         * @see com.podio.sdk.provider.ItemProvider.ItemFilterProvider#get(long)
+         * @see com.podio.sdk.provider.ItemProvider.ItemFilterProvider#get(long, long)
+         */
+        public ItemFilterProvider onConstraint(String key, Object value) {
+            filterData.addConstraint(key, value);
+            return this;
+        }
+
+        /**
+         * Prepares the remember filter, used when fetching filtered items.
+         *
+         * @param doRemember
+         *         True if the API should remember this filter for you, otherwise false. Defaults to
+         *         true.
+         *
+         * @return This instance of the ItemFilterProvider, to enable convenient chaining.
+         *
+         * @see com.podio.sdk.provider.ItemProvider.ItemFilterProvider#get(long)
+         * @see com.podio.sdk.provider.ItemProvider.ItemFilterProvider#get(long, long)
+         */
+        public ItemFilterProvider onDoRemember(boolean doRemember) {
+            filterData.setDoRemember(doRemember);
+            return this;
+        }
+
+        /**
+         * Prepares the limit and offset of the filter, used when fetching filtered items.
+         *
+         * @param maxCount
+         *         The max number of items to fetch. The result could contain less items, but never
+         *         more.
+         * @param offset
+         *         The zero-based offset of the first item in the span to fetch.
+         *
+         * @return This instance of the ItemFilterProvider, to enable convenient chaining.
+         *
+         * @see com.podio.sdk.provider.ItemProvider.ItemFilterProvider#get(long)
+         * @see com.podio.sdk.provider.ItemProvider.ItemFilterProvider#get(long, long)
+         */
+        public ItemFilterProvider onSpan(int maxCount, int offset) {
+            filterData.setLimit(maxCount);
+            filterData.setOffset(offset);
+            return this;
+        }
+
+        /**
+         * Prepares the sort order of the filter, used when fetching filtered items.
+         *
+         * @param fieldName
+         *         The name of the field to sort by.
+         * @param doSortDescending
+         *         True for a descending sort order, false for an ascending.
+         *
+         * @return This instance of the ItemFilterProvider, to enable convenient chaining.
+         *
+         * @see com.podio.sdk.provider.ItemProvider.ItemFilterProvider#get(long)
+         * @see com.podio.sdk.provider.ItemProvider.ItemFilterProvider#get(long, long)
+         */
+        public ItemFilterProvider onSortOrder(String fieldName, boolean doSortDescending) {
+            filterData.setOrderByField(fieldName, doSortDescending);
+            return this;
+        }
+
+        /**
+         * If you sort by a certain field and there are items that doesn't have this field set then
+         * if sortNullLast is set to true then these not set values will be delivered in the end of
+         * the sort result instead of the beginning.
+         *
+         * @param sortNullLast
+         *         true if null values should be in the end, false otherwise.
+         *
+         * @return This instance of the ItemFilterProvider, to enable convenient chaining.
+         *
+         * @see com.podio.sdk.provider.ItemProvider.ItemFilterProvider#get(long)
+         * @see com.podio.sdk.provider.ItemProvider.ItemFilterProvider#get(long, long)
+         */
+        public ItemFilterProvider onSortNullLast(boolean sortNullLast) {
+            filterData.setSortNullLast(sortNullLast);
+
+            return this;
+        }
+
+        /**
+         * Sets the priority of the filter request, e.g. {@link Request.Priority#BACKGROUND} when
+         * prefetching pages the user hasn't asked for yet. If not set, the priority of the
+         * provider is used.
+         *
+         * @param priority
+         *         The priority of the request.
+         *
+         * @return This instance of the ItemFilterProvider, to enable convenient chaining.
+         */
+        public ItemFilterProvider onPriority(Request.Priority priority) {
+            this.priority = priority;
+
+            return this;
+        }
+
+        /**
+         * Fetches a set of filtered items for the application with the given id.
+         * <p/>
+         * If no filter data has been configured, then the default filter will be used, with a
+         * behavior as the API sees fit.
+         * <p/>
+         * Note that, while the other methods in this class are optional, this method must be called
+         * in order for the filtered request to take place
+         *
+         * @param applicationId
+         *         The id of the parent application.
+         *
+         * @return A ticket which the caller can use to identify this request with.
+         */
+        public Request<Item.FilterResult> get(long applicationId) {
+            Path filter = new Path().withApplicationIdFilter(applicationId);
+            filter.withPriority(priority);
+            return post(filter, filterData, Item.FilterResult.class);
+        }
+
+        /**
+         * Fetches a set of filtered items for the application with the given id and a given
+         * view_id.
+         * <p/>
+         * If no filter data has been configured, then the default filter will be used, with a
+         * behavior as the API sees fit.
+         * <p/>
+         * Note that, while the other methods in this class are optional, this method must be called
+         * in order for the filtered request to take place
+         *
+         * @param applicationId
+         *         The id of the parent application.
+         * @param viewId
+         *         The id of the view.
+         *
+         * @return A ticket which the caller can use to identify this request with.
+         */
+        public Request<Item.FilterResult> get(long applicationId, long viewId) {
+            Path filter = new Path().withApplicationAndViewIdFilter(applicationId, viewId);
+            filter.withPriority(priority);
+            return post(filter, filterData, Item.FilterResult.class);
+        }
+
+        /**
+         * Fetches all filtered items for the application with the given id, starting at the
+         * offset set by {@link #onSpan(int, int)} and using its max count as page size. The first
+         * page tells how many items there are, after which the remaining pages are fetched in
+         * parallel, with at most the given number of page requests in flight.
+         * <p/>
+         * Items added to, or removed from, the filter while fetching may shift the pages, so the
+         * result is only consistent if the filter doesn't change meanwhile.
+         *
+         * @param applicationId
+         *         The id of the parent application.
+         * @param maxParallelRequests
+         *         The maximum number of page requests in flight at any time.
+         * @param inOrder
+         *         True to receive the pages in order of their offsets, false to receive them as
+         *         they arrive.
+         * @param pageListener
+         *         The listener to hand the pages to.
+         *
+         * @return A ticket resolved with the number of fetched items once all pages have been
+         * handed to the listener. Canceling it cancels any outstanding page requests.
+         */
+        public Request<Integer> getAll(long applicationId, int maxParallelRequests, boolean inOrder, PageListener pageListener) {
+            return getAll(new Path().withApplicationIdFilter(applicationId), maxParallelRequests, inOrder, pageListener);
+        }
+
+        /**
+         * Fetches all filtered items for the application with the given id and a given view_id.
+         *
+         * @param applicationId
+         *         The id of the parent application.
+         * @param viewId
+         *         The id of the view.
+         * @param maxParallelRequests
+         *         The maximum number of page requests in flight at any time.
+         * @param inOrder
+         *         True to receive the pages in order of their offsets, false to receive them as
+         *         they arrive.
+         * @param pageListener
+         *         The listener to hand the pages to.
+         *
+         * @return A ticket resolved with the number of fetched items once all pages have been
+         * handed to the listener. Canceling it cancels any outstanding page requests.
+         *
+         * @see com.podio.sdk.provider.ItemProvider.ItemFilterProvider#getAll(long, int, boolean,
+         * com.podio.sdk.provider.ItemProvider.PageListener)
+         */
+        public Request<Integer> getAll(long applicationId, long viewId, int maxParallelRequests, boolean inOrder, PageListener pageListener) {
+            return getAll(new Path().withApplicationAndViewIdFilter(applicationId, viewId), maxParallelRequests, inOrder, pageListener);
+        }
+
+        private Request<Integer> getAll(final Path filter, int maxParallelRequests, boolean inOrder, PageListener pageListener) {
+            // Later changes to this provider mustn't affect the pages still to be fetched.
+            final Item.FilterData template = new Item.FilterData(filterData);
+            final Request.Priority priority = this.priority;
+
+            filter.withPriority(priority);
+
+            BulkItemFetcher.PageSource source = new BulkItemFetcher.PageSource() {
+                @Override
+                public Request<Item.FilterResult> getPage(int offset, int limit) {
+                    Item.FilterData page = new Item.FilterData(template)
+                            .setOffset(offset)
+                            .setLimit(limit);
+
+                    return post(filter, page, Item.FilterResult.class);
+                }
+            };
+
+            return new BulkItemFetcher(source, template.getOffset(), template.getLimit(), maxParallelRequests, inOrder, pageListener).start();
+        }
+    }
+
+    /**
+     * Requests the API to create a new item
+     *
+     * @param applicationId
+     *         The id of the application to which this item is to be added.
+     * @param item
+     *         The data describing the new item to create.
+     *
+     * @return A ticket which the caller can use to identify this request with.
+     */
+    public Request<Item.CreateResult> create(long applicationId, Item item) {
+        Path filter = new Path().withApplicationId(applicationId);
+        Item.CreateData data = item.getCreateData(false);
+        return enqueue(Request.Method.POST, filter, data, Item.CreateResult.class);
+    }
+
+    /**
+     * Creates all given items in the application with the given id. The items are pulled from
+     * the iterator, and serialized on a worker thread, only as fast as the API accepts them, with
+     * at most the given number of requests in flight. This way any number of items can be
+     * imported without holding them all in memory. Items failing because the API couldn't be
+     * reached are retried with a back-off, while any other failures are reported to the sink.
+     *
+     * @param applicationId
+     *         The id of the application to which the items are to be added.
+     * @param items
+     *         The items to create. The iterator is only accessed from the worker thread.
+     * @param maxParallelRequests
+     *         The maximum number of create requests in flight at any time.
+     * @param sink
+     *         The sink to report the outcome of each item to.
+     *
+     * @return A ticket resolved with the number of created items once all items have been
+     * handled. Canceling it stops the import.
+     */
+    public Request<Integer> createAll(final long applicationId, Iterator<? extends Item> items, int maxParallelRequests, WriteSink sink) {
+        BulkItemWriter.Operation operation = new BulkItemWriter.Operation() {
+            @Override
+            public Request<Item.CreateResult> write(Item item) {
+                // Bypass the outbox, the writer retries on its own.
+                Path filter = new Path().withApplicationId(applicationId);
+                return post(filter, item.getCreateData(false), Item.CreateResult.class);
+            }
+
+            @Override
+            public boolean isIdempotent() {
+                return false;
+            }
+        };
+
+        return new BulkItemWriter(operation, items, maxParallelRequests, Backoff.DEFAULT, sink).start();
+    }
+
+    /**
+     * Updates all given items, identified by their ids, in the same way as
+     * {@link #createAll(long, Iterator, int, WriteSink)} creates items. As updates may safely be
+     * sent twice, items failing with a time-out or a server error are retried as well, by the
+     * client and according to its retry back-off.
+     *
+     * @param items
+     *         The changed items. The iterator is only accessed from the worker thread.
+     * @param maxParallelRequests
+     *         The maximum number of update requests in flight at any time.
+     * @param sink
+     *         The sink to report the outcome of each item to.
+     *
+     * @return A ticket resolved with the number of updated items once all items have been
+     * handled. Canceling it stops the update.
+     */
+    public Request<Integer> updateAll(Iterator<? extends Item> items, int maxParallelRequests, WriteSink sink) {
+        BulkItemWriter.Operation operation = new BulkItemWriter.Operation() {
+            @Override
+            public Request<Item.CreateResult> write(Item item) {
+                // Bypass the outbox, the client retries on its own.
+                Path filter = new Path().withItemId(item.getId());
+                return put(filter, item.getCreateData(false), Item.CreateResult.class);
+            }
+
+            @Override
+            public boolean isIdempotent() {
+                return true;
+            }
+        };
+
+        // The client already retries failed updates, retrying them here too would only multiply
+        // the attempts.
+        return new BulkItemWriter(operation, items, maxParallelRequests, Backoff.NONE, sink).start();
+    }
+
+    public Request<Void> delete(long itemId) {
+        Path filter = new Path().withItemId(itemId);
+        return enqueue(Request.Method.DELETE, filter, null, null);
+    }
+
+    /**
+     * Requests the API to update an item with new values.
+     *
+     * @param itemId
+     *         The id of the item to update.
+     * @param item
+     *         The changed data bundle.
+     *
+     * @return A ticket which the caller can use to identify this request with.
+     */
+    public Request<Item.CreateResult> update(long itemId, Item item) {
+        // TODO: Consider a mirror "ChangeData" + "ChangeResult" implementation to avoid confusion.
+        Path filter = new Path().withItemId(itemId);
+        Item.CreateData data = item.getCreateData(false);
+        return enqueue(Request.Method.PUT, filter, data, Item.CreateResult.class);
+    }
+
+    /**
+     * Fetches the single item with the given id.
+     *
+     * @param itemId
+     *         The id of the item to fetch.
+     *
+     * @return A ticket which the caller can use to identify this request with.
+     */
+    public Request<Item> get(long itemId) {
+        Path filter = new Path().withItemId(itemId);
+        return get(filter, Item.class);
+    }
+
+    /**
+     * Enables filtered request of items.
+     *
+     * @return An ItemFilterProvider enabling the caller to configure the filter details.
+     */
+    public ItemFilterProvider filter() {
+        return new ItemFilterProvider();
+    }
+
+    public Request<ItemParticipation> setParticipation(long itemId, ItemParticipation itemParticipation) {
+        Path filter = new Path().withParticipation(itemId);
+        return put(filter, itemParticipation, ItemParticipation.class);
+    }
+}
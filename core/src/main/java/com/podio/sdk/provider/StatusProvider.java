@@ -49,7 +49,7 @@ public class StatusProvider extends Provider {
      */
     public Request<Status> addStatusMessage(long spaceId, boolean alertInvite, String value, List<Long> fileIds) {
         Path path = new Path().withSpace().withId(spaceId).withAlertInvite(alertInvite);
-        return post(path, new Status.PushData(value, fileIds), Status.class);
+        return enqueue(Request.Method.POST, path, new Status.PushData(value, fileIds), Status.class);
     }
 
 }
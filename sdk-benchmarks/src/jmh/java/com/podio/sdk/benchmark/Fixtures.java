@@ -0,0 +1,52 @@
+
+package com.podio.sdk.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Loads the recorded API payloads the benchmarks run on.
+ */
+final class Fixtures {
+
+    static final String CHARSET = "UTF-8";
+
+    /**
+     * Reads the given fixture from the class path.
+     *
+     * @param name
+     *         The name of the fixture, without the ".json" suffix.
+     *
+     * @return The raw JSON bytes.
+     *
+     * @throws IOException
+     *         If the fixture doesn't exist or can't be read.
+     */
+    static byte[] load(String name) throws IOException {
+        InputStream inputStream = Fixtures.class.getResourceAsStream("/fixtures/" + name + ".json");
+
+        if (inputStream == null) {
+            throw new IOException("No such fixture: " + name);
+        }
+
+        try {
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int count;
+
+            while ((count = inputStream.read(buffer)) != -1) {
+                outputStream.write(buffer, 0, count);
+            }
+
+            return outputStream.toByteArray();
+        } finally {
+            inputStream.close();
+        }
+    }
+
+    private Fixtures() {
+        // Hide the constructor.
+    }
+
+}
@@ -0,0 +1,104 @@
+
+package com.podio.sdk.benchmark;
+
+import com.podio.sdk.domain.Application;
+import com.podio.sdk.domain.Item;
+import com.podio.sdk.domain.NotificationGroup;
+import com.podio.sdk.domain.stream.EventContext;
+import com.podio.sdk.json.JsonParser;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how fast the SDK parses, and serializes, typical API responses. Run with the GC
+ * profiler to see the allocated bytes per operation as well.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class JsonParserBenchmark {
+
+    /**
+     * The recorded payloads and the classes they're parsed into.
+     */
+    public enum Fixture {
+        /**
+         * A page of 100 items as returned by the item filter end point.
+         */
+        item_filter_result(Item.FilterResult.class),
+
+        /**
+         * An application definition with all kinds of fields, including calculation fields with
+         * different return types.
+         */
+        application(Application.class),
+
+        /**
+         * The grouped notifications inbox, mixing all kinds of notifications and contexts.
+         */
+        notifications(NotificationGroup[].class),
+
+        /**
+         * A page of the global stream, mixing all kinds of stream objects and activities.
+         */
+        global_stream(EventContext[].class);
+
+        private final Class<?> classOfResult;
+
+        private Fixture(Class<?> classOfResult) {
+            this.classOfResult = classOfResult;
+        }
+
+        Class<?> getClassOfResult() {
+            return classOfResult;
+        }
+    }
+
+    @Param
+    public Fixture fixture;
+
+    private Class<?> classOfResult;
+    private byte[] bytes;
+    private String json;
+    private Object result;
+
+    @Setup
+    public void setup() throws IOException {
+        classOfResult = fixture.getClassOfResult();
+        bytes = Fixtures.load(fixture.name());
+        json = new String(bytes, Fixtures.CHARSET);
+        result = JsonParser.fromJson(json, classOfResult);
+    }
+
+    @Benchmark
+    public Object fromJsonString() {
+        return JsonParser.fromJson(json, classOfResult);
+    }
+
+    @Benchmark
+    public Object fromJsonBytes() throws IOException {
+        return JsonParser.fromJson(bytes, Fixtures.CHARSET, classOfResult);
+    }
+
+    @Benchmark
+    public String toJson() {
+        return JsonParser.toJson(result);
+    }
+
+}
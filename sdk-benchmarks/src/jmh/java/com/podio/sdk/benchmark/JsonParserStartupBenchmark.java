@@ -0,0 +1,55 @@
+package com.podio.sdk.benchmark;
+
+import com.podio.sdk.json.JsonParser;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how long it takes to parse the first response after the app has started, with and
+ * without preparing the parser up front. Only the first use of the parser is of interest, hence
+ * every measurement is made in a fresh JVM.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(20)
+public class JsonParserStartupBenchmark {
+
+    @Param
+    public JsonParserBenchmark.Fixture fixture;
+
+    @Param({"false", "true"})
+    public boolean prepared;
+
+    private byte[] bytes;
+
+    @Setup
+    public void setup() throws IOException {
+        bytes = Fixtures.load(fixture.name());
+
+        if (prepared) {
+            JsonParser.prepare();
+        }
+    }
+
+    @Benchmark
+    public Object firstFromJson() throws IOException {
+        return JsonParser.fromJson(bytes, Fixtures.CHARSET, fixture.getClassOfResult());
+    }
+
+}
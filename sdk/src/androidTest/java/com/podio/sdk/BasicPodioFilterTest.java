@@ -31,7 +31,7 @@ public class BasicPodioFilterTest extends AndroidTestCase {
         filter.addPathSegment("path1");
         filter.addPathSegment("path2");
 
-        Uri target = filter.buildUri("scheme", "authority");
+        Uri target = Uri.parse(filter.buildUrl("scheme", "authority"));
         assertNotNull(target);
         assertEquals(reference, target);
     }
@@ -56,7 +56,7 @@ public class BasicPodioFilterTest extends AndroidTestCase {
 
         filter.addQueryParameter(key, value);
 
-        Uri uri = filter.buildUri("scheme", "authority");
+        Uri uri = Uri.parse(filter.buildUrl("scheme", "authority"));
         assertNotNull(uri);
 
         // +1 for the accepted null-pointer value.
@@ -65,6 +65,16 @@ public class BasicPodioFilterTest extends AndroidTestCase {
         assertEquals(value, uri.getQueryParameter(key));
     }
 
+    public void testEndpointReplacesIds() {
+        Filter filter = new Filter("item");
+        filter.addPathSegment("app");
+        filter.addPathSegment("123");
+        filter.addPathSegment("filter");
+
+        assertEquals("/item/app/{id}/filter", filter.getEndpoint());
+        assertEquals("scheme://authority/item/app/123/filter", filter.buildUrl("scheme", "authority"));
+    }
+
     @Suppress
     public void testBuildUri() {
         Uri reference = Uri.parse("scheme://authority/path?key=value");
@@ -73,18 +83,18 @@ public class BasicPodioFilterTest extends AndroidTestCase {
         filter.addQueryParameter("key", "value");
 
         try {
-            filter.buildUri(null, "authority");
+            filter.buildUrl(null, "authority");
             fail("null pointer scheme shouldn't be accepted");
         } catch (IllegalArgumentException e) {
         }
 
         try {
-            filter.buildUri("scheme", null);
+            filter.buildUrl("scheme", null);
             fail("null pointer authority shouldn't be accepted");
         } catch (IllegalArgumentException e) {
         }
 
-        Uri target = filter.buildUri("scheme", "authority");
+        Uri target = Uri.parse(filter.buildUrl("scheme", "authority"));
         assertNotNull(target);
         assertEquals(reference, target);
     }
@@ -98,7 +108,7 @@ public class BasicPodioFilterTest extends AndroidTestCase {
         filter.addQueryParameter(key, value1);
         filter.addQueryParameter(key, value2);
 
-        Uri uri = filter.buildUri("scheme", "authority");
+        Uri uri = Uri.parse(filter.buildUrl("scheme", "authority"));
         List<String> values = uri.getQueryParameters(key);
 
         assertNotNull(uri);
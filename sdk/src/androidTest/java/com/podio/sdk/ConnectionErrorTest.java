@@ -0,0 +1,30 @@
+package com.podio.sdk;
+
+import android.test.AndroidTestCase;
+
+import com.android.volley.NoConnectionError;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.SocketException;
+import java.net.UnknownHostException;
+
+public class ConnectionErrorTest extends AndroidTestCase {
+
+    public void testConnectPhaseFailuresAreNotSent() {
+        assertTrue(ConnectionError.fromCause(new UnknownHostException("api.podio.com")) instanceof NotSentError);
+        assertTrue(ConnectionError.fromCause(new ConnectException("Connection refused")) instanceof NotSentError);
+    }
+
+    public void testWrappedConnectPhaseFailuresAreNotSent() {
+        ConnectionError error = ConnectionError.fromCause(new NoConnectionError(new UnknownHostException("api.podio.com")));
+        assertTrue(error instanceof NotSentError);
+    }
+
+    public void testOtherFailuresMayHaveBeenSent() {
+        assertFalse(ConnectionError.fromCause(new SocketException("Connection reset")) instanceof NotSentError);
+        assertFalse(ConnectionError.fromCause(new NoConnectionError(new IOException("unexpected end of stream"))) instanceof NotSentError);
+        assertFalse(ConnectionError.fromCause(null) instanceof NotSentError);
+    }
+
+}
@@ -0,0 +1,138 @@
+package com.podio.sdk;
+
+import android.test.AndroidTestCase;
+
+import java.util.ArrayList;
+
+public class PagerTest extends AndroidTestCase {
+
+    private static final Pager.IdSelector<Integer> IDENTITY = new Pager.IdSelector<Integer>() {
+        @Override
+        public Object getId(Integer item) {
+            return item;
+        }
+    };
+
+    /**
+     * Serves the ids "total - 1" down to zero, newest first, like the stream end points.
+     */
+    private static final class FakeSource implements Pager.PageSource<Integer> {
+        private final ArrayList<Integer> offsets = new ArrayList<Integer>();
+        private final ArrayList<DeferredRequest<Integer[]>> requests = new ArrayList<DeferredRequest<Integer[]>>();
+        private int total;
+
+        private FakeSource(int total) {
+            this.total = total;
+        }
+
+        @Override
+        public Request<Integer[]> getPage(int limit, int offset) {
+            DeferredRequest<Integer[]> request = new DeferredRequest<Integer[]>();
+            offsets.add(offset);
+            requests.add(request);
+            return request;
+        }
+
+        private void resolve(int request, int limit) {
+            int offset = offsets.get(request);
+            int size = Math.max(Math.min(limit, total - offset), 0);
+            Integer[] page = new Integer[size];
+
+            for (int i = 0; i < size; i++) {
+                page[i] = total - 1 - offset - i;
+            }
+
+            requests.get(request).resolve(page);
+        }
+    }
+
+    public void testNextPageIsPrefetchedNearTheEnd() {
+        FakeSource source = new FakeSource(100);
+        Pager<Integer> pager = new Pager<Integer>(source, IDENTITY, 10, 3, 4);
+
+        pager.load();
+        source.resolve(0, 10);
+        assertEquals(10, pager.getCount());
+
+        pager.get(5);
+        assertEquals(1, source.requests.size());
+
+        pager.get(7);
+        assertEquals(2, source.requests.size());
+        assertEquals(Integer.valueOf(10), source.offsets.get(1));
+
+        // The pending request is not requested twice.
+        pager.get(8);
+        assertEquals(2, source.requests.size());
+    }
+
+    public void testDuplicatesAreDropped() {
+        FakeSource source = new FakeSource(100);
+        Pager<Integer> pager = new Pager<Integer>(source, IDENTITY, 10, 3, 4);
+
+        pager.load();
+        source.resolve(0, 10);
+
+        // Two new items arrive, shifting the second page by two.
+        source.total = 102;
+        pager.get(9);
+        source.resolve(1, 10);
+
+        assertEquals(18, pager.getCount());
+        assertEquals(Integer.valueOf(90), pager.get(9));
+        assertEquals(Integer.valueOf(89), pager.get(10));
+    }
+
+    public void testLeastRecentlyUsedPageIsEvictedAndReloaded() {
+        FakeSource source = new FakeSource(100);
+        Pager<Integer> pager = new Pager<Integer>(source, IDENTITY, 10, 0, 2);
+
+        pager.load();
+        source.resolve(0, 10);
+        pager.get(9);
+        source.resolve(1, 10);
+        pager.get(19);
+        source.resolve(2, 10);
+
+        assertEquals(30, pager.getCount());
+        assertNull(pager.get(0));
+        assertEquals(Integer.valueOf(0), source.offsets.get(source.offsets.size() - 1));
+
+        source.resolve(source.requests.size() - 1, 10);
+        assertEquals(Integer.valueOf(99), pager.get(0));
+    }
+
+    public void testLastPageCompletesPager() {
+        FakeSource source = new FakeSource(15);
+        Pager<Integer> pager = new Pager<Integer>(source, IDENTITY, 10, 5, 4);
+
+        pager.load();
+        source.resolve(0, 10);
+        pager.get(9);
+        source.resolve(1, 10);
+
+        assertTrue(pager.isComplete());
+        assertEquals(15, pager.getCount());
+
+        pager.get(14);
+        assertEquals(2, source.requests.size());
+    }
+
+    public void testFailedPageStopsLoadingUntilRetried() {
+        FakeSource source = new FakeSource(100);
+        Pager<Integer> pager = new Pager<Integer>(source, IDENTITY, 10, 5, 4);
+
+        pager.load();
+        source.resolve(0, 10);
+        pager.get(9);
+        source.requests.get(1).reject(new RuntimeException("failed"));
+
+        pager.get(9);
+        assertEquals(2, source.requests.size());
+
+        pager.retry();
+        assertEquals(3, source.requests.size());
+        assertEquals(Integer.valueOf(10), source.offsets.get(2));
+    }
+
+}
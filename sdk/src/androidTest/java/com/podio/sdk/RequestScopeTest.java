@@ -0,0 +1,59 @@
+package com.podio.sdk;
+
+import android.test.AndroidTestCase;
+
+public class RequestScopeTest extends AndroidTestCase {
+
+    public void testCancelCancelsTrackedRequests() {
+        RequestScope scope = new RequestScope();
+        DeferredRequest<Integer> request = scope.track(new DeferredRequest<Integer>());
+
+        scope.cancel();
+        assertTrue(request.isCanceled());
+        assertFalse(scope.isClosed());
+    }
+
+    public void testCancelDoesNotCallListeners() {
+        RequestScope scope = new RequestScope();
+        DeferredRequest<Integer> request = scope.track(new DeferredRequest<Integer>());
+        final boolean[] isCalled = {false};
+
+        request.withResultListener(new Request.ResultListener<Integer>() {
+            @Override
+            public boolean onRequestPerformed(Integer content) {
+                isCalled[0] = true;
+                return false;
+            }
+        }).withErrorListener(new Request.ErrorListener() {
+            @Override
+            public boolean onErrorOccurred(Throwable cause) {
+                isCalled[0] = true;
+                return false;
+            }
+        });
+
+        scope.cancel();
+        assertFalse(request.resolve(1));
+        assertFalse(isCalled[0]);
+    }
+
+    public void testClosedScopeCancelsNewRequestsRightAway() {
+        RequestScope scope = new RequestScope();
+        scope.close();
+
+        DeferredRequest<Integer> request = scope.track(new DeferredRequest<Integer>());
+        assertTrue(scope.isClosed());
+        assertTrue(request.isCanceled());
+    }
+
+    public void testCompletedRequestsAreNotAffected() {
+        RequestScope scope = new RequestScope();
+        DeferredRequest<Integer> request = scope.track(new DeferredRequest<Integer>());
+        request.resolve(3);
+
+        scope.cancel();
+        assertFalse(request.isCanceled());
+        assertEquals(Integer.valueOf(3), request.waitForResult(1));
+    }
+
+}
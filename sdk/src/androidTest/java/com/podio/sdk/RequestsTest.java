@@ -0,0 +1,147 @@
+package com.podio.sdk;
+
+import android.test.AndroidTestCase;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+
+public class RequestsTest extends AndroidTestCase {
+
+    private static final Request.ErrorListener IGNORE_ERRORS = new Request.ErrorListener() {
+        @Override
+        public boolean onErrorOccurred(Throwable cause) {
+            return true;
+        }
+    };
+
+    public void testMapTransformsResult() {
+        DeferredRequest<Integer> source = new DeferredRequest<Integer>();
+        Request<String> request = Requests.map(source, new Requests.Transformation<Integer, String>() {
+            @Override
+            public String apply(Integer input) {
+                return "#" + input;
+            }
+        });
+
+        source.resolve(4);
+        assertEquals("#4", request.waitForResult(1));
+    }
+
+    public void testFlatMapChainsRequests() {
+        DeferredRequest<Integer> first = new DeferredRequest<Integer>();
+        final DeferredRequest<Integer> second = new DeferredRequest<Integer>();
+        Request<Integer> request = Requests.flatMap(first, new Requests.Continuation<Integer, Integer>() {
+            @Override
+            public Request<Integer> apply(final Integer input) {
+                return Requests.map(second, new Requests.Transformation<Integer, Integer>() {
+                    @Override
+                    public Integer apply(Integer other) {
+                        return input * other;
+                    }
+                });
+            }
+        });
+
+        second.resolve(3);
+        first.resolve(2);
+        assertEquals(Integer.valueOf(6), request.waitForResult(1));
+    }
+
+    public void testZipCombinesResults() {
+        DeferredRequest<Integer> first = new DeferredRequest<Integer>();
+        DeferredRequest<String> second = new DeferredRequest<String>();
+        Request<String> request = Requests.zip(first, second, new Requests.Combination<Integer, String, String>() {
+            @Override
+            public String combine(Integer number, String text) {
+                return text + number;
+            }
+        });
+
+        second.resolve("item-");
+        first.resolve(7);
+        assertEquals("item-7", request.waitForResult(1));
+    }
+
+    public void testAllOfKeepsOrderOfRequests() {
+        DeferredRequest<Integer> first = new DeferredRequest<Integer>();
+        DeferredRequest<Integer> second = new DeferredRequest<Integer>();
+        Request<List<Integer>> request = Requests.allOf(Arrays.asList(first, second));
+
+        second.resolve(2);
+        first.resolve(1);
+        assertEquals(Arrays.asList(1, 2), request.waitForResult(1));
+    }
+
+    public void testAllOfFailsOnFirstError() {
+        DeferredRequest<Integer> first = new DeferredRequest<Integer>();
+        DeferredRequest<Integer> second = new DeferredRequest<Integer>();
+        Request<List<Integer>> request = Requests.allOf(Arrays.asList(first, second)).withErrorListener(IGNORE_ERRORS);
+
+        first.reject(new PodioError("Failed"));
+
+        try {
+            request.waitForResult(1);
+            fail("Expected the failed request to fail the composed request");
+        } catch (PodioError e) {
+            assertEquals("Failed", e.getMessage());
+        }
+    }
+
+    public void testCancelingComposedRequestCancelsSources() {
+        DeferredRequest<Integer> first = new DeferredRequest<Integer>();
+        DeferredRequest<Integer> second = new DeferredRequest<Integer>();
+        Request<List<Integer>> request = Requests.allOf(Arrays.asList(first, second));
+
+        request.cancel();
+        assertTrue(first.isCanceled());
+        assertTrue(second.isCanceled());
+
+        try {
+            request.waitForResult(1);
+            fail("Expected the canceled request to throw");
+        } catch (PodioError e) {
+            assertTrue(e.getCause() instanceof CancellationException);
+        }
+    }
+
+    public void testAnyOfDeliversFirstResult() {
+        DeferredRequest<Integer> first = new DeferredRequest<Integer>();
+        DeferredRequest<Integer> second = new DeferredRequest<Integer>();
+        Request<Integer> request = Requests.anyOf(Arrays.asList(first, second));
+
+        first.reject(new PodioError("Failed"));
+        second.resolve(5);
+        assertEquals(Integer.valueOf(5), request.waitForResult(1));
+    }
+
+    public void testWithTimeoutFailsWithNoResponseError() {
+        DeferredRequest<Integer> source = new DeferredRequest<Integer>();
+        Request<Integer> request = Requests.withTimeout(source, 50, TimeUnit.MILLISECONDS).withErrorListener(IGNORE_ERRORS);
+
+        try {
+            request.waitForResult(2);
+            fail("Expected the request to time out");
+        } catch (NoResponseError e) {
+            // Expected.
+        }
+    }
+
+    public void testComposedRequestAcceptsSessionListener() {
+        DeferredRequest<Integer> source = new DeferredRequest<Integer>();
+        Request<Integer> request = Requests.withTimeout(source, 1, TimeUnit.SECONDS);
+
+        Request<Integer> chained = request.withSessionListener(new Request.SessionListener() {
+            @Override
+            public boolean onSessionChanged(String accessToken, String refreshToken, String transferToken, long expires) {
+                return false;
+            }
+        });
+
+        assertSame(request, chained);
+        source.resolve(3);
+        assertEquals(Integer.valueOf(3), chained.waitForResult(1));
+    }
+
+}
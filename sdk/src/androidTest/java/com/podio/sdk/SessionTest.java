@@ -0,0 +1,53 @@
+package com.podio.sdk;
+
+import android.test.AndroidTestCase;
+
+public class SessionTest extends AndroidTestCase {
+
+    private static final String USER_RESPONSE = "{\"access_token\":\"a1\",\"refresh_token\":\"r1\",\"expires_in\":28800,\"ref\":{\"type\":\"user\",\"id\":4}}";
+
+    public void testReferenceIsParsedFromAuthResponse() {
+        Session session = new Session();
+        session.update(USER_RESPONSE);
+
+        assertEquals("a1", session.getAccessToken());
+        assertEquals("user:4", session.getReference());
+    }
+
+    public void testRefreshKeepsGeneration() {
+        Session session = new Session();
+        session.update("a0", "r0", null, 0L);
+        long generation = session.getGeneration();
+
+        session.refresh(USER_RESPONSE);
+
+        assertEquals(generation, session.getGeneration());
+        assertEquals("user:4", session.getReference());
+    }
+
+    public void testAuthenticationChangesGeneration() {
+        Session session = new Session();
+        session.update(USER_RESPONSE);
+        long generation = session.getGeneration();
+
+        session.update("{\"access_token\":\"a2\",\"refresh_token\":\"r2\",\"ref\":{\"type\":\"user\",\"id\":5}}");
+
+        assertTrue(generation != session.getGeneration());
+        assertEquals("user:5", session.getReference());
+    }
+
+    public void testRestoringOtherTokensForgetsReference() {
+        Session session = new Session();
+        session.update(USER_RESPONSE);
+        long generation = session.getGeneration();
+
+        session.update("a1", "r1", null, 0L);
+        assertEquals(generation, session.getGeneration());
+        assertEquals("user:4", session.getReference());
+
+        session.update("a9", "r9", null, 0L);
+        assertTrue(generation != session.getGeneration());
+        assertNull(session.getReference());
+    }
+
+}
@@ -0,0 +1,61 @@
+package com.podio.sdk.internal;
+
+import android.test.AndroidTestCase;
+
+import java.util.concurrent.TimeUnit;
+
+public class CircuitBreakerTest extends AndroidTestCase {
+
+    private static final long ONE_SECOND = TimeUnit.SECONDS.toNanos(1L);
+
+    public void testCircuitOpensAfterConsecutiveFailures() {
+        CircuitBreaker circuitBreaker = new CircuitBreaker(3, 1000L, 8000L);
+
+        circuitBreaker.onFailure(0L);
+        circuitBreaker.onFailure(0L);
+        assertTrue(circuitBreaker.allowRequest(0L));
+
+        circuitBreaker.onFailure(0L);
+        assertFalse(circuitBreaker.allowRequest(0L));
+        assertTrue(circuitBreaker.isOpen());
+    }
+
+    public void testSuccessResetsFailureCount() {
+        CircuitBreaker circuitBreaker = new CircuitBreaker(2, 1000L, 8000L);
+
+        circuitBreaker.onFailure(0L);
+        circuitBreaker.onSuccess(0L);
+        circuitBreaker.onFailure(0L);
+
+        assertTrue(circuitBreaker.allowRequest(0L));
+        assertFalse(circuitBreaker.isOpen());
+    }
+
+    public void testOnlyOneTrialIsLetThroughWhenHalfOpen() {
+        CircuitBreaker circuitBreaker = new CircuitBreaker(1, 1000L, 8000L);
+        circuitBreaker.onFailure(0L);
+
+        assertTrue(circuitBreaker.allowRequest(ONE_SECOND));
+        assertFalse(circuitBreaker.allowRequest(ONE_SECOND));
+
+        circuitBreaker.onSuccess(ONE_SECOND);
+        assertTrue(circuitBreaker.allowRequest(ONE_SECOND));
+        assertFalse(circuitBreaker.isOpen());
+    }
+
+    public void testFailedTrialDoublesOpenPeriod() {
+        CircuitBreaker circuitBreaker = new CircuitBreaker(1, 1000L, 3000L);
+        circuitBreaker.onFailure(0L);
+
+        assertTrue(circuitBreaker.allowRequest(ONE_SECOND));
+        circuitBreaker.onFailure(ONE_SECOND);
+        assertFalse(circuitBreaker.allowRequest(2L * ONE_SECOND));
+        assertTrue(circuitBreaker.allowRequest(3L * ONE_SECOND));
+
+        // Capped at the maximum open period.
+        circuitBreaker.onFailure(3L * ONE_SECOND);
+        assertFalse(circuitBreaker.allowRequest(5L * ONE_SECOND));
+        assertTrue(circuitBreaker.allowRequest(6L * ONE_SECOND));
+    }
+
+}
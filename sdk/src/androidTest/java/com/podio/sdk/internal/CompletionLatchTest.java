@@ -0,0 +1,58 @@
+package com.podio.sdk.internal;
+
+import android.test.AndroidTestCase;
+
+import com.podio.sdk.PodioError;
+
+import java.util.concurrent.CancellationException;
+
+public class CompletionLatchTest extends AndroidTestCase {
+
+    public void testAwaitReturnsImmediatelyWhenCompleted() {
+        CompletionLatch latch = new CompletionLatch();
+        assertTrue(latch.complete());
+
+        long start = System.currentTimeMillis();
+        assertTrue(latch.await(10));
+        assertTrue(System.currentTimeMillis() - start < 1000);
+    }
+
+    public void testAwaitTimesOutWhenPending() {
+        CompletionLatch latch = new CompletionLatch();
+        assertFalse(latch.await(0));
+        assertFalse(latch.isDone());
+    }
+
+    public void testOnlyFirstReleaseCounts() {
+        CompletionLatch latch = new CompletionLatch();
+        assertTrue(latch.complete());
+        assertFalse(latch.cancel());
+        assertFalse(latch.isCanceled());
+    }
+
+    public void testAwaitThrowsWhenCanceled() {
+        CompletionLatch latch = new CompletionLatch();
+        assertTrue(latch.cancel());
+
+        try {
+            latch.await(10);
+            fail("Expected the canceled latch to throw");
+        } catch (PodioError e) {
+            assertTrue(e.getCause() instanceof CancellationException);
+        }
+    }
+
+    public void testAwaitRetainsInterruptedState() {
+        CompletionLatch latch = new CompletionLatch();
+        Thread.currentThread().interrupt();
+
+        try {
+            latch.await(10);
+            fail("Expected the interrupted wait to throw");
+        } catch (PodioError e) {
+            assertTrue(e.getCause() instanceof InterruptedException);
+            assertTrue(Thread.interrupted());
+        }
+    }
+
+}
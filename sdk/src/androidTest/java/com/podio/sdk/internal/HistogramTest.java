@@ -0,0 +1,43 @@
+package com.podio.sdk.internal;
+
+import android.test.AndroidTestCase;
+
+public class HistogramTest extends AndroidTestCase {
+
+    public void testBucketsCoverAllValues() {
+        for (long value = 0L; value < 100000L; value++) {
+            int index = Histogram.indexOf(value);
+
+            assertTrue(Histogram.upperBoundOf(index) >= value);
+            assertTrue(index == 0 || Histogram.upperBoundOf(index - 1) < value);
+        }
+
+        assertEquals(Long.MAX_VALUE, Histogram.upperBoundOf(Histogram.indexOf(Long.MAX_VALUE)));
+    }
+
+    public void testPercentilesAreWithinPrecision() {
+        Histogram histogram = new Histogram();
+
+        for (long value = 1L; value <= 1000L; value++) {
+            histogram.record(value * 1000L);
+        }
+
+        assertEquals(1000L, histogram.getCount());
+        assertWithin(500000L, histogram.getPercentile(50.0));
+        assertWithin(950000L, histogram.getPercentile(95.0));
+        assertWithin(990000L, histogram.getPercentile(99.0));
+        assertEquals(1000000L, histogram.getPercentile(100.0));
+    }
+
+    public void testEmptyHistogramReportsZero() {
+        Histogram histogram = new Histogram();
+
+        assertEquals(0L, histogram.getPercentile(99.0));
+    }
+
+    private static void assertWithin(long expected, long actual) {
+        assertTrue("Expected about " + expected + " but was " + actual,
+                actual >= expected && actual <= expected + expected / 8L);
+    }
+
+}
@@ -0,0 +1,59 @@
+package com.podio.sdk.internal;
+
+import android.test.AndroidTestCase;
+
+import java.util.concurrent.TimeUnit;
+
+public class RateLimiterTest extends AndroidTestCase {
+
+    private static final long ONE_SECOND = TimeUnit.SECONDS.toNanos(1L);
+
+    public void testNothingIsHeldBackUntilLimitIsKnown() {
+        RateLimiter rateLimiter = new RateLimiter(10L);
+
+        for (int i = 0; i < 100; i++) {
+            assertTrue(rateLimiter.tryAcquire(0L));
+        }
+
+        assertEquals(0L, rateLimiter.getDelayNanos(0L));
+    }
+
+    public void testRemainingRequestsAreSpentBeforeThrottling() {
+        RateLimiter rateLimiter = new RateLimiter(10L);
+        rateLimiter.onRateLimit(10L, 2L, 0L);
+
+        assertTrue(rateLimiter.tryAcquire(0L));
+        assertTrue(rateLimiter.tryAcquire(0L));
+        assertFalse(rateLimiter.tryAcquire(0L));
+        assertEquals(ONE_SECOND, rateLimiter.getDelayNanos(0L));
+    }
+
+    public void testTokensAreRefilledAtAllowedRate() {
+        RateLimiter rateLimiter = new RateLimiter(10L);
+        rateLimiter.onRateLimit(10L, 0L, 0L);
+
+        assertFalse(rateLimiter.tryAcquire(ONE_SECOND / 2L));
+        assertTrue(rateLimiter.tryAcquire(ONE_SECOND));
+        assertFalse(rateLimiter.tryAcquire(ONE_SECOND));
+        assertTrue(rateLimiter.tryAcquire(3L * ONE_SECOND));
+        assertTrue(rateLimiter.tryAcquire(3L * ONE_SECOND));
+    }
+
+    public void testRetryAfterPausesAllRequests() {
+        RateLimiter rateLimiter = new RateLimiter(10L);
+        rateLimiter.onRateLimitExceeded(5L, 0L);
+
+        assertFalse(rateLimiter.tryAcquire(4L * ONE_SECOND));
+        assertEquals(ONE_SECOND, rateLimiter.getDelayNanos(4L * ONE_SECOND));
+        assertTrue(rateLimiter.tryAcquire(5L * ONE_SECOND));
+    }
+
+    public void testResetForgetsLimit() {
+        RateLimiter rateLimiter = new RateLimiter(10L);
+        rateLimiter.onRateLimit(10L, 0L, 0L);
+        rateLimiter.reset();
+
+        assertTrue(rateLimiter.tryAcquire(0L));
+    }
+
+}
@@ -8,7 +8,6 @@ import java.util.Date;
 import java.util.HashMap;
 import java.util.TimeZone;
 
-import android.net.Uri;
 import android.test.AndroidTestCase;
 
 public class UtilsTest extends AndroidTestCase {
@@ -61,24 +60,6 @@ public class UtilsTest extends AndroidTestCase {
         assertTrue(Utils.notEmpty(nonEmpty));
     }
 
-    public void testUriIsEmpty() {
-        Uri empty = Uri.EMPTY;
-        Uri nonEmpty = Uri.parse("test://uri");
-
-        assertTrue(Utils.isEmpty(empty));
-        assertTrue(Utils.isEmpty((Uri) null));
-        assertFalse(Utils.isEmpty(nonEmpty));
-    }
-
-    public void testUriNotEmpty() {
-        Uri empty = Uri.EMPTY;
-        Uri nonEmpty = Uri.parse("test://uri");
-
-        assertFalse(Utils.notEmpty(empty));
-        assertFalse(Utils.notEmpty((Uri) null));
-        assertTrue(Utils.notEmpty(nonEmpty));
-    }
-
     public void testMapIsEmpty() {
         HashMap<Object, Object> empty = new HashMap<Object, Object>();
         HashMap<Object, Object> nonEmpty = new HashMap<Object, Object>();
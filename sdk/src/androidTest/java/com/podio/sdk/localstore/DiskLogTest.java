@@ -0,0 +1,169 @@
+package com.podio.sdk.localstore;
+
+import android.test.AndroidTestCase;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+public class DiskLogTest extends AndroidTestCase {
+
+    private File directory;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        directory = new File(System.getProperty("java.io.tmpdir"), "disklogtest-" + System.nanoTime());
+        assertTrue(directory.mkdirs());
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        File[] files = directory.listFiles();
+
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+
+        directory.delete();
+        super.tearDown();
+    }
+
+    public void testValuesSurviveReopening() throws IOException {
+        DiskLog log = DiskLog.open(directory, 0L, 0L);
+        log.put("a", "{\"value\":1}");
+        log.put("b", "{\"value\":2}");
+        log.put("a", "{\"value\":3}");
+        log.remove("b");
+
+        DiskLog reopened = DiskLog.open(directory, 0L, 0L);
+        assertEquals("{\"value\":3}", reopened.get("a"));
+        assertNull(reopened.get("b"));
+    }
+
+    public void testPartlyWrittenRecordIsCutOff() throws IOException {
+        DiskLog log = DiskLog.open(directory, 0L, 0L);
+        log.put("a", "1");
+        long intactLength = log.getFileLength();
+        log.put("b", "2");
+
+        RandomAccessFile file = new RandomAccessFile(new File(directory, DiskLog.LOG_FILE_NAME), "rw");
+        file.setLength(log.getFileLength() - 1);
+        file.close();
+
+        DiskLog reopened = DiskLog.open(directory, 0L, 0L);
+        assertEquals("1", reopened.get("a"));
+        assertNull(reopened.get("b"));
+        assertEquals(intactLength, reopened.getFileLength());
+    }
+
+    public void testCorruptRecordIsNotRead() throws IOException {
+        DiskLog log = DiskLog.open(directory, 0L, 0L);
+        log.put("a", "value");
+
+        RandomAccessFile file = new RandomAccessFile(new File(directory, DiskLog.LOG_FILE_NAME), "rw");
+        file.seek(file.length() - 1);
+        file.write('X');
+        file.close();
+
+        assertNull(log.get("a"));
+        assertNull(DiskLog.open(directory, 0L, 0L).get("a"));
+    }
+
+    public void testCompactionKeepsLiveValuesOnly() throws IOException {
+        DiskLog log = DiskLog.open(directory, 0L, 0L);
+
+        for (int i = 0; i < 100; i++) {
+            log.put("key" + (i % 10), "value" + i);
+        }
+
+        long length = log.getFileLength();
+        log.compact();
+
+        assertTrue(log.getFileLength() < length / 5);
+        assertEquals("value95", log.get("key5"));
+        assertEquals("value99", DiskLog.open(directory, 0L, 0L).get("key9"));
+    }
+
+    public void testLegacyFilesAreMigrated() throws IOException {
+        FileOutputStream output = new FileOutputStream(new File(directory, "item%3A1"));
+        output.write("{\"item_id\":1}".getBytes());
+        output.close();
+
+        DiskLog log = DiskLog.open(directory, 0L, 0L);
+        assertEquals("{\"item_id\":1}", log.get("item:1"));
+        assertFalse(new File(directory, "item%3A1").exists());
+    }
+
+    public void testBufferedWritesAreCoalesced() throws IOException {
+        DiskLog log = DiskLog.open(directory, 0L, 60000L);
+        long length = log.getFileLength();
+
+        for (int i = 0; i < 10; i++) {
+            log.put("a", "value" + i);
+        }
+
+        log.put("b", "1");
+        log.remove("b");
+
+        // Buffered values are read back before they're written.
+        assertEquals("value9", log.get("a"));
+        assertNull(log.get("b"));
+        assertEquals(length, log.getFileLength());
+
+        log.flush();
+        assertEquals("value9", DiskLog.open(directory, 0L, 0L).get("a"));
+        assertNull(DiskLog.open(directory, 0L, 0L).get("b"));
+        assertTrue(log.getFileLength() < length + 40);
+    }
+
+    public void testClearRemovesAllValues() throws IOException {
+        DiskLog log = DiskLog.open(directory, 0L, 0L);
+        log.put("a", "1");
+        log.clear();
+
+        assertNull(log.get("a"));
+        assertNull(DiskLog.open(directory, 0L, 0L).get("a"));
+    }
+
+    public void testExpiryTimeSurvivesReopening() throws IOException {
+        DiskLog log = DiskLog.open(directory, 0L, 0L);
+        log.put("a", "1", 1234L);
+        log.put("b", "2");
+
+        DiskLog reopened = DiskLog.open(directory, 0L, 0L);
+        assertEquals(1234L, reopened.getEntry("a").getExpiresAt());
+        assertEquals("1", reopened.getEntry("a").getValue());
+        assertEquals(DiskLog.NEVER, reopened.getEntry("b").getExpiresAt());
+    }
+
+    public void testLeastRecentlyUsedValuesAreEvicted() throws IOException {
+        DiskLog log = DiskLog.open(directory, 1024L, 0L);
+        StringBuilder value = new StringBuilder();
+
+        for (int i = 0; i < 200; i++) {
+            value.append('x');
+        }
+
+        for (int i = 0; i < 4; i++) {
+            log.put("key" + i, value.toString());
+        }
+
+        // Reading the first value makes the second one the least recently used.
+        assertNotNull(log.get("key0"));
+        log.put("key4", value.toString());
+        log.put("key5", value.toString());
+
+        assertNotNull(log.get("key0"));
+        assertNull(log.get("key1"));
+        assertNotNull(log.get("key5"));
+
+        DiskLog reopened = DiskLog.open(directory, 1024L, 0L);
+        assertNull(reopened.get("key1"));
+        assertNotNull(reopened.get("key5"));
+    }
+
+}
@@ -0,0 +1,58 @@
+package com.podio.sdk.localstore;
+
+import android.test.AndroidTestCase;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ObjectSizeEstimatorTest extends AndroidTestCase {
+
+    // Deliberately not Serializable.
+    private static final class Node {
+        private long id;
+        private String title;
+        private Node parent;
+        private List<Node> children = new ArrayList<Node>();
+    }
+
+    public void testObjectsThatArentSerializableAreEstimated() {
+        Node node = new Node();
+        node.title = "title";
+
+        long size = ObjectSizeEstimator.estimate(node);
+        assertTrue(size > 0L);
+        assertTrue(size < 1024L);
+    }
+
+    public void testSizeGrowsWithContent() {
+        Node small = new Node();
+        small.title = "a";
+
+        Node large = new Node();
+        large.title = "a";
+
+        for (int i = 0; i < 100; i++) {
+            Node child = new Node();
+            child.title = "child " + i;
+            large.children.add(child);
+        }
+
+        assertTrue(ObjectSizeEstimator.estimate(large) > ObjectSizeEstimator.estimate(small) + 100L * 24L);
+    }
+
+    public void testCyclesAndSharedObjectsAreCountedOnce() {
+        Node parent = new Node();
+        Node child = new Node();
+        child.parent = parent;
+        parent.children.add(child);
+        parent.children.add(child);
+
+        Node single = new Node();
+        single.children.add(new Node());
+
+        // The extra reference in the list costs four bytes, at most one alignment more.
+        assertTrue(ObjectSizeEstimator.estimate(parent) - ObjectSizeEstimator.estimate(single) <= 8L);
+        assertEquals(0L, ObjectSizeEstimator.estimate(null));
+    }
+
+}
@@ -0,0 +1,121 @@
+package com.podio.sdk.outbox;
+
+import android.test.AndroidTestCase;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+public class JournalTest extends AndroidTestCase {
+
+    private File file;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        file = new File(getContext().getFilesDir(), "outbox-test.json");
+        file.delete();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        file.delete();
+        super.tearDown();
+    }
+
+    public void testReadReturnsEmptyListWhenJournalIsMissing() {
+        Journal journal = new Journal(file);
+        assertTrue(journal.read().isEmpty());
+    }
+
+    public void testReadReturnsEmptyListWhenJournalIsCorrupt() throws IOException {
+        FileOutputStream outputStream = new FileOutputStream(file);
+        outputStream.write("[{\"id\":1,\"meth".getBytes("UTF-8"));
+        outputStream.close();
+
+        Journal journal = new Journal(file);
+        assertTrue(journal.read().isEmpty());
+    }
+
+    public void testWrittenEntriesAreReadInOrder() throws IOException {
+        Journal.Entry first = new Journal.Entry(1L, "POST", "item/app/2", "BACKGROUND", "{\"fields\":{}}", "com.podio.sdk.domain.Item$CreateResult", "user:4", 1L);
+        Journal.Entry second = new Journal.Entry(2L, "DELETE", "item/3", null, null, null, null, 1L);
+
+        Journal journal = new Journal(file);
+        journal.write(first);
+        journal.write(second);
+        second.incrementAttempts();
+        journal.write(second);
+        List<Journal.Entry> result = new Journal(file).read();
+
+        assertEquals(2, result.size());
+        assertEquals(1L, result.get(0).getId());
+        assertEquals("POST", result.get(0).getMethod());
+        assertEquals("item/app/2", result.get(0).getPath());
+        assertEquals("BACKGROUND", result.get(0).getPriority());
+        assertEquals("{\"fields\":{}}", result.get(0).getBody());
+        assertEquals("com.podio.sdk.domain.Item$CreateResult", result.get(0).getResultClass());
+        assertEquals("user:4", result.get(0).getOwner());
+        assertEquals(0L, result.get(0).getGeneration());
+        assertEquals(0, result.get(0).getAttempts());
+        assertEquals(2L, result.get(1).getId());
+        assertEquals("DELETE", result.get(1).getMethod());
+        assertNull(result.get(1).getPriority());
+        assertNull(result.get(1).getBody());
+        assertNull(result.get(1).getOwner());
+        assertEquals(1, result.get(1).getAttempts());
+    }
+
+    public void testRemovedEntriesAreNotRead() throws IOException {
+        Journal.Entry first = new Journal.Entry(1L, "DELETE", "item/3", null, null, null, null, 1L);
+        Journal.Entry second = new Journal.Entry(2L, "DELETE", "item/4", null, null, null, null, 1L);
+        ArrayList<Journal.Entry> entries = new ArrayList<Journal.Entry>();
+        entries.add(second);
+
+        Journal journal = new Journal(file);
+        journal.write(first);
+        journal.write(second);
+        journal.remove(first, entries);
+        List<Journal.Entry> result = new Journal(file).read();
+
+        assertEquals(1, result.size());
+        assertEquals(2L, result.get(0).getId());
+    }
+
+    public void testTornRecordIsSkipped() throws IOException {
+        Journal journal = new Journal(file);
+        journal.write(new Journal.Entry(1L, "DELETE", "item/3", null, null, null, null, 1L));
+
+        FileOutputStream outputStream = new FileOutputStream(file, true);
+        outputStream.write("{\"entry\":{\"id\":2,\"meth".getBytes("UTF-8"));
+        outputStream.close();
+
+        journal = new Journal(file);
+        assertEquals(1, journal.read().size());
+
+        // Records written after the torn one must still be readable.
+        journal.write(new Journal.Entry(3L, "DELETE", "item/5", null, null, null, null, 1L));
+        List<Journal.Entry> result = new Journal(file).read();
+
+        assertEquals(2, result.size());
+        assertEquals(3L, result.get(1).getId());
+        assertFalse(new File(file.getPath() + ".tmp").exists());
+    }
+
+    public void testJournalIsCompactedOnceMostlyOutdated() throws IOException {
+        Journal journal = new Journal(file);
+        ArrayList<Journal.Entry> entries = new ArrayList<Journal.Entry>();
+
+        for (long id = 1L; id <= 100L; id++) {
+            Journal.Entry entry = new Journal.Entry(id, "DELETE", "item/" + id, null, null, null, null, 1L);
+            journal.write(entry);
+            journal.remove(entry, entries);
+        }
+
+        assertTrue(new Journal(file).read().isEmpty());
+        assertTrue(file.length() < 100L * 40L);
+    }
+
+}
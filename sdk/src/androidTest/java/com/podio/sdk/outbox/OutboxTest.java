@@ -0,0 +1,145 @@
+package com.podio.sdk.outbox;
+
+import android.test.AndroidTestCase;
+
+import com.podio.sdk.Client;
+import com.podio.sdk.ConnectionError;
+import com.podio.sdk.DeferredRequest;
+import com.podio.sdk.Filter;
+import com.podio.sdk.PodioError;
+import com.podio.sdk.Request;
+import com.podio.sdk.Session;
+
+import java.io.File;
+import java.net.SocketException;
+import java.net.UnknownHostException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class OutboxTest extends AndroidTestCase {
+
+    private static final String NAME = "outbox-test";
+
+    private static final Request.ErrorListener PASS_ON = new Request.ErrorListener() {
+        @Override
+        public boolean onErrorOccurred(Throwable cause) {
+            return false;
+        }
+    };
+
+    /**
+     * A client failing the first request it's asked to make with the given error, and resolving
+     * any further requests.
+     */
+    private static final class FailingOnceClient implements Client {
+        private final AtomicInteger attempts = new AtomicInteger();
+        private final PodioError error;
+        private volatile Filter lastFilter;
+
+        private FailingOnceClient(PodioError error) {
+            this.error = error;
+        }
+
+        @Override
+        public Request<Void> authenticateWithUserCredentials(String username, String password) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Request<Void> authenticateWithAppCredentials(String appId, String appToken) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Request<Void> authenticateWithTransferToken(String transferToken) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Request<Void> forceRefreshTokens() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public <T> Request<T> request(Request.Method method, Filter filter, Object requestData, Class<T> classOfExpectedResult) {
+            DeferredRequest<T> request = new DeferredRequest<T>();
+            lastFilter = filter;
+
+            if (attempts.incrementAndGet() == 1) {
+                request.withErrorListener(PASS_ON).reject(error);
+            } else {
+                request.resolve(null);
+            }
+
+            return request;
+        }
+    }
+
+    private Outbox outbox;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        getJournalFile().delete();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        if (outbox != null) {
+            outbox.close();
+        }
+
+        getJournalFile().delete();
+        super.tearDown();
+    }
+
+    public void testCreateMadeOfflineIsReplayed() {
+        FailingOnceClient client = new FailingOnceClient(ConnectionError.fromCause(new UnknownHostException("api.podio.com")));
+        outbox = Outbox.open(getContext(), NAME, client, newSession());
+
+        Request<Object> request = outbox.request(Request.Method.POST, newPath("item/app/2/"), "{}", Object.class);
+
+        assertNull(request.waitForResult(10));
+        assertEquals(2, client.attempts.get());
+    }
+
+    public void testCreateLostAfterSendingIsNotReplayed() {
+        FailingOnceClient client = new FailingOnceClient(ConnectionError.fromCause(new SocketException("Connection reset")));
+        outbox = Outbox.open(getContext(), NAME, client, newSession());
+
+        Request<Object> request = outbox.request(Request.Method.POST, newPath("item/app/2/"), "{}", Object.class)
+                .withErrorListener(PASS_ON);
+
+        try {
+            request.waitForResult(10);
+            fail("The create may already have been made, it mustn't be sent again");
+        } catch (ConnectionError e) {
+            assertEquals(1, client.attempts.get());
+        }
+    }
+
+    public void testReplayedMutationKeepsPriority() {
+        FailingOnceClient client = new FailingOnceClient(ConnectionError.fromCause(new UnknownHostException("api.podio.com")));
+        outbox = Outbox.open(getContext(), NAME, client, newSession());
+
+        Filter path = newPath("item/3").withPriority(Request.Priority.BACKGROUND);
+        outbox.request(Request.Method.DELETE, path, null, null).waitForResult(10);
+
+        assertEquals(Request.Priority.BACKGROUND, client.lastFilter.getPriority());
+    }
+
+    private File getJournalFile() {
+        return new File(new File(getContext().getFilesDir(), "outbox"), NAME + ".json");
+    }
+
+    private static Filter newPath(String path) {
+        return new Filter(path) {
+        };
+    }
+
+    private static Session newSession() {
+        Session session = new Session();
+        session.update("{\"access_token\":\"a1\",\"refresh_token\":\"r1\",\"expires_in\":28800,\"ref\":{\"type\":\"user\",\"id\":4}}");
+        return session;
+    }
+
+}
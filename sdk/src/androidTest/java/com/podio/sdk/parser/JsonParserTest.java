@@ -4,7 +4,14 @@ import java.util.List;
 
 import android.test.AndroidTestCase;
 
+import com.podio.sdk.domain.AssignTaskAction;
 import com.podio.sdk.domain.Item;
+import com.podio.sdk.domain.NotificationGroup;
+import com.podio.sdk.domain.Profile;
+import com.podio.sdk.domain.ReferenceType;
+import com.podio.sdk.domain.Space;
+import com.podio.sdk.domain.TaskAction;
+import com.podio.sdk.domain.TextTaskAction;
 import com.podio.sdk.domain.field.CalculationField;
 import com.podio.sdk.domain.field.CategoryField;
 import com.podio.sdk.domain.field.ContactField;
@@ -20,6 +27,21 @@ import com.podio.sdk.domain.field.ProgressField;
 import com.podio.sdk.domain.field.RelationshipField;
 import com.podio.sdk.domain.field.TextField;
 import com.podio.sdk.domain.field.UndefinedField;
+import com.podio.sdk.domain.notification.AppNotificationContext;
+import com.podio.sdk.domain.notification.ItemNotificationContext;
+import com.podio.sdk.domain.notification.NotificationContext;
+import com.podio.sdk.domain.notification.UnknownNotificationContext;
+import com.podio.sdk.domain.reference.ProfilesReferenceGroup;
+import com.podio.sdk.domain.reference.ReferenceGroup;
+import com.podio.sdk.domain.reference.SpacesReferenceGroup;
+import com.podio.sdk.domain.reference.UnknownReferenceGroup;
+import com.podio.sdk.domain.stream.EventActivity;
+import com.podio.sdk.domain.stream.EventContext;
+import com.podio.sdk.domain.stream.StatusEventContext;
+import com.podio.sdk.domain.stream.TaskActionEventActivity;
+import com.podio.sdk.domain.stream.TaskEventActivity;
+import com.podio.sdk.domain.stream.UnknownEventActivity;
+import com.podio.sdk.domain.stream.UnknownEventContext;
 import com.podio.sdk.json.JsonParser;
 
 public class JsonParserTest extends AndroidTestCase {
@@ -153,4 +175,172 @@ public class JsonParserTest extends AndroidTestCase {
         assertContent(item, TextField.class, Field.Type.text);
     }
 
+    public void testParseJsonStringToFieldWhenTypeIsNotFirst() {
+        String json = "{fields:[{field_id:1,values:[{value:'text'}],label:'Title',type:'text'}]}";
+        Item item = JsonParser.fromJson(json, Item.class);
+
+        assertContent(item, TextField.class, Field.Type.text);
+
+        TextField field = (TextField) item.getFields().get(0);
+        assertEquals("Title", field.getLabel());
+        assertEquals(1, field.valuesCount());
+    }
+
+    public void testParseJsonStringToFieldWithEmptyValuesWhenNoValues() {
+        String json = "{fields:[{type:'text',field_id:1}]}";
+        Item item = JsonParser.fromJson(json, Item.class);
+
+        assertContent(item, TextField.class, Field.Type.text);
+        assertEquals(0, item.getFields().get(0).valuesCount());
+    }
+
+    public void testSerializeCalculationFieldKeepsValues() {
+        String json = "{fields:[{type:'calculation',config:{settings:{return_type:'number'}},values:[{value:'7.5'}]}]}";
+        Item item = JsonParser.fromJson(json, Item.class);
+        String serialized = JsonParser.toJson(item);
+
+        assertEquals(1, item.getFields().get(0).valuesCount());
+
+        Item copy = JsonParser.fromJson(serialized, Item.class);
+        assertContent(copy, CalculationField.class, Field.Type.calculation);
+        assertEquals(1, copy.getFields().get(0).valuesCount());
+        assertEquals(serialized, JsonParser.toJson(copy));
+    }
+
+    public void testRoundTripUnknownFieldTypeKeepsFallback() {
+        String json = "{fields:[{type:'bla',field_id:4,label:'Odd'},{field_id:5,label:'Untyped'}]}";
+        Item copy = JsonParser.fromJson(JsonParser.toJson(JsonParser.fromJson(json, Item.class)), Item.class);
+
+        List<Field> fields = copy.getFields();
+        assertEquals(2, fields.size());
+        assertEquals(UndefinedField.class, fields.get(0).getClass());
+        assertEquals(Field.Type.undefined, fields.get(0).getType());
+        assertEquals(4L, fields.get(0).getFieldId());
+        assertEquals("Odd", fields.get(0).getLabel());
+        assertEquals(UndefinedField.class, fields.get(1).getClass());
+        assertEquals(5L, fields.get(1).getFieldId());
+        assertEquals("Untyped", fields.get(1).getLabel());
+    }
+
+    public void testRoundTripNotificationContexts() {
+        String json = "[" +
+                "{context:{ref:{type:'item',id:7},title:'Item',data:{item_id:7,title:'An item'}}}," +
+                "{context:{title:'App',ref:{type:'app',id:8}}}," +
+                "{context:{ref:{type:'bla',id:9},title:'Unknown'}}]";
+        NotificationGroup[] copy = roundTrip(json, NotificationGroup[].class);
+
+        assertEquals(3, copy.length);
+
+        NotificationContext item = copy[0].getNotificationContext();
+        assertEquals(ItemNotificationContext.class, item.getClass());
+        assertEquals(ReferenceType.item, item.getReference().getType());
+        assertEquals(7L, item.getReference().getId());
+        assertEquals("Item", item.getTitle());
+        assertEquals(7L, ((ItemNotificationContext) item).getItem().getId());
+        assertEquals("An item", ((ItemNotificationContext) item).getItem().getTitle());
+
+        NotificationContext app = copy[1].getNotificationContext();
+        assertEquals(AppNotificationContext.class, app.getClass());
+        assertEquals(8L, app.getReference().getId());
+        assertEquals("App", app.getTitle());
+
+        NotificationContext unknown = copy[2].getNotificationContext();
+        assertEquals(UnknownNotificationContext.class, unknown.getClass());
+        assertEquals(9L, unknown.getReference().getId());
+        assertEquals("Unknown", unknown.getTitle());
+    }
+
+    public void testRoundTripStreamObjects() {
+        String json = "[" +
+                "{type:'status',id:1,title:'Status',data:{status_id:1,value:'Hello'}," +
+                "activity:[{type:'task',activity_type:'task',data:{task_id:3,text:'Do it'}}," +
+                "{activity_type:'update',type:'bla'}]}," +
+                "{title:'Unknown',id:2,type:'bla'}]";
+        EventContext[] copy = roundTrip(json, EventContext[].class);
+
+        assertEquals(2, copy.length);
+
+        EventContext status = copy[0];
+        assertEquals(StatusEventContext.class, status.getClass());
+        assertEquals(ReferenceType.status, status.getType());
+        assertEquals(1L, status.getId());
+        assertEquals("Status", status.getTitle());
+        assertEquals(1L, ((StatusEventContext) status).getStatus().getStatusId());
+        assertEquals("Hello", ((StatusEventContext) status).getStatus().getValue());
+
+        List<EventActivity> activities = status.getActivity();
+        assertEquals(2, activities.size());
+        assertEquals(TaskEventActivity.class, activities.get(0).getClass());
+        assertEquals(EventActivity.EventType.task, activities.get(0).getActivityType());
+        assertEquals(3L, ((TaskEventActivity) activities.get(0)).getTask().getTaskId());
+        assertEquals("Do it", ((TaskEventActivity) activities.get(0)).getTask().getText());
+        assertEquals(UnknownEventActivity.class, activities.get(1).getClass());
+        assertEquals(EventActivity.EventType.update, activities.get(1).getActivityType());
+
+        EventContext unknown = copy[1];
+        assertEquals(UnknownEventContext.class, unknown.getClass());
+        assertEquals(2L, unknown.getId());
+        assertEquals("Unknown", unknown.getTitle());
+    }
+
+    public void testRoundTripReferenceGroups() {
+        String json = "[" +
+                "{name:'spaces',contents:[{space_id:4,name:'Space'}]}," +
+                "{contents:[{user_id:5,name:'Jane'}],name:'profiles'}," +
+                "{name:'bla'}]";
+        ReferenceGroup[] copy = roundTrip(json, ReferenceGroup[].class);
+
+        assertEquals(3, copy.length);
+
+        assertEquals(SpacesReferenceGroup.class, copy[0].getClass());
+        assertEquals(ReferenceGroup.ReferenceGroupName.spaces, copy[0].getName());
+        List<Space> spaces = ((SpacesReferenceGroup) copy[0]).getContents();
+        assertEquals(1, spaces.size());
+        assertEquals(4L, spaces.get(0).getSpaceId());
+        assertEquals("Space", spaces.get(0).getName());
+
+        assertEquals(ProfilesReferenceGroup.class, copy[1].getClass());
+        assertEquals(ReferenceGroup.ReferenceGroupName.profiles, copy[1].getName());
+        List<Profile> profiles = ((ProfilesReferenceGroup) copy[1]).getContents();
+        assertEquals(1, profiles.size());
+        assertEquals(5L, profiles.get(0).getUserId());
+        assertEquals("Jane", profiles.get(0).getName());
+
+        assertEquals(UnknownReferenceGroup.class, copy[2].getClass());
+    }
+
+    public void testRoundTripTaskActions() {
+        String json = "[" +
+                "{type:'task_action',data:{task_action_id:1,type:'assign',changed:{user_id:6,name:'John'}}}," +
+                "{data:{changed:'New text',type:'update_text',task_action_id:2},type:'task_action'}]";
+        EventActivity[] copy = roundTrip(json, EventActivity[].class);
+
+        assertEquals(2, copy.length);
+
+        TaskAction assign = ((TaskActionEventActivity) copy[0]).getTaskAction();
+        assertEquals(AssignTaskAction.class, assign.getClass());
+        assertEquals(TaskAction.TaskActionType.assign, assign.getType());
+        assertEquals(1L, assign.getTaskActionId());
+        assertEquals(6L, ((AssignTaskAction) assign).getProfile().getUserId());
+        assertEquals("John", ((AssignTaskAction) assign).getProfile().getName());
+
+        TaskAction text = ((TaskActionEventActivity) copy[1]).getTaskAction();
+        assertEquals(TextTaskAction.class, text.getClass());
+        assertEquals(TaskAction.TaskActionType.update_text, text.getType());
+        assertEquals(2L, text.getTaskActionId());
+        assertEquals("New text", ((TextTaskAction) text).getText());
+    }
+
+    /**
+     * Parses the given JSON, serializes the result and parses that again, making sure the
+     * serialized form is stable.
+     */
+    private static <T> T roundTrip(String json, Class<T> classOfT) {
+        String serialized = JsonParser.toJson(JsonParser.fromJson(json, classOfT));
+        T copy = JsonParser.fromJson(serialized, classOfT);
+        assertEquals(serialized, JsonParser.toJson(copy));
+
+        return copy;
+    }
+
 }
@@ -9,10 +9,10 @@ public class ApplicationFilterTest extends AndroidTestCase {
         Uri reference = Uri.parse("content://test.uri/app/space/2" //
                 + "?include_inactive=true");
 
-        Uri result = new ApplicationProvider.Path() //
+        Uri result = Uri.parse(new ApplicationProvider.Path() //
                 .withSpaceId(2L) //
                 .withInactivesIncluded(true) //
-                .buildUri("content", "test.uri");
+                .buildUrl("content", "test.uri"));
 
         assertEquals(reference, result);
     }
@@ -20,7 +20,7 @@ public class ApplicationFilterTest extends AndroidTestCase {
 
     public void testApplicationIdAddedAsPathSegment() {
         Uri reference = Uri.parse("content://test.uri/app/1");
-        Uri result = new ApplicationProvider.Path().withApplicationId(1L).buildUri("content", "test.uri");
+        Uri result = Uri.parse(new ApplicationProvider.Path().withApplicationId(1L).buildUrl("content", "test.uri"));
 
         assertEquals(reference, result);
     }
@@ -28,8 +28,8 @@ public class ApplicationFilterTest extends AndroidTestCase {
 
     public void testIncludeInactiveFlagAddedAsQueryParameter() {
         Uri reference = Uri.parse("content://test.uri/app?include_inactive=false");
-        Uri result = new ApplicationProvider.Path().withInactivesIncluded(false).buildUri("content",
-                "test.uri");
+        Uri result = Uri.parse(new ApplicationProvider.Path().withInactivesIncluded(false).buildUrl("content",
+                "test.uri"));
 
         assertEquals(reference, result);
     }
@@ -37,7 +37,7 @@ public class ApplicationFilterTest extends AndroidTestCase {
 
     public void testSpaceIdAddedAsPathSegment() {
         Uri reference = Uri.parse("content://test.uri/app/space/1");
-        Uri result = new ApplicationProvider.Path().withSpaceId(1L).buildUri("content", "test.uri");
+        Uri result = Uri.parse(new ApplicationProvider.Path().withSpaceId(1L).buildUrl("content", "test.uri"));
 
         assertEquals(reference, result);
     }
@@ -45,7 +45,7 @@ public class ApplicationFilterTest extends AndroidTestCase {
 
     public void testTypeFlagAddedAsQueryParameter() {
         Uri reference = Uri.parse("content://test.uri/app?type=test");
-        Uri result = new ApplicationProvider.Path().withType("test").buildUri("content", "test.uri");
+        Uri result = Uri.parse(new ApplicationProvider.Path().withType("test").buildUrl("content", "test.uri"));
 
         assertEquals(reference, result);
     }
@@ -0,0 +1,117 @@
+package com.podio.sdk.provider;
+
+import android.test.AndroidTestCase;
+
+import com.google.gson.Gson;
+import com.podio.sdk.DeferredRequest;
+import com.podio.sdk.Request;
+import com.podio.sdk.domain.Item;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+
+public class BulkItemFetcherTest extends AndroidTestCase {
+
+    private static final class FakePageSource implements BulkItemFetcher.PageSource {
+        private final TreeMap<Integer, DeferredRequest<Item.FilterResult>> requests = new TreeMap<Integer, DeferredRequest<Item.FilterResult>>();
+
+        @Override
+        public Request<Item.FilterResult> getPage(int offset, int limit) {
+            DeferredRequest<Item.FilterResult> request = new DeferredRequest<Item.FilterResult>();
+            requests.put(offset, request);
+            return request;
+        }
+
+        private void resolve(int offset, int itemCount, int filteredCount) {
+            StringBuilder json = new StringBuilder("{filtered:" + filteredCount + ", items:[");
+
+            for (int i = 0; i < itemCount; i++) {
+                json.append(i > 0 ? "," : "").append("{item_id:").append(offset + i).append("}");
+            }
+
+            requests.get(offset).resolve(new Gson().fromJson(json.append("]}").toString(), Item.FilterResult.class));
+        }
+    }
+
+    private static final class RecordingPageListener implements ItemProvider.PageListener {
+        private final ArrayList<Integer> offsets = new ArrayList<Integer>();
+
+        @Override
+        public void onPage(int offset, List<Item> items) {
+            offsets.add(offset);
+        }
+    }
+
+    public void testRemainingPagesAreFetchedInParallelAfterFirstPage() {
+        FakePageSource source = new FakePageSource();
+        RecordingPageListener listener = new RecordingPageListener();
+        new BulkItemFetcher(source, 0, 10, 2, true, listener).start();
+
+        assertEquals(1, source.requests.size());
+
+        source.resolve(0, 10, 45);
+        assertEquals(3, source.requests.size());
+        assertTrue(source.requests.containsKey(10));
+        assertTrue(source.requests.containsKey(20));
+    }
+
+    public void testPagesAreDeliveredInOrder() {
+        FakePageSource source = new FakePageSource();
+        RecordingPageListener listener = new RecordingPageListener();
+        Request<Integer> request = new BulkItemFetcher(source, 0, 10, 3, true, listener).start();
+
+        source.resolve(0, 10, 35);
+        source.resolve(20, 10, 35);
+        source.resolve(30, 5, 35);
+        assertEquals(1, listener.offsets.size());
+
+        source.resolve(10, 10, 35);
+        assertEquals(4, listener.offsets.size());
+        assertEquals(Integer.valueOf(10), listener.offsets.get(1));
+        assertEquals(Integer.valueOf(30), listener.offsets.get(3));
+        assertEquals(Integer.valueOf(35), request.waitForResult(1));
+    }
+
+    public void testPagesAreDeliveredAsTheyArriveIfAsked() {
+        FakePageSource source = new FakePageSource();
+        RecordingPageListener listener = new RecordingPageListener();
+        new BulkItemFetcher(source, 0, 10, 3, false, listener).start();
+
+        source.resolve(0, 10, 30);
+        source.resolve(20, 10, 30);
+        assertEquals(Integer.valueOf(20), listener.offsets.get(1));
+    }
+
+    public void testFailedPageCancelsOutstandingPages() {
+        FakePageSource source = new FakePageSource();
+        RecordingPageListener listener = new RecordingPageListener();
+        Request<Integer> request = new BulkItemFetcher(source, 0, 10, 2, true, listener).start();
+        request.withErrorListener(new Request.ErrorListener() {
+            @Override
+            public boolean onErrorOccurred(Throwable cause) {
+                return true;
+            }
+        });
+
+        source.resolve(0, 10, 100);
+        source.requests.get(10).reject(new RuntimeException("failed"));
+
+        assertTrue(source.requests.get(20).isCanceled());
+        assertEquals(3, source.requests.size());
+    }
+
+    public void testCancelingCancelsOutstandingPages() {
+        FakePageSource source = new FakePageSource();
+        RecordingPageListener listener = new RecordingPageListener();
+        Request<Integer> request = new BulkItemFetcher(source, 0, 10, 2, true, listener).start();
+
+        source.resolve(0, 10, 100);
+        request.cancel();
+
+        assertTrue(source.requests.get(10).isCanceled());
+        assertTrue(source.requests.get(20).isCanceled());
+        assertEquals(1, listener.offsets.size());
+    }
+
+}
@@ -0,0 +1,171 @@
+package com.podio.sdk.provider;
+
+import android.test.AndroidTestCase;
+
+import com.podio.sdk.ApiError;
+import com.podio.sdk.Backoff;
+import com.podio.sdk.ConnectionError;
+import com.podio.sdk.DeferredRequest;
+import com.podio.sdk.Request;
+import com.podio.sdk.domain.Item;
+
+import java.net.SocketException;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class BulkItemWriterTest extends AndroidTestCase {
+
+    private static final Backoff NO_DELAY = new Backoff(2, 0L, 0L, 1.0);
+
+    // Lets a request be rejected before the writer has attached its listeners.
+    private static final Request.ErrorListener PASS_ON = new Request.ErrorListener() {
+        @Override
+        public boolean onErrorOccurred(Throwable cause) {
+            return false;
+        }
+    };
+
+    private static final class CountingSink implements ItemProvider.WriteSink {
+        private final AtomicInteger written = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+
+        @Override
+        public void onItemWritten(int index, Item item, Item.CreateResult result) {
+            written.incrementAndGet();
+        }
+
+        @Override
+        public void onItemFailed(int index, Item item, Throwable cause) {
+            failed.incrementAndGet();
+        }
+    }
+
+    private static List<Item> newItems(int count) {
+        ArrayList<Item> items = new ArrayList<Item>();
+
+        for (int i = 0; i < count; i++) {
+            items.add(new Item());
+        }
+
+        return items;
+    }
+
+    public void testNumberOfRequestsInFlightIsBounded() throws InterruptedException {
+        final List<DeferredRequest<Item.CreateResult>> requests = Collections.synchronizedList(new ArrayList<DeferredRequest<Item.CreateResult>>());
+        BulkItemWriter.Operation operation = new BulkItemWriter.Operation() {
+            @Override
+            public Request<Item.CreateResult> write(Item item) {
+                DeferredRequest<Item.CreateResult> request = new DeferredRequest<Item.CreateResult>();
+                requests.add(request);
+                return request;
+            }
+
+            @Override
+            public boolean isIdempotent() {
+                return false;
+            }
+        };
+
+        CountingSink sink = new CountingSink();
+        Request<Integer> result = new BulkItemWriter(operation, newItems(10).iterator(), 3, NO_DELAY, sink).start();
+
+        Thread.sleep(100);
+        assertEquals(3, requests.size());
+
+        for (int i = 0; i < 10; i++) {
+            while (requests.size() <= i) {
+                Thread.sleep(5);
+            }
+
+            requests.get(i).resolve(null);
+            assertTrue(requests.size() <= i + 4);
+        }
+
+        assertEquals(Integer.valueOf(10), result.waitForResult(1));
+        assertEquals(10, sink.written.get());
+    }
+
+    public void testUnsentItemsAreRetried() {
+        final AtomicInteger attempts = new AtomicInteger();
+        BulkItemWriter.Operation operation = new BulkItemWriter.Operation() {
+            @Override
+            public Request<Item.CreateResult> write(Item item) {
+                DeferredRequest<Item.CreateResult> request = new DeferredRequest<Item.CreateResult>();
+
+                if (attempts.incrementAndGet() == 1) {
+                    request.withErrorListener(PASS_ON).reject(ConnectionError.fromCause(new UnknownHostException("api.podio.com")));
+                } else {
+                    request.resolve(null);
+                }
+
+                return request;
+            }
+
+            @Override
+            public boolean isIdempotent() {
+                return false;
+            }
+        };
+
+        CountingSink sink = new CountingSink();
+        Request<Integer> result = new BulkItemWriter(operation, newItems(1).iterator(), 1, NO_DELAY, sink).start();
+
+        assertEquals(Integer.valueOf(1), result.waitForResult(1));
+        assertEquals(2, attempts.get());
+        assertEquals(0, sink.failed.get());
+    }
+
+    public void testConnectionErrorsAreOnlyRetriedWhenIdempotent() {
+        final AtomicInteger attempts = new AtomicInteger();
+        BulkItemWriter.Operation operation = new BulkItemWriter.Operation() {
+            @Override
+            public Request<Item.CreateResult> write(Item item) {
+                DeferredRequest<Item.CreateResult> request = new DeferredRequest<Item.CreateResult>();
+                attempts.incrementAndGet();
+                request.withErrorListener(PASS_ON).reject(ConnectionError.fromCause(new SocketException("Connection reset")));
+                return request;
+            }
+
+            @Override
+            public boolean isIdempotent() {
+                return false;
+            }
+        };
+
+        CountingSink sink = new CountingSink();
+        Request<Integer> result = new BulkItemWriter(operation, newItems(1).iterator(), 1, NO_DELAY, sink).start();
+
+        assertEquals(Integer.valueOf(0), result.waitForResult(1));
+        assertEquals(1, attempts.get());
+        assertEquals(1, sink.failed.get());
+    }
+
+    public void testServerErrorsAreOnlyRetriedWhenIdempotent() {
+        final AtomicInteger attempts = new AtomicInteger();
+        BulkItemWriter.Operation operation = new BulkItemWriter.Operation() {
+            @Override
+            public Request<Item.CreateResult> write(Item item) {
+                DeferredRequest<Item.CreateResult> request = new DeferredRequest<Item.CreateResult>();
+                attempts.incrementAndGet();
+                request.withErrorListener(PASS_ON).reject(new ApiError("{}", 503));
+                return request;
+            }
+
+            @Override
+            public boolean isIdempotent() {
+                return false;
+            }
+        };
+
+        CountingSink sink = new CountingSink();
+        Request<Integer> result = new BulkItemWriter(operation, newItems(2).iterator(), 2, NO_DELAY, sink).start();
+
+        assertEquals(Integer.valueOf(0), result.waitForResult(1));
+        assertEquals(2, attempts.get());
+        assertEquals(2, sink.failed.get());
+    }
+
+}
@@ -8,9 +8,9 @@ public class ItemFilterTest extends InstrumentationTestCase {
     public void testApplicationIdIsIncludedInResultUri() {
         Uri reference = Uri.parse("content://test.uri/item/app/12");
 
-        Uri result = new ItemProvider.Path()
+        Uri result = Uri.parse(new ItemProvider.Path()
                 .withApplicationId(12)
-                .buildUri("content", "test.uri");
+                .buildUrl("content", "test.uri"));
 
         assertEquals(reference, result);
     }
@@ -18,9 +18,9 @@ public class ItemFilterTest extends InstrumentationTestCase {
     public void testFilterPropertyIsIncludedInResultUri() {
         Uri reference = Uri.parse("content://test.uri/item/app/12/filter");
 
-        Uri result = new ItemProvider.Path()
+        Uri result = Uri.parse(new ItemProvider.Path()
                 .withApplicationIdFilter(12)
-                .buildUri("content", "test.uri");
+                .buildUrl("content", "test.uri"));
 
         assertEquals(reference, result);
     }
@@ -28,9 +28,9 @@ public class ItemFilterTest extends InstrumentationTestCase {
     public void testItemIdIsIncludedInResultUri() {
         Uri reference = Uri.parse("content://test.uri/item/12");
 
-        Uri result = new ItemProvider.Path()
+        Uri result = Uri.parse(new ItemProvider.Path()
                 .withItemId(12)
-                .buildUri("content", "test.uri");
+                .buildUrl("content", "test.uri"));
 
         assertEquals(reference, result);
     }
@@ -8,8 +8,8 @@ public class OrganizationFilterTest extends AndroidTestCase {
     public void testOrganizationPathIsIncludedInResultUri() {
         Uri reference = Uri.parse("content://test.uri/org");
 
-        Uri result = new OrganizationProvider.Path()
-                .buildUri("content", "test.uri");
+        Uri result = Uri.parse(new OrganizationProvider.Path()
+                .buildUrl("content", "test.uri"));
 
         assertEquals(reference, result);
     }
@@ -19,8 +19,8 @@ public class MockRestClient<T> extends VolleyClient {
 
     @Override
     public <T> Request<T> request(Request.Method method, Filter filter, Object requestData, Class<T> classOfExpectedResult) {
-        this.uri = filter.buildUri(scheme, authority);
+        this.uri = Uri.parse(filter.buildUrl(scheme, authority));
         this.data = requestData != null ? JsonParser.toJson(requestData) : null;
-        return VolleyRequest.newRequest(userAgent, method, this.uri.toString(), this.data, classOfExpectedResult);
+        return VolleyRequest.newRequest(getSession(), userAgent, method, this.uri.toString(), this.data, classOfExpectedResult);
     }
 }
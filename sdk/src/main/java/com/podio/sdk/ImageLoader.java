@@ -18,10 +18,12 @@ import com.android.volley.VolleyError;
 import com.android.volley.toolbox.HttpHeaderParser;
 import com.android.volley.toolbox.HurlStack;
 import com.android.volley.toolbox.Volley;
+import com.podio.sdk.internal.MainThreadExecutor;
 import com.podio.sdk.internal.Utils;
 
 import java.io.UnsupportedEncodingException;
 import java.net.UnknownHostException;
+import java.util.concurrent.Executor;
 
 import javax.net.ssl.SSLSocketFactory;
 
@@ -125,6 +127,40 @@ public class ImageLoader {
         }
     }
 
+    /**
+     * A pending image load. Canceling it, typically through a {@link RequestScope}, silences the
+     * listener right away and then, on the main thread, drops the download (unless other loads
+     * of the same image still wait for it) or the decoding of a local image.
+     */
+    private static final class ImageLoad implements Cancelable {
+        private com.android.volley.toolbox.ImageLoader.ImageContainer container;
+        private AsyncTask<Void, Void, Bitmap> task;
+        private volatile boolean isCanceled = false;
+
+        @Override
+        public void cancel() {
+            isCanceled = true;
+
+            // The Volley image loader may only be touched from the main thread.
+            MAIN_THREAD.execute(new Runnable() {
+                @Override
+                public void run() {
+                    if (container != null) {
+                        container.cancelRequest();
+                        container = null;
+                    }
+
+                    if (task != null) {
+                        task.cancel(false);
+                        task = null;
+                    }
+                }
+            });
+        }
+    }
+
+    private static final Executor MAIN_THREAD = new MainThreadExecutor();
+
     /**
      * The shared Volley request queue on which the images will be downloaded.
      */
@@ -168,14 +204,42 @@ public class ImageLoader {
      *         If the url or the image listener is null.
      */
     public void loadImage(final String url, Size size, final ImageListener listener) throws NullPointerException {
+        loadImage(url, size, listener, null);
+    }
+
+    /**
+     * Exactly the same behaviour as {@link com.podio.sdk.ImageLoader#loadImage(String,
+     * com.podio.sdk.ImageLoader.Size, com.podio.sdk.ImageLoader.ImageListener)}, but the load is
+     * tracked by the given scope. Once the scope is canceled the listener isn't called any more
+     * and any pending download is dropped.
+     *
+     * @param url
+     *         The url to fetch the bitmap from if it doesn't exist in the cache.
+     * @param size
+     *         An optional API defined size notation.
+     * @param listener
+     *         The callback implementation that will be invoked on bitmap delivery or if an error
+     *         occurs.
+     * @param scope
+     *         The scope to track the load in, or null.
+     *
+     * @throws NullPointerException
+     *         If the url or the image listener is null.
+     */
+    public void loadImage(final String url, Size size, final ImageListener listener, RequestScope scope) throws NullPointerException {
         if (url == null || listener == null) {
             throw new NullPointerException("Neither url nor listener can be null");
         }
 
+        ImageLoad imageLoad = track(scope);
+        if (imageLoad.isCanceled) {
+            return;
+        }
+
         if (url.startsWith("http://") || url.startsWith("https://")) {
-            loadNetworkImage(url, size, listener);
+            loadNetworkImage(url, size, listener, imageLoad);
         } else {
-            loadLocalImage(url, listener);
+            loadLocalImage(url, listener, imageLoad);
         }
     }
 
@@ -194,7 +258,30 @@ public class ImageLoader {
      *         occurs.
      */
     public void loadImage(Context context, final int resourceId, final ImageListener listener) {
-        loadDrawableResource(context, resourceId, listener);
+        loadImage(context, resourceId, listener, null);
+    }
+
+    /**
+     * Exactly the same behaviour as {@link com.podio.sdk.ImageLoader#loadImage(android.content.Context,
+     * int, com.podio.sdk.ImageLoader.ImageListener)}, but the load is tracked by the given scope.
+     * Once the scope is canceled the listener isn't called any more.
+     *
+     * @param context
+     *         The context to load the drawable resource from (if not already in the cache).
+     * @param resourceId
+     *         The id of the drawable resource to load.
+     * @param listener
+     *         The callback implementation that will be invoked on bitmap delivery or if an error
+     *         occurs.
+     * @param scope
+     *         The scope to track the load in, or null.
+     */
+    public void loadImage(Context context, final int resourceId, final ImageListener listener, RequestScope scope) {
+        ImageLoad imageLoad = track(scope);
+
+        if (!imageLoad.isCanceled) {
+            loadDrawableResource(context, resourceId, listener, imageLoad);
+        }
     }
 
     /**
@@ -282,20 +369,26 @@ public class ImageLoader {
      * @param listener
      *         The callback implementation that will be invoked on bitmap delivery or if an error
      *         occurs.
+     * @param imageLoad
+     *         The pending load, which will hold the Volley request so it can be canceled.
      */
-    private void loadNetworkImage(final String url, Size size, final ImageListener listener) {
+    private void loadNetworkImage(final String url, Size size, final ImageListener listener, final ImageLoad imageLoad) {
         Uri uri = Uri.parse(url);
         Uri requestUri = (size != null && size != Size.UNSPECIFIED) ? Uri.withAppendedPath(uri, size.literal) : uri;
 
-        imageLoader.get(requestUri.toString(), new com.android.volley.toolbox.ImageLoader.ImageListener() {
+        imageLoad.container = imageLoader.get(requestUri.toString(), new com.android.volley.toolbox.ImageLoader.ImageListener() {
             @Override
             public void onResponse(com.android.volley.toolbox.ImageLoader.ImageContainer response, boolean isImmediate) {
-                listener.onImageReady(response.getBitmap(), url, isImmediate);
+                if (!imageLoad.isCanceled) {
+                    listener.onImageReady(response.getBitmap(), url, isImmediate);
+                }
             }
 
             @Override
             public void onErrorResponse(VolleyError error) {
-                listener.onErrorOccurred(parseVolleyError(error), url);
+                if (!imageLoad.isCanceled) {
+                    listener.onErrorOccurred(parseVolleyError(error), url);
+                }
             }
         });
     }
@@ -311,8 +404,10 @@ public class ImageLoader {
      * @param listener
      *         The callback implementation that will be invoked on bitmap delivery or if an error
      *         occurs.
+     * @param imageLoad
+     *         The pending load, which will hold the decoding task so it can be canceled.
      */
-    private void loadLocalImage(final String path, final ImageListener listener) {
+    private void loadLocalImage(final String path, final ImageListener listener, final ImageLoad imageLoad) {
         Bitmap bitmap = imageCache.getBitmap(path);
 
         if (bitmap != null) {
@@ -320,7 +415,7 @@ public class ImageLoader {
             return;
         }
 
-        new AsyncTask<Void, Void, Bitmap>() {
+        imageLoad.task = new AsyncTask<Void, Void, Bitmap>() {
             @Override
             protected void onPreExecute() {
                 listener.onImageReady(null, path, true);
@@ -335,6 +430,10 @@ public class ImageLoader {
 
             @Override
             protected void onPostExecute(Bitmap bitmap) {
+                if (imageLoad.isCanceled) {
+                    return;
+                }
+
                 if (bitmap == null) {
                     listener.onErrorOccurred(new PodioError(new NullPointerException("Couldn't load image: " + path)), path);
                 } else {
@@ -342,7 +441,8 @@ public class ImageLoader {
                     listener.onImageReady(bitmap, path, false);
                 }
             }
-        }.execute();
+        };
+        imageLoad.task.execute();
     }
 
     /**
@@ -358,8 +458,10 @@ public class ImageLoader {
      * @param listener
      *         The callback implementation that will be invoked on bitmap delivery or if an error
      *         occurs.
+     * @param imageLoad
+     *         The pending load, which will hold the decoding task so it can be canceled.
      */
-    private void loadDrawableResource(final Context context, final int id, final ImageListener listener) {
+    private void loadDrawableResource(final Context context, final int id, final ImageListener listener, final ImageLoad imageLoad) {
         Bitmap bitmap = imageCache.getBitmap(LOCAL_RESOURCE_PREFIX + id);
 
         if (bitmap != null) {
@@ -367,7 +469,7 @@ public class ImageLoader {
             return;
         }
 
-        new AsyncTask<Void, Void, Bitmap>() {
+        imageLoad.task = new AsyncTask<Void, Void, Bitmap>() {
             @Override
             protected void onPreExecute() {
                 listener.onImageReady(null, Integer.toString(id), true);
@@ -382,6 +484,10 @@ public class ImageLoader {
 
             @Override
             protected void onPostExecute(Bitmap bitmap) {
+                if (imageLoad.isCanceled) {
+                    return;
+                }
+
                 if (bitmap == null) {
                     listener.onErrorOccurred(new PodioError(new NullPointerException("Couldn't load resource: " + id)), Integer.toString(id));
                 } else {
@@ -389,7 +495,21 @@ public class ImageLoader {
                     listener.onImageReady(bitmap, Integer.toString(id), false);
                 }
             }
-        }.execute();
+        };
+        imageLoad.task.execute();
+    }
+
+    /**
+     * Creates a new pending image load and adds it to the given scope, if any.
+     *
+     * @param scope
+     *         The scope to track the load in, or null.
+     *
+     * @return The new image load, which is canceled already if the scope is closed.
+     */
+    private ImageLoad track(RequestScope scope) {
+        ImageLoad imageLoad = new ImageLoad();
+        return scope != null ? scope.track(imageLoad) : imageLoad;
     }
 
     /**
@@ -6,6 +6,9 @@ import android.content.Context;
 import com.podio.sdk.Request.ErrorListener;
 import com.podio.sdk.Request.SessionListener;
 import com.podio.sdk.androidasynchttp.AndroidAsyncHttpClient;
+import com.podio.sdk.internal.MainThreadExecutor;
+import com.podio.sdk.json.JsonParser;
+import com.podio.sdk.outbox.Outbox;
 import com.podio.sdk.provider.ApplicationProvider;
 import com.podio.sdk.provider.CalendarProvider;
 import com.podio.sdk.provider.ClientProvider;
@@ -47,6 +50,16 @@ public class Podio {
 
     protected static AndroidAsyncHttpClient androidAsyncHttpRestClient = new AndroidAsyncHttpClient();
 
+    /**
+     * The optional outbox queuing the item, comment and status mutations.
+     */
+    protected static Outbox outbox;
+
+    /**
+     * Whether the JSON parser has been, or is being, prepared in the background.
+     */
+    private static boolean isJsonParserPrepared = false;
+
     /**
      * Enables means of easy operating on the Application API end point.
      */
@@ -260,6 +273,8 @@ public class Podio {
     public static void setup(Context context, String scheme, String authority, String clientId, String clientSecret, String userAgent, SSLSocketFactory volleySslSocketFactory, cz.msebera.android.httpclient.conn.ssl.SSLSocketFactory androidAsyncHttpSslSocketFactory) {
         volleytRestClient.setup(context, scheme, authority, clientId, clientSecret, userAgent, volleySslSocketFactory);
         androidAsyncHttpRestClient.setup(context, scheme, authority, userAgent, androidAsyncHttpSslSocketFactory);
+        // Composed requests call their listeners on the main thread, just like all other requests.
+        Requests.setCallbackExecutor(new MainThreadExecutor());
         // Providers relying on a rest client in order to operate properly.
         application.setClient(volleytRestClient);
         calendar.setClient(volleytRestClient);
@@ -284,6 +299,98 @@ public class Podio {
         linkedAccount.setClient(volleytRestClient);
         reminder.setClient(volleytRestClient);
         recurrence.setClient(volleytRestClient);
+
+        prepareJsonParser();
+    }
+
+    /**
+     * Builds the JSON adapters for the most common domain models on a low priority background
+     * thread, so that the first responses don't have to pay for it.
+     */
+    static synchronized void prepareJsonParser() {
+        if (isJsonParserPrepared) {
+            return;
+        }
+
+        isJsonParserPrepared = true;
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                JsonParser.prepare();
+            }
+        }, "Podio-JsonParser");
+
+        thread.setPriority(Thread.MIN_PRIORITY);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Enables or disables the HTTP cache for all read operations. When enabled, the SDK will
+     * remember the validators (ETag and Last-Modified headers) of the responses and ask the API to
+     * only send the full content if it has changed since it was last fetched. This saves a lot of
+     * bandwidth and parsing for rarely changing content, like apps, spaces, views and user
+     * profiles. The HTTP cache is disabled by default.
+     *
+     * @param enabled
+     *         Boolean true to enable the HTTP cache, boolean false to disable it.
+     */
+    public static void setHttpCacheEnabled(boolean enabled) {
+        volleytRestClient.setHttpCacheEnabled(enabled);
+    }
+
+    /**
+     * Sets how read, update and delete operations are retried when they fail with a transient
+     * error, i.e. when the API can't be reached, doesn't respond in time or responds with a server
+     * error. The retries are spread out with an exponentially growing, randomized delay, and any
+     * Retry-After header from the API is honored. Create operations are never retried, as they may
+     * have taken effect even if they failed. By default three retries are made.
+     *
+     * @param backoff
+     *         The retry schedule, {@link Backoff#NONE} to deliver all errors right away.
+     */
+    public static void setRetryBackoff(Backoff backoff) {
+        volleytRestClient.setRetryBackoff(backoff);
+    }
+
+    /**
+     * Sets the listener to notify as requests move through the SDK: when they're queued, when
+     * they go out on the network, when the response headers and body arrive, when the response
+     * has been parsed and when the listeners have been called. A {@link LatencyCollector} can be
+     * used to keep track of the latency percentiles per endpoint.
+     *
+     * @param eventListener
+     *         The listener to notify, or null to stop reporting.
+     */
+    public static void setRequestEventListener(RequestEventListener eventListener) {
+        volleytRestClient.setRequestEventListener(eventListener);
+    }
+
+    /**
+     * Enables or disables the outbox for item, comment and status mutations. When enabled, these
+     * mutations are accepted right away, even when the device is offline, and persisted on disk
+     * until they have been sent to the API. They are sent one at a time, in the order they were
+     * made, and retried with an increasing delay if the API can't be reached. The request futures
+     * deliver the API response once the mutation has been sent. Any mutations still pending when
+     * the outbox is disabled are kept on disk and sent once it's enabled again. Mutations are only
+     * sent while the user who made them is signed in.
+     *
+     * @param context
+     *         The context to persist the pending mutations in.
+     * @param enabled
+     *         Boolean true to enable the outbox, boolean false to disable it.
+     */
+    public static synchronized void setOutboxEnabled(Context context, boolean enabled) {
+        if (enabled && outbox == null) {
+            outbox = Outbox.open(context, "default", volleytRestClient, Session.getDefault());
+        } else if (!enabled && outbox != null) {
+            outbox.close();
+            outbox = null;
+        }
+
+        item.setOutbox(outbox);
+        comment.setOutbox(outbox);
+        status.setOutbox(outbox);
     }
 
     /**
@@ -0,0 +1,323 @@
+package com.podio.sdk;
+
+import android.content.Context;
+
+import com.podio.sdk.androidasynchttp.AndroidAsyncHttpClient;
+import com.podio.sdk.outbox.Outbox;
+import com.podio.sdk.provider.ApplicationProvider;
+import com.podio.sdk.provider.CalendarProvider;
+import com.podio.sdk.provider.ClientProvider;
+import com.podio.sdk.provider.CommentProvider;
+import com.podio.sdk.provider.ContactProvider;
+import com.podio.sdk.provider.ConversationProvider;
+import com.podio.sdk.provider.EmbedProvider;
+import com.podio.sdk.provider.FileProvider;
+import com.podio.sdk.provider.GrantProvider;
+import com.podio.sdk.provider.ItemProvider;
+import com.podio.sdk.provider.LinkedAccountProvider;
+import com.podio.sdk.provider.LocationProvider;
+import com.podio.sdk.provider.NotificationProvider;
+import com.podio.sdk.provider.OrganizationProvider;
+import com.podio.sdk.provider.RatingProvider;
+import com.podio.sdk.provider.RecurrenceProvider;
+import com.podio.sdk.provider.ReferenceProvider;
+import com.podio.sdk.provider.ReminderProvider;
+import com.podio.sdk.provider.SpacesProvider;
+import com.podio.sdk.provider.StatusProvider;
+import com.podio.sdk.provider.StreamProvider;
+import com.podio.sdk.provider.TaskProvider;
+import com.podio.sdk.provider.UserProvider;
+import com.podio.sdk.provider.ViewProvider;
+import com.podio.sdk.volley.VolleyClient;
+import com.podio.sdk.volley.VolleyTransport;
+
+/**
+ * Enables access to the Podio API on behalf of one account. Unlike the static {@link Podio} facade,
+ * any number of instances can be used at the same time, each with its own session, token refresh
+ * and providers. Instances sharing a {@link VolleyTransport} also share its network threads,
+ * pooled connections and HTTP cache.
+ */
+public class PodioClient {
+
+    private final Session session;
+    private final VolleyClient volleyClient;
+    private final AndroidAsyncHttpClient androidAsyncHttpClient;
+    private Outbox outbox;
+
+    /**
+     * Enables means of easy operating on the Application API end point.
+     */
+    public final ApplicationProvider application = new ApplicationProvider();
+
+    /**
+     * Enables means of easy operating on the Calendar API end point.
+     */
+    public final CalendarProvider calendar = new CalendarProvider();
+
+    /**
+     * Enables means of easy operating on the {@link ContactProvider} API end point.
+     */
+    public final ContactProvider contact = new ContactProvider();
+
+    /**
+     * Enables means of easy operating on the Conversation API end point.
+     */
+    public final ConversationProvider conversation = new ConversationProvider();
+
+    /**
+     * Enables means of easy authentication.
+     */
+    public final ClientProvider client = new ClientProvider();
+
+    /**
+     * Enables means of easy operating on the File API end point.
+     */
+    public final FileProvider file = new FileProvider();
+
+    /**
+     * Enables means of easy operating on the Item API end point.
+     */
+    public final ItemProvider item = new ItemProvider();
+
+    /**
+     * Enables means of easy operating on the Organization API end point.
+     */
+    public final OrganizationProvider organization = new OrganizationProvider();
+
+    /**
+     * Enables means of easy operating on the User API end point.
+     */
+    public final UserProvider user = new UserProvider();
+
+    /**
+     * Enables means of easy operating on the View API end point.
+     */
+    public final ViewProvider view = new ViewProvider();
+
+    /**
+     * Enables means of easy operating on the Task API end point.
+     */
+    public final TaskProvider task = new TaskProvider();
+
+    /**
+     * Enables means of easy operating on the Notification API end point.
+     */
+    public final NotificationProvider notification = new NotificationProvider();
+
+    /**
+     * Enables means of easy operating on the Stream API end point.
+     */
+    public final StreamProvider stream = new StreamProvider();
+
+    /**
+     * Enables means of easy operating on the Comment API end point.
+     */
+    public final CommentProvider comment = new CommentProvider();
+
+    /**
+     * Enables means of easy operating on the Rating API end point.
+     */
+    public final RatingProvider rating = new RatingProvider();
+
+    /**
+     * Enables means of easy operating on the Grant API end point.
+     */
+    public final GrantProvider grant = new GrantProvider();
+
+    /**
+     * Enables means of easy operating on the Location API end point.
+     */
+    public final LocationProvider location = new LocationProvider();
+
+    /**
+     * Enables means of easy operating on the Embed API end point.
+     */
+    public final EmbedProvider embed = new EmbedProvider();
+
+    /**
+     * Enables means of easy operating on the Reference API end point.
+     */
+    public final ReferenceProvider reference = new ReferenceProvider();
+
+    /**
+     * Enables means of easy operating on the Status API end point.
+     */
+    public final StatusProvider status = new StatusProvider();
+
+    /**
+     * Enables means of easy operating on the Spaces API end point.
+     */
+    public final SpacesProvider spaces = new SpacesProvider();
+
+    public final ReminderProvider reminder = new ReminderProvider();
+
+    public final RecurrenceProvider recurrence = new RecurrenceProvider();
+
+    /**
+     * Enables means of easy operating on the Linked Account API end point.
+     */
+    public final LinkedAccountProvider linkedAccount = new LinkedAccountProvider();
+
+    /**
+     * Creates a client targeting the default Podio API host.
+     *
+     * @param context
+     *         The context to initialize the upload client in.
+     * @param transport
+     *         The transport to execute the requests on. It may be shared with other clients.
+     * @param clientId
+     *         The pre-shared Podio client id.
+     * @param clientSecret
+     *         The corresponding Podio client secret.
+     */
+    public PodioClient(Context context, VolleyTransport transport, String clientId, String clientSecret) {
+        this(context, transport, BuildConfig.SCHEME, BuildConfig.API_AUTHORITY, clientId, clientSecret, null, null);
+    }
+
+    /**
+     * Creates a client with its own session.
+     *
+     * @param context
+     *         The context to initialize the upload client in.
+     * @param transport
+     *         The transport to execute the requests on. It may be shared with other clients.
+     * @param scheme
+     *         The scheme of the API URLs, e.g. "https".
+     * @param authority
+     *         The host the client will target with its requests.
+     * @param clientId
+     *         The pre-shared Podio client id.
+     * @param clientSecret
+     *         The corresponding Podio client secret.
+     * @param userAgent
+     *         Optional user agent.
+     * @param androidAsyncHttpSslSocketFactory
+     *         Optional custom SSL socket factory to use for uploading files.
+     */
+    public PodioClient(Context context, VolleyTransport transport, String scheme, String authority, String clientId, String clientSecret, String userAgent, cz.msebera.android.httpclient.conn.ssl.SSLSocketFactory androidAsyncHttpSslSocketFactory) {
+        session = new Session();
+
+        volleyClient = new VolleyClient(session);
+        volleyClient.setup(transport, scheme, authority, clientId, clientSecret, userAgent);
+
+        androidAsyncHttpClient = new AndroidAsyncHttpClient(session, volleyClient);
+        androidAsyncHttpClient.setup(context, scheme, authority, userAgent, androidAsyncHttpSslSocketFactory);
+
+        // Providers relying on a rest client in order to operate properly.
+        application.setClient(volleyClient);
+        calendar.setClient(volleyClient);
+        client.setClient(volleyClient);
+        contact.setClient(volleyClient);
+        conversation.setClient(volleyClient);
+        file.setClient(androidAsyncHttpClient);
+        item.setClient(volleyClient);
+        organization.setClient(volleyClient);
+        user.setClient(volleyClient);
+        view.setClient(volleyClient);
+        task.setClient(volleyClient);
+        notification.setClient(volleyClient);
+        stream.setClient(volleyClient);
+        comment.setClient(volleyClient);
+        rating.setClient(volleyClient);
+        grant.setClient(volleyClient);
+        location.setClient(volleyClient);
+        embed.setClient(volleyClient);
+        reference.setClient(volleyClient);
+        status.setClient(volleyClient);
+        spaces.setClient(volleyClient);
+        linkedAccount.setClient(volleyClient);
+        reminder.setClient(volleyClient);
+        recurrence.setClient(volleyClient);
+
+        Podio.prepareJsonParser();
+    }
+
+    /**
+     * Returns the session of this client.
+     *
+     * @return The session the requests of this client are authenticated with.
+     */
+    public Session getSession() {
+        return session;
+    }
+
+    /**
+     * Enables or disables the HTTP cache for all read operations of this client.
+     *
+     * @param enabled
+     *         Boolean true to enable the HTTP cache, boolean false to disable it.
+     *
+     * @see Podio#setHttpCacheEnabled(boolean)
+     */
+    public void setHttpCacheEnabled(boolean enabled) {
+        volleyClient.setHttpCacheEnabled(enabled);
+    }
+
+    /**
+     * Sets how the read, update and delete operations of this client are retried when they fail
+     * with a transient error.
+     *
+     * @param backoff
+     *         The retry schedule, {@link Backoff#NONE} to deliver all errors right away.
+     *
+     * @see Podio#setRetryBackoff(Backoff)
+     */
+    public void setRetryBackoff(Backoff backoff) {
+        volleyClient.setRetryBackoff(backoff);
+    }
+
+    /**
+     * Sets the listener to notify as the requests of this client move through their phases.
+     *
+     * @param eventListener
+     *         The listener to notify, or null to stop reporting.
+     *
+     * @see Podio#setRequestEventListener(RequestEventListener)
+     */
+    public void setRequestEventListener(RequestEventListener eventListener) {
+        volleyClient.setRequestEventListener(eventListener);
+    }
+
+    /**
+     * Enables or disables the outbox for the item, comment and status mutations of this client.
+     * Each client needs an outbox name of its own.
+     *
+     * @param context
+     *         The context to persist the pending mutations in.
+     * @param name
+     *         The name of the outbox, e.g. the id of the account this client acts on behalf of.
+     * @param enabled
+     *         Boolean true to enable the outbox, boolean false to disable it.
+     *
+     * @see Podio#setOutboxEnabled(Context, boolean)
+     */
+    public synchronized void setOutboxEnabled(Context context, String name, boolean enabled) {
+        if (enabled && outbox == null) {
+            outbox = Outbox.open(context, name, volleyClient, session);
+        } else if (!enabled && outbox != null) {
+            outbox.close();
+            outbox = null;
+        }
+
+        item.setOutbox(outbox);
+        comment.setOutbox(outbox);
+        status.setOutbox(outbox);
+    }
+
+    /**
+     * Restores a previously created session for this client.
+     *
+     * @param accessToken
+     *         The previously stored access token.
+     * @param refreshToken
+     *         The previously stored refresh token.
+     * @param expires
+     *         The previously stored expire time stamp (in seconds).
+     *
+     * @see Podio#restoreSession(String, String, long)
+     */
+    public void restoreSession(String accessToken, String refreshToken, long expires) {
+        session.update(accessToken, refreshToken, null, expires);
+    }
+
+}
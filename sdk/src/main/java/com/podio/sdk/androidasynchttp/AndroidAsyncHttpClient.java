@@ -7,6 +7,7 @@ import com.loopj.android.http.AsyncHttpClient;
 import com.podio.sdk.Client;
 import com.podio.sdk.Filter;
 import com.podio.sdk.Request;
+import com.podio.sdk.Session;
 import com.podio.sdk.provider.FileProvider;
 
 import java.io.File;
@@ -18,9 +19,34 @@ public class AndroidAsyncHttpClient implements Client {
     protected String scheme;
     protected String authority;
 
+    private final Session session;
+    private final Client authClient;
+
     private AsyncHttpClient client;
     private Context context;
 
+    /**
+     * Creates a client operating on the default session. Expired sessions are refreshed through
+     * the {@link com.podio.sdk.Podio} facade.
+     */
+    public AndroidAsyncHttpClient() {
+        this(Session.getDefault(), null);
+    }
+
+    /**
+     * Creates a client operating on the given session.
+     *
+     * @param session
+     *         The session to authenticate the uploads with.
+     * @param authClient
+     *         The client to refresh the session through. If null, the session is refreshed through
+     *         the {@link com.podio.sdk.Podio} facade.
+     */
+    public AndroidAsyncHttpClient(Session session, Client authClient) {
+        this.session = session;
+        this.authClient = authClient;
+    }
+
     @Override
     public Request<Void> authenticateWithUserCredentials(String username, String password) {
         throw new UnsupportedOperationException("AndroidAsyncHttpClient only supports uploading to our Files API.");
@@ -45,8 +71,8 @@ public class AndroidAsyncHttpClient implements Client {
     @Override
     public <T> Request<T> request(Request.Method method, Filter filter, Object item, Class<T> classOfResult) {
         if (filter instanceof FileProvider.FileFilter && method == Request.Method.POST && item instanceof File) {
-            String url = filter.buildUri(scheme, authority).toString();
-            AndroidAsyncHttpRequest<T> request = new AndroidAsyncHttpRequest<>(client, context, url, (File) item, classOfResult);
+            String url = filter.buildUrl(scheme, authority);
+            AndroidAsyncHttpRequest<T> request = new AndroidAsyncHttpRequest<>(client, context, session, authClient, url, (File) item, classOfResult);
             request.performRequest();
 
             return request;
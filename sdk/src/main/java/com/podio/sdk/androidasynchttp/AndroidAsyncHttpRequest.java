@@ -6,8 +6,10 @@ import android.content.Context;
 import com.google.gson.JsonSyntaxException;
 import com.loopj.android.http.AsyncHttpClient;
 import com.loopj.android.http.BaseJsonHttpResponseHandler;
+import com.loopj.android.http.RequestHandle;
 import com.loopj.android.http.RequestParams;
 import com.podio.sdk.ApiError;
+import com.podio.sdk.Client;
 import com.podio.sdk.ConnectionError;
 import com.podio.sdk.NoResponseError;
 import com.podio.sdk.Podio;
@@ -15,13 +17,13 @@ import com.podio.sdk.PodioError;
 import com.podio.sdk.Request;
 import com.podio.sdk.Session;
 import com.podio.sdk.internal.CallbackManager;
+import com.podio.sdk.internal.CompletionLatch;
 import com.podio.sdk.json.JsonParser;
 
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.net.SocketTimeoutException;
 import java.util.Calendar;
-import java.util.concurrent.TimeUnit;
 
 import cz.msebera.android.httpclient.Header;
 import cz.msebera.android.httpclient.HttpStatus;
@@ -35,25 +37,22 @@ public class AndroidAsyncHttpRequest<T> implements Request<T>, Request.SessionLi
 
     private AsyncHttpClient client;
     private Context context;
+    private Session session;
+    private Client authClient;
     private String url;
     private File file;
     private final Class<T> classOfResult;
     private CallbackManager<T> callbackManager;
+    private final CompletionLatch completionLatch;
+    private RequestHandle requestHandle;
 
     private T result;
-    private boolean isDone;
     private PodioError error;
     private boolean attemptedReauth;
 
     @Override
     public T waitForResult(long maxSeconds) throws PodioError {
-        // This is still awkward as we might end up blocking the delivery of
-        // a client side error (see
-        try {
-            wait(TimeUnit.SECONDS.toMillis(Math.max(maxSeconds, 0)));
-        } catch (InterruptedException e) {
-            callbackManager.deliverError(e);
-        }
+        completionLatch.await(maxSeconds);
 
         if (error != null) {
             throw error;
@@ -64,14 +63,14 @@ public class AndroidAsyncHttpRequest<T> implements Request<T>, Request.SessionLi
 
     @Override
     public Request<T> withResultListener(ResultListener<T> contentListener) {
-        callbackManager.addResultListener(contentListener, isDone, result);
+        callbackManager.addResultListener(contentListener, completionLatch.isDone() && !completionLatch.isCanceled() && error == null, result);
         return this;
     }
 
     @Override
     public Request<T> withErrorListener(ErrorListener errorListener) {
-        callbackManager.addErrorListener(errorListener, isDone && error != null, error);
-        return null;
+        callbackManager.addErrorListener(errorListener, completionLatch.isDone() && !completionLatch.isCanceled() && error != null, error);
+        return this;
     }
 
     @Override
@@ -79,18 +78,45 @@ public class AndroidAsyncHttpRequest<T> implements Request<T>, Request.SessionLi
         throw new UnsupportedOperationException("AndroidAsyncHttp does not support SessionListeners");
     }
 
-    protected AndroidAsyncHttpRequest(AsyncHttpClient client, Context context, String url, File file, Class<T> resultType) {
+    @Override
+    public void cancel() {
+        RequestHandle requestHandle;
+
+        synchronized (this) {
+            if (!completionLatch.cancel()) {
+                return;
+            }
+
+            requestHandle = this.requestHandle;
+        }
+
+        // Abort any upload in progress.
+        if (requestHandle != null) {
+            requestHandle.cancel(true);
+        }
+    }
+
+    protected AndroidAsyncHttpRequest(AsyncHttpClient client, Context context, Session session, Client authClient, String url, File file, Class<T> resultType) {
         this.client = client;
         this.context = context;
+        this.session = session;
+        this.authClient = authClient;
         this.url = url;
         this.file = file;
         this.classOfResult = resultType;
-        this.callbackManager = new CallbackManager();
+        this.callbackManager = new CallbackManager<T>();
+        this.completionLatch = new CompletionLatch();
         this.attemptedReauth = false;
     }
 
     private boolean isSessionAboutToExpire() {
-        return System.currentTimeMillis() > (Session.expires()*1000L - TEN_MINUTES);
+        return System.currentTimeMillis() > (session.getExpires()*1000L - TEN_MINUTES);
+    }
+
+    private Request<Void> refreshSession() {
+        return authClient != null ?
+                authClient.forceRefreshTokens() :
+                Podio.client.forceRefreshTokens();
     }
 
     @Override
@@ -103,18 +129,23 @@ public class AndroidAsyncHttpRequest<T> implements Request<T>, Request.SessionLi
     public void performRequest() {
         if (isSessionAboutToExpire() && !attemptedReauth) {
             attemptedReauth = true;
-            Podio.client.forceRefreshTokens().withSessionListener(this);
+            refreshSession().withSessionListener(this);
         } else {
             runRequest();
         }
     }
 
     private void runRequest() {
+        // Don't start an upload nobody is waiting for, e.g. when canceled during a token refresh.
+        if (completionLatch.isCanceled()) {
+            return;
+        }
+
         try {
             RequestParams params = new RequestParams();
             params.put("source", file);
             params.put("filename", file.getName());
-            client.post(context, url, getHeaders(), params, null
+            RequestHandle requestHandle = client.post(context, url, getHeaders(), params, null
                     , new BaseJsonHttpResponseHandler<T>() {
 
                 @Override
@@ -138,7 +169,7 @@ public class AndroidAsyncHttpRequest<T> implements Request<T>, Request.SessionLi
                 public void onFailure(int statusCode, Header[] headers, Throwable throwable, String rawJsonData, T errorResponse) {
                     if (statusCode == HttpStatus.SC_UNAUTHORIZED && !attemptedReauth) {
                         attemptedReauth = true;
-                        Podio.client.forceRefreshTokens().withSessionListener(AndroidAsyncHttpRequest.this);
+                        refreshSession().withSessionListener(AndroidAsyncHttpRequest.this);
                     } else {
                         if (throwable instanceof ConnectTimeoutException || throwable instanceof SocketTimeoutException) {
                             error = new NoResponseError(throwable);
@@ -149,12 +180,21 @@ public class AndroidAsyncHttpRequest<T> implements Request<T>, Request.SessionLi
                                 error = new PodioError(throwable);
                             }
                         } else {
-                            error = new ConnectionError(throwable);
+                            error = ConnectionError.fromCause(throwable);
                         }
                         deliverError();
                     }
                 }
             });
+
+            synchronized (this) {
+                this.requestHandle = requestHandle;
+            }
+
+            // Cancel the upload if the request was canceled while it was being started.
+            if (completionLatch.isCanceled() && requestHandle != null) {
+                requestHandle.cancel(true);
+            }
         } catch (FileNotFoundException e) {
             error = new PodioError(e);
             deliverError();
@@ -162,18 +202,20 @@ public class AndroidAsyncHttpRequest<T> implements Request<T>, Request.SessionLi
     }
 
     private void deliverError() {
-        isDone = true;
-        callbackManager.deliverError(this.error);
+        if (completionLatch.complete()) {
+            callbackManager.deliverError(this.error);
+        }
     }
 
     private void deliverResponse() {
-        isDone = true;
-        callbackManager.deliverResult(result);
+        if (completionLatch.complete()) {
+            callbackManager.deliverResult(result);
+        }
     }
 
     public Header[] getHeaders() {
         Header[] headers = new Header[2];
-        String accessToken = Session.accessToken();
+        String accessToken = session.getAccessToken();
         BasicHeader header = new BasicHeader("Authorization", "Bearer " + accessToken);
         headers[0] = header;
         header = new BasicHeader("X-Time-Zone", Calendar.getInstance().getTimeZone().getID());
@@ -0,0 +1,24 @@
+package com.podio.sdk.internal;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import java.util.concurrent.Executor;
+
+/**
+ * An executor that runs the given commands on the Android main thread.
+ */
+public class MainThreadExecutor implements Executor {
+
+    private final Handler handler;
+
+    public MainThreadExecutor() {
+        handler = new Handler(Looper.getMainLooper());
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        handler.post(command);
+    }
+
+}
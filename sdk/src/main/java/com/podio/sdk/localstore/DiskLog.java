@@ -0,0 +1,844 @@
+package com.podio.sdk.localstore;
+
+import com.podio.sdk.internal.Utils;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+
+/**
+ * The disk store of a {@link LocalStore}. All values of a store are kept in a single, append-only
+ * log file, where every set or remove operation appends a record. An in-memory index points out
+ * the most recent record of each key, so a read is a single positioned read. The records are
+ * checksummed, and opening the log is a single sequential scan that rebuilds the index and cuts
+ * off anything after the last intact record, e.g. a record that was only partly written when the
+ * process died.
+ * <p>
+ * Writes are buffered in memory for a configurable durability window, after which all buffered
+ * values are appended in one write and synced to the disk once. Writing the same key again within
+ * the window only replaces the buffered value. Should the process die, at most the values written
+ * within the last window are lost, while the values already synced are left intact.
+ * <p>
+ * Every value may carry an expiry time. Expired values are still kept, and read, as stale values,
+ * it's up to the caller to tell them apart. The live values may be bounded to a number of bytes,
+ * in which case the least recently used values are evicted once the bound is exceeded.
+ * <p>
+ * Overwritten, removed and evicted values stay in the log until it's compacted. This happens
+ * automatically when the obsolete records take up more space than the live ones, or when they
+ * push the log beyond the bound, by copying the live records to a new log file that is synced
+ * before it replaces the old one.
+ * <p>
+ * Reads may run in parallel, while writes are performed one at a time.
+ *
+ */
+final class DiskLog {
+
+    static final String LOG_FILE_NAME = "store.log";
+    static final String COMPACTION_FILE_NAME = "store.log.compact";
+
+    private static final int MAGIC = 0x506f4c53;
+    private static final int VERSION = 2;
+    private static final int FILE_HEADER_SIZE = 8;
+
+    /**
+     * Each record starts with a CRC32 checksum of the rest of the record, followed by the type,
+     * the expiry time, the key length and the value length.
+     */
+    private static final int RECORD_HEADER_SIZE = 21;
+
+    private static final byte TYPE_PUT = 1;
+    private static final byte TYPE_REMOVE = 2;
+
+    /**
+     * The expiry time of values that never expire.
+     */
+    static final long NEVER = Long.MAX_VALUE;
+
+    /**
+     * The log isn't compacted until the obsolete records take up at least this many bytes, or a
+     * quarter of the bound of the live values, whichever is less.
+     */
+    private static final long MIN_COMPACTION_BYTES = 256 * 1024;
+
+    /**
+     * Buffered values are written right away, regardless of the durability window, once they take
+     * up this many bytes.
+     */
+    private static final long MAX_BUFFERED_BYTES = 512 * 1024;
+
+    private static final ThreadFactory FLUSH_THREAD_FACTORY = new ThreadFactory() {
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "Podio-LocalStore-Flush");
+            thread.setDaemon(true);
+            return thread;
+        }
+    };
+
+    private static ScheduledThreadPoolExecutor flusher = null;
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    /**
+     * A value read from the log, along with its expiry time.
+     */
+    static final class Entry {
+        private final byte[] value;
+        private final long expiresAt;
+
+        private Entry(byte[] value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+
+        String getValue() {
+            return new String(value, UTF_8);
+        }
+
+        long getExpiresAt() {
+            return expiresAt;
+        }
+    }
+
+    private static final class Location {
+        private final long offset;
+        private final int length;
+        private final long expiresAt;
+
+        /**
+         * The tick of the access clock at which the value was last read or written. This is
+         * updated by concurrent reads.
+         */
+        private volatile long lastAccess;
+
+        private Location(long offset, int length, long expiresAt, long lastAccess) {
+            this.offset = offset;
+            this.length = length;
+            this.expiresAt = expiresAt;
+            this.lastAccess = lastAccess;
+        }
+    }
+
+    /**
+     * Opens the log in the given directory, creating it if needed. Any values stored in the
+     * legacy format, one file per key, are moved into the log.
+     *
+     * @param directory
+     *         The directory of the store.
+     * @param maxBytes
+     *         The maximum number of bytes the live values may take up in the log. Zero, or less,
+     *         doesn't bound the values.
+     * @param durabilityWindowMillis
+     *         The number of milliseconds writes are buffered before they're synced to the disk.
+     *         Zero, or less, writes and syncs every value right away.
+     *
+     * @return The opened log.
+     *
+     * @throws IOException
+     *         If the log couldn't be opened.
+     */
+    static DiskLog open(File directory, long maxBytes, long durabilityWindowMillis) throws IOException {
+        DiskLog log = new DiskLog(directory, maxBytes, durabilityWindowMillis);
+        log.recover();
+        log.migrateLegacyFiles();
+        log.trimToSize();
+        return log;
+    }
+
+    private static int getRecordLength(byte[] key, byte[] value) {
+        return RECORD_HEADER_SIZE + key.length + (value != null ? value.length : 0);
+    }
+
+    private static ByteBuffer encodeRecord(byte type, long expiresAt, byte[] key, byte[] value) {
+        int valueLength = value != null ? value.length : 0;
+        ByteBuffer buffer = ByteBuffer.allocate(getRecordLength(key, value));
+
+        buffer.putInt(0);
+        buffer.put(type);
+        buffer.putLong(expiresAt);
+        buffer.putInt(key.length);
+        buffer.putInt(valueLength);
+        buffer.put(key);
+
+        if (value != null) {
+            buffer.put(value);
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), 4, buffer.capacity() - 4);
+        buffer.putInt(0, (int) crc.getValue());
+        buffer.flip();
+
+        return buffer;
+    }
+
+    private static boolean isIntact(byte[] record) {
+        ByteBuffer buffer = ByteBuffer.wrap(record);
+        CRC32 crc = new CRC32();
+        crc.update(record, 4, record.length - 4);
+
+        return buffer.getInt(0) == (int) crc.getValue();
+    }
+
+    private final File directory;
+    private final File file;
+    private final long maxBytes;
+    private final long durabilityWindowMillis;
+    private final ReentrantReadWriteLock lock;
+    private final HashMap<String, Location> index;
+    private final AtomicLong accessClock;
+    private final Runnable flushTask;
+
+    /**
+     * The values waiting to be written, by key. A null entry is a buffered removal.
+     */
+    private final HashMap<String, Entry> bufferedValues;
+
+    private RandomAccessFile randomAccessFile;
+    private FileChannel channel;
+    private long endOffset;
+    private long liveBytes;
+    private long bufferedBytes;
+    private boolean isFlushScheduled;
+
+    private DiskLog(File directory, long maxBytes, long durabilityWindowMillis) {
+        this.directory = directory;
+        this.file = new File(directory, LOG_FILE_NAME);
+        this.maxBytes = maxBytes;
+        this.durabilityWindowMillis = durabilityWindowMillis;
+        this.lock = new ReentrantReadWriteLock();
+        this.index = new HashMap<String, Location>();
+        this.accessClock = new AtomicLong();
+        this.bufferedValues = new HashMap<String, Entry>();
+        this.flushTask = new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    flush();
+                } catch (IOException e) {
+                    // Intentionally consume this exception, the values stay buffered and are
+                    // tried again with the next flush.
+                }
+            }
+        };
+
+        this.bufferedBytes = 0L;
+        this.isFlushScheduled = false;
+    }
+
+    /**
+     * Reads the value of the given key, regardless of its expiry time.
+     *
+     * @param key
+     *         The key of the value.
+     *
+     * @return The value, or null if there is no intact value for the key.
+     *
+     * @throws IOException
+     *         If the log couldn't be read.
+     */
+    String get(String key) throws IOException {
+        Entry entry = getEntry(key);
+        return entry != null ? entry.getValue() : null;
+    }
+
+    /**
+     * Reads the value of the given key, along with its expiry time. This counts as a use of the
+     * value, when picking the least recently used values to evict.
+     *
+     * @param key
+     *         The key of the value.
+     *
+     * @return The entry, or null if there is no intact value for the key.
+     *
+     * @throws IOException
+     *         If the log couldn't be read.
+     */
+    Entry getEntry(String key) throws IOException {
+        lock.readLock().lock();
+
+        try {
+            if (bufferedValues.containsKey(key)) {
+                return bufferedValues.get(key);
+            }
+
+            Location location = index.get(key);
+
+            if (location == null) {
+                return null;
+            }
+
+            byte[] record = new byte[location.length];
+            readFully(ByteBuffer.wrap(record), location.offset);
+
+            if (!isIntact(record)) {
+                return null;
+            }
+
+            location.lastAccess = accessClock.incrementAndGet();
+            int keyLength = ByteBuffer.wrap(record).getInt(13);
+            int valueOffset = RECORD_HEADER_SIZE + keyLength;
+            byte[] value = new byte[record.length - valueOffset];
+            System.arraycopy(record, valueOffset, value, 0, value.length);
+
+            return new Entry(value, location.expiresAt);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Adds or overwrites the value of the given key. The value never expires.
+     *
+     * @param key
+     *         The key of the value.
+     * @param value
+     *         The value.
+     *
+     * @throws IOException
+     *         If the value couldn't be written.
+     */
+    void put(String key, String value) throws IOException {
+        put(key, value, NEVER);
+    }
+
+    /**
+     * Adds or overwrites the value of the given key.
+     *
+     * @param key
+     *         The key of the value.
+     * @param value
+     *         The value.
+     * @param expiresAt
+     *         The time, in milliseconds since the epoch, at which the value expires.
+     *
+     * @throws IOException
+     *         If the value couldn't be written.
+     */
+    void put(String key, String value, long expiresAt) throws IOException {
+        buffer(key, new Entry(value.getBytes(UTF_8), expiresAt));
+    }
+
+    /**
+     * Removes the value of the given key, if any.
+     *
+     * @param key
+     *         The key of the value.
+     *
+     * @throws IOException
+     *         If the removal couldn't be written.
+     */
+    void remove(String key) throws IOException {
+        buffer(key, null);
+    }
+
+    /**
+     * Writes all buffered values to the log and syncs the log to the disk.
+     *
+     * @throws IOException
+     *         If the values couldn't be written. They stay buffered in that case.
+     */
+    void flush() throws IOException {
+        boolean isWritten;
+        lock.writeLock().lock();
+
+        try {
+            isFlushScheduled = false;
+            isWritten = writeBufferedValues();
+
+            // Let the reads go on while the log is synced.
+            lock.readLock().lock();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        try {
+            if (isWritten) {
+                channel.force(false);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Removes all values from the log.
+     *
+     * @throws IOException
+     *         If the log couldn't be truncated.
+     */
+    void clear() throws IOException {
+        lock.writeLock().lock();
+
+        try {
+            bufferedValues.clear();
+            bufferedBytes = 0L;
+            index.clear();
+            liveBytes = 0L;
+            channel.truncate(FILE_HEADER_SIZE);
+            endOffset = FILE_HEADER_SIZE;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Copies the live records to a new log file, which then replaces the current one.
+     *
+     * @throws IOException
+     *         If the log couldn't be compacted. The current log is left intact in that case.
+     */
+    void compact() throws IOException {
+        lock.writeLock().lock();
+
+        try {
+            writeBufferedValues();
+            ArrayList<Map.Entry<String, Location>> entries = new ArrayList<Map.Entry<String, Location>>(index.entrySet());
+
+            // Copy the records in the order they appear in the log, for sequential reads.
+            Collections.sort(entries, new Comparator<Map.Entry<String, Location>>() {
+                @Override
+                public int compare(Map.Entry<String, Location> lhs, Map.Entry<String, Location> rhs) {
+                    return lhs.getValue().offset < rhs.getValue().offset ? -1 :
+                            lhs.getValue().offset > rhs.getValue().offset ? 1 : 0;
+                }
+            });
+
+            File compactionFile = new File(directory, COMPACTION_FILE_NAME);
+            HashMap<String, Location> compactedIndex = new HashMap<String, Location>();
+            RandomAccessFile compactionRandomAccessFile = new RandomAccessFile(compactionFile, "rw");
+
+            try {
+                FileChannel compactionChannel = compactionRandomAccessFile.getChannel();
+                compactionChannel.truncate(0L);
+                writeFully(compactionChannel, newFileHeader(), 0L);
+                long offset = FILE_HEADER_SIZE;
+
+                for (Map.Entry<String, Location> entry : entries) {
+                    Location location = entry.getValue();
+                    ByteBuffer record = ByteBuffer.allocate(location.length);
+                    readFully(record, location.offset);
+                    record.flip();
+                    writeFully(compactionChannel, record, offset);
+                    compactedIndex.put(entry.getKey(), new Location(offset, location.length, location.expiresAt, location.lastAccess));
+                    offset += location.length;
+                }
+
+                // The compacted log must be on the disk before it replaces the current one.
+                compactionChannel.force(true);
+            } finally {
+                Utils.closeSilently(compactionRandomAccessFile);
+            }
+
+            Utils.closeSilently(randomAccessFile);
+
+            if (!compactionFile.renameTo(file)) {
+                compactionFile.delete();
+                openFile();
+                throw new IOException("Couldn't replace " + file + " with its compacted version");
+            }
+
+            openFile();
+            index.clear();
+            index.putAll(compactedIndex);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of bytes in the log file, obsolete records included.
+     *
+     * @return The length of the log file.
+     */
+    long getFileLength() {
+        lock.readLock().lock();
+
+        try {
+            return endOffset;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Opens the log file and rebuilds the index from its records. Anything after the last intact
+     * record is cut off. A log file written in another format is discarded, as it only holds
+     * cached values anyway.
+     */
+    private void recover() throws IOException {
+        new File(directory, COMPACTION_FILE_NAME).delete();
+        openFile();
+
+        long length = channel.size();
+        long offset = FILE_HEADER_SIZE;
+
+        if (length >= FILE_HEADER_SIZE && hasValidFileHeader()) {
+            DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+
+            try {
+                input.skipBytes(FILE_HEADER_SIZE);
+                offset = scanRecords(input, offset, length);
+            } finally {
+                Utils.closeSilently(input);
+            }
+        } else {
+            channel.truncate(0L);
+            writeFully(channel, newFileHeader(), 0L);
+        }
+
+        if (offset < length) {
+            channel.truncate(offset);
+        }
+
+        endOffset = offset;
+    }
+
+    private long scanRecords(DataInputStream input, long offset, long length) throws IOException {
+        while (offset + RECORD_HEADER_SIZE <= length) {
+            byte[] header = new byte[RECORD_HEADER_SIZE];
+
+            try {
+                input.readFully(header);
+            } catch (EOFException e) {
+                break;
+            }
+
+            ByteBuffer headerBuffer = ByteBuffer.wrap(header);
+            byte type = headerBuffer.get(4);
+            long expiresAt = headerBuffer.getLong(5);
+            int keyLength = headerBuffer.getInt(13);
+            int valueLength = headerBuffer.getInt(17);
+            long recordLength = (long) RECORD_HEADER_SIZE + keyLength + valueLength;
+
+            if ((type != TYPE_PUT && type != TYPE_REMOVE) || keyLength < 0 || valueLength < 0 || offset + recordLength > length) {
+                break;
+            }
+
+            byte[] record = new byte[(int) recordLength];
+            System.arraycopy(header, 0, record, 0, RECORD_HEADER_SIZE);
+
+            try {
+                input.readFully(record, RECORD_HEADER_SIZE, keyLength + valueLength);
+            } catch (EOFException e) {
+                break;
+            }
+
+            if (!isIntact(record)) {
+                break;
+            }
+
+            String key = new String(record, RECORD_HEADER_SIZE, keyLength, UTF_8);
+            apply(type, key, offset, (int) recordLength, expiresAt);
+            offset += recordLength;
+        }
+
+        return offset;
+    }
+
+    /**
+     * Moves any values stored one file per key, as by earlier versions of the local store, into
+     * the log and deletes their files.
+     */
+    private void migrateLegacyFiles() throws IOException {
+        File[] files = directory.listFiles();
+
+        if (files == null) {
+            return;
+        }
+
+        ArrayList<File> legacyFiles = new ArrayList<File>();
+
+        for (File legacyFile : files) {
+            String name = legacyFile.getName();
+
+            if (!legacyFile.isFile() || name.equals(LOG_FILE_NAME) || name.equals(COMPACTION_FILE_NAME)) {
+                continue;
+            }
+
+            String key;
+
+            try {
+                key = URLDecoder.decode(name, Charset.defaultCharset().name());
+            } catch (UnsupportedEncodingException e) {
+                continue;
+            } catch (IllegalArgumentException e) {
+                // Not a file name the local store would have encoded, leave it alone.
+                continue;
+            }
+
+            String value;
+
+            try {
+                value = readLegacyFile(legacyFile);
+            } catch (IOException e) {
+                value = null;
+            }
+
+            // A value already in the log is at least as recent, an earlier migration may have
+            // been interrupted before deleting the file.
+            if (value != null && !index.containsKey(key)) {
+                bufferedValues.put(key, new Entry(value.getBytes(UTF_8), NEVER));
+            }
+
+            legacyFiles.add(legacyFile);
+        }
+
+        // The values must be in the log before their files are deleted.
+        flush();
+
+        for (File legacyFile : legacyFiles) {
+            legacyFile.delete();
+        }
+    }
+
+    private static String readLegacyFile(File legacyFile) throws IOException {
+        long length = legacyFile.length();
+
+        if (length < 0 || length > Integer.MAX_VALUE) {
+            return null;
+        }
+
+        byte[] bytes = new byte[(int) length];
+        DataInputStream input = new DataInputStream(new FileInputStream(legacyFile));
+
+        try {
+            input.readFully(bytes);
+        } finally {
+            Utils.closeSilently(input);
+        }
+
+        // The legacy files were written in the default charset.
+        return new String(bytes, Charset.defaultCharset());
+    }
+
+    private void buffer(String key, Entry entry) throws IOException {
+        boolean isFlushNeeded = false;
+        lock.writeLock().lock();
+
+        try {
+            Entry previous = bufferedValues.put(key, entry);
+            bufferedBytes += (entry != null ? entry.value.length : 0) - (previous != null ? previous.value.length : 0);
+
+            if (durabilityWindowMillis <= 0L || bufferedBytes >= MAX_BUFFERED_BYTES) {
+                isFlushNeeded = true;
+            } else if (!isFlushScheduled) {
+                isFlushScheduled = true;
+                getFlusher().schedule(flushTask, durabilityWindowMillis, TimeUnit.MILLISECONDS);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        if (isFlushNeeded) {
+            flush();
+        }
+    }
+
+    /**
+     * Appends a record for each buffered value, all in one write. The caller must hold the write
+     * lock.
+     *
+     * @return Boolean true if anything was written, boolean false otherwise.
+     */
+    private boolean writeBufferedValues() throws IOException {
+        if (bufferedValues.isEmpty()) {
+            return false;
+        }
+
+        ArrayList<String> keys = new ArrayList<String>();
+        ArrayList<ByteBuffer> records = new ArrayList<ByteBuffer>();
+
+        for (Map.Entry<String, Entry> bufferedValue : bufferedValues.entrySet()) {
+            String key = bufferedValue.getKey();
+            Entry entry = bufferedValue.getValue();
+
+            if (entry != null) {
+                keys.add(key);
+                records.add(encodeRecord(TYPE_PUT, entry.expiresAt, key.getBytes(UTF_8), entry.value));
+            } else if (index.containsKey(key)) {
+                // There is nothing to remove for a key that was never written.
+                keys.add(key);
+                records.add(encodeRecord(TYPE_REMOVE, NEVER, key.getBytes(UTF_8), null));
+            }
+        }
+
+        appendRecords(keys, records);
+        bufferedValues.clear();
+        bufferedBytes = 0L;
+        evictIfNeeded();
+        compactIfNeeded();
+
+        return true;
+    }
+
+    /**
+     * Appends the given records in one write and updates the index. The caller must hold the write
+     * lock.
+     */
+    private void appendRecords(ArrayList<String> keys, ArrayList<ByteBuffer> records) throws IOException {
+        int length = 0;
+
+        for (ByteBuffer record : records) {
+            length += record.remaining();
+        }
+
+        ByteBuffer batch = ByteBuffer.allocate(length);
+
+        for (ByteBuffer record : records) {
+            batch.put(record);
+        }
+
+        batch.flip();
+        writeFully(channel, batch, endOffset);
+
+        for (int i = 0; i < keys.size(); i++) {
+            ByteBuffer record = records.get(i);
+            apply(record.get(4), keys.get(i), endOffset, record.capacity(), record.getLong(5));
+            endOffset += record.capacity();
+        }
+    }
+
+    /**
+     * Evicts the least recently used values until the live values are well within the bound, so
+     * not every subsequent write has to evict. The caller must hold the write lock.
+     */
+    private void evictIfNeeded() throws IOException {
+        if (maxBytes <= 0L || liveBytes <= maxBytes) {
+            return;
+        }
+
+        ArrayList<Map.Entry<String, Location>> entries = new ArrayList<Map.Entry<String, Location>>(index.entrySet());
+        Collections.sort(entries, new Comparator<Map.Entry<String, Location>>() {
+            @Override
+            public int compare(Map.Entry<String, Location> lhs, Map.Entry<String, Location> rhs) {
+                return lhs.getValue().lastAccess < rhs.getValue().lastAccess ? -1 :
+                        lhs.getValue().lastAccess > rhs.getValue().lastAccess ? 1 : 0;
+            }
+        });
+
+        long targetBytes = maxBytes - maxBytes / 10;
+        long remainingBytes = liveBytes;
+        ArrayList<String> keys = new ArrayList<String>();
+        ArrayList<ByteBuffer> records = new ArrayList<ByteBuffer>();
+
+        for (Map.Entry<String, Location> entry : entries) {
+            if (remainingBytes <= targetBytes) {
+                break;
+            }
+
+            remainingBytes -= entry.getValue().length;
+            keys.add(entry.getKey());
+            records.add(encodeRecord(TYPE_REMOVE, NEVER, entry.getKey().getBytes(UTF_8), null));
+        }
+
+        appendRecords(keys, records);
+    }
+
+    /**
+     * Evicts and compacts, if needed, right after the log has been opened.
+     */
+    private void trimToSize() throws IOException {
+        lock.writeLock().lock();
+
+        try {
+            evictIfNeeded();
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void apply(byte type, String key, long offset, int recordLength, long expiresAt) {
+        Location previous = type == TYPE_PUT ?
+                index.put(key, new Location(offset, recordLength, expiresAt, accessClock.incrementAndGet())) :
+                index.remove(key);
+
+        if (previous != null) {
+            liveBytes -= previous.length;
+        }
+
+        if (type == TYPE_PUT) {
+            liveBytes += recordLength;
+        }
+    }
+
+    private void compactIfNeeded() throws IOException {
+        long obsoleteBytes = endOffset - FILE_HEADER_SIZE - liveBytes;
+        long minCompactionBytes = maxBytes > 0L ? Math.min(MIN_COMPACTION_BYTES, maxBytes / 4) : MIN_COMPACTION_BYTES;
+        boolean isOverBound = maxBytes > 0L && endOffset > maxBytes;
+
+        if (obsoleteBytes >= minCompactionBytes && (obsoleteBytes > liveBytes || isOverBound)) {
+            compact();
+        }
+    }
+
+    private void openFile() throws IOException {
+        randomAccessFile = new RandomAccessFile(file, "rw");
+        channel = randomAccessFile.getChannel();
+        endOffset = channel.size();
+    }
+
+    private boolean hasValidFileHeader() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_SIZE);
+        readFully(header, 0L);
+
+        return header.getInt(0) == MAGIC && header.getInt(4) == VERSION;
+    }
+
+    private ByteBuffer newFileHeader() {
+        ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_SIZE);
+        header.putInt(MAGIC);
+        header.putInt(VERSION);
+        header.flip();
+
+        return header;
+    }
+
+    private static synchronized ScheduledThreadPoolExecutor getFlusher() {
+        if (flusher == null) {
+            flusher = new ScheduledThreadPoolExecutor(1, FLUSH_THREAD_FACTORY);
+        }
+
+        return flusher;
+    }
+
+    private void readFully(ByteBuffer buffer, long offset) throws IOException {
+        while (buffer.hasRemaining()) {
+            int count = channel.read(buffer, offset);
+
+            if (count < 0) {
+                throw new EOFException("Unexpected end of " + file);
+            }
+
+            offset += count;
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long offset) throws IOException {
+        while (buffer.hasRemaining()) {
+            offset += channel.write(buffer, offset);
+        }
+    }
+
+}
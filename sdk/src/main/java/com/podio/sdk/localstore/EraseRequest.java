@@ -9,9 +9,9 @@ import java.util.concurrent.Callable;
 /**
  * A specific {@link com.podio.sdk.localstore.LocalStoreRequest LocalStoreRequest} implementation,
  * targeting the "destroy store" operation. This implementation clears the memory cache and wipes
- * all files from the disk cache that belongs to this very store, leaving other stores intact. If
- * the disk store isn't prepared yet, the disk write request will block until the disk store is
- * ready. This class also removes the actual store sub directory from the file system.
+ * all values from the disk cache that belongs to this very store, leaving other stores intact. The
+ * request is not executed until the disk store is prepared. This class can also wipe all files in
+ * a given directory, e.g. the directory holding all stores.
  *
  */
 final class EraseRequest extends LocalStoreRequest<Void> {
@@ -22,27 +22,26 @@ final class EraseRequest extends LocalStoreRequest<Void> {
      * @param memoryStore
      *         The in-memory cache to clear.
      */
-    private static void destroyMemoryStore(LruCache<Object, Object> memoryStore) {
+    private static void destroyMemoryStore(LruCache<Object, MemoryEntry> memoryStore) {
         if (memoryStore != null) {
             memoryStore.evictAll();
         }
     }
 
     /**
-     * Recursively removes all files in the given directory and tries to remove the directory as
-     * well.
+     * Recursively removes all files in the given directory.
      *
-     * @param diskStore
-     *         The disk cache to clear.
+     * @param directory
+     *         The directory to clear.
      */
-    private static void destroyDiskStore(File diskStore) {
-        if (isWritableDirectory(diskStore)) {
-            File[] files = diskStore.listFiles();
+    private static void destroyDirectory(File directory) {
+        if (isWritableDirectory(directory)) {
+            File[] files = directory.listFiles();
 
             if (files != null) {
                 for (File file : files) {
                     if (file.isDirectory()) {
-                        destroyDiskStore(file);
+                        destroyDirectory(file);
                     } else if (file.isFile()) {
                         file.delete();
                     }
@@ -63,12 +62,29 @@ final class EraseRequest extends LocalStoreRequest<Void> {
             public Void call() throws Exception {
                 destroyMemoryStore(storeEnabler.getMemoryStore());
 
-                // We have to synchronize at this point as the destroyDiskStore method is recursive
-                // and we would otherwise cause a deadlock if synchronizing on the same lock inside
-                // the method itself.
-                synchronized (storeEnabler.getDiskStoreLock()) {
-                    destroyDiskStore(storeEnabler.getDiskStore());
+                // The local store doesn't run this request alongside any other request.
+                DiskLog diskStore = storeEnabler.getDiskStore();
+                if (diskStore != null) {
+                    diskStore.clear();
                 }
+
+                return null;
+            }
+        });
+    }
+
+    /**
+     * Creates a new Request for deleting all files in the given directory. The request will not
+     * deliver anything.
+     *
+     * @param directory
+     *         The directory to clear.
+     */
+    EraseRequest(final File directory) {
+        super(new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+                destroyDirectory(directory);
                 return null;
             }
         });
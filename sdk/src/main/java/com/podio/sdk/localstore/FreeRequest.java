@@ -20,7 +20,7 @@ final class FreeRequest extends LocalStoreRequest<Void> {
      * @param memoryStore
      *         The reference to the memory cache object.
      */
-    FreeRequest(final LruCache<Object, Object> memoryStore) {
+    FreeRequest(final LruCache<Object, MemoryEntry> memoryStore) {
         super(new Callable<Void>() {
             @Override
             public Void call() throws Exception {
@@ -0,0 +1,33 @@
+package com.podio.sdk.localstore;
+
+import java.util.concurrent.Callable;
+
+/**
+ * A specific {@link com.podio.sdk.localstore.LocalStoreRequest LocalStoreRequest} implementation,
+ * targeting the "get value, stale or not" operation. This implementation looks up the value the
+ * same way as the {@link GetRequest} does, but delivers it along with its expiry time, so the
+ * caller may show an expired value while fetching a fresh one.
+ *
+ */
+final class GetEntryRequest<T> extends LocalStoreRequest<LocalStore.Entry<T>> {
+
+    /**
+     * Creates a new Request for retrieving a value from the local store. The request will deliver
+     * the requested entry, or a null-pointer if no value is found by the given key.
+     *
+     * @param storeEnabler
+     *         The callback that will provide the memory and disk stores.
+     * @param key
+     *         The key of the value.
+     * @param classOfValue
+     *         The type to parse the value into (if needed).
+     */
+    GetEntryRequest(final RuntimeStoreEnabler storeEnabler, final Object key, final Class<T> classOfValue) {
+        super(new Callable<LocalStore.Entry<T>>() {
+            @Override
+            public LocalStore.Entry<T> call() throws Exception {
+                return GetRequest.getEntry(storeEnabler, key, classOfValue);
+            }
+        });
+    }
+}
@@ -3,26 +3,26 @@ package com.podio.sdk.localstore;
 
 import android.util.LruCache;
 
-import java.io.File;
+import com.podio.sdk.json.JsonParser;
+
 import java.io.IOException;
 import java.util.concurrent.Callable;
 
 /**
  * A specific {@link com.podio.sdk.localstore.LocalStoreRequest LocalStoreRequest} implementation,
  * targeting the "get value" operation. This implementation tries to fetch a value from the memory
- * cache first and if nothing is found there it proceeds to look in the disk store. If the disk
- * store isn't prepared yet, the disk read request will block until the disk store is ready. If the
- * disk store is ready and contains a value, it tries to fetch it from there and put it in the
- * memory cache before returning it to the caller.
+ * cache first and if nothing is found there it proceeds to look in the disk store. The request is
+ * not executed until the disk store is prepared. If the disk store contains a value, it tries to
+ * fetch it from there and put it in the memory cache before returning it to the caller.
  *
  */
 final class GetRequest<T> extends LocalStoreRequest<T> {
 
     /**
      * Retrieves a value, associated with the given key, from the memory cache. If not found, an
-     * attempt to fetch the value from the disk store is made. This method call will block until the
-     * disk store is prepared. On success the value will be put in the memory cache. If no value is
-     * found neither in the memory, nor on disk, null is returned.
+     * attempt to fetch the value from the disk store is made. On success the value will be put in
+     * the memory cache. If no value is found neither in the memory, nor on disk, null is returned.
+     * Expired values are returned as well, it's up to the caller to check the entry.
      *
      * @param storeEnabler
      *         The callback that will provide the memory and disk stores.
@@ -31,7 +31,7 @@ final class GetRequest<T> extends LocalStoreRequest<T> {
      * @param classOfValue
      *         The {@link Class} template to parse the disk store JSON to.
      *
-     * @return The value associated with the key or null if none found.
+     * @return The entry associated with the key or null if none found.
      *
      * @throws IOException
      *         If reading from disk store failed for some reason.
@@ -39,40 +39,41 @@ final class GetRequest<T> extends LocalStoreRequest<T> {
      *         If the value can't be cast to the requested template type.
      */
     @SuppressWarnings("unchecked")
-    private static final <E> E getValue(RuntimeStoreEnabler storeEnabler, Object key, Class<E> classOfValue) throws IOException, ClassCastException {
-        LruCache<Object, Object> memoryStore = storeEnabler.getMemoryStore();
+    static final <E> LocalStore.Entry<E> getEntry(RuntimeStoreEnabler storeEnabler, Object key, Class<E> classOfValue) throws IOException, ClassCastException {
+        LruCache<Object, MemoryEntry> memoryStore = storeEnabler.getMemoryStore();
         if (memoryStore == null) {
             throw new IllegalStateException("You're trying to fetch content from a closed store.");
         }
 
-        E value = (E) memoryStore.get(key);
+        MemoryEntry entry = memoryStore.get(key);
+        E value = entry != null ? (E) entry.getValue() : null;
+        long expiresAt = entry != null ? entry.getExpiresAt() : DiskLog.NEVER;
 
-        // If nothing found in the memory cache, try to read from disk.
+        // If nothing found in the memory cache, try to read from disk. The local store doesn't
+        // run this request before the disk store is prepared.
         if (value == null) {
-            // Make sure we wait for the disk store to be ready before we start accessing it.
-            synchronized (storeEnabler.getDiskStoreLock()) {
-                File diskStore = storeEnabler.getDiskStore();
-                if (isReadableDirectory(diskStore) && isValidTemplate(classOfValue)) {
-                    // Read object from disk...
-                    String fileName = getFileName(key);
-                    File file = new File(diskStore, fileName);
-                    value = readObjectFromDisk(file, classOfValue);
+            DiskLog diskStore = storeEnabler.getDiskStore();
+            if (diskStore != null && isValidTemplate(classOfValue)) {
+                // Read object from disk...
+                DiskLog.Entry diskEntry = diskStore.getEntry(getDiskKey(key));
+                value = diskEntry != null ? JsonParser.fromJson(diskEntry.getValue(), classOfValue) : null;
 
-                    // ...and also update in memory.
-                    if (value != null) {
-                        memoryStore.put(key, value);
-                    }
+                // ...and also update in memory.
+                if (value != null) {
+                    expiresAt = diskEntry.getExpiresAt();
+                    storeEnabler.putInMemoryStore(key, value, expiresAt);
                 }
             }
         }
 
-        return value;
+        return value != null ? new LocalStore.Entry<E>(value, expiresAt) : null;
 
     }
 
     /**
      * Creates a new Request for retrieving a value from the local store. The request will deliver
-     * the requested object, or a null-pointer if no object is found by the given key.
+     * the requested object, or a null-pointer if no object is found by the given key or the value
+     * has expired.
      *
      * @param storeEnabler
      *         The callback that will provide the memory and disk stores.
@@ -85,7 +86,8 @@ final class GetRequest<T> extends LocalStoreRequest<T> {
         super(new Callable<T>() {
             @Override
             public T call() throws Exception {
-                return getValue(storeEnabler, key, classOfValue);
+                LocalStore.Entry<T> entry = getEntry(storeEnabler, key, classOfValue);
+                return entry != null && !entry.isStale() ? entry.getValue() : null;
             }
         });
     }
@@ -5,10 +5,8 @@ import android.util.LruCache;
 
 import com.podio.sdk.internal.Utils;
 
-import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
-import java.io.ObjectOutputStream;
 import java.util.concurrent.Callable;
 
 /**
@@ -23,61 +21,59 @@ import java.util.concurrent.Callable;
 final class InitRequest extends LocalStoreRequest<Void> {
 
     /**
-     * Returns a {@link java.io.File File} handle to the provided file path string. If no directory
-     * is found with the given name, then an attempt to create it will be made. If anything goes
-     * wrong null is returned.
+     * Opens the {@link DiskLog} in the provided directory path string. If no directory is found
+     * with the given name, then an attempt to create it will be made. If anything goes wrong null
+     * is returned.
      *
      * @param storePath
      *         The absolute path to the store.
+     * @param maxDiskBytes
+     *         The maximum number of bytes the values may take up on disk.
+     * @param durabilityWindowMillis
+     *         The number of milliseconds writes are buffered before they're synced to the disk.
      *
      * @return The disk store.
      */
-    private static File createNewDiskStore(String storePath) {
+    private static DiskLog createNewDiskStore(String storePath, long maxDiskBytes, long durabilityWindowMillis) {
         if (Utils.isEmpty(storePath)) {
             return null;
         }
 
-        File diskStore = new File(storePath);
+        File directory = new File(storePath);
 
-        if (diskStore.exists()) {
-            return diskStore.isDirectory() && diskStore.canWrite() ? diskStore : null;
-        } else if (diskStore.mkdirs()) {
-            return diskStore.canWrite() ? diskStore : null;
-        } else {
+        if (directory.exists()) {
+            if (!directory.isDirectory() || !directory.canWrite()) {
+                return null;
+            }
+        } else if (!directory.mkdirs() || !directory.canWrite()) {
+            return null;
+        }
+
+        try {
+            return DiskLog.open(directory, maxDiskBytes, durabilityWindowMillis);
+        } catch (IOException e) {
+            // The store will do with the memory cache only.
             return null;
         }
     }
 
     /**
-     * Returns a {@link android.util.LruCache LruCache} providing the in-memory store.
+     * Returns a {@link android.util.LruCache LruCache} providing the in-memory store. The size of
+     * each entry is estimated once, when it's created, and the cache is bounded by the sum of the
+     * estimates.
      *
      * @param maxMemoryInKiloBytes
      *         The maximum allowed size of the memory cache.
      *
      * @return The memory store.
      */
-    private static LruCache<Object, Object> createNewMemoryStore(int maxMemoryInKiloBytes) {
-        return new LruCache<Object, Object>(maxMemoryInKiloBytes) {
-            @Override
-            protected int sizeOf(Object key, Object value) {
-                try {
-                    // This will only calculate the size of the object itself. The size of any
-                    // referenced objects are not included in that figure.
-                    ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-                    ObjectOutputStream objectOutputStream = new ObjectOutputStream(byteArrayOutputStream);
-                    objectOutputStream.writeObject(value);
-                    objectOutputStream.flush();
-
-                    byte[] byteArray = byteArrayOutputStream.toByteArray();
-                    objectOutputStream.close();
+    static LruCache<Object, MemoryEntry> createNewMemoryStore(int maxMemoryInKiloBytes) {
+        int maxMemoryInBytes = (int) Math.min(maxMemoryInKiloBytes * 1024L, Integer.MAX_VALUE);
 
-                    return byteArray.length / 1024;
-                } catch (NullPointerException e) {
-                    return 0;
-                } catch (IOException e) {
-                    // We don't know anything about the size, assume worst case scenario.
-                    return Integer.MAX_VALUE;
-                }
+        return new LruCache<Object, MemoryEntry>(Math.max(maxMemoryInBytes, 1)) {
+            @Override
+            protected int sizeOf(Object key, MemoryEntry value) {
+                return value.getSize();
             }
         };
     }
@@ -88,19 +84,18 @@ final class InitRequest extends LocalStoreRequest<Void> {
      *
      * @param storePath
      *         The absolute path to the disk cache.
-     * @param maxMemoryInKiloBytes
-     *         The maximum allowed size of the memory cache.
+     * @param maxDiskBytes
+     *         The maximum number of bytes the values may take up on disk.
+     * @param durabilityWindowMillis
+     *         The number of milliseconds writes are buffered before they're synced to the disk.
      * @param storePersister
-     *         The callback interface to deliver created stores through.
+     *         The callback interface to deliver the created disk store through.
      */
-    InitRequest(final String storePath, final int maxMemoryInKiloBytes, final LocalStore.RuntimeStorePersister storePersister) {
+    InitRequest(final String storePath, final long maxDiskBytes, final long durabilityWindowMillis, final LocalStore.RuntimeStorePersister storePersister) {
         super(new Callable<Void>() {
             @Override
             public Void call() throws Exception {
-                storePersister.setMemoryStore(createNewMemoryStore(maxMemoryInKiloBytes));
-                synchronized (storePersister.getDiskStoreLock()) {
-                    storePersister.setDiskStore(createNewDiskStore(storePath));
-                }
+                storePersister.setDiskStore(createNewDiskStore(storePath, maxDiskBytes, durabilityWindowMillis));
                 return null;
             }
 
@@ -8,25 +8,21 @@ import com.podio.sdk.QueueClient;
 import com.podio.sdk.Request;
 import com.podio.sdk.Store;
 import com.podio.sdk.internal.Utils;
-import com.podio.sdk.json.JsonParser;
 
-import java.io.ByteArrayOutputStream;
 import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
-import java.io.IOException;
-import java.io.ObjectOutputStream;
 import java.io.UnsupportedEncodingException;
 import java.net.URLEncoder;
 import java.nio.charset.Charset;
-import java.util.Map;
-import java.util.Set;
+import java.util.ArrayDeque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.concurrent.FutureTask;
 
 /**
  * A {@link Store} implementation modeling a memory-cache backed by persistent disk storage. The
- * memory cache heavily relies on the Android {@link LruCache} while the disk store is a basic
- * directory in the internal cache directory of the app. The actual contents are saved as JSON files
- * in sub-directories.
+ * memory cache heavily relies on the Android {@link LruCache} while the disk store is a single log
+ * file in a sub-directory of the internal cache directory of the app. The actual contents are saved
+ * as JSON records in the log, see {@link DiskLog}.
  * <p>
  * The {@link Store} interface enables means of adding, removing, and fetching content to and from
  * the store. Further more the caller can choose to close the store to free up memory. This will
@@ -41,18 +37,103 @@ import java.util.Set;
  * that the disk store will convert the objects into JSON string notation and persist them as such.
  * This means that only those parts of your objects will be persisted to disk that can be expressed
  * as JSON.
+ * <p>
+ * Values may be given a time to live. Expired values are no longer delivered by {@link #get(Object,
+ * Class)}, but they're kept until they're overwritten or evicted, and {@link #getEntry(Object,
+ * Class)} still delivers them, flagged as stale. This way the caller can show a stale value right
+ * away while fetching a fresh one. The disk store is bounded too, the least recently used values
+ * are evicted from disk once the values take up more than the given number of kilobytes.
+ * <p>
+ * Values found in the memory cache are delivered without being enqueued, while the disk operations
+ * are performed on a small pool of worker threads. Operations on the same key are performed one at
+ * a time, in the order they were requested, while operations on different keys may run in
+ * parallel. Erasing the store waits for, and holds back, all other operations.
  *
  */
 public class LocalStore extends QueueClient implements Store, LocalStoreRequest.RuntimeStoreEnabler {
     private static final String LOCAL_STORES_DIRECTORY = "stores";
 
+    /**
+     * The number of disk operations that may run in parallel. Flash storage serves a few
+     * concurrent reads well, while more threads would only compete for the same I/O.
+     */
+    private static final int DISK_THREAD_COUNT = 4;
+
+    /**
+     * The number of seconds an idle disk thread is kept alive.
+     */
+    private static final long DISK_THREAD_KEEP_ALIVE_SECONDS = 30L;
+
+    /**
+     * The default number of milliseconds writes are buffered before they're synced to the disk.
+     */
+    public static final long DEFAULT_DURABILITY_WINDOW_MILLIS = 1000L;
+
+    /**
+     * The default maximum number of kilobytes the values may take up on disk.
+     */
+    public static final int DEFAULT_MAX_DISK_KILO_BYTES = 10 * 1024;
+
+    /**
+     * A value read from the store, along with its expiry time.
+     *
+     * @param <T>
+     *         The type of the value.
+     */
+    public static final class Entry<T> {
+        private final T value;
+        private final long expiresAt;
+        private final boolean isStale;
+
+        Entry(T value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+            this.isStale = expiresAt <= System.currentTimeMillis();
+        }
+
+        /**
+         * @return The value.
+         */
+        public T getValue() {
+            return value;
+        }
+
+        /**
+         * @return The time, in milliseconds since the epoch, at which the value expires, or {@link
+         * Long#MAX_VALUE} if it never does.
+         */
+        public long getExpiresAt() {
+            return expiresAt;
+        }
+
+        /**
+         * Returns whether the value had expired when it was read. A stale value should be
+         * refreshed, and set again, by the caller.
+         *
+         * @return True if the value is stale, false otherwise.
+         */
+        public boolean isStale() {
+            return isStale;
+        }
+    }
+
     interface RuntimeStorePersister {
 
-        void setMemoryStore(LruCache<Object, Object> memoryStore);
+        void setDiskStore(DiskLog diskStore);
 
-        void setDiskStore(File diskStore);
+    }
 
-        Object getDiskStoreLock();
+    /**
+     * An enqueued disk operation. Operations without a key need the entire store for themselves.
+     */
+    private static final class Task {
+        private final String key;
+        private final LocalStoreRequest<?> request;
+
+        private Task(String key, LocalStoreRequest<?> request) {
+            this.key = key;
+            this.request = request;
+        }
     }
 
     /**
@@ -65,22 +146,9 @@ public class LocalStore extends QueueClient implements Store, LocalStoreRequest.
         final String systemCachePath = context.getCacheDir().getPath();
         final File root = new File(systemCachePath + File.separator + LOCAL_STORES_DIRECTORY);
 
-        EraseRequest request = LocalStoreRequest.newEraseRequest(new LocalStoreRequest.RuntimeStoreEnabler() {
-            @Override
-            public LruCache<Object, Object> getMemoryStore() {
-                return null;
-            }
-
-            @Override
-            public File getDiskStore() {
-                return root;
-            }
-
-            @Override
-            public Object getDiskStoreLock() {
-                return new Object();
-            }
-        });
+        // Any open stores will keep their values until they're erased themselves, as they have
+        // their log files open.
+        EraseRequest request = LocalStoreRequest.newEraseRequest(root);
 
         LocalStore store = new LocalStore();
         store.execute(request);
@@ -98,7 +166,48 @@ public class LocalStore extends QueueClient implements Store, LocalStoreRequest.
      * @param maxMemoryInKiloBytes
      *         The memory size constraint.
      */
-    public static Store open(final Context context, final String name, int maxMemoryInKiloBytes) {
+    public static LocalStore open(final Context context, final String name, int maxMemoryInKiloBytes) {
+        return open(context, name, maxMemoryInKiloBytes, DEFAULT_MAX_DISK_KILO_BYTES, DEFAULT_DURABILITY_WINDOW_MILLIS);
+    }
+
+    /**
+     * Creates a new instance of this class and configures its initial state. Values written to the
+     * store are buffered for the given durability window before they're written to the disk, and
+     * a value written again within the window is only written once. Should the app be killed, any
+     * values written within the last window are lost from the disk store.
+     *
+     * @param context
+     *         Used to fetch the disk storage folder.
+     * @param name
+     *         The name of the store.
+     * @param maxMemoryInKiloBytes
+     *         The memory size constraint.
+     * @param durabilityWindowMillis
+     *         The number of milliseconds writes are buffered before they're synced to the disk.
+     *         Zero writes and syncs every value right away.
+     */
+    public static LocalStore open(final Context context, final String name, int maxMemoryInKiloBytes, long durabilityWindowMillis) {
+        return open(context, name, maxMemoryInKiloBytes, DEFAULT_MAX_DISK_KILO_BYTES, durabilityWindowMillis);
+    }
+
+    /**
+     * Creates a new instance of this class and configures its initial state. Once the values take
+     * up more than the given number of kilobytes on disk, the least recently used ones are evicted
+     * from the disk store.
+     *
+     * @param context
+     *         Used to fetch the disk storage folder.
+     * @param name
+     *         The name of the store.
+     * @param maxMemoryInKiloBytes
+     *         The memory size constraint.
+     * @param maxDiskInKiloBytes
+     *         The disk size constraint. Zero, or less, doesn't constrain the disk store.
+     * @param durabilityWindowMillis
+     *         The number of milliseconds writes are buffered before they're synced to the disk.
+     *         Zero writes and syncs every value right away.
+     */
+    public static LocalStore open(final Context context, final String name, int maxMemoryInKiloBytes, int maxDiskInKiloBytes, long durabilityWindowMillis) {
         String directoryName;
 
         try {
@@ -110,104 +219,27 @@ public class LocalStore extends QueueClient implements Store, LocalStoreRequest.
         String systemCachePath = context.getCacheDir().getPath();
         String storePath = systemCachePath + File.separator + LOCAL_STORES_DIRECTORY + File.separator + directoryName;
 
+        // The memory store is ready right away, while the disk store is prepared by the first
+        // operation in the queue.
         final LocalStore store = new LocalStore();
-        InitRequest request = LocalStoreRequest.newInitRequest(storePath, maxMemoryInKiloBytes,
-                new RuntimeStorePersister() {
-                    @Override
-                    public void setMemoryStore(LruCache<Object, Object> memoryStore) {
-                        // This callback is executed on the worker thread.
-                        store.memoryStore = memoryStore;
-                    }
+        store.memoryStore = InitRequest.createNewMemoryStore(maxMemoryInKiloBytes);
 
+        InitRequest request = LocalStoreRequest.newInitRequest(storePath, maxDiskInKiloBytes * 1024L, durabilityWindowMillis,
+                new RuntimeStorePersister() {
                     @Override
-                    public void setDiskStore(File diskStore) {
-                        // This callback is executed on the worker thread.
+                    public void setDiskStore(DiskLog diskStore) {
+                        // This callback is executed on a worker thread.
                         store.diskStore = diskStore;
-                        copyMemoryStoreToDiskStore(store);
-                    }
-
-                    @Override
-                    public Object getDiskStoreLock() {
-                        // This callback is executed on the worker thread.
-                        return store.getDiskStoreLock();
                     }
 
                 }
 
         );
 
-        store.execute(request);
+        store.enqueue(null, request);
         return store;
     }
 
-    /**
-     * Writes the object to a {@code ByteArrayOutputStream} and counts the number of bytes in the
-     * output. This value will then be converted to KB and returned as the size of the object.
-     *
-     * @param object
-     *         The object to calculate the size of.
-     *
-     * @return The size of the object expressed in kilobytes.
-     */
-
-    private static int calculateKiloByteSizeOfObject(Object object) {
-        try {
-            // This will only calculate the size of the object itself. The size of any
-            // referenced objects are not included in that figure.
-            ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-            ObjectOutputStream objectOutputStream = new ObjectOutputStream(byteArrayOutputStream);
-            objectOutputStream.writeObject(object);
-            objectOutputStream.flush();
-
-            byte[] byteArray = byteArrayOutputStream.toByteArray();
-            objectOutputStream.close();
-
-            return byteArray.length / 1024;
-        } catch (NullPointerException e) {
-            return 0;
-        } catch (IOException e) {
-            // We don't know anything about the size, assume worst case scenario.
-            return Integer.MAX_VALUE;
-        }
-    }
-
-    /**
-     * Writes all entries currently in the memory cache to the disk cache. Note that this method
-     * performs file system operations on the calling thread.
-     *
-     * @param store
-     *         The local store object holding the memory and disk caches.
-     */
-    private static void copyMemoryStoreToDiskStore(LocalStore store) {
-        if (store != null) {
-            Map<Object, Object> snapshot = store.memoryStore.snapshot();
-            Set<Map.Entry<Object, Object>> entries = snapshot.entrySet();
-
-            for (Map.Entry<Object, Object> entry : entries) {
-                FileOutputStream fileOutputStream = null;
-                String fileName;
-
-                try {
-                    String key = entry.getKey().toString();
-                    fileName = URLEncoder.encode(key, Charset.defaultCharset().name());
-                    File file = new File(store.diskStore, fileName);
-                    String json = JsonParser.toJson(entry.getValue());
-                    fileOutputStream = new FileOutputStream(file);
-                    fileOutputStream.write(json.getBytes());
-                } catch (UnsupportedEncodingException e) {
-                    break;
-                } catch (FileNotFoundException e) {
-                    // Intentionally consume this exception.
-                } catch (IOException e) {
-                    // Intentionally consume this exception.
-                } finally {
-                    Utils.closeSilently(fileOutputStream);
-                }
-            }
-        }
-
-    }
-
     /**
      * Returns the {@code File} handle to a directory corresponding to the given name in the system
      * cache directory on this device. The {@code name} parameter will be URL encoded prior to any
@@ -248,21 +280,26 @@ public class LocalStore extends QueueClient implements Store, LocalStoreRequest.
 
     }
 
-    private final Object diskStoreLock;
+    private final ArrayDeque<Task> pendingTasks;
+    private final HashSet<String> runningKeys;
+    private boolean isExclusiveTaskRunning;
 
-    private LruCache<Object, Object> memoryStore;
-    private File diskStore;
+    private LruCache<Object, MemoryEntry> memoryStore;
+    private volatile DiskLog diskStore;
 
     /**
      * Hidden constructor.
      */
     private LocalStore() {
-        super(1, 1, 0L);
-        diskStoreLock = new Object();
+        super(DISK_THREAD_COUNT, DISK_THREAD_COUNT, DISK_THREAD_KEEP_ALIVE_SECONDS);
+        pendingTasks = new ArrayDeque<Task>();
+        runningKeys = new HashSet<String>();
+        isExclusiveTaskRunning = false;
     }
 
     /**
-     * Removes all objects in the memory cache. The disk store is left unaffected.
+     * Removes all objects in the memory cache. The disk store is left unaffected. As no disk
+     * operation is involved, the request is performed right away on the calling thread.
      *
      * @throws IllegalStateException
      *         If neither in-memory store, nor disk store has a valid handle.
@@ -270,13 +307,13 @@ public class LocalStore extends QueueClient implements Store, LocalStoreRequest.
     @Override
     public Request<Void> free() {
         FreeRequest request = LocalStoreRequest.newFreeRequest(memoryStore);
-        execute(request);
+        request.run();
         return request;
     }
 
     /**
-     * Destroys this instance of the local store. The in memory cache will be cleared and all files
-     * in the disk store, as well as the store container itself, will be deleted.
+     * Destroys this instance of the local store. The in memory cache will be cleared and all values
+     * in the disk store will be deleted.
      *
      * @throws IllegalStateException
      *         If neither in-memory store, nor disk store has a valid handle.
@@ -284,22 +321,67 @@ public class LocalStore extends QueueClient implements Store, LocalStoreRequest.
     @Override
     public Request<Void> erase() {
         EraseRequest request = LocalStoreRequest.newEraseRequest(this);
-        execute(request);
+
+        synchronized (pendingTasks) {
+            // Make sure any subsequent reads miss the memory store.
+            if (memoryStore != null) {
+                memoryStore.evictAll();
+            }
+
+            enqueue(null, request);
+        }
+
         return request;
     }
 
     /**
      * Retrieves an object with the given key from the local store. If the object isn't found in
      * memory, and a {@link Class} template is given, it will be looked for on disk. If it's not
-     * found there either, a null pointer will be returned.
+     * found there either, or it has expired, a null pointer will be returned.
      *
      * @throws IllegalStateException
      *         If neither in-memory store, nor disk store has a valid handle.
      */
     @Override
+    @SuppressWarnings("unchecked")
     public <T> Request<T> get(Object key, Class<T> classOfValue) throws IllegalStateException {
+        MemoryEntry entry = memoryStore != null ? memoryStore.get(key) : null;
+
+        if (entry != null && entry.getValue() != null) {
+            // The memory store is never behind the disk store, an expired value is expired there too.
+            return LocalStoreRequest.newCompletedRequest(entry.isExpired() ? null : (T) entry.getValue());
+        }
+
         GetRequest<T> request = LocalStoreRequest.newGetRequest(this, key, classOfValue);
-        execute(request);
+        enqueue(getTaskKey(key), request);
+        return request;
+    }
+
+    /**
+     * Retrieves an object with the given key from the local store, along with its expiry time.
+     * Unlike {@link #get(Object, Class)}, expired objects are delivered too, flagged as stale,
+     * which lets the caller show them right away while refreshing them.
+     *
+     * @param key
+     *         The key of the object.
+     * @param classOfValue
+     *         The type to parse the object into, if it's read from disk.
+     *
+     * @return A request delivering the entry, or a null pointer if no object is found.
+     *
+     * @throws IllegalStateException
+     *         If neither in-memory store, nor disk store has a valid handle.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Request<Entry<T>> getEntry(Object key, Class<T> classOfValue) throws IllegalStateException {
+        MemoryEntry entry = memoryStore != null ? memoryStore.get(key) : null;
+
+        if (entry != null && entry.getValue() != null) {
+            return LocalStoreRequest.newCompletedRequest(new Entry<T>((T) entry.getValue(), entry.getExpiresAt()));
+        }
+
+        GetEntryRequest<T> request = LocalStoreRequest.newGetEntryRequest(this, key, classOfValue);
+        enqueue(getTaskKey(key), request);
         return request;
     }
 
@@ -309,18 +391,47 @@ public class LocalStore extends QueueClient implements Store, LocalStoreRequest.
      * @return A reference to the current disk store object.
      */
     @Override
-    public File getDiskStore() {
+    public DiskLog getDiskStore() {
         return diskStore;
     }
 
     /**
-     * Provides a lock to synchronize any disk operations on.
+     * Puts a value read from the disk store in the memory store, unless any set, remove or erase
+     * operation affecting the key has been requested since. Such an operation would already have
+     * updated the memory store with a more recent state than the one read from disk.
+     *
+     * @param key
+     *         The key of the value.
+     * @param value
+     *         The value read from the disk store.
+     * @param expiresAt
+     *         The time, in milliseconds since the epoch, at which the value expires.
+     */
+    @Override
+    public void putInMemoryStore(Object key, Object value, long expiresAt) {
+        MemoryEntry entry = new MemoryEntry(value, expiresAt);
+
+        synchronized (pendingTasks) {
+            if (!hasPendingWrite(getTaskKey(key))) {
+                memoryStore.put(key, entry);
+            }
+        }
+    }
+
+    /**
+     * Returns whether a set, remove or erase operation affecting the given key is pending. A
+     * running disk write for the key can then be skipped, as it would be overwritten anyway.
      *
-     * @return The "Disk-store-ready" lock object.
+     * @param key
+     *         The key of the value.
+     *
+     * @return Boolean true if a more recent write is pending, boolean false otherwise.
      */
     @Override
-    public Object getDiskStoreLock() {
-        return diskStoreLock;
+    public boolean isSuperseded(Object key) {
+        synchronized (pendingTasks) {
+            return hasPendingWrite(getTaskKey(key));
+        }
     }
 
     /**
@@ -329,7 +440,7 @@ public class LocalStore extends QueueClient implements Store, LocalStoreRequest.
      * @return A reference to the current memory store object.
      */
     @Override
-    public LruCache<Object, Object> getMemoryStore() {
+    public LruCache<Object, MemoryEntry> getMemoryStore() {
         return memoryStore;
     }
 
@@ -344,21 +455,59 @@ public class LocalStore extends QueueClient implements Store, LocalStoreRequest.
     @Override
     public Request<Void> remove(Object key) throws IllegalStateException {
         RemoveRequest request = LocalStoreRequest.newRemoveRequest(this, key);
-        execute(request);
+
+        synchronized (pendingTasks) {
+            if (memoryStore != null) {
+                memoryStore.remove(key);
+            }
+
+            enqueue(getTaskKey(key), request);
+        }
+
         return request;
     }
 
     /**
      * Adds or updates a value with the given key in the local store. If there already is a value
-     * for the given key in the store, it will silently be overwritten.
+     * for the given key in the store, it will silently be overwritten. The value never expires.
      *
      * @throws IllegalStateException
      *         If neither in-memory store, nor disk store has a valid handle.
      */
     @Override
     public Request<Void> set(Object key, Object value) throws IllegalStateException {
-        SetRequest request = LocalStoreRequest.newSetRequest(this, key, value);
-        execute(request);
+        return set(key, value, 0L);
+    }
+
+    /**
+     * Adds or updates a value with the given key in the local store. If there already is a value
+     * for the given key in the store, it will silently be overwritten. Once the given time to live
+     * has passed, the value is stale.
+     *
+     * @param key
+     *         The key of the value.
+     * @param value
+     *         The value.
+     * @param timeToLiveMillis
+     *         The number of milliseconds the value is fresh. Zero, or less, never expires the
+     *         value.
+     *
+     * @throws IllegalStateException
+     *         If neither in-memory store, nor disk store has a valid handle.
+     */
+    public Request<Void> set(Object key, Object value, long timeToLiveMillis) throws IllegalStateException {
+        long expiresAt = timeToLiveMillis > 0L ? System.currentTimeMillis() + timeToLiveMillis : DiskLog.NEVER;
+        SetRequest request = LocalStoreRequest.newSetRequest(this, key, value, expiresAt);
+        MemoryEntry entry = new MemoryEntry(value, expiresAt);
+
+        synchronized (pendingTasks) {
+            if (memoryStore != null) {
+                memoryStore.put(key, entry);
+            }
+
+            enqueue(getTaskKey(key), request);
+        }
+
         return request;
     }
 
@@ -369,7 +518,7 @@ public class LocalStore extends QueueClient implements Store, LocalStoreRequest.
      * @return True if the disk store is ready, false otherwise.
      */
     public boolean isDiskStoreReady() {
-        return diskStore != null && diskStore.exists() && diskStore.isDirectory() && diskStore.canWrite();
+        return diskStore != null;
     }
 
     /**
@@ -381,4 +530,98 @@ public class LocalStore extends QueueClient implements Store, LocalStoreRequest.
         return memoryStore != null && memoryStore.size() < memoryStore.maxSize();
     }
 
+    /**
+     * Returns the key that orders the disk operations on the given value key. Keys with the same
+     * string representation share the same file, hence they share the same order too.
+     */
+    private static String getTaskKey(Object key) {
+        return String.valueOf(key);
+    }
+
+    /**
+     * Returns whether a set, remove or erase operation affecting the given key is pending. The
+     * caller must hold the lock of the pending tasks.
+     */
+    private boolean hasPendingWrite(String taskKey) {
+        for (Task task : pendingTasks) {
+            if (task.key == null || (task.key.equals(taskKey) &&
+                    (task.request instanceof SetRequest || task.request instanceof RemoveRequest))) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Enqueues a disk operation and starts it as soon as it's allowed to run.
+     *
+     * @param key
+     *         The key of the value the operation affects, or null if the operation needs the entire
+     *         store for itself.
+     * @param request
+     *         The operation to perform.
+     */
+    private void enqueue(String key, LocalStoreRequest<?> request) {
+        synchronized (pendingTasks) {
+            pendingTasks.add(new Task(key, request));
+            dispatchPendingTasks();
+        }
+    }
+
+    /**
+     * Starts all pending operations that are allowed to run. An operation on a key may run when
+     * no other operation on the same key is running or requested before it, and no operation on
+     * the entire store is running or requested before it. An operation on the entire store may
+     * run when it's the first requested and nothing else is running. The caller must hold the
+     * lock of the pending tasks.
+     */
+    private void dispatchPendingTasks() {
+        Iterator<Task> iterator = pendingTasks.iterator();
+        boolean isFirst = true;
+
+        while (!isExclusiveTaskRunning && iterator.hasNext()) {
+            Task task = iterator.next();
+
+            if (task.key == null) {
+                if (isFirst && runningKeys.isEmpty()) {
+                    iterator.remove();
+                    isExclusiveTaskRunning = true;
+                    start(task);
+                }
+
+                break;
+            }
+
+            if (runningKeys.add(task.key)) {
+                iterator.remove();
+                start(task);
+            } else {
+                isFirst = false;
+            }
+        }
+    }
+
+    private void start(final Task task) {
+        execute(new FutureTask<Void>(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    // A canceled request returns right away.
+                    task.request.run();
+                } finally {
+                    synchronized (pendingTasks) {
+                        if (task.key == null) {
+                            isExclusiveTaskRunning = false;
+                        } else {
+                            runningKeys.remove(task.key);
+                        }
+
+                        dispatchPendingTasks();
+                    }
+                }
+            }
+        }, null));
+    }
+
 }
@@ -3,18 +3,14 @@ package com.podio.sdk.localstore;
 
 import android.util.LruCache;
 
+import com.podio.sdk.PodioError;
 import com.podio.sdk.Request;
 import com.podio.sdk.internal.CallbackManager;
-import com.podio.sdk.json.JsonParser;
+import com.podio.sdk.internal.MainThreadExecutor;
 
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
-import java.io.IOException;
-import java.io.UnsupportedEncodingException;
-import java.net.URLEncoder;
-import java.nio.charset.Charset;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.FutureTask;
 import java.util.concurrent.TimeUnit;
@@ -33,14 +29,45 @@ class LocalStoreRequest<T> extends FutureTask<T> implements Request<T> {
 
     interface RuntimeStoreEnabler {
 
-        LruCache<Object, Object> getMemoryStore();
+        LruCache<Object, MemoryEntry> getMemoryStore();
 
-        File getDiskStore();
+        DiskLog getDiskStore();
 
-        Object getDiskStoreLock();
+        /**
+         * Puts a value read from the disk store in the memory store, unless the value has been set,
+         * removed or erased again since it was requested.
+         */
+        void putInMemoryStore(Object key, Object value, long expiresAt);
+
+        /**
+         * Returns whether a set, remove or erase operation affecting the key has been requested
+         * after the currently running one, making a disk write for the key redundant.
+         */
+        boolean isSuperseded(Object key);
 
     }
 
+    /**
+     * Creates a new Request that has already delivered the given value. It never touches the
+     * memory or disk stores.
+     *
+     * @param value
+     *         The value to deliver.
+     *
+     * @return A request that has already been performed.
+     */
+    static <E> LocalStoreRequest<E> newCompletedRequest(final E value) {
+        LocalStoreRequest<E> request = new LocalStoreRequest<E>(new Callable<E>() {
+            @Override
+            public E call() throws Exception {
+                return value;
+            }
+        });
+
+        request.run();
+        return request;
+    }
+
     /**
      * Creates a new Request for destroying the local store. The request will not deliver anything.
      *
@@ -53,6 +80,19 @@ class LocalStoreRequest<T> extends FutureTask<T> implements Request<T> {
         return new EraseRequest(storeEnabler);
     }
 
+    /**
+     * Creates a new Request for deleting all files in a directory, e.g. the directory of all local
+     * stores. The request will not deliver anything.
+     *
+     * @param directory
+     *         The directory to clear.
+     *
+     * @return A request ready for being enqueued in a queue.
+     */
+    static EraseRequest newEraseRequest(File directory) {
+        return new EraseRequest(directory);
+    }
+
     /**
      * Creates a new Request for clearing the memory store. The disk store is not affected by this.
      * The request will not deliver anything.
@@ -62,7 +102,7 @@ class LocalStoreRequest<T> extends FutureTask<T> implements Request<T> {
      *
      * @return A request ready for being enqueued in a queue.
      */
-    static FreeRequest newFreeRequest(LruCache<Object, Object> memoryStore) {
+    static FreeRequest newFreeRequest(LruCache<Object, MemoryEntry> memoryStore) {
         return new FreeRequest(memoryStore);
     }
 
@@ -84,19 +124,38 @@ class LocalStoreRequest<T> extends FutureTask<T> implements Request<T> {
     }
 
     /**
-     * Creates a new Request for initializing the memory and disk stores for a local store.
+     * Creates a new Request for retrieving a value from the local store, along with its expiry
+     * time. Unlike the {@link GetRequest}, expired values are delivered too.
+     *
+     * @param storeEnabler
+     *         The callback that will provide the memory and disk stores.
+     * @param key
+     *         The key of the value.
+     * @param classOfValue
+     *         The type to parse the value into (if needed).
+     *
+     * @return A request ready for being enqueued in a queue.
+     */
+    static <E> GetEntryRequest<E> newGetEntryRequest(RuntimeStoreEnabler storeEnabler, Object key, Class<E> classOfValue) {
+        return new GetEntryRequest<E>(storeEnabler, key, classOfValue);
+    }
+
+    /**
+     * Creates a new Request for initializing the disk store for a local store.
      *
      * @param path
      *         The absolute path of the local store to initialize.
-     * @param maxMemoryInKiloBytes
-     *         The maximum allowed size of the memory cache.
+     * @param maxDiskBytes
+     *         The maximum number of bytes the values may take up on disk.
+     * @param durabilityWindowMillis
+     *         The number of milliseconds writes are buffered before they're synced to the disk.
      * @param storePersister
-     *         The callback interface to deliver created stores through.
+     *         The callback interface to deliver the created disk store through.
      *
      * @return A request ready for being enqueued in a queue.
      */
-    static InitRequest newInitRequest(String path, int maxMemoryInKiloBytes, LocalStore.RuntimeStorePersister storePersister) {
-        return new InitRequest(path, maxMemoryInKiloBytes, storePersister);
+    static InitRequest newInitRequest(String path, long maxDiskBytes, long durabilityWindowMillis, LocalStore.RuntimeStorePersister storePersister) {
+        return new InitRequest(path, maxDiskBytes, durabilityWindowMillis, storePersister);
     }
 
     /**
@@ -124,55 +183,26 @@ class LocalStoreRequest<T> extends FutureTask<T> implements Request<T> {
      *         The key of the value.
      * @param value
      *         The value.
+     * @param expiresAt
+     *         The time, in milliseconds since the epoch, at which the value expires.
      *
      * @return A request ready for being enqueued in a queue.
      */
-    static SetRequest newSetRequest(RuntimeStoreEnabler storeEnabler, Object key, Object value) {
-        return new SetRequest(storeEnabler, key, value);
+    static SetRequest newSetRequest(RuntimeStoreEnabler storeEnabler, Object key, Object value, long expiresAt) {
+        return new SetRequest(storeEnabler, key, value, expiresAt);
     }
 
     /**
-     * URL encodes the string format of the given key, so it can be used as a file name.
+     * Returns the key a value is stored by in the disk store, i.e. the string notation of the
+     * given key (pick your keys with great care).
      *
      * @param key
-     *         The key to build a file name on.
+     *         The key to build a disk store key on.
      *
-     * @return The URL encoded string notation of the given key.
-     *
-     * @throws UnsupportedEncodingException
-     *         If using an invalid charset name. This should never happen as we call for the default
-     *         charset of the system.
+     * @return The string notation of the given key.
      */
-    protected static String getFileName(Object key) throws UnsupportedEncodingException {
-        return URLEncoder.encode(key.toString(), Charset.defaultCharset().name());
-    }
-
-    /**
-     * Verifies that the given file handle, 1) isn't a null pointer, 2) exists on the file system,
-     * 3) is a directory and 4) is readable.
-     *
-     * @param directory
-     *         The directory to test.
-     *
-     * @return Boolean <code>true</code> if the conditions are met, boolean <code>false</code>
-     * otherwise.
-     */
-    protected static boolean isReadableDirectory(File directory) {
-        return directory != null && directory.exists() && directory.isDirectory() && directory.canRead();
-    }
-
-    /**
-     * Verifies that the given file handle, 1) isn't a null pointer, 2) exists on the file system,
-     * 3) is a file and 4) is readable.
-     *
-     * @param file
-     *         The file to test.
-     *
-     * @return Boolean <code>true</code> if the conditions are met, boolean <code>false</code>
-     * otherwise.
-     */
-    protected static boolean isReadableFile(File file) {
-        return file != null && file.exists() && file.isFile() && file.canRead();
+    protected static String getDiskKey(Object key) {
+        return String.valueOf(key);
     }
 
     /**
@@ -202,74 +232,6 @@ class LocalStoreRequest<T> extends FutureTask<T> implements Request<T> {
         return directory != null && directory.exists() && directory.isDirectory() && directory.canWrite();
     }
 
-    /**
-     * Reads the content of a file and tries to parse it as JSON into an object.
-     *
-     * @param file
-     *         The file on disk to read from.
-     * @param classOfValue
-     *         The class definition that the JSON should be parsed into.
-     *
-     * @return The object stored in the file.
-     *
-     * @throws IOException
-     *         If anything went wrong during file access.
-     */
-    protected static <E> E readObjectFromDisk(File file, Class<E> classOfValue) throws IOException {
-        // Validate file.
-        if (!isReadableFile(file)) {
-            return null;
-        }
-
-        if (classOfValue == null || classOfValue.equals(Void.class)) {
-            return null;
-        }
-
-        long length = file.length();
-        if (length < 0 || length > Integer.MAX_VALUE) {
-            return null;
-        }
-
-        // Read from disk.
-        byte[] bytes = new byte[(int) length];
-        FileInputStream fileInputStream = new FileInputStream(file);
-
-        try {
-            fileInputStream.read(bytes);
-        } finally {
-            fileInputStream.close();
-        }
-
-        // Parse JSON to object.
-        String json = new String(bytes);
-        E result = JsonParser.fromJson(json, classOfValue);
-        return result;
-    }
-
-    /**
-     * Tries to write the value to the disk store. An attempt will be made to parse the value to
-     * JSON and on success it will be written to a file with the same name as the key. The key will
-     * be transformed to the file name by calling the <code>toString()</code> method on it (pick
-     * your keys with great care).
-     *
-     * @param file
-     *         The {@link File} pointing at the desired destination file on disk.
-     * @param value
-     *         The value that will be serialized to JSON and saved as a file.
-     *
-     * @throws IOException
-     */
-    protected static void writeObjectToDisk(File file, Object value) throws IOException {
-        String json = JsonParser.toJson(value);
-        FileOutputStream fileOutputStream = new FileOutputStream(file);
-
-        try {
-            fileOutputStream.write(json.getBytes());
-        } finally {
-            fileOutputStream.close();
-        }
-    }
-
     /**
      * Validates the memory cache and the disk store handles. If none of them are ready for use, an
      * {@link IllegalStateException} is thrown, otherwise we're cool.
@@ -277,7 +239,7 @@ class LocalStoreRequest<T> extends FutureTask<T> implements Request<T> {
      * @throws IllegalStateException
      *         If neither in-memory store, nor disk store has a valid handle.
      */
-    protected static void validateState(LruCache<Object, Object> memoryStore, File diskStore) throws IllegalStateException {
+    protected static void validateState(LruCache<Object, MemoryEntry> memoryStore, DiskLog diskStore) throws IllegalStateException {
         if (memoryStore == null && diskStore == null) {
             throw new IllegalStateException("You're trying to interact with a closed store.");
         }
@@ -306,7 +268,7 @@ class LocalStoreRequest<T> extends FutureTask<T> implements Request<T> {
      */
     LocalStoreRequest(Callable<T> callable) {
         super(callable);
-        callbackManager = new CallbackManager<T>();
+        callbackManager = new CallbackManager<T>(new MainThreadExecutor());
     }
 
     /**
@@ -318,6 +280,11 @@ class LocalStoreRequest<T> extends FutureTask<T> implements Request<T> {
     protected void done() {
         super.done();
 
+        // A canceled request doesn't call its listeners.
+        if (isCancelled()) {
+            return;
+        }
+
         try {
             result = get();
             error = null;
@@ -337,7 +304,11 @@ class LocalStoreRequest<T> extends FutureTask<T> implements Request<T> {
     public synchronized T waitForResult(long maxSeconds) {
         try {
             return get(maxSeconds, TimeUnit.SECONDS);
+        } catch (CancellationException e) {
+            throw new PodioError(e);
         } catch (InterruptedException e) {
+            // Retain the interrupted state for the caller to act on.
+            Thread.currentThread().interrupt();
             callbackManager.deliverError(e);
         } catch (ExecutionException e) {
             callbackManager.deliverError(e);
@@ -348,6 +319,18 @@ class LocalStoreRequest<T> extends FutureTask<T> implements Request<T> {
         return null;
     }
 
+    /**
+     * Cancels this request. An operation that hasn't started yet is never executed, while an
+     * operation that already is running is allowed to finish, so the store isn't left
+     * half-written, but its result isn't delivered.
+     *
+     * @see Request#cancel()
+     */
+    @Override
+    public void cancel() {
+        cancel(false);
+    }
+
     /**
      * Registers a result listener for this request. If the result is already delivered, then the
      * result listener will be called immediately with the result.
@@ -357,7 +340,7 @@ class LocalStoreRequest<T> extends FutureTask<T> implements Request<T> {
      */
     @Override
     public Request<T> withResultListener(Request.ResultListener<T> contentListener) {
-        callbackManager.addResultListener(contentListener, isDone(), result);
+        callbackManager.addResultListener(contentListener, isDone() && !isCancelled(), result);
         return this;
     }
 
@@ -370,7 +353,7 @@ class LocalStoreRequest<T> extends FutureTask<T> implements Request<T> {
      */
     @Override
     public Request<T> withErrorListener(Request.ErrorListener errorListener) throws UnsupportedOperationException {
-        callbackManager.addErrorListener(errorListener, isDone() && error != null, error);
+        callbackManager.addErrorListener(errorListener, isDone() && !isCancelled() && error != null, error);
         return this;
     }
 
@@ -0,0 +1,37 @@
+package com.podio.sdk.localstore;
+
+/**
+ * A value in the memory store, along with its expiry time and its estimated size in bytes. The
+ * memory store asks for the size of a value whenever the value is added, removed or evicted, so
+ * the size is estimated once, when the entry is created, and then kept.
+ *
+ */
+final class MemoryEntry {
+
+    private final Object value;
+    private final long expiresAt;
+    private final int size;
+
+    MemoryEntry(Object value, long expiresAt) {
+        this.value = value;
+        this.expiresAt = expiresAt;
+        this.size = (int) Math.min(ObjectSizeEstimator.estimate(value), Integer.MAX_VALUE);
+    }
+
+    Object getValue() {
+        return value;
+    }
+
+    long getExpiresAt() {
+        return expiresAt;
+    }
+
+    boolean isExpired() {
+        return expiresAt <= System.currentTimeMillis();
+    }
+
+    int getSize() {
+        return size;
+    }
+
+}
@@ -0,0 +1,228 @@
+package com.podio.sdk.localstore;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Estimates the number of bytes an object graph occupies on the heap. The estimate follows the
+ * object layout of a typical Android runtime: 8 byte object headers, 4 byte references and objects
+ * aligned to 8 bytes. Unlike serializing the object, this doesn't require anything in the graph to
+ * be {@link java.io.Serializable}.
+ * <p>
+ * The fields of each class are looked up once and then cached. Platform classes, apart from
+ * strings, arrays, collections and maps, are only counted by their own fields, as their internals
+ * aren't necessarily accessible. Enum constants and classes are shared by everyone and aren't
+ * counted at all.
+ *
+ */
+final class ObjectSizeEstimator {
+
+    private static final int OBJECT_HEADER_SIZE = 8;
+    private static final int ARRAY_HEADER_SIZE = 12;
+    private static final int REFERENCE_SIZE = 4;
+    private static final int ALIGNMENT = 8;
+
+    private static final String[] PLATFORM_PACKAGES = {"java.", "javax.", "android.", "dalvik.", "libcore.", "sun."};
+
+    private static final class ClassLayout {
+        private final int shallowSize;
+        private final Field[] referenceFields;
+
+        private ClassLayout(int shallowSize, Field[] referenceFields) {
+            this.shallowSize = shallowSize;
+            this.referenceFields = referenceFields;
+        }
+    }
+
+    private static final ConcurrentHashMap<Class<?>, ClassLayout> LAYOUTS = new ConcurrentHashMap<Class<?>, ClassLayout>();
+
+    /**
+     * Estimates the size of the given object and everything it references.
+     *
+     * @param root
+     *         The object to estimate the size of.
+     *
+     * @return The estimated number of bytes. Objects referenced more than once are only counted
+     * once.
+     */
+    static long estimate(Object root) {
+        IdentityHashMap<Object, Object> visited = new IdentityHashMap<Object, Object>();
+        ArrayDeque<Object> pending = new ArrayDeque<Object>();
+        long size = 0L;
+
+        visit(root, visited, pending);
+
+        while (!pending.isEmpty()) {
+            Object object = pending.pop();
+            Class<?> type = object.getClass();
+
+            if (type.isArray()) {
+                size += sizeOfArray(object, type.getComponentType(), visited, pending);
+            } else if (object instanceof String) {
+                // The string object itself and its character array.
+                size += align(OBJECT_HEADER_SIZE + 12) + align(ARRAY_HEADER_SIZE + 2 * ((String) object).length());
+            } else if (object instanceof Collection) {
+                size += sizeOfCollection((Collection<?>) object, visited, pending);
+            } else if (object instanceof Map) {
+                size += sizeOfMap((Map<?, ?>) object, visited, pending);
+            } else {
+                ClassLayout layout = getLayout(type);
+                size += layout.shallowSize;
+
+                for (Field field : layout.referenceFields) {
+                    try {
+                        visit(field.get(object), visited, pending);
+                    } catch (IllegalAccessException e) {
+                        // Intentionally consume this exception, the field isn't counted.
+                    }
+                }
+            }
+        }
+
+        return size;
+    }
+
+    private static long align(long size) {
+        return (size + ALIGNMENT - 1) / ALIGNMENT * ALIGNMENT;
+    }
+
+    private static void visit(Object object, IdentityHashMap<Object, Object> visited, ArrayDeque<Object> pending) {
+        if (object == null || object instanceof Class || object instanceof Enum) {
+            return;
+        }
+
+        if (visited.put(object, object) == null) {
+            pending.push(object);
+        }
+    }
+
+    private static long sizeOfArray(Object array, Class<?> componentType, IdentityHashMap<Object, Object> visited, ArrayDeque<Object> pending) {
+        int length = Array.getLength(array);
+
+        if (componentType.isPrimitive()) {
+            return align(ARRAY_HEADER_SIZE + (long) length * sizeOfPrimitive(componentType));
+        }
+
+        for (int i = 0; i < length; i++) {
+            visit(Array.get(array, i), visited, pending);
+        }
+
+        return align(ARRAY_HEADER_SIZE + (long) length * REFERENCE_SIZE);
+    }
+
+    private static long sizeOfCollection(Collection<?> collection, IdentityHashMap<Object, Object> visited, ArrayDeque<Object> pending) {
+        int count = 0;
+
+        try {
+            for (Object element : collection) {
+                visit(element, visited, pending);
+                count++;
+            }
+        } catch (RuntimeException e) {
+            // The collection was modified while counted, settle for what was seen.
+        }
+
+        // The collection object and its backing array.
+        return align(OBJECT_HEADER_SIZE + 16) + align(ARRAY_HEADER_SIZE + (long) count * REFERENCE_SIZE);
+    }
+
+    private static long sizeOfMap(Map<?, ?> map, IdentityHashMap<Object, Object> visited, ArrayDeque<Object> pending) {
+        int count = 0;
+
+        try {
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                visit(entry.getKey(), visited, pending);
+                visit(entry.getValue(), visited, pending);
+                count++;
+            }
+        } catch (RuntimeException e) {
+            // The map was modified while counted, settle for what was seen.
+        }
+
+        // The map object, its backing array and an entry object per mapping.
+        return align(OBJECT_HEADER_SIZE + 24) + align(ARRAY_HEADER_SIZE + (long) count * REFERENCE_SIZE) +
+                count * align(OBJECT_HEADER_SIZE + 16);
+    }
+
+    private static int sizeOfPrimitive(Class<?> type) {
+        if (type == long.class || type == double.class) {
+            return 8;
+        } else if (type == int.class || type == float.class) {
+            return 4;
+        } else if (type == short.class || type == char.class) {
+            return 2;
+        } else {
+            return 1;
+        }
+    }
+
+    private static boolean isPlatformClass(Class<?> type) {
+        String name = type.getName();
+
+        for (String prefix : PLATFORM_PACKAGES) {
+            if (name.startsWith(prefix)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static ClassLayout getLayout(Class<?> type) {
+        ClassLayout layout = LAYOUTS.get(type);
+
+        if (layout == null) {
+            layout = createLayout(type);
+            LAYOUTS.put(type, layout);
+        }
+
+        return layout;
+    }
+
+    private static ClassLayout createLayout(Class<?> type) {
+        ArrayList<Field> referenceFields = new ArrayList<Field>();
+        int fieldsSize = 0;
+
+        for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+            boolean isTraversable = !isPlatformClass(current);
+
+            for (Field field : current.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers())) {
+                    continue;
+                }
+
+                Class<?> fieldType = field.getType();
+
+                if (fieldType.isPrimitive()) {
+                    fieldsSize += sizeOfPrimitive(fieldType);
+                } else {
+                    fieldsSize += REFERENCE_SIZE;
+
+                    if (isTraversable) {
+                        try {
+                            field.setAccessible(true);
+                            referenceFields.add(field);
+                        } catch (RuntimeException e) {
+                            // Intentionally consume this exception, the field isn't traversed.
+                        }
+                    }
+                }
+            }
+        }
+
+        Field[] fields = referenceFields.toArray(new Field[referenceFields.size()]);
+        return new ClassLayout((int) align(OBJECT_HEADER_SIZE + fieldsSize), fields);
+    }
+
+    private ObjectSizeEstimator() {
+        // Hide the constructor of this utility class.
+    }
+
+}
@@ -3,23 +3,22 @@ package com.podio.sdk.localstore;
 
 import android.util.LruCache;
 
-import java.io.File;
+import com.podio.sdk.json.JsonParser;
+
 import java.io.IOException;
 import java.util.concurrent.Callable;
 
 /**
  * A specific {@link com.podio.sdk.localstore.LocalStoreRequest LocalStoreRequest} implementation,
- * targeting the "store value" operation. This implementation adds a value to both the memory cache
- * as well as the disk cache, silently overwriting any previous values with the same key. If the
- * disk store isn't prepared yet, the disk write request will block until the disk store is ready.
+ * targeting the "store value" operation. This implementation persists a value in the disk cache,
+ * silently overwriting any previous values with the same key. The memory cache is updated by the
+ * {@link LocalStore} itself, before the request is enqueued.
  *
  */
 final class SetRequest extends LocalStoreRequest<Void> {
 
     /**
-     * Puts the given value in the memory cache and persists it in the disk store. If the disk store
-     * isn't initialized yet, the disk write operation will block until it's prepared. Any previous
-     * values are silently overwritten.
+     * Persists the given value in the disk store. Any previous values are silently overwritten.
      *
      * @param storeEnabler
      *         The callback that will provide the memory and disk stores.
@@ -27,27 +26,24 @@ final class SetRequest extends LocalStoreRequest<Void> {
      *         The key of the value to store.
      * @param value
      *         The value to store.
+     * @param expiresAt
+     *         The time, in milliseconds since the epoch, at which the value expires.
      *
      * @throws IOException
      *         If the file system operation fails for some reason.
      */
-    private static void setValue(final RuntimeStoreEnabler storeEnabler, Object key, Object value) throws IOException {
-        LruCache<Object, Object> memoryStore = storeEnabler.getMemoryStore();
+    private static void setValue(final RuntimeStoreEnabler storeEnabler, Object key, Object value, long expiresAt) throws IOException {
+        LruCache<Object, MemoryEntry> memoryStore = storeEnabler.getMemoryStore();
         if (memoryStore == null) {
             throw new IllegalStateException("You're trying to write content to a closed store.");
         }
 
-        memoryStore.put(key, value);
-
-        // Update disk. Make sure we wait for the disk store to be ready before we start accessing
-        // it.
-        synchronized (storeEnabler.getDiskStoreLock()) {
-            File diskStore = storeEnabler.getDiskStore();
-            if (isWritableDirectory(diskStore)) {
-                String fileName = getFileName(key);
-                File file = new File(diskStore, fileName);
-                writeObjectToDisk(file, value);
-            }
+        // The local store has already put the value in the memory store and doesn't run this
+        // request before the disk store is prepared. There is no need to serialize a value that
+        // is about to be overwritten.
+        DiskLog diskStore = storeEnabler.getDiskStore();
+        if (diskStore != null && !storeEnabler.isSuperseded(key)) {
+            diskStore.put(getDiskKey(key), JsonParser.toJson(value), expiresAt);
         }
     }
 
@@ -60,12 +56,14 @@ final class SetRequest extends LocalStoreRequest<Void> {
      *         The key of the value.
      * @param value
      *         The value to store.
+     * @param expiresAt
+     *         The time, in milliseconds since the epoch, at which the value expires.
      */
-    SetRequest(final RuntimeStoreEnabler storeEnabler, final Object key, final Object value) {
+    SetRequest(final RuntimeStoreEnabler storeEnabler, final Object key, final Object value, final long expiresAt) {
         super(new Callable<Void>() {
             @Override
             public Void call() throws Exception {
-                setValue(storeEnabler, key, value);
+                setValue(storeEnabler, key, value, expiresAt);
                 return null;
             }
         });
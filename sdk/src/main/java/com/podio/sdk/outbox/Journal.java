@@ -0,0 +1,297 @@
+package com.podio.sdk.outbox;
+
+import com.google.gson.JsonParseException;
+import com.podio.sdk.json.JsonParser;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ * The disk representation of the pending mutations in an {@link Outbox}. The journal is a log with
+ * one JSON record per line, each record either holding the current state of an entry or the id of
+ * a removed entry. Every change appends a single record which is synced to disk, so the cost of a
+ * change doesn't grow with the number of pending mutations. Once the log mostly holds outdated
+ * records it's compacted by writing the pending entries to a temporary file, which is synced to
+ * disk and then renamed over the journal file, so a crash can never leave a half written journal
+ * behind. A record torn by a crash is ignored when the journal is read. This class is not thread
+ * safe, the outbox only accesses it from its worker thread.
+ */
+final class Journal {
+
+    /**
+     * A pending mutation, described by its HTTP method, its path and query relative to the API
+     * host, its priority, its JSON body, the name of the class to parse the response into and the
+     * user or app it was made by.
+     */
+    static final class Entry {
+        private long id;
+        private String method;
+        private String path;
+        private String priority;
+        private String body;
+        private String resultClass;
+        private String owner;
+        private int attempts;
+
+        // The session generation the mutation was made in. It only matters until the owner is
+        // known, and it's meaningless in any other process, so it's never persisted.
+        private transient long generation;
+
+        Entry(long id, String method, String path, String priority, String body, String resultClass, String owner, long generation) {
+            this.id = id;
+            this.method = method;
+            this.path = path;
+            this.priority = priority;
+            this.body = body;
+            this.resultClass = resultClass;
+            this.owner = owner;
+            this.generation = generation;
+            this.attempts = 0;
+        }
+
+        long getId() {
+            return id;
+        }
+
+        String getMethod() {
+            return method;
+        }
+
+        String getPath() {
+            return path;
+        }
+
+        String getPriority() {
+            return priority;
+        }
+
+        String getBody() {
+            return body;
+        }
+
+        String getResultClass() {
+            return resultClass;
+        }
+
+        String getOwner() {
+            return owner;
+        }
+
+        void setOwner(String owner) {
+            this.owner = owner;
+        }
+
+        long getGeneration() {
+            return generation;
+        }
+
+        int getAttempts() {
+            return attempts;
+        }
+
+        void incrementAttempts() {
+            attempts++;
+        }
+    }
+
+    /**
+     * One line of the journal, either the current state of an entry or the id of a removed one.
+     */
+    private static final class Record {
+        private Entry entry;
+        private long removedId;
+
+        private Record(Entry entry, long removedId) {
+            this.entry = entry;
+            this.removedId = removedId;
+        }
+    }
+
+    private static final String CHARSET = "UTF-8";
+    private static final String TEMP_FILE_SUFFIX = ".tmp";
+
+    // The log is compacted once its outdated records outnumber the pending entries by this many.
+    private static final int MIN_OUTDATED_RECORDS = 64;
+
+    private final File file;
+    private final File tempFile;
+    private int recordCount;
+
+    Journal(File file) {
+        this.file = file;
+        this.tempFile = new File(file.getPath() + TEMP_FILE_SUFFIX);
+        this.recordCount = 0;
+    }
+
+    /**
+     * Reads the entries of the journal. A missing journal yields an empty list, while any corrupt
+     * records are skipped.
+     *
+     * @return The entries in the order they were added.
+     */
+    List<Entry> read() {
+        LinkedHashMap<Long, Entry> entries = new LinkedHashMap<Long, Entry>();
+        boolean isCorrupt = false;
+        recordCount = 0;
+
+        if (!file.exists()) {
+            return new ArrayList<Entry>();
+        }
+
+        BufferedReader reader = null;
+
+        try {
+            reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), CHARSET));
+            String line;
+
+            while ((line = reader.readLine()) != null) {
+                Record record = parseRecord(line);
+
+                if (record == null) {
+                    isCorrupt = true;
+                    continue;
+                }
+
+                recordCount++;
+
+                if (record.entry != null) {
+                    // Changed entries keep the position they were first added at.
+                    entries.put(record.entry.getId(), record.entry);
+                } else {
+                    entries.remove(record.removedId);
+                }
+            }
+        } catch (IOException e) {
+            // Intentionally consume this exception, restore what could be read.
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (IOException e) {
+                    // Intentionally consume this exception.
+                }
+            }
+        }
+
+        ArrayList<Entry> result = new ArrayList<Entry>(entries.values());
+
+        if (isCorrupt) {
+            // Don't let the next record be appended to a torn one.
+            try {
+                compact(result);
+            } catch (IOException e) {
+                // Intentionally consume this exception, the entries are still replayed from memory.
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Records the current state of the given entry, which may be new or changed.
+     *
+     * @param entry
+     *         The entry to persist.
+     *
+     * @throws IOException
+     *         If the journal couldn't be written.
+     */
+    void write(Entry entry) throws IOException {
+        append(new Record(entry, 0L));
+    }
+
+    /**
+     * Records the removal of the given entry, and compacts the journal if it mostly holds outdated
+     * records.
+     *
+     * @param entry
+     *         The removed entry.
+     * @param entries
+     *         The entries still pending.
+     *
+     * @throws IOException
+     *         If the journal couldn't be written.
+     */
+    void remove(Entry entry, List<Entry> entries) throws IOException {
+        if (recordCount - entries.size() >= MIN_OUTDATED_RECORDS + entries.size()) {
+            compact(entries);
+        } else {
+            append(new Record(null, entry.getId()));
+        }
+    }
+
+    /**
+     * Replaces the content of the journal with the given entries.
+     *
+     * @param entries
+     *         The entries to persist.
+     *
+     * @throws IOException
+     *         If the journal couldn't be written.
+     */
+    void compact(List<Entry> entries) throws IOException {
+        createDirectory();
+        StringBuilder builder = new StringBuilder();
+
+        for (Entry entry : entries) {
+            builder.append(JsonParser.toJson(new Record(entry, 0L))).append('\n');
+        }
+
+        FileOutputStream outputStream = new FileOutputStream(tempFile);
+
+        try {
+            outputStream.write(builder.toString().getBytes(CHARSET));
+            outputStream.flush();
+            outputStream.getFD().sync();
+        } finally {
+            outputStream.close();
+        }
+
+        if (!tempFile.renameTo(file)) {
+            throw new IOException("Couldn't replace journal: " + file.getPath());
+        }
+
+        recordCount = entries.size();
+    }
+
+    private void append(Record record) throws IOException {
+        createDirectory();
+        byte[] data = (JsonParser.toJson(record) + '\n').getBytes(CHARSET);
+        FileOutputStream outputStream = new FileOutputStream(file, true);
+
+        try {
+            outputStream.write(data);
+            outputStream.flush();
+            outputStream.getFD().sync();
+        } finally {
+            outputStream.close();
+        }
+
+        recordCount++;
+    }
+
+    private void createDirectory() throws IOException {
+        File directory = file.getParentFile();
+
+        if (directory != null && !directory.exists() && !directory.mkdirs()) {
+            throw new IOException("Couldn't create directory: " + directory.getPath());
+        }
+    }
+
+    private static Record parseRecord(String line) {
+        try {
+            return JsonParser.fromJson(line, Record.class);
+        } catch (JsonParseException e) {
+            // Most likely the last record, torn by a crash while it was written.
+            return null;
+        }
+    }
+
+}
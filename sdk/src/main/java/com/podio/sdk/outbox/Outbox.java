@@ -0,0 +1,569 @@
+package com.podio.sdk.outbox;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.net.ConnectivityManager;
+import android.net.NetworkInfo;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParseException;
+import com.podio.sdk.ApiError;
+import com.podio.sdk.Client;
+import com.podio.sdk.ConnectionError;
+import com.podio.sdk.Filter;
+import com.podio.sdk.NetworkError;
+import com.podio.sdk.NoResponseError;
+import com.podio.sdk.NotSentError;
+import com.podio.sdk.PodioError;
+import com.podio.sdk.Request;
+import com.podio.sdk.Session;
+import com.podio.sdk.json.JsonParser;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@link Client} decorator that queues the mutations (POST, PUT and DELETE requests) made through
+ * it in a durable journal on disk and replays them against the API one at a time, in the order they
+ * were made, and with the priority they were made with. Read operations are passed straight
+ * through to the decorated client. The providers only make the mutations that must survive going
+ * offline through their outbox, see {@link com.podio.sdk.Provider#setOutbox(Client)}.
+ * <p>
+ * A mutation is accepted right away, no matter if the device is online or not. The returned
+ * request delivers the API response once the mutation has been replayed. Mutations failing due to
+ * connectivity issues, server errors or rate limiting are retried with an exponential back-off
+ * until they succeed, while mutations rejected by the API are dropped and their request delivers
+ * the error. POST requests aren't idempotent, so they are only retried if they never reached the
+ * API; any other failure is delivered, as the API may already have acted on them. The back-off is
+ * reset as soon as the device regains connectivity, and no mutations are sent at all while the
+ * device is offline.
+ * <p>
+ * Every mutation belongs to the user, or app, of the session it was made in, and is only replayed
+ * while the session belongs to that user. Mutations of anyone else are kept until their user signs
+ * in again. Mutations made before the user of a restored session is known belong to that sign-in,
+ * and are dropped if the session is replaced before the user is known. Once the API has rejected
+ * the session, no mutations are replayed until it has been authenticated anew.
+ * <p>
+ * Pending mutations survive process restarts. Mutations restored from a previous process are
+ * replayed before any new ones, but as nobody is listening for their results any errors are only
+ * delivered to the global error listeners.
+ */
+public class Outbox implements Client {
+    private static final String OUTBOX_DIRECTORY = "outbox";
+    private static final String JOURNAL_FILE_SUFFIX = ".json";
+
+    // The scheme of the placeholder URL the relative path of a mutation is extracted from.
+    private static final String PATH_SCHEME = "outbox";
+
+    // The first retry waits this long, every subsequent retry waits twice as long.
+    private static final long INITIAL_BACKOFF_MILLIS = 1000L;
+    private static final long MAX_BACKOFF_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+    // How often to check whether the session has changed while no pending mutation can be sent.
+    private static final long PARKED_CHECK_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    /**
+     * A filter describing the already encoded path and query of a journal entry.
+     */
+    private static final class JournalPath extends Filter {
+
+        private JournalPath(String path) {
+            super(path);
+        }
+
+    }
+
+    private static final ThreadFactory THREAD_FACTORY = new ThreadFactory() {
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "Podio-Outbox");
+            thread.setDaemon(true);
+            return thread;
+        }
+    };
+
+    // Lets the errors of restored mutations bubble to the global error listeners without
+    // throwing, which is what happens to errors nobody is listening for.
+    private static final Request.ErrorListener RESTORED_ERROR_LISTENER = new Request.ErrorListener() {
+        @Override
+        public boolean onErrorOccurred(Throwable cause) {
+            return false;
+        }
+    };
+
+    /**
+     * Opens the outbox with the given name and starts replaying any mutations that were pending
+     * when it was last closed. The journal is kept in the files directory of the app, as opposed to
+     * the cache directory, since the system may clear the latter at any time.
+     *
+     * @param context
+     *         Used to find the files directory and to listen for connectivity changes.
+     * @param name
+     *         The name of the outbox.
+     * @param client
+     *         The client to replay the mutations through.
+     * @param session
+     *         The session of the client, which tells who the mutations are made by.
+     *
+     * @return The opened outbox, or null if the name can't be used as a file name.
+     */
+    public static Outbox open(Context context, String name, Client client, Session session) {
+        String fileName;
+
+        try {
+            fileName = URLEncoder.encode(name, "UTF-8") + JOURNAL_FILE_SUFFIX;
+        } catch (UnsupportedEncodingException e) {
+            return null;
+        }
+
+        File directory = new File(context.getFilesDir(), OUTBOX_DIRECTORY);
+        Outbox outbox = new Outbox(context.getApplicationContext(), new Journal(new File(directory, fileName)), client, session);
+        outbox.start();
+
+        return outbox;
+    }
+
+    private final Context context;
+    private final Journal journal;
+    private final Client client;
+    private final Session session;
+    private final ScheduledExecutorService executorService;
+
+    // The state below is only accessed from the worker thread.
+    private final ArrayList<Journal.Entry> entries;
+    private final HashMap<Long, OutboxRequest<?>> requests;
+    private long nextId;
+    private boolean isSending;
+    private ScheduledFuture<?> pendingRetry;
+    private boolean isSessionRejected;
+    private String rejectedAccessToken;
+
+    private final BroadcastReceiver connectivityReceiver = new BroadcastReceiver() {
+        @Override
+        public void onReceive(Context context, Intent intent) {
+            if (!intent.getBooleanExtra(ConnectivityManager.EXTRA_NO_CONNECTIVITY, false)) {
+                resume();
+            }
+        }
+    };
+
+    private Outbox(Context context, Journal journal, Client client, Session session) {
+        this.context = context;
+        this.journal = journal;
+        this.client = client;
+        this.session = session;
+        this.executorService = Executors.newSingleThreadScheduledExecutor(THREAD_FACTORY);
+        this.entries = new ArrayList<Journal.Entry>();
+        this.requests = new HashMap<Long, OutboxRequest<?>>();
+        this.nextId = 1L;
+        this.isSending = false;
+    }
+
+    @Override
+    public Request<Void> authenticateWithUserCredentials(String username, String password) {
+        return client.authenticateWithUserCredentials(username, password);
+    }
+
+    @Override
+    public Request<Void> authenticateWithAppCredentials(String appId, String appToken) {
+        return client.authenticateWithAppCredentials(appId, appToken);
+    }
+
+    @Override
+    public Request<Void> authenticateWithTransferToken(String transferToken) {
+        return client.authenticateWithTransferToken(transferToken);
+    }
+
+    @Override
+    @Deprecated
+    public Request<Void> forceRefreshTokens() {
+        return client.forceRefreshTokens();
+    }
+
+    @Override
+    public <T> Request<T> request(Request.Method method, Filter filter, Object item, Class<T> classOfResult) {
+        if (method == Request.Method.GET) {
+            return client.request(method, filter, item, classOfResult);
+        }
+
+        // Serialize the mutation on the calling thread, the item may change after this call.
+        String url = filter.buildUrl(PATH_SCHEME, null);
+        String path = url.substring(PATH_SCHEME.length() + 2);
+        String body = item != null ? JsonParser.toJson(item) : null;
+        String priority = filter.getPriority() != null ? filter.getPriority().name() : null;
+        String resultClass = classOfResult != null ? classOfResult.getName() : null;
+        String owner = session.getReference();
+        long generation = session.getGeneration();
+
+        final OutboxRequest<T> request;
+        final Journal.Entry entry;
+
+        synchronized (this) {
+            entry = new Journal.Entry(nextId++, method.name(), path, priority, body, resultClass, owner, generation);
+            request = new OutboxRequest<T>(entry.getId());
+        }
+
+        post(new Runnable() {
+            @Override
+            public void run() {
+                entries.add(entry);
+                requests.put(entry.getId(), request);
+                persist(entry);
+                sendNext();
+            }
+        });
+
+        return request;
+    }
+
+    /**
+     * Stops replaying mutations and stops listening for connectivity changes. Any pending
+     * mutations are kept in the journal and replayed the next time the outbox is opened.
+     */
+    public void close() {
+        try {
+            context.unregisterReceiver(connectivityReceiver);
+        } catch (IllegalArgumentException e) {
+            // Intentionally consume this exception, the receiver wasn't registered.
+        }
+
+        executorService.shutdownNow();
+    }
+
+    /**
+     * Retries the first pending mutation right away, instead of waiting for the current back-off
+     * to expire. This is called automatically whenever the device regains connectivity.
+     */
+    public void resume() {
+        post(new Runnable() {
+            @Override
+            public void run() {
+                if (pendingRetry != null) {
+                    pendingRetry.cancel(false);
+                    pendingRetry = null;
+                }
+
+                sendNext();
+            }
+        });
+    }
+
+    private void start() {
+        context.registerReceiver(connectivityReceiver, new IntentFilter(ConnectivityManager.CONNECTIVITY_ACTION));
+
+        post(new Runnable() {
+            @Override
+            public void run() {
+                List<Journal.Entry> restored = journal.read();
+
+                synchronized (Outbox.this) {
+                    for (Journal.Entry entry : restored) {
+                        nextId = Math.max(nextId, entry.getId() + 1);
+                    }
+                }
+
+                // The restored mutations are replayed before any that were made since opening.
+                entries.addAll(0, restored);
+
+                for (Journal.Entry entry : restored) {
+                    OutboxRequest<Object> request = new OutboxRequest<Object>(entry.getId());
+                    request.withErrorListener(RESTORED_ERROR_LISTENER);
+                    requests.put(entry.getId(), request);
+                }
+
+                sendNext();
+            }
+        });
+    }
+
+    /**
+     * Replays the first pending mutation of the user the session belongs to, unless a mutation
+     * already is on its way or waiting to be retried. This method is executed on the worker
+     * thread.
+     */
+    private void sendNext() {
+        if (isSending || pendingRetry != null || entries.isEmpty()) {
+            return;
+        }
+
+        if (!isConnected()) {
+            // Don't waste any attempts while offline, the connectivity receiver resumes the outbox
+            // as soon as the device is connected again.
+            return;
+        }
+
+        final String accessToken = session.getAccessToken();
+        final Journal.Entry entry = nextEntry();
+
+        if (entry == null || (isSessionRejected && equals(accessToken, rejectedAccessToken))) {
+            // Nothing can be sent until someone else signs in, or the session is authenticated
+            // anew, neither of which the outbox is told about.
+            if (!entries.isEmpty()) {
+                schedule(PARKED_CHECK_MILLIS);
+            }
+
+            return;
+        }
+
+        isSessionRejected = false;
+        Request<Object> request;
+
+        try {
+            request = client.request(Request.Method.valueOf(entry.getMethod()), parsePath(entry), parseBody(entry), parseResultClass(entry));
+        } catch (RuntimeException e) {
+            // The client isn't ready for requests yet, try again later.
+            retryLater(entry);
+            return;
+        }
+
+        isSending = true;
+        request.withResultListener(new Request.ResultListener<Object>() {
+            @Override
+            public boolean onRequestPerformed(final Object content) {
+                post(new Runnable() {
+                    @Override
+                    public void run() {
+                        isSending = false;
+                        complete(entry);
+                        OutboxRequest<Object> request = takeRequest(entry);
+
+                        if (request != null) {
+                            request.deliverResult(content);
+                        }
+
+                        sendNext();
+                    }
+                });
+
+                return false;
+            }
+        }).withErrorListener(new Request.ErrorListener() {
+            @Override
+            public boolean onErrorOccurred(final Throwable cause) {
+                post(new Runnable() {
+                    @Override
+                    public void run() {
+                        isSending = false;
+
+                        if (getStatusCode(cause) == 401) {
+                            // The client has already failed to refresh the session, retrying
+                            // won't help until it's authenticated anew.
+                            isSessionRejected = true;
+                            rejectedAccessToken = accessToken;
+                            sendNext();
+                            return;
+                        }
+
+                        if (isTransient(entry, cause)) {
+                            retryLater(entry);
+                            return;
+                        }
+
+                        drop(entry, cause instanceof PodioError ? (PodioError) cause : new PodioError(cause));
+                        sendNext();
+                    }
+                });
+
+                // The outbox handles the error, don't bother the global error listeners.
+                return true;
+            }
+        });
+    }
+
+    /**
+     * Schedules the given mutation to be retried after an exponential back-off. This method is
+     * executed on the worker thread.
+     */
+    private void retryLater(Journal.Entry entry) {
+        entry.incrementAttempts();
+        persist(entry);
+
+        long delay = INITIAL_BACKOFF_MILLIS << Math.min(entry.getAttempts() - 1, 16);
+        schedule(Math.min(delay, MAX_BACKOFF_MILLIS));
+    }
+
+    /**
+     * Returns the first pending mutation made by the user the session belongs to, or null if
+     * there is none. Mutations made before the user was known are claimed by the user once the
+     * session knows it, or dropped if the session has been replaced in the meantime. This method
+     * is executed on the worker thread.
+     */
+    private Journal.Entry nextEntry() {
+        String reference = session.getReference();
+        long generation = session.getGeneration();
+
+        for (Journal.Entry entry : new ArrayList<Journal.Entry>(entries)) {
+            if (entry.getOwner() == null) {
+                if (entry.getGeneration() != generation) {
+                    drop(entry, new PodioError("The mutation was made by someone who is no longer signed in"));
+                    continue;
+                }
+
+                if (reference == null) {
+                    return entry;
+                }
+
+                entry.setOwner(reference);
+                persist(entry);
+            }
+
+            if (entry.getOwner().equals(reference)) {
+                return entry;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Schedules the next attempt to send a mutation. This method is executed on the worker
+     * thread.
+     */
+    private void schedule(long delay) {
+        pendingRetry = executorService.schedule(new Runnable() {
+            @Override
+            public void run() {
+                pendingRetry = null;
+                sendNext();
+            }
+        }, delay, TimeUnit.MILLISECONDS);
+    }
+
+    private boolean isConnected() {
+        ConnectivityManager connectivityManager = (ConnectivityManager) context.getSystemService(Context.CONNECTIVITY_SERVICE);
+        NetworkInfo networkInfo = connectivityManager != null ? connectivityManager.getActiveNetworkInfo() : null;
+
+        return networkInfo != null && networkInfo.isConnected();
+    }
+
+    /**
+     * Executes the given task on the worker thread, unless the outbox has been closed.
+     */
+    private void post(Runnable task) {
+        try {
+            executorService.execute(task);
+        } catch (RejectedExecutionException e) {
+            // Intentionally consume this exception, the outbox is closed.
+        }
+    }
+
+    private void complete(Journal.Entry entry) {
+        entries.remove(entry);
+
+        try {
+            journal.remove(entry, entries);
+        } catch (IOException e) {
+            // Intentionally consume this exception, the mutation is only replayed again if the
+            // process dies before the next compaction.
+        }
+    }
+
+    private void drop(Journal.Entry entry, PodioError error) {
+        complete(entry);
+        OutboxRequest<Object> request = takeRequest(entry);
+
+        if (request != null) {
+            request.deliverError(error);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private OutboxRequest<Object> takeRequest(Journal.Entry entry) {
+        // The request was created for the result class of the entry, so the cast is safe.
+        return (OutboxRequest<Object>) requests.remove(entry.getId());
+    }
+
+    private void persist(Journal.Entry entry) {
+        try {
+            journal.write(entry);
+        } catch (IOException e) {
+            // Intentionally consume this exception, the mutations are still replayed from memory.
+        }
+    }
+
+    /**
+     * Returns whether the given error is expected to go away by itself, in which case the mutation
+     * should be retried rather than dropped. A POST request is only retried if it's certain that
+     * the API didn't act on it, since it would otherwise create its content twice. A connection
+     * error doesn't prove that, the connection may have been lost after the request was sent.
+     */
+    private static boolean isTransient(Journal.Entry entry, Throwable cause) {
+        if (cause instanceof NotSentError) {
+            return true;
+        }
+
+        // Rate limited requests are rejected before the API acts on them.
+        int statusCode = getStatusCode(cause);
+        if (statusCode == 420 || statusCode == 429) {
+            return true;
+        }
+
+        if (Request.Method.POST.name().equals(entry.getMethod())) {
+            return false;
+        }
+
+        return cause instanceof ConnectionError || cause instanceof NoResponseError ||
+                cause instanceof NetworkError || statusCode >= 500;
+    }
+
+    private static int getStatusCode(Throwable cause) {
+        if (cause instanceof ApiError) {
+            return ((ApiError) cause).getStatusCode();
+        } else if (cause instanceof PodioError) {
+            return ((PodioError) cause).getResponseCode();
+        } else {
+            return 0;
+        }
+    }
+
+    private static boolean equals(String a, String b) {
+        return a == null ? b == null : a.equals(b);
+    }
+
+    private static Filter parsePath(Journal.Entry entry) {
+        Filter path = new JournalPath(entry.getPath());
+
+        try {
+            return entry.getPriority() != null ? path.withPriority(Request.Priority.valueOf(entry.getPriority())) : path;
+        } catch (IllegalArgumentException e) {
+            // The priority has been removed since the mutation was made, use the default one.
+            return path;
+        }
+    }
+
+    private static JsonElement parseBody(Journal.Entry entry) {
+        String body = entry.getBody();
+
+        try {
+            return body != null ? new com.google.gson.JsonParser().parse(body) : null;
+        } catch (JsonParseException e) {
+            return null;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Class<Object> parseResultClass(Journal.Entry entry) {
+        String resultClass = entry.getResultClass();
+
+        try {
+            return resultClass != null ? (Class<Object>) Class.forName(resultClass) : null;
+        } catch (ClassNotFoundException e) {
+            // The result type has been removed since the mutation was made, ignore the response.
+            return null;
+        }
+    }
+
+}
@@ -0,0 +1,123 @@
+package com.podio.sdk.outbox;
+
+import com.podio.sdk.PodioError;
+import com.podio.sdk.Request;
+import com.podio.sdk.internal.CallbackManager;
+import com.podio.sdk.internal.CompletionLatch;
+import com.podio.sdk.internal.MainThreadExecutor;
+
+/**
+ * The request future of a mutation in an {@link Outbox}. The request is accepted as soon as it's
+ * created, while the result (or error) is delivered once the mutation has been replayed against
+ * the API. The callbacks are called on the main thread.
+ *
+ * @param <T>
+ *         The type of the API response.
+ */
+final class OutboxRequest<T> implements Request<T> {
+    private final long id;
+    private final CallbackManager<T> callbackManager;
+    private final CompletionLatch completionLatch;
+
+    private T result;
+    private PodioError error;
+
+    OutboxRequest(long id) {
+        this.id = id;
+        this.callbackManager = new CallbackManager<T>(new MainThreadExecutor());
+        this.completionLatch = new CompletionLatch();
+    }
+
+    @Override
+    public T waitForResult(long maxSeconds) throws PodioError {
+        completionLatch.await(maxSeconds);
+
+        if (error != null) {
+            throw error;
+        }
+
+        return result;
+    }
+
+    @Override
+    public synchronized OutboxRequest<T> withResultListener(ResultListener<T> resultListener) {
+        callbackManager.addResultListener(resultListener, completionLatch.isDone() && !completionLatch.isCanceled() && error == null, result);
+        return this;
+    }
+
+    @Override
+    public synchronized OutboxRequest<T> withErrorListener(ErrorListener errorListener) {
+        callbackManager.addErrorListener(errorListener, completionLatch.isDone() && !completionLatch.isCanceled() && error != null, error);
+        return this;
+    }
+
+    /**
+     * Accepts, but never calls, the given listener. The mutation may be replayed long after this
+     * request was made, so any session change it causes is delivered to the global session
+     * listeners only.
+     */
+    @Override
+    public OutboxRequest<T> withSessionListener(SessionListener sessionListener) {
+        return this;
+    }
+
+    /**
+     * Stops listening for the outcome of the mutation. The mutation itself has already been
+     * accepted by the outbox and is still replayed, as the user's change must not be lost just
+     * because the screen that made it went away.
+     */
+    @Override
+    public void cancel() {
+        completionLatch.cancel();
+    }
+
+    /**
+     * Returns the id of the journal entry this request represents.
+     *
+     * @return The journal entry id.
+     */
+    long getId() {
+        return id;
+    }
+
+    /**
+     * Resolves this request with the response of the replayed mutation. This method is executed on
+     * the worker thread of the outbox.
+     *
+     * @param result
+     *         The parsed API response.
+     */
+    void deliverResult(T result) {
+        synchronized (this) {
+            this.result = result;
+
+            if (!completionLatch.complete()) {
+                // The request was canceled, nobody is listening any more.
+                return;
+            }
+        }
+
+        callbackManager.deliverResultOnMainThread(result);
+    }
+
+    /**
+     * Resolves this request with the error that made the outbox give up on the mutation. This
+     * method is executed on the worker thread of the outbox.
+     *
+     * @param error
+     *         The cause of the failure.
+     */
+    void deliverError(PodioError error) {
+        synchronized (this) {
+            this.error = error;
+
+            if (!completionLatch.complete()) {
+                // The request was canceled, nobody is listening any more.
+                return;
+            }
+        }
+
+        callbackManager.deliverErrorOnMainThread(error);
+    }
+
+}
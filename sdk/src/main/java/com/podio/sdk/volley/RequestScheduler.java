@@ -0,0 +1,265 @@
+package com.podio.sdk.volley;
+
+import com.podio.sdk.internal.RateLimiter;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.PriorityQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Holds back the requests of a {@link VolleyClient} that would exceed the rate limit of its session.
+ * Requests are let through to the request queue as the {@link RateLimiter} hands out tokens, the
+ * waiting requests in order of priority, and then in the order they were submitted. Requests
+ * rejected by the API for exceeding the rate limit are submitted again rather than failed, and so
+ * are requests that are retried after a back-off.
+ */
+final class RequestScheduler {
+
+    private static final class Entry {
+        private final VolleyRequest<?> request;
+        private final long sequence;
+
+        private Entry(VolleyRequest<?> request, long sequence) {
+            this.request = request;
+            this.sequence = sequence;
+        }
+    }
+
+    private static final Comparator<Entry> ENTRY_ORDER = new Comparator<Entry>() {
+        @Override
+        public int compare(Entry lhs, Entry rhs) {
+            int lhsPriority = lhs.request.getPriority().ordinal();
+            int rhsPriority = rhs.request.getPriority().ordinal();
+
+            if (lhsPriority != rhsPriority) {
+                return lhsPriority > rhsPriority ? -1 : 1;
+            }
+
+            return lhs.sequence < rhs.sequence ? -1 : lhs.sequence == rhs.sequence ? 0 : 1;
+        }
+    };
+
+    private static final ThreadFactory TIMER_THREAD_FACTORY = new ThreadFactory() {
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "Podio-Scheduler");
+            thread.setDaemon(true);
+            return thread;
+        }
+    };
+
+    private static ScheduledThreadPoolExecutor timer = null;
+
+    private final VolleyClient client;
+    private final RateLimiter rateLimiter;
+    private final PriorityQueue<Entry> waitingRequests;
+    private final HashSet<VolleyRequest<?>> delayedRequests;
+    private final Runnable drainTask;
+
+    private ScheduledFuture<?> pendingDrain;
+    private long pendingDrainNanos;
+    private long nextSequence;
+
+    RequestScheduler(VolleyClient client, RateLimiter rateLimiter) {
+        this.client = client;
+        this.rateLimiter = rateLimiter;
+        this.waitingRequests = new PriorityQueue<Entry>(11, ENTRY_ORDER);
+        this.delayedRequests = new HashSet<VolleyRequest<?>>();
+        this.drainTask = new Runnable() {
+            @Override
+            public void run() {
+                drain();
+            }
+        };
+        this.pendingDrain = null;
+        this.nextSequence = 0L;
+    }
+
+    /**
+     * Lets the given request through to the request queue right away if the rate limit allows it
+     * and no other requests are waiting, otherwise the request waits for its turn.
+     *
+     * @param request
+     *         The request to send.
+     */
+    void submit(VolleyRequest<?> request) {
+        synchronized (waitingRequests) {
+            if (!waitingRequests.isEmpty() || !rateLimiter.tryAcquire()) {
+                waitingRequests.add(new Entry(request, nextSequence++));
+                scheduleDrain();
+                return;
+            }
+        }
+
+        client.addToRequestQueue(request);
+    }
+
+    /**
+     * Submits a request again, after the API rejected it for exceeding the rate limit.
+     *
+     * @param request
+     *         The rejected request.
+     * @param retryAfterSeconds
+     *         The number of seconds the API asks us to wait, or a negative number if it didn't
+     *         say.
+     */
+    void resubmit(VolleyRequest<?> request, long retryAfterSeconds) {
+        rateLimiter.onRateLimitExceeded(retryAfterSeconds);
+
+        synchronized (waitingRequests) {
+            waitingRequests.add(new Entry(request, nextSequence++));
+            rescheduleDrain();
+        }
+    }
+
+    /**
+     * Submits a request again once the given delay has passed, after it failed with a transient
+     * error.
+     *
+     * @param request
+     *         The failed request.
+     * @param delayMillis
+     *         The number of milliseconds to wait before submitting the request.
+     */
+    void resubmitLater(final VolleyRequest<?> request, long delayMillis) {
+        synchronized (waitingRequests) {
+            delayedRequests.add(request);
+        }
+
+        getTimer().schedule(new Runnable() {
+            @Override
+            public void run() {
+                boolean isDelayed;
+
+                synchronized (waitingRequests) {
+                    // The request is gone if it was canceled in the meantime.
+                    isDelayed = delayedRequests.remove(request);
+                }
+
+                if (isDelayed && !request.isCanceled()) {
+                    submit(request);
+                }
+            }
+        }, Math.max(delayMillis, 0L), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Adapts the rate limit to the rate limit headers of an API response. Any waiting requests are
+     * let through as soon as the new limit allows it.
+     *
+     * @param limit
+     *         The number of requests allowed per period.
+     * @param remaining
+     *         The number of requests remaining in the current period.
+     */
+    void onRateLimit(long limit, long remaining) {
+        rateLimiter.onRateLimit(limit, remaining);
+
+        synchronized (waitingRequests) {
+            rescheduleDrain();
+        }
+    }
+
+    /**
+     * Cancels all waiting requests, including those waiting to be retried.
+     */
+    void cancelAll() {
+        ArrayList<VolleyRequest<?>> canceled = new ArrayList<VolleyRequest<?>>();
+
+        synchronized (waitingRequests) {
+            for (Entry entry : waitingRequests) {
+                canceled.add(entry.request);
+            }
+
+            waitingRequests.clear();
+            canceled.addAll(delayedRequests);
+            delayedRequests.clear();
+
+            if (pendingDrain != null) {
+                pendingDrain.cancel(false);
+                pendingDrain = null;
+            }
+        }
+
+        for (VolleyRequest<?> request : canceled) {
+            request.cancel();
+        }
+    }
+
+    /**
+     * Lets through as many waiting requests as the rate limit allows, and schedules the next drain
+     * if any requests still are waiting. This method is executed on the timer thread.
+     */
+    private void drain() {
+        ArrayList<VolleyRequest<?>> ready = new ArrayList<VolleyRequest<?>>();
+
+        synchronized (waitingRequests) {
+            pendingDrain = null;
+
+            while (!waitingRequests.isEmpty()) {
+                if (waitingRequests.peek().request.isCanceled()) {
+                    // Don't spend any tokens on requests nobody waits for.
+                    waitingRequests.poll();
+                } else if (rateLimiter.tryAcquire()) {
+                    ready.add(waitingRequests.poll().request);
+                } else {
+                    break;
+                }
+            }
+
+            scheduleDrain();
+        }
+
+        for (VolleyRequest<?> request : ready) {
+            client.addToRequestQueue(request);
+        }
+    }
+
+    /**
+     * Schedules a drain for when the next token is available, unless there is nothing to drain or
+     * a drain already is scheduled. The caller must hold the lock of the waiting requests.
+     */
+    private void scheduleDrain() {
+        if (pendingDrain == null && !waitingRequests.isEmpty()) {
+            long delay = Math.max(rateLimiter.getDelayNanos(), 0L);
+            pendingDrainNanos = System.nanoTime() + delay;
+            pendingDrain = getTimer().schedule(drainTask, delay, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Moves the scheduled drain forward if the rate limit now lets a waiting request through
+     * earlier. A drain scheduled too early is left as is, it finds no token and schedules the
+     * next drain for when there is one. This way a canceled drain, which stays in the timer queue
+     * until it expires, is only left behind when a drain actually is moved. The caller must hold
+     * the lock of the waiting requests.
+     */
+    private void rescheduleDrain() {
+        if (pendingDrain != null) {
+            long drainNanos = System.nanoTime() + Math.max(rateLimiter.getDelayNanos(), 0L);
+
+            if (drainNanos - pendingDrainNanos >= 0L) {
+                return;
+            }
+
+            pendingDrain.cancel(false);
+            pendingDrain = null;
+        }
+
+        scheduleDrain();
+    }
+
+    private static synchronized ScheduledThreadPoolExecutor getTimer() {
+        if (timer == null) {
+            timer = new ScheduledThreadPoolExecutor(1, TIMER_THREAD_FACTORY);
+        }
+
+        return timer;
+    }
+
+}
@@ -0,0 +1,140 @@
+package com.podio.sdk.volley;
+
+import com.android.volley.AuthFailureError;
+import com.android.volley.Request;
+import com.android.volley.toolbox.HurlStack;
+
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponse;
+import org.apache.http.entity.HttpEntityWrapper;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+
+import javax.net.ssl.SSLSocketFactory;
+
+/**
+ * An HTTP stack that tells the requests when their response headers have arrived. The response
+ * body is read by the network afterwards, so this is the point in time that separates the
+ * connection and the server time from the download time. It's also the last chance to refuse a
+ * response body that's larger than the request accepts, before the network buffers all of it in
+ * memory.
+ */
+class TimingHurlStack extends HurlStack {
+
+    /**
+     * A stream that fails the request as soon as more than the accepted number of bytes have been
+     * read from it.
+     */
+    private static final class LimitedInputStream extends FilterInputStream {
+        private final VolleyRequest<?> request;
+        private final long maxBytes;
+        private long count;
+
+        private LimitedInputStream(InputStream in, VolleyRequest<?> request, long maxBytes) {
+            super(in);
+            this.request = request;
+            this.maxBytes = maxBytes;
+            this.count = 0L;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int result = super.read();
+
+            if (result != -1) {
+                count(1);
+            }
+
+            return result;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int result = super.read(buffer, offset, length);
+
+            if (result != -1) {
+                count(result);
+            }
+
+            return result;
+        }
+
+        @Override
+        public long skip(long byteCount) throws IOException {
+            long result = super.skip(byteCount);
+            count(result);
+            return result;
+        }
+
+        private void count(long bytes) throws IOException {
+            count += bytes;
+
+            if (count > maxBytes) {
+                request.onResponseTooLarge();
+                throw new IOException("The response size exceeds " + maxBytes + " bytes");
+            }
+        }
+    }
+
+    TimingHurlStack(SSLSocketFactory sslSocketFactory) {
+        super(null, sslSocketFactory);
+    }
+
+    @Override
+    public HttpResponse performRequest(Request<?> request, Map<String, String> additionalHeaders) throws IOException, AuthFailureError {
+        HttpResponse response = super.performRequest(request, additionalHeaders);
+
+        if (request instanceof VolleyRequest && response != null) {
+            VolleyRequest<?> volleyRequest = (VolleyRequest<?>) request;
+
+            if (response.getStatusLine() != null) {
+                volleyRequest.onResponseHeaders(response.getStatusLine().getStatusCode());
+            }
+
+            limitResponseSize(volleyRequest, response);
+        }
+
+        return response;
+    }
+
+    /**
+     * Refuses a response body that's declared to be larger than the request accepts, and makes
+     * sure a body of unknown length is abandoned as soon as it has grown too large.
+     */
+    private static void limitResponseSize(final VolleyRequest<?> request, HttpResponse response) throws IOException {
+        final int maxBytes = request.getMaxResponseBytes();
+        HttpEntity entity = response.getEntity();
+
+        if (entity == null) {
+            return;
+        }
+
+        if (entity.getContentLength() > maxBytes) {
+            request.onResponseTooLarge();
+
+            try {
+                InputStream content = entity.getContent();
+
+                if (content != null) {
+                    content.close();
+                }
+            } catch (IOException e) {
+                // Intentionally consume this exception, the body won't be read anyway.
+            }
+
+            throw new IOException("The response size exceeds " + maxBytes + " bytes");
+        }
+
+        response.setEntity(new HttpEntityWrapper(entity) {
+            @Override
+            public InputStream getContent() throws IOException {
+                InputStream content = super.getContent();
+                return content != null ? new LimitedInputStream(content, request, maxBytes) : null;
+            }
+        });
+    }
+
+}
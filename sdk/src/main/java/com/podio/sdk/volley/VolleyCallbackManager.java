@@ -28,17 +28,19 @@ final class VolleyCallbackManager<T> extends CallbackManager<T> {
                 null;
     }
 
+    private final Session session;
     private final ArrayList<SessionListener> sessionListeners;
     private final Object SESSION_LISTENER_LOCK = new Object();
 
-    VolleyCallbackManager() {
+    VolleyCallbackManager(Session session) {
+        this.session = session;
         this.sessionListeners = new ArrayList<SessionListener>();
     }
 
     void addSessionListener(SessionListener listener, boolean deliverSessionNow) {
         if (listener != null) {
             if (deliverSessionNow) {
-                listener.onSessionChanged(Session.accessToken(), Session.refreshToken(), Session.transferToken(), Session.expires());
+                listener.onSessionChanged(session.getAccessToken(), session.getRefreshToken(), session.getTransferToken(), session.getExpires());
             } else {
                 synchronized (SESSION_LISTENER_LOCK) {
                     sessionListeners.add(listener);
@@ -48,10 +50,10 @@ final class VolleyCallbackManager<T> extends CallbackManager<T> {
     }
 
     void deliverSession() {
-        String accessToken = Session.accessToken();
-        String refreshToken = Session.refreshToken();
-        String transferToken = Session.transferToken();
-        long expires = Session.expires();
+        String accessToken = session.getAccessToken();
+        String refreshToken = session.getRefreshToken();
+        String transferToken = session.getTransferToken();
+        long expires = session.getExpires();
 
         synchronized (SESSION_LISTENER_LOCK) {
             boolean isConsumed = false;
@@ -4,24 +4,26 @@ package com.podio.sdk.volley;
 import android.content.Context;
 import android.net.Uri;
 
-import com.android.volley.AuthFailureError;
-import com.android.volley.Cache;
 import com.android.volley.DefaultRetryPolicy;
-import com.android.volley.RequestQueue;
-import com.android.volley.RequestQueue.RequestFilter;
 import com.android.volley.VolleyError;
-import com.android.volley.toolbox.HurlStack;
-import com.android.volley.toolbox.Volley;
+import com.podio.sdk.Backoff;
 import com.podio.sdk.Client;
 import com.podio.sdk.Filter;
+import com.podio.sdk.NotSentError;
+import com.podio.sdk.PodioError;
 import com.podio.sdk.Request;
+import com.podio.sdk.RequestEventListener;
+import com.podio.sdk.RequestTrace;
 import com.podio.sdk.Session;
+import com.podio.sdk.internal.CircuitBreaker;
+import com.podio.sdk.internal.RateLimiter;
 import com.podio.sdk.internal.Utils;
 import com.podio.sdk.json.JsonParser;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Set;
-import java.util.concurrent.TimeUnit;
+import java.util.UUID;
 
 import javax.net.ssl.SSLSocketFactory;
 
@@ -69,180 +71,456 @@ public class VolleyClient implements Client {
 
     }
 
-    private final class VolleyRetryPolicy extends DefaultRetryPolicy {
-        private final String originalAccessToken;
+    private static final class VolleyRetryPolicy extends DefaultRetryPolicy {
 
-        private VolleyRetryPolicy(String referenceAccessToken) {
-            super(CLIENT_DEFAULT_TIMEOUT_MS, 1, 1.0f);
-            this.originalAccessToken = referenceAccessToken;
+        private VolleyRetryPolicy() {
+            super(CLIENT_DEFAULT_TIMEOUT_MS, 0, 1.0f);
         }
 
         @Override
         public void retry(VolleyError error) throws VolleyError {
-            super.retry(error);
-            String accessToken = Utils.notEmpty(originalAccessToken) ? originalAccessToken : "";
-
-            // If the access token has changed since this request was originally executed (say, as a
-            // result of an other request refreshing it), the 401 status isn't necessarily valid any
-            // more, hence, we should only re-authenticate if our access token is intact.
-            if (error instanceof AuthFailureError && accessToken.equals(Session.accessToken())) {
-                Uri uri = buildAuthUri();
-
-                if (uri == null) {
-                    // Opt out if we can't re-authenticate.
-                    clearRequestQueue();
-                    throw error;
-                }
-
-                String url = parseUrl(uri);
-                HashMap<String, String> params = parseParams(uri);
-
-                // Re-authenticate on a prioritized request queue.
-                VolleyRequest<Void> reAuthRequest = VolleyRequest.newAuthRequest(userAgent, url, params);
-                reAuthRequest.setRetryPolicy(new DefaultRetryPolicy(CLIENT_DEFAULT_TIMEOUT_MS, 0, 0));
-                addToRefreshQueue(reAuthRequest);
-
-                reAuthRequest.withErrorListener(new Request.ErrorListener() {
-                    @Override
-                    public boolean onErrorOccurred(Throwable cause) {
-                        clearRequestQueue();
-                        return false;
-                    }
-                }).waitForResult(TimeUnit.MILLISECONDS.toSeconds(CLIENT_DEFAULT_TIMEOUT_MS));
-            }
+            // All errors, authentication failures included, are retried by the client once the
+            // request has let go of its network thread.
+            throw error;
         }
     }
 
+    // The access token is refreshed this many seconds before it expires.
+    private static final long SESSION_REFRESH_MARGIN_SECONDS = 120L;
+
+    // A failed proactive refresh isn't retried until this many seconds have passed.
+    private static final long SESSION_REFRESH_COOL_DOWN_SECONDS = 30L;
+
     protected String clientId;
     protected String clientSecret;
     protected String scheme;
     protected String authority;
     protected String userAgent;
 
-    // All implementations and instances will share these request queues.
-    private static RequestQueue volleyRequestQueue;
-    private static RequestQueue volleyRefreshQueue;
+    private boolean isHttpCacheEnabled = false;
+    private int maxResponseBytes = VolleyRequest.DEFAULT_MAX_RESPONSE_BYTES;
+    private Backoff retryBackoff = Backoff.DEFAULT;
+    private volatile RequestEventListener eventListener;
+
+    // The transport of all clients that are set up without an explicit transport.
+    private static VolleyTransport defaultTransport;
+
+    private final Session session;
+    private VolleyTransport transport;
+
+    // Prefixes the cache keys of this client. A new prefix makes any previously cached content
+    // unreachable for this client without affecting other clients sharing the same transport.
+    private String cacheKeyPrefix = "";
+
+    // The pending token refresh request, if any, and the requests waiting for it to finish.
+    private VolleyRequest<Void> refreshRequest;
+    private long nextRefreshAttempt = 0L;
+    private final ArrayList<VolleyRequest<?>> heldRequests = new ArrayList<VolleyRequest<?>>();
+    private final Object REFRESH_LOCK = new Object();
+
+    // Keeps the requests within the rate limit of the session.
+    private final RateLimiter rateLimiter;
+    private final RequestScheduler scheduler;
+
+    private final VolleyRequest.OnRetryListener onRetryListener = new VolleyRequest.OnRetryListener() {
+        @Override
+        public void onRateLimit(long limit, long remaining) {
+            scheduler.onRateLimit(limit, remaining);
+        }
+
+        @Override
+        public void onRateLimitExceeded(VolleyRequest<?> request, long retryAfterSeconds) {
+            request.setRetryPolicy(new VolleyRetryPolicy());
+            scheduler.resubmit(request, retryAfterSeconds);
+        }
+
+        @Override
+        public void onRetry(VolleyRequest<?> request, long delayMillis) {
+            request.setRetryPolicy(new VolleyRetryPolicy());
+            scheduler.resubmitLater(request, delayMillis);
+        }
+
+        @Override
+        public void onAuthFailure(VolleyRequest<?> request, String accessToken, PodioError error) {
+            reauthenticate(request, accessToken, error);
+        }
+    };
+
+    // Releases the requests held back for a token refresh once the refresh is done, whether it
+    // delivered its result, its error or was canceled.
+    private final VolleyRequest.OnFinishedListener onRefreshFinishedListener = new VolleyRequest.OnFinishedListener() {
+        @Override
+        public void onFinished(VolleyRequest<?> request) {
+            boolean hasFailed = request.isCanceled() || request.hasFailed();
+            releaseHeldRequests(request, hasFailed ? Utils.currentTimeSeconds() + SESSION_REFRESH_COOL_DOWN_SECONDS : 0L);
+        }
+    };
+
+    // The GET requests currently in flight, keyed by their single flight key.
+    private final HashMap<String, VolleyRequest<?>> inFlightRequests = new HashMap<String, VolleyRequest<?>>();
+
+    private final VolleyRequest.OnFinishedListener onFinishedListener = new VolleyRequest.OnFinishedListener() {
+        @Override
+        public void onFinished(VolleyRequest<?> request) {
+            synchronized (inFlightRequests) {
+                String key = request.getSingleFlightKey();
+
+                if (inFlightRequests.get(key) == request) {
+                    inFlightRequests.remove(key);
+                }
+            }
+        }
+    };
+
+    /**
+     * Creates a client operating on the default session.
+     */
+    public VolleyClient() {
+        this(Session.getDefault());
+    }
+
+    /**
+     * Creates a client operating on the given session.
+     *
+     * @param session
+     *         The session to authenticate the requests of this client with.
+     */
+    public VolleyClient(Session session) {
+        this.session = session;
+        this.rateLimiter = new RateLimiter();
+        this.scheduler = new RequestScheduler(this, rateLimiter);
+    }
 
     @Override
     public Request<Void> authenticateWithUserCredentials(String username, String password) {
-        return authenticate(new AuthPath()
+        return authenticate(Uri.parse(new AuthPath()
                 .withUserCredentials(clientId, clientSecret, username, password)
-                .buildUri(scheme, authority));
+                .buildUrl(scheme, authority)));
     }
 
     @Override
     public Request<Void> authenticateWithAppCredentials(String appId, String appToken) {
-        return authenticate(new AuthPath()
+        return authenticate(Uri.parse(new AuthPath()
                 .withAppCredentials(clientId, clientSecret, appId, appToken)
-                .buildUri(scheme, authority));
+                .buildUrl(scheme, authority)));
     }
 
     @Override
     public Request<Void> authenticateWithTransferToken(String transferToken) {
-        return authenticate(new AuthPath()
+        return authenticate(Uri.parse(new AuthPath()
                 .withTransferToken(clientId, clientSecret, transferToken)
-                .buildUri(scheme, authority));
+                .buildUrl(scheme, authority)));
     }
 
     @Override
     @Deprecated
     public Request<Void> forceRefreshTokens() {
-        // Prepare to re-authenticate.
-        Uri uri = buildAuthUri();
-
-        // Opt out if we can't re-authenticate.
-        if (uri == null) {
-            clearRequestQueue();
-            return null;
-        }
-
-        String url = parseUrl(uri);
-        HashMap<String, String> params = parseParams(uri);
-        VolleyRequest<Void> authRequest = VolleyRequest.newAuthRequest(userAgent, url, params);
+        while (true) {
+            // Re-authenticate on a prioritized request queue, or join any refresh already in
+            // progress.
+            VolleyRequest<Void> authRequest = refreshSession();
+
+            // Opt out if we can't re-authenticate.
+            if (authRequest == null) {
+                clearRequestQueue();
+                return null;
+            }
 
-        // Re-authenticate on a prioritized request queue.
-        addToRefreshQueue(authRequest);
+            // The caller is given a follower of the shared refresh, so canceling it doesn't cancel
+            // the refresh for everyone else waiting for it. A refresh that has just finished can't
+            // be followed, start over with a new one in that case.
+            VolleyRequest<Void> request = VolleyRequest.newAuthRequest(session, userAgent, authRequest.getUrl(), new HashMap<String, String>());
 
-        return authRequest;
+            if (authRequest.addFollower(request)) {
+                return request;
+            }
+        }
     }
 
     @Override
     public <T> Request<T> request(Request.Method method, Filter filter, Object item, Class<T> classOfResult) {
-        String url = filter.buildUri(scheme, authority).toString();
+        String url = filter.buildUrl(scheme, authority);
         String body = item != null ? JsonParser.toJson(item) : null;
 
-        VolleyRequest<T> request = VolleyRequest.newRequest(userAgent, method, url, body, classOfResult);
-        request.setRetryPolicy(new VolleyRetryPolicy(Session.accessToken()));
+        VolleyRequest<T> request = VolleyRequest.newRequest(session, userAgent, method, url, body, classOfResult);
+        request.setShouldCache(isHttpCacheEnabled && method == Request.Method.GET);
+        request.setCacheKeyPrefix(cacheKeyPrefix);
+        request.setMaxResponseBytes(maxResponseBytes);
+        request.setPriority(filter.getPriority());
+        request.setBackoff(retryBackoff);
+        request.setOnRetryListener(onRetryListener);
+
+        RequestEventListener eventListener = this.eventListener;
+        if (eventListener != null) {
+            long requestByteCount = request.body != null ? request.body.length : 0L;
+            request.setEventListener(eventListener, new RequestTrace(method, filter.getEndpoint(), System.nanoTime(), requestByteCount));
+        }
+
+        // Identical GET requests that are already on their way will serve this request as well.
+        if (method == Request.Method.GET && joinInFlightRequest(request)) {
+            return request;
+        }
 
-        addToRequestQueue(request);
+        dispatch(request);
 
         return request;
     }
 
-    public synchronized void setup(Context context, String scheme, String authority, String clientId, String clientSecret, String userAgent, SSLSocketFactory sslSocketFactory) {
+    /**
+     * Enables or disables the HTTP cache for GET requests. When enabled, responses are cached
+     * together with their validators (ETag and Last-Modified headers) and subsequent reads of the
+     * same resource are sent as conditional requests. A "304 Not Modified" response is then served
+     * from the cached content. The cache is cleared whenever a new session is authenticated.
+     *
+     * @param enabled
+     *         Boolean true to enable the HTTP cache, boolean false to disable it.
+     */
+    public void setHttpCacheEnabled(boolean enabled) {
+        this.isHttpCacheEnabled = enabled;
+    }
+
+    /**
+     * Sets the maximum size of a response body that will be parsed. Any larger responses are
+     * rejected with a {@link com.podio.sdk.PodioError} before any parsing takes place.
+     *
+     * @param maxResponseBytes
+     *         The maximum number of bytes in a response body.
+     */
+    public void setMaxResponseBytes(int maxResponseBytes) {
+        this.maxResponseBytes = maxResponseBytes;
+    }
+
+    /**
+     * Sets how GET, PUT and DELETE requests are retried when they fail with a transient error, i.e.
+     * when the API can't be reached, doesn't respond in time or responds with a server error. POST
+     * requests are never retried, as they may have taken effect even if they failed.
+     *
+     * @param backoff
+     *         The retry schedule, {@link Backoff#NONE} to deliver all errors right away.
+     */
+    public void setRetryBackoff(Backoff backoff) {
+        this.retryBackoff = backoff != null ? backoff : Backoff.NONE;
+    }
+
+    /**
+     * Sets the listener to notify as the requests of this client move through their phases, e.g.
+     * a {@link com.podio.sdk.LatencyCollector}. Only requests issued after this call are reported.
+     *
+     * @param eventListener
+     *         The listener to notify, or null to stop reporting.
+     */
+    public void setRequestEventListener(RequestEventListener eventListener) {
+        this.eventListener = eventListener;
+    }
+
+    /**
+     * Returns the session this client authenticates its requests with.
+     *
+     * @return The session of this client.
+     */
+    public Session getSession() {
+        return session;
+    }
+
+    public void setup(Context context, String scheme, String authority, String clientId, String clientSecret, String userAgent, SSLSocketFactory sslSocketFactory) {
+        VolleyTransport transport;
+
+        // All clients that are set up this way share the same transport.
+        synchronized (VolleyClient.class) {
+            if (defaultTransport == null) {
+                defaultTransport = new VolleyTransport(context, sslSocketFactory);
+            }
+
+            transport = defaultTransport;
+        }
+
+        setup(transport, scheme, authority, clientId, clientSecret, userAgent);
+    }
+
+    /**
+     * Sets up this client to execute its requests on the given transport, which may be shared with
+     * other clients. Any requests previously enqueued by this client are canceled.
+     *
+     * @param transport
+     *         The transport to execute the requests on.
+     * @param scheme
+     *         The scheme of the API URLs, e.g. "https".
+     * @param authority
+     *         The host the requests will target.
+     * @param clientId
+     *         The pre-shared Podio client id.
+     * @param clientSecret
+     *         The corresponding Podio client secret.
+     * @param userAgent
+     *         Optional user agent.
+     */
+    public synchronized void setup(VolleyTransport transport, String scheme, String authority, String clientId, String clientSecret, String userAgent) {
+        // Cancel any requests this client has enqueued on its previous transport.
+        if (this.transport != null) {
+            clearRequestQueue();
+            clearRefreshQueue();
+        }
+
+        this.transport = transport;
         this.scheme = scheme;
         this.authority = authority;
         this.clientId = clientId;
         this.clientSecret = clientSecret;
         this.userAgent = userAgent;
 
-        // Ensure the expected request queues exists.
-        if (sslSocketFactory == null) {
-            if (volleyRequestQueue == null) {
-                volleyRequestQueue = Volley.newRequestQueue(context);
-                volleyRequestQueue.start();
+        // Cancel out any and all queued requests, including those held back for a refresh.
+        clearRequestQueue();
+        clearRefreshQueue();
+
+        synchronized (REFRESH_LOCK) {
+            refreshRequest = null;
+        }
+
+        // Forget any cached content.
+        clearRequestCache();
+    }
+
+    /**
+     * Enqueues the given request on the request queue. If the current access token is about to
+     * expire, a token refresh is started first (unless one already is in progress) and the request
+     * is held back until the refresh has finished. This way the request is sent with a valid
+     * access token rather than failing with an authentication error and being retried. Requests
+     * that would exceed the rate limit of the session wait in the scheduler for their turn.
+     *
+     * @param request
+     *         The request to enqueue.
+     */
+    protected void dispatch(VolleyRequest<?> request) {
+        if (isSessionAboutToExpire()) {
+            refreshSession();
+        }
+
+        synchronized (REFRESH_LOCK) {
+            if (refreshRequest != null) {
+                heldRequests.add(request);
+                return;
             }
+        }
+
+        request.setRetryPolicy(new VolleyRetryPolicy());
+        scheduler.submit(request);
+    }
 
-            if (volleyRefreshQueue == null) {
-                volleyRefreshQueue = Volley.newRequestQueue(context);
-                volleyRefreshQueue.start();
+    /**
+     * Sends a request the API has rejected as unauthorized again once the session is refreshed. If
+     * the access token has changed since the request was sent (say, as a result of an other
+     * request refreshing it), the rejection isn't necessarily valid any more and the request is
+     * sent again right away. This method is executed on the main thread.
+     *
+     * @param request
+     *         The rejected request.
+     * @param accessToken
+     *         The access token the request was sent with.
+     * @param error
+     *         The error to fail the request with if the session can't be refreshed.
+     */
+    private void reauthenticate(VolleyRequest<?> request, String accessToken, PodioError error) {
+        String originalAccessToken = Utils.notEmpty(accessToken) ? accessToken : "";
+
+        if (originalAccessToken.equals(session.getAccessToken())) {
+            // Join any refresh that is already in progress rather than starting a new one.
+            if (refreshSession() == null) {
+                // Opt out if we can't re-authenticate.
+                clearRequestQueue();
+                request.abort(error);
+                return;
             }
-        } else if (volleyRequestQueue == null || volleyRefreshQueue == null) {
-            HurlStack stack = new HurlStack(null, sslSocketFactory);
+        }
+
+        // The request is held back, rather than blocking a network thread, until the refresh has
+        // finished.
+        dispatch(request);
+    }
 
-            if (volleyRequestQueue == null) {
-                volleyRequestQueue = Volley.newRequestQueue(context, stack);
-                volleyRequestQueue.start();
+    /**
+     * Refreshes the access token, unless a refresh already is in progress, in which case the
+     * pending refresh request is returned. Any requests held back while refreshing are released
+     * once the refresh has finished, whether it succeeded or not.
+     *
+     * @return The pending refresh request, or null if the session can't be refreshed.
+     */
+    protected VolleyRequest<Void> refreshSession() {
+        VolleyRequest<Void> request;
+
+        synchronized (REFRESH_LOCK) {
+            if (refreshRequest != null) {
+                return refreshRequest;
             }
 
-            if (volleyRefreshQueue == null) {
-                volleyRefreshQueue = Volley.newRequestQueue(context, stack);
-                volleyRefreshQueue.start();
+            Uri uri = buildAuthUri();
+            if (uri == null) {
+                return null;
             }
-        }
 
-        // Clear out any and all queued requests.
-        clearRequestQueue();
-        clearRefreshQueue();
+            String url = parseUrl(uri);
+            HashMap<String, String> params = parseParams(uri);
 
-        // Clear out any cached content in the request queues.
-        Cache requestCache = volleyRequestQueue.getCache();
-        if (requestCache != null) {
-            requestCache.clear();
-        }
+            request = VolleyRequest.newAuthRequest(session, userAgent, url, params);
+            request.setRetryPolicy(new DefaultRetryPolicy(CLIENT_DEFAULT_TIMEOUT_MS, 0, 0));
+            request.setOnFinishedListener(onRefreshFinishedListener);
 
-        Cache priorityCache = volleyRefreshQueue.getCache();
-        if (priorityCache != null) {
-            priorityCache.clear();
+            // The held requests are released by the finished listener, this only lets a failure
+            // bubble up to the global error listeners, if any, rather than being thrown.
+            request.withErrorListener(new Request.ErrorListener() {
+                @Override
+                public boolean onErrorOccurred(Throwable cause) {
+                    return false;
+                }
+            });
+
+            refreshRequest = request;
         }
+
+        // Enqueue outside the refresh lock, the queue operations synchronize on this client.
+        addToRefreshQueue(request);
+
+        return request;
     }
 
     protected synchronized void addToRefreshQueue(com.android.volley.Request<?> request) {
         if (request != null) {
-            volleyRefreshQueue.add(request);
+            request.setTag(this);
+            transport.refreshQueue.add(request);
         }
     }
 
     protected synchronized void addToRequestQueue(com.android.volley.Request<?> request) {
         if (request != null) {
-            volleyRequestQueue.add(request);
+            request.setTag(this);
+
+            if (request instanceof VolleyRequest) {
+                VolleyRequest<?> volleyRequest = (VolleyRequest<?>) request;
+                CircuitBreaker circuitBreaker = transport.getCircuitBreaker(authority);
+
+                // Fail fast while the host is known to be down, rather than waiting for yet another
+                // time-out.
+                if (!circuitBreaker.allowRequest()) {
+                    volleyRequest.abort(new NotSentError("The circuit breaker for " + authority + " is open"));
+                    return;
+                }
+
+                // Background requests may have to wait for a free network thread.
+                volleyRequest.setCircuitBreaker(circuitBreaker);
+                transport.add(volleyRequest);
+            } else {
+                transport.requestQueue.add(request);
+            }
         }
     }
 
     protected synchronized Request<Void> authenticate(Uri uri) {
+        // Cached content, and the rate limit, may belong to a previous user.
+        clearRequestCache();
+        rateLimiter.reset();
+
         String url = parseUrl(uri);
         HashMap<String, String> params = parseParams(uri);
-        VolleyRequest<Void> request = VolleyRequest.newAuthRequest(userAgent, url, params);
+        VolleyRequest<Void> request = VolleyRequest.newAuthRequest(session, userAgent, url, params);
 
         // It seems Volley takes the connection timeout from the assigned RetryPolicy (defaults to
         // 2.5 seconds). This particular RetryPolicy allows a 30 second connection timeout, zero
@@ -255,33 +533,150 @@ public class VolleyClient implements Client {
 
     protected Uri buildAuthUri() {
         Uri result = null;
-        String refreshToken = Session.refreshToken();
+        String refreshToken = session.getRefreshToken();
 
         if (Utils.notEmpty(refreshToken)) {
-            result = new AuthPath()
+            result = Uri.parse(new AuthPath()
                     .withRefreshToken(clientId, clientSecret, refreshToken)
-                    .buildUri(scheme, authority);
+                    .buildUrl(scheme, authority));
         }
 
         return result;
     }
 
-    protected synchronized void clearRefreshQueue() {
-        volleyRefreshQueue.cancelAll(new RequestFilter() {
-            @Override
-            public boolean apply(com.android.volley.Request<?> request) {
-                return true;
+    /**
+     * Returns whether the current access token expires within the refresh margin and there is a
+     * refresh token to renew it with.
+     *
+     * @return Boolean true if the session should be refreshed, boolean false otherwise.
+     */
+    protected boolean isSessionAboutToExpire() {
+        long expires = session.getExpires();
+        long now = Utils.currentTimeSeconds();
+
+        return expires > 0L && now >= nextRefreshAttempt &&
+                now + SESSION_REFRESH_MARGIN_SECONDS >= expires &&
+                Utils.notEmpty(session.getRefreshToken());
+    }
+
+    /**
+     * Ends the given token refresh, unless it has already been ended, and enqueues all requests
+     * that were held back while refreshing. Requests that were rejected as unauthorized are sent
+     * again as well, they won't be sent a third time should the refresh have failed.
+     *
+     * @param refreshRequest
+     *         The finished refresh request.
+     * @param nextRefreshAttempt
+     *         The Unix epoch (in seconds) before which no proactive refresh may be attempted.
+     */
+    private void releaseHeldRequests(VolleyRequest<?> refreshRequest, long nextRefreshAttempt) {
+        ArrayList<VolleyRequest<?>> requests;
+
+        synchronized (REFRESH_LOCK) {
+            if (this.refreshRequest != refreshRequest) {
+                return;
             }
-        });
+
+            this.refreshRequest = null;
+            this.nextRefreshAttempt = nextRefreshAttempt;
+            requests = new ArrayList<VolleyRequest<?>>(heldRequests);
+            heldRequests.clear();
+        }
+
+        for (VolleyRequest<?> request : requests) {
+            // Requests canceled while waiting for the refresh don't need to go anywhere.
+            if (request.isCanceled()) {
+                continue;
+            }
+
+            request.setRetryPolicy(new VolleyRetryPolicy());
+            scheduler.submit(request);
+        }
+    }
+
+    protected synchronized void clearRefreshQueue() {
+        VolleyRequest<Void> refreshRequest;
+
+        synchronized (REFRESH_LOCK) {
+            refreshRequest = this.refreshRequest;
+        }
+
+        // Only cancel the requests of this client, the transport may be shared.
+        transport.refreshQueue.cancelAll(this);
+
+        // A canceled refresh keeps going as long as any followers wait for it.
+        if (refreshRequest != null) {
+            refreshRequest.cancelFollowers();
+        }
+    }
+
+    /**
+     * Makes any content cached by this client unreachable by giving its cache keys a new prefix.
+     * The cached content itself is left to be evicted by the cache, as it can't be told apart from
+     * the content of other clients sharing the same transport.
+     */
+    protected synchronized void clearRequestCache() {
+        cacheKeyPrefix = UUID.randomUUID().toString() + ":";
     }
 
     protected synchronized void clearRequestQueue() {
-        volleyRequestQueue.cancelAll(new RequestFilter() {
-            @Override
-            public boolean apply(com.android.volley.Request<?> request) {
+        ArrayList<VolleyRequest<?>> leaders;
+        ArrayList<VolleyRequest<?>> held;
+
+        synchronized (inFlightRequests) {
+            leaders = new ArrayList<VolleyRequest<?>>(inFlightRequests.values());
+            inFlightRequests.clear();
+        }
+
+        synchronized (REFRESH_LOCK) {
+            held = new ArrayList<VolleyRequest<?>>(heldRequests);
+            heldRequests.clear();
+        }
+
+        // Only cancel the requests of this client, the transport may be shared.
+        scheduler.cancelAll();
+        transport.cancelAll(this);
+
+        // The requests held back for a refresh haven't reached the transport yet.
+        for (VolleyRequest<?> request : held) {
+            request.cancel();
+        }
+
+        // A canceled request keeps going as long as any followers wait for its response.
+        for (VolleyRequest<?> leader : leaders) {
+            leader.cancelFollowers();
+        }
+    }
+
+    /**
+     * Attaches the given request to an identical request that is already in flight, if any. If
+     * there is no such request, then the given request is registered as the one in flight, and
+     * any subsequent identical requests will attach to it until it has delivered its result.
+     *
+     * @param request
+     *         The request to resolve through an already pending network round trip.
+     *
+     * @return Boolean true if the request was attached to a pending request and shouldn't be
+     * enqueued, boolean false if the caller must enqueue the request.
+     */
+    @SuppressWarnings("unchecked")
+    protected <T> boolean joinInFlightRequest(VolleyRequest<T> request) {
+        String key = request.getSingleFlightKey();
+
+        synchronized (inFlightRequests) {
+            // The key includes the expected result type, so the cast is safe.
+            VolleyRequest<T> leader = (VolleyRequest<T>) inFlightRequests.get(key);
+
+            // Don't let a request wait for a request of lower priority, it may be stuck behind
+            // other requests for a while.
+            if (leader != null && leader.getPriority().ordinal() >= request.getPriority().ordinal() && leader.addFollower(request)) {
                 return true;
             }
-        });
+
+            request.setOnFinishedListener(onFinishedListener);
+            inFlightRequests.put(key, request);
+            return false;
+        }
     }
 
     protected HashMap<String, String> parseParams(Uri uri) {
@@ -297,7 +692,7 @@ public class VolleyClient implements Client {
     }
 
     protected String parseUrl(Uri uri) {
-        if (Utils.isEmpty(uri)) {
+        if (uri == null || uri.equals(Uri.EMPTY)) {
             return null;
         }
 
@@ -11,24 +11,109 @@ import com.android.volley.Response;
 import com.android.volley.TimeoutError;
 import com.android.volley.VolleyError;
 import com.android.volley.toolbox.HttpHeaderParser;
+import com.google.gson.JsonParseException;
 import com.google.gson.JsonSyntaxException;
 import com.podio.sdk.ApiError;
+import com.podio.sdk.Backoff;
 import com.podio.sdk.ConnectionError;
 import com.podio.sdk.NetworkError;
 import com.podio.sdk.NoResponseError;
 import com.podio.sdk.PodioError;
+import com.podio.sdk.RequestEventListener;
+import com.podio.sdk.RequestTrace;
 import com.podio.sdk.Session;
+import com.podio.sdk.internal.CircuitBreaker;
+import com.podio.sdk.internal.CompletionLatch;
+import com.podio.sdk.internal.MainThreadExecutor;
 import com.podio.sdk.internal.Utils;
 import com.podio.sdk.json.JsonParser;
 
 import java.io.UnsupportedEncodingException;
+import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Random;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class VolleyRequest<T> extends Request<T> implements com.podio.sdk.Request<T> {
 
+    /**
+     * Callback interface for the request client to get notified when a request has delivered its
+     * result or error.
+     */
+    interface OnFinishedListener {
+
+        /**
+         * Called on the main thread, right before the result or error of the given request is
+         * delivered to the listeners of the request.
+         *
+         * @param request
+         *         The finished request.
+         */
+        void onFinished(VolleyRequest<?> request);
+
+    }
+
+    /**
+     * Callback interface for the request client to get notified about the rate limit of the API and
+     * about requests that should be sent again.
+     */
+    interface OnRetryListener {
+
+        /**
+         * Called on the worker thread when a response announces the rate limit of the session.
+         *
+         * @param limit
+         *         The number of requests allowed per period.
+         * @param remaining
+         *         The number of requests remaining in the current period.
+         */
+        void onRateLimit(long limit, long remaining);
+
+        /**
+         * Called on the main thread, instead of delivering the error, when the API has rejected the
+         * given request for exceeding the rate limit. The request client is expected to send the
+         * request again.
+         *
+         * @param request
+         *         The rejected request.
+         * @param retryAfterSeconds
+         *         The number of seconds the API asks us to wait, or a negative number if it didn't
+         *         say.
+         */
+        void onRateLimitExceeded(VolleyRequest<?> request, long retryAfterSeconds);
+
+        /**
+         * Called on the main thread, instead of delivering the error, when the given idempotent
+         * request has failed with a transient error and has retries left. The request client is
+         * expected to send the request again once the given delay has passed.
+         *
+         * @param request
+         *         The failed request.
+         * @param delayMillis
+         *         The number of milliseconds to wait before sending the request again.
+         */
+        void onRetry(VolleyRequest<?> request, long delayMillis);
+
+        /**
+         * Called on the main thread, instead of delivering the error, when the API has rejected the
+         * given request as unauthorized for the first time. The request client is expected to send
+         * the request again once the session is refreshed, or fail it with the given error through
+         * {@link #abort(PodioError)} if the session can't be refreshed.
+         *
+         * @param request
+         *         The rejected request.
+         * @param accessToken
+         *         The access token the request was sent with.
+         * @param error
+         *         The error to fail the request with if it isn't sent again.
+         */
+        void onAuthFailure(VolleyRequest<?> request, String accessToken, PodioError error);
+
+    }
+
     public static ErrorListener addGlobalErrorListener(ErrorListener errorListener) {
         return VolleyCallbackManager.addGlobalErrorListener(errorListener);
     }
@@ -45,10 +130,10 @@ public class VolleyRequest<T> extends Request<T> implements com.podio.sdk.Reques
         return VolleyCallbackManager.removeGlobalSessionListener(sessionListener);
     }
 
-    static <E> VolleyRequest<E> newRequest(String userAgent, com.podio.sdk.Request.Method method, String url, String body, Class<E> classOfResult) {
+    static <E> VolleyRequest<E> newRequest(Session session, String userAgent, com.podio.sdk.Request.Method method, String url, String body, Class<E> classOfResult) {
         int volleyMethod = parseMethod(method);
 
-        VolleyRequest<E> request = new VolleyRequest<E>(volleyMethod, url, classOfResult, false);
+        VolleyRequest<E> request = new VolleyRequest<E>(session, volleyMethod, url, classOfResult, false);
         request.contentType = "application/json; charset=UTF-8";
         if (userAgent != null) {
             request.headers.put("User-agent", userAgent);
@@ -59,10 +144,10 @@ public class VolleyRequest<T> extends Request<T> implements com.podio.sdk.Reques
         return request;
     }
 
-    static VolleyRequest<Void> newAuthRequest(String userAgent, String url, Map<String, String> params) {
+    static VolleyRequest<Void> newAuthRequest(Session session, String userAgent, String url, Map<String, String> params) {
         int volleyMethod = parseMethod(com.podio.sdk.Request.Method.POST);
 
-        VolleyRequest<Void> request = new VolleyRequest<Void>(volleyMethod, url, null, true);
+        VolleyRequest<Void> request = new VolleyRequest<Void>(session, volleyMethod, url, null, true);
         if (userAgent != null) {
             request.headers.put("User-agent", userAgent);
         }
@@ -88,7 +173,34 @@ public class VolleyRequest<T> extends Request<T> implements com.podio.sdk.Reques
         }
     }
 
+    /**
+     * The default maximum size, in bytes, of a response body that will be parsed.
+     */
+    public static final int DEFAULT_MAX_RESPONSE_BYTES = 16 * 1024 * 1024;
+
+    // The number of times a request is sent again after being rejected for exceeding the rate
+    // limit, before the error is delivered.
+    private static final int MAX_RATE_LIMIT_RETRIES = 5;
+
+    // Spreads the retries of requests failing at the same time.
+    private static final Random JITTER = new Random();
+
+    private static final MainThreadExecutor MAIN_THREAD = new MainThreadExecutor();
+
+    private final Session session;
     private final VolleyCallbackManager<T> callbackManager;
+    private final CompletionLatch completionLatch;
+    private final ArrayList<VolleyRequest<T>> followers;
+    private final Object FOLLOWER_LOCK = new Object();
+    private OnFinishedListener onFinishedListener;
+    private OnRetryListener onRetryListener;
+    private volatile CircuitBreaker circuitBreaker;
+    private RequestEventListener eventListener;
+    private RequestTrace trace;
+    private volatile VolleyRequest<T> leader;
+    private volatile VolleyTransport backgroundLane;
+    private final AtomicBoolean isBackgroundLaneReleased = new AtomicBoolean(false);
+    private volatile boolean isOnNetwork;
 
     private final Class<T> classOfResult;
     protected HashMap<String, String> headers;
@@ -99,14 +211,33 @@ public class VolleyRequest<T> extends Request<T> implements com.podio.sdk.Reques
     private T result;
     private PodioError error;
     private boolean isDone;
+    private volatile boolean isCallerCanceled;
     private boolean isAuthRequest;
     private boolean hasSessionChanged;
+    private int maxResponseBytes;
+    private volatile boolean isResponseTooLarge;
+    private String cacheKeyPrefix;
+    private com.android.volley.Request.Priority priority;
+    private int rateLimitRetries;
+    private boolean isRateLimited;
+    private long retryAfterSeconds;
+    private Backoff backoff;
+    private int retries;
+    private boolean isRetrying;
+    private long retryDelayMillis;
+    private boolean isAuthFailed;
+    private boolean hasReauthenticated;
+    private PodioError authError;
+    private volatile String sentAccessToken;
 
-    protected VolleyRequest(int method, String url, Class<T> resultType, boolean isAuthRequest) {
+    protected VolleyRequest(Session session, int method, String url, Class<T> resultType, boolean isAuthRequest) {
         super(method, url, null);
         setShouldCache(false);
 
-        this.callbackManager = new VolleyCallbackManager<T>();
+        this.session = session;
+        this.callbackManager = new VolleyCallbackManager<T>(session);
+        this.completionLatch = new CompletionLatch();
+        this.followers = new ArrayList<VolleyRequest<T>>();
         this.classOfResult = resultType;
 
         this.headers = new HashMap<String, String>();
@@ -115,31 +246,72 @@ public class VolleyRequest<T> extends Request<T> implements com.podio.sdk.Reques
 
         this.hasSessionChanged = false;
         this.isAuthRequest = isAuthRequest;
+        this.maxResponseBytes = DEFAULT_MAX_RESPONSE_BYTES;
+        this.cacheKeyPrefix = "";
+        this.priority = com.android.volley.Request.Priority.NORMAL;
+        this.backoff = Backoff.NONE;
     }
 
     @Override
     public VolleyRequest<T> withResultListener(ResultListener<T> resultListener) {
-        callbackManager.addResultListener(resultListener, isDone, result);
+        callbackManager.addResultListener(resultListener, isDone && !isCallerCanceled, result);
         return this;
     }
 
     @Override
     public VolleyRequest<T> withErrorListener(ErrorListener errorListener) {
-        callbackManager.addErrorListener(errorListener, isDone && error != null, error);
+        callbackManager.addErrorListener(errorListener, isDone && !isCallerCanceled && error != null, error);
         return this;
     }
 
     @Override
     public VolleyRequest<T> withSessionListener(SessionListener sessionListener) {
-        callbackManager.addSessionListener(sessionListener, isDone && hasSessionChanged);
+        callbackManager.addSessionListener(sessionListener, isDone && !isCallerCanceled && hasSessionChanged);
         return this;
     }
 
+    /**
+     * Cancels this request. The listeners of this request won't be called and any threads waiting
+     * for its result are released. If no other request is waiting for the same response, the
+     * request is also removed from the request queue, or, if it's already on the network, its
+     * response is neither parsed nor delivered.
+     */
+    @Override
+    public void cancel() {
+        VolleyRequest<T> leader;
+        boolean isShared;
+
+        synchronized (FOLLOWER_LOCK) {
+            isCallerCanceled = true;
+            leader = this.leader;
+            isShared = !followers.isEmpty();
+        }
+
+        completionLatch.cancel();
+
+        if (leader != null) {
+            // A follower never hit the network, it only has to let go of its leader.
+            leader.removeFollower(this);
+        } else if (!isShared) {
+            cancelTransport();
+        }
+    }
+
     @Override
     public byte[] getBody() throws AuthFailureError {
         return Utils.notEmpty(body) ? body : super.getBody();
     }
 
+    @Override
+    public String getCacheKey() {
+        return cacheKeyPrefix + super.getCacheKey();
+    }
+
+    @Override
+    public com.android.volley.Request.Priority getPriority() {
+        return priority;
+    }
+
     @Override
     public String getBodyContentType() {
         return contentType;
@@ -147,7 +319,15 @@ public class VolleyRequest<T> extends Request<T> implements com.podio.sdk.Reques
 
     @Override
     public Map<String, String> getHeaders() throws AuthFailureError {
-        String accessToken = Session.accessToken();
+        // The headers are read by the network thread, right before the request goes out.
+        isOnNetwork = true;
+
+        if (eventListener != null) {
+            eventListener.onNetworkStart(trace, System.nanoTime());
+        }
+
+        String accessToken = session.getAccessToken();
+        sentAccessToken = accessToken;
 
         if (!isAuthRequest && Utils.notEmpty(accessToken)) {
             headers.put("Authorization", "Bearer " + accessToken);
@@ -159,14 +339,10 @@ public class VolleyRequest<T> extends Request<T> implements com.podio.sdk.Reques
     }
 
     @Override
-    public synchronized T waitForResult(long maxSeconds) throws PodioError {
-        // This is still awkward as we might end up blocking the delivery of
-        // a client side error (see
-        try {
-            wait(TimeUnit.SECONDS.toMillis(Math.max(maxSeconds, 0)));
-        } catch (InterruptedException e) {
-            callbackManager.deliverError(e);
-        }
+    public T waitForResult(long maxSeconds) throws PodioError {
+        // The latch is completed on the worker thread, as soon as the response is parsed, so this
+        // never waits for the main thread to deliver the result.
+        completionLatch.await(maxSeconds);
 
         if (error != null) {
             throw error;
@@ -179,28 +355,70 @@ public class VolleyRequest<T> extends Request<T> implements com.podio.sdk.Reques
     public void deliverError(VolleyError error) {
         // This method is executed on the main thread. Extra care should be
         // taken on what is done here.
-        isDone = true;
-        callbackManager.deliverError(this.error);
+        if (isRateLimited) {
+            // Go around once more rather than failing. The followers keep waiting.
+            isRateLimited = false;
+            prepareForResubmit();
+            reportRetry();
+            onRetryListener.onRateLimitExceeded(this, retryAfterSeconds);
+            return;
+        }
+
+        if (isRetrying) {
+            isRetrying = false;
+            prepareForResubmit();
+            reportRetry();
+            onRetryListener.onRetry(this, retryDelayMillis);
+            return;
+        }
+
+        if (isAuthFailed) {
+            isAuthFailed = false;
+            prepareForResubmit();
+            reportRetry();
+            onRetryListener.onAuthFailure(this, sentAccessToken, authError);
+            return;
+        }
+
+        ArrayList<VolleyRequest<T>> followers = finish();
+
+        if (!isCallerCanceled) {
+            try {
+                callbackManager.deliverError(this.error);
+            } finally {
+                reportDelivered(this.error);
+            }
+        }
+
+        for (VolleyRequest<T> follower : followers) {
+            follower.deliverError(error);
+        }
     }
 
     @Override
     protected void deliverResponse(T result) {
         // This method is executed on the main thread. Extra care should be
         // taken on what is done here.
+        ArrayList<VolleyRequest<T>> followers = finish();
 
-        isDone = true;
+        if (!isCallerCanceled) {
+            if (hasSessionChanged) {
+                callbackManager.deliverSession();
+            }
 
-        if (hasSessionChanged) {
-            callbackManager.deliverSession();
+            callbackManager.deliverResult(result);
+            reportDelivered(null);
         }
 
-        callbackManager.deliverResult(result);
+        for (VolleyRequest<T> follower : followers) {
+            follower.deliverResponse(result);
+        }
     }
 
     @Override
     protected Map<String, String> getParams() throws AuthFailureError {
         if (params.containsKey("refresh_token")) {
-            String refreshToken = Session.refreshToken();
+            String refreshToken = session.getRefreshToken();
             params.put("refresh_token", refreshToken);
         }
 
@@ -212,44 +430,101 @@ public class VolleyRequest<T> extends Request<T> implements com.podio.sdk.Reques
         // This method is executed on the worker thread. It's "safe" to perform
         // JSON parsing here.
 
+        if (isCanceled()) {
+            // Nobody is waiting for this error any more.
+            releaseBackgroundLane();
+            return volleyError;
+        }
+
+        if (isResponseTooLarge) {
+            // The HTTP stack refused the body before it was read. The host did respond, and
+            // sending the request again would only yield the same response.
+            reportHealth(true);
+            error = new PodioError("The response size exceeds " + maxResponseBytes + " bytes: " + getUrl());
+            completionLatch.complete();
+            resolveFollowers();
+            releaseBackgroundLane();
+            return volleyError;
+        }
+
+        reportRateLimit(volleyError.networkResponse);
+        reportResponseBody(volleyError.networkResponse);
+
+        boolean isTransient = isTransientError(volleyError);
+        reportHealth(!isTransient);
+
+        if (isRateLimitError(volleyError.networkResponse) && onRetryListener != null && rateLimitRetries < MAX_RATE_LIMIT_RETRIES) {
+            // Neither complete, nor resolve any followers, the request will be sent again.
+            rateLimitRetries++;
+            retryAfterSeconds = parseRetryAfter(volleyError.networkResponse);
+            isRateLimited = true;
+            releaseBackgroundLane();
+            return volleyError;
+        }
+
+        if (isTransient && isIdempotent() && onRetryListener != null && retries < backoff.getMaxRetries()) {
+            // Back off for a while, the server may well be back up by then.
+            long retryAfterSeconds = volleyError.networkResponse != null ? parseRetryAfter(volleyError.networkResponse) : -1L;
+            long retryAfterMillis = retryAfterSeconds >= 0L ? TimeUnit.SECONDS.toMillis(retryAfterSeconds) : -1L;
+            retryDelayMillis = backoff.getDelayMillis(retries, retryAfterMillis, JITTER);
+            retries++;
+            isRetrying = true;
+            releaseBackgroundLane();
+            return volleyError;
+        }
+
+        if (volleyError instanceof AuthFailureError && !isAuthRequest && onRetryListener != null && !hasReauthenticated) {
+            // Let the request client refresh the session and send the request again, rather than
+            // holding on to the network thread while waiting for the refresh. A request is only
+            // sent again once, should the refreshed session be rejected too.
+            hasReauthenticated = true;
+            authError = parseError(volleyError);
+            isAuthFailed = true;
+            releaseBackgroundLane();
+            return volleyError;
+        }
+
+        error = parseError(volleyError);
+        completionLatch.complete();
+        resolveFollowers();
+        releaseBackgroundLane();
+        return volleyError;
+    }
+
+    private PodioError parseError(VolleyError volleyError) {
         if (volleyError instanceof NoConnectionError) {
-            error = new ConnectionError(volleyError);
+            return ConnectionError.fromCause(volleyError);
         } else if (volleyError instanceof TimeoutError) {
-            error = new NoResponseError(volleyError);
+            return new NoResponseError(volleyError);
         } else if (volleyError instanceof com.android.volley.NetworkError) {
-            error = new NetworkError(volleyError);
-        } else {
-            String errorJson = getResponseBody(volleyError.networkResponse);
-            int responseCode = getResponseCode(volleyError.networkResponse);
-
-            if (Utils.notEmpty(errorJson) && responseCode > 0) {
-                try {
-                    error = new ApiError(errorJson, responseCode, volleyError);
-                } catch (JsonSyntaxException jsonSyntaxException) {
-                    handleNoneJsonError(volleyError, responseCode);
-                }
-            } else {
-                handleNoneJsonError(volleyError, responseCode);
-            }
+            return new NetworkError(volleyError);
         }
 
-        synchronized (this) {
-            notifyAll();
+        String errorJson = getResponseBody(volleyError.networkResponse);
+        int responseCode = getResponseCode(volleyError.networkResponse);
+
+        if (Utils.notEmpty(errorJson) && responseCode > 0) {
+            try {
+                return new ApiError(errorJson, responseCode, volleyError);
+            } catch (JsonSyntaxException jsonSyntaxException) {
+                return handleNoneJsonError(volleyError, responseCode);
+            }
         }
 
-        return volleyError;
+        return handleNoneJsonError(volleyError, responseCode);
     }
 
-    private void handleNoneJsonError(VolleyError volleyError, int responseCode) {
+    private PodioError handleNoneJsonError(VolleyError volleyError, int responseCode) {
         try {
             if (responseCode > 0) {
-                error = new PodioError(volleyError, responseCode);
+                return new PodioError(volleyError, responseCode);
             } else {
-                error = new PodioError(volleyError);
+                return new PodioError(volleyError);
             }
         } catch (Exception e) {
-            error = new PodioError("Unknown Error");
+            PodioError error = new PodioError("Unknown Error");
             error.setStackTrace(e.getStackTrace());
+            return error;
         }
     }
 
@@ -259,36 +534,502 @@ public class VolleyRequest<T> extends Request<T> implements com.podio.sdk.Reques
         // JSON parsing here.
         Response<T> response;
 
+        if (isCanceled()) {
+            // Nobody is waiting for this response any more, don't waste any time parsing it.
+            // Volley won't deliver a response for a canceled request.
+            releaseBackgroundLane();
+            return Response.error(new VolleyError("The request was canceled"));
+        }
+
+        reportRateLimit(networkResponse);
+        reportResponseBody(networkResponse);
+        reportHealth(true);
+
         try {
-            Entry cacheHeaders = HttpHeaderParser.parseCacheHeaders(networkResponse);
+            Entry cacheHeaders = parseCacheEntry(networkResponse);
             String charSet = HttpHeaderParser.parseCharset(networkResponse.headers);
-            String json = new String(networkResponse.data, charSet);
 
             if (isAuthRequest) {
-                Session.set(json);
+                String json = new String(networkResponse.data, charSet);
+
+                if ("refresh_token".equals(params.get("grant_type"))) {
+                    session.refresh(json);
+                } else {
+                    session.update(json);
+                }
+
                 hasSessionChanged = true;
                 result = null;
                 response = Response.success(null, cacheHeaders);
             } else if (classOfResult == null || classOfResult == Void.class) {
                 result = null;
                 response = Response.success(null, cacheHeaders);
+            } else if (networkResponse.data != null && networkResponse.data.length > maxResponseBytes) {
+                // The HTTP stack normally refuses such a body before it's read, but don't even
+                // try to parse responses we can't afford to hold in memory.
+                result = null;
+                error = new PodioError("The response size exceeds " + maxResponseBytes + " bytes: " + getUrl());
+                response = Response.error(new ParseError(networkResponse));
             } else {
-                result = JsonParser.fromJson(json, classOfResult);
+                // Parse straight from the response bytes, there is no need for an intermediate
+                // String copy of the JSON.
+                result = JsonParser.fromJson(networkResponse.data, charSet, classOfResult);
                 response = Response.success(result, cacheHeaders);
             }
         } catch (UnsupportedEncodingException e) {
             // The provided response JSON is provided with an unknown char-set.
             result = null;
+            error = new PodioError(e);
+            response = Response.error(new ParseError(e));
+        } catch (JsonParseException e) {
+            // The provided response isn't valid JSON for the expected result.
+            result = null;
+            error = new PodioError(e);
             response = Response.error(new ParseError(e));
         }
 
-        synchronized (this) {
-            notifyAll();
+        if (eventListener != null) {
+            eventListener.onParsed(trace, System.nanoTime());
         }
 
+        completionLatch.complete();
+        resolveFollowers();
+        releaseBackgroundLane();
         return response;
     }
 
+    /**
+     * Attaches a request for the same resource to this, already enqueued, request. The follower
+     * will not hit the network. Instead it will be resolved with the very same result (or error)
+     * as this request, and its listeners will be called right after the listeners of this
+     * request.
+     *
+     * @param follower
+     *         The request to piggyback on this request.
+     *
+     * @return Boolean true if the follower was attached, boolean false if this request has
+     * already delivered its result, in which case the follower needs to be enqueued on its own.
+     */
+    boolean addFollower(VolleyRequest<T> follower) {
+        synchronized (FOLLOWER_LOCK) {
+            if (isDone || isCallerCanceled || follower == null || follower.isCallerCanceled) {
+                return false;
+            }
+
+            followers.add(follower);
+            follower.leader = this;
+            return true;
+        }
+    }
+
+    /**
+     * Detaches a canceled follower from this request. If this request has been canceled as well,
+     * and there are no other followers waiting for the response, then the network work is
+     * canceled too.
+     *
+     * @param follower
+     *         The canceled follower.
+     */
+    private void removeFollower(VolleyRequest<T> follower) {
+        boolean isAbandoned;
+
+        synchronized (FOLLOWER_LOCK) {
+            followers.remove(follower);
+            isAbandoned = isCallerCanceled && followers.isEmpty() && !isDone;
+        }
+
+        if (isAbandoned) {
+            cancelTransport();
+        }
+    }
+
+    /**
+     * Cancels the underlying Volley request, which drops it from the request queue or discards its
+     * response, and lets the request client forget about it, as Volley won't deliver anything for
+     * it.
+     */
+    private void cancelTransport() {
+        super.cancel();
+
+        // A request that already is on the network holds on to its network thread until the
+        // response has arrived, it's released when the (skipped) parsing takes place.
+        if (!isOnNetwork) {
+            releaseBackgroundLane();
+        }
+
+        if (onFinishedListener != null) {
+            onFinishedListener.onFinished(this);
+        }
+    }
+
+    /**
+     * Returns a key identifying the resource this request targets. Requests with equal keys would
+     * produce equal results if executed at the same time.
+     *
+     * @return The identifying key of this request.
+     */
+    String getSingleFlightKey() {
+        String resultName = classOfResult != null ? classOfResult.getName() : "";
+        return getMethod() + " " + getUrl() + " " + resultName;
+    }
+
+    /**
+     * Sets the prefix of the key this request is cached by. Requests from different clients are
+     * given different prefixes, so they never read each other's cached responses.
+     *
+     * @param cacheKeyPrefix
+     *         The prefix of the cache key.
+     */
+    void setCacheKeyPrefix(String cacheKeyPrefix) {
+        this.cacheKeyPrefix = cacheKeyPrefix != null ? cacheKeyPrefix : "";
+    }
+
+    /**
+     * Sets the priority of this request. It must be set before the request is enqueued.
+     *
+     * @param priority
+     *         The priority of the request. Null means normal priority.
+     */
+    void setPriority(com.podio.sdk.Request.Priority priority) {
+        if (priority == com.podio.sdk.Request.Priority.IMMEDIATE) {
+            this.priority = com.android.volley.Request.Priority.IMMEDIATE;
+        } else if (priority == com.podio.sdk.Request.Priority.BACKGROUND) {
+            this.priority = com.android.volley.Request.Priority.LOW;
+        } else {
+            this.priority = com.android.volley.Request.Priority.NORMAL;
+        }
+    }
+
+    /**
+     * Registers the transport that let this background request through to the request queue. The
+     * transport is notified once the request no longer occupies a network thread.
+     *
+     * @param transport
+     *         The transport of the background lane.
+     */
+    void setBackgroundLane(VolleyTransport transport) {
+        this.backgroundLane = transport;
+    }
+
+    /**
+     * Cancels all followers attached to this request. If this request has been canceled as well,
+     * then the network work is canceled once the last follower has let go.
+     */
+    void cancelFollowers() {
+        ArrayList<VolleyRequest<T>> snapshot;
+
+        synchronized (FOLLOWER_LOCK) {
+            snapshot = new ArrayList<VolleyRequest<T>>(followers);
+        }
+
+        for (VolleyRequest<T> follower : snapshot) {
+            follower.cancel();
+        }
+    }
+
+    int getMaxResponseBytes() {
+        return maxResponseBytes;
+    }
+
+    void setMaxResponseBytes(int maxResponseBytes) {
+        this.maxResponseBytes = maxResponseBytes;
+    }
+
+    void setOnFinishedListener(OnFinishedListener onFinishedListener) {
+        this.onFinishedListener = onFinishedListener;
+    }
+
+    void setOnRetryListener(OnRetryListener onRetryListener) {
+        this.onRetryListener = onRetryListener;
+    }
+
+    /**
+     * Sets how this request is retried if it fails with a transient error. Only idempotent requests
+     * are ever retried.
+     *
+     * @param backoff
+     *         The retry schedule. Null means no retries.
+     */
+    void setBackoff(Backoff backoff) {
+        this.backoff = backoff != null ? backoff : Backoff.NONE;
+    }
+
+    /**
+     * Sets the circuit breaker of the host this request is sent to. The breaker is told whether
+     * the host responded or not.
+     *
+     * @param circuitBreaker
+     *         The circuit breaker of the target host.
+     */
+    void setCircuitBreaker(CircuitBreaker circuitBreaker) {
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    /**
+     * Sets the listener to notify as this request moves through its phases. The queued event is
+     * reported right away.
+     *
+     * @param eventListener
+     *         The listener to notify, or null.
+     * @param trace
+     *         The trace identifying this request in the events.
+     */
+    void setEventListener(RequestEventListener eventListener, RequestTrace trace) {
+        this.eventListener = eventListener;
+        this.trace = trace;
+
+        if (eventListener != null) {
+            eventListener.onQueued(trace, trace.getQueuedNanos());
+        }
+    }
+
+    /**
+     * Called by the HTTP stack, on the network thread, when the response headers have arrived.
+     *
+     * @param statusCode
+     *         The status code of the response.
+     */
+    void onResponseHeaders(int statusCode) {
+        if (eventListener != null) {
+            eventListener.onResponseHeaders(trace, System.nanoTime(), statusCode);
+        }
+    }
+
+    /**
+     * Called by the HTTP stack, on the network thread, when the response body turns out to be
+     * larger than this request accepts. The body is abandoned before it's read into memory.
+     */
+    void onResponseTooLarge() {
+        isResponseTooLarge = true;
+    }
+
+    /**
+     * Fails this request without sending it (again), e.g. because its host is known to be
+     * unreachable, or because its session can't be refreshed after an authentication error. Any
+     * waiting threads are released right away, the error is delivered to the listeners on the main
+     * thread.
+     *
+     * @param error
+     *         The error to fail the request with.
+     */
+    void abort(final PodioError error) {
+        this.error = error;
+        completionLatch.complete();
+        resolveFollowers();
+
+        MAIN_THREAD.execute(new Runnable() {
+            @Override
+            public void run() {
+                deliverError(new VolleyError(error));
+            }
+        });
+    }
+
+    /**
+     * Returns whether this request has delivered, or is about to deliver, an error.
+     *
+     * @return Boolean true if the request has failed, boolean false otherwise.
+     */
+    boolean hasFailed() {
+        return error != null;
+    }
+
+    /**
+     * Forgets the network state of the previous attempt, so the request can be enqueued again.
+     */
+    private void prepareForResubmit() {
+        isOnNetwork = false;
+        backgroundLane = null;
+        isBackgroundLaneReleased.set(false);
+    }
+
+    /**
+     * Passes on any rate limit headers of the given response to the rate limit listener.
+     *
+     * @param networkResponse
+     *         The response to read the headers of.
+     */
+    private void reportRateLimit(NetworkResponse networkResponse) {
+        if (onRetryListener == null || networkResponse == null || networkResponse.headers == null) {
+            return;
+        }
+
+        String limit = getHeader(networkResponse.headers, "X-Rate-Limit-Limit");
+        String remaining = getHeader(networkResponse.headers, "X-Rate-Limit-Remaining");
+
+        if (Utils.notEmpty(limit) && Utils.notEmpty(remaining)) {
+            try {
+                onRetryListener.onRateLimit(Long.parseLong(limit.trim()), Long.parseLong(remaining.trim()));
+            } catch (NumberFormatException e) {
+                // Ignore any malformed headers, we'll just carry on with what we know.
+            }
+        }
+    }
+
+    private void reportResponseBody(NetworkResponse networkResponse) {
+        if (eventListener != null && networkResponse != null) {
+            long byteCount = networkResponse.data != null ? networkResponse.data.length : 0L;
+            eventListener.onResponseBody(trace, System.nanoTime(), byteCount);
+        }
+    }
+
+    private void reportRetry() {
+        if (eventListener != null) {
+            eventListener.onRetry(trace, System.nanoTime(), rateLimitRetries + retries);
+        }
+    }
+
+    private void reportDelivered(PodioError error) {
+        if (eventListener != null) {
+            eventListener.onDelivered(trace, System.nanoTime(), rateLimitRetries + retries, error);
+        }
+    }
+
+    /**
+     * Tells the circuit breaker of the target host, if any, whether the host responded.
+     *
+     * @param isResponding
+     *         Boolean true if the host responded, even if with a client error, boolean false if
+     *         the request failed with a transient error.
+     */
+    private void reportHealth(boolean isResponding) {
+        CircuitBreaker circuitBreaker = this.circuitBreaker;
+
+        if (circuitBreaker != null) {
+            if (isResponding) {
+                circuitBreaker.onSuccess();
+            } else {
+                circuitBreaker.onFailure();
+            }
+        }
+    }
+
+    /**
+     * Returns whether the given error may well go away by itself: the host couldn't be reached,
+     * didn't respond in time or failed with a server error.
+     *
+     * @param volleyError
+     *         The error to examine.
+     *
+     * @return Boolean true if it makes sense to retry the request, boolean false otherwise.
+     */
+    private boolean isTransientError(VolleyError volleyError) {
+        return volleyError instanceof TimeoutError ||
+                volleyError instanceof com.android.volley.NetworkError && volleyError.networkResponse == null ||
+                getResponseCode(volleyError.networkResponse) >= 500;
+    }
+
+    /**
+     * Returns whether sending this request more than once has the same effect as sending it once.
+     * Posts, and authentication requests, are never retried.
+     *
+     * @return Boolean true if the request may be retried, boolean false otherwise.
+     */
+    private boolean isIdempotent() {
+        int method = getMethod();
+
+        return !isAuthRequest && (method == com.android.volley.Request.Method.GET ||
+                method == com.android.volley.Request.Method.PUT ||
+                method == com.android.volley.Request.Method.DELETE);
+    }
+
+    private boolean isRateLimitError(NetworkResponse networkResponse) {
+        int responseCode = getResponseCode(networkResponse);
+        return responseCode == 420 || responseCode == 429;
+    }
+
+    /**
+     * Reads the number of seconds to wait from the Retry-After header of the given response. The
+     * header may hold either a number of seconds or a date.
+     *
+     * @param networkResponse
+     *         The response to read the header of.
+     *
+     * @return The number of seconds to wait, or -1 if the response doesn't say.
+     */
+    private long parseRetryAfter(NetworkResponse networkResponse) {
+        String retryAfter = networkResponse.headers != null ? getHeader(networkResponse.headers, "Retry-After") : null;
+
+        if (!Utils.notEmpty(retryAfter)) {
+            return -1L;
+        }
+
+        try {
+            return Math.max(Long.parseLong(retryAfter.trim()), 0L);
+        } catch (NumberFormatException e) {
+            long date = HttpHeaderParser.parseDateAsEpoch(retryAfter);
+            return date > 0L ? Math.max((date - System.currentTimeMillis()) / 1000L, 0L) : -1L;
+        }
+    }
+
+    /**
+     * Marks this request as done, notifies the request client and hands over the followers that
+     * should have their listeners called.
+     *
+     * @return The followers that were attached to this request.
+     */
+    private ArrayList<VolleyRequest<T>> finish() {
+        ArrayList<VolleyRequest<T>> result;
+
+        synchronized (FOLLOWER_LOCK) {
+            isDone = true;
+            result = new ArrayList<VolleyRequest<T>>(followers);
+            followers.clear();
+        }
+
+        if (onFinishedListener != null) {
+            onFinishedListener.onFinished(this);
+        }
+
+        // Errors that never reached the parsing stage are delivered straight away.
+        releaseBackgroundLane();
+
+        // The result is parsed by now, make sure any late followers are resolved before their
+        // listeners are called.
+        resolveFollowers(result);
+        return result;
+    }
+
+    /**
+     * Lets the next background request through, if this is a background request that hasn't done
+     * so already.
+     */
+    private void releaseBackgroundLane() {
+        VolleyTransport backgroundLane = this.backgroundLane;
+
+        if (backgroundLane != null && isBackgroundLaneReleased.compareAndSet(false, true)) {
+            backgroundLane.onBackgroundRequestReleased();
+        }
+    }
+
+    /**
+     * Hands over the parsed result (or error) to any attached followers and wakes up any threads
+     * waiting for them. This method is executed on the worker thread.
+     */
+    private void resolveFollowers() {
+        ArrayList<VolleyRequest<T>> snapshot;
+
+        synchronized (FOLLOWER_LOCK) {
+            snapshot = new ArrayList<VolleyRequest<T>>(followers);
+        }
+
+        resolveFollowers(snapshot);
+    }
+
+    private void resolveFollowers(ArrayList<VolleyRequest<T>> followers) {
+        for (VolleyRequest<T> follower : followers) {
+            // Only the first resolution of a follower counts.
+            synchronized (follower) {
+                if (!follower.completionLatch.isDone()) {
+                    follower.result = result;
+                    follower.error = error;
+                    follower.hasSessionChanged = hasSessionChanged;
+                    follower.completionLatch.complete();
+                }
+            }
+        }
+    }
+
     public ErrorListener removeErrorListener(ErrorListener errorListener) {
         return callbackManager.removeErrorListener(errorListener);
     }
@@ -301,6 +1042,75 @@ public class VolleyRequest<T> extends Request<T> implements com.podio.sdk.Reques
         return callbackManager.removeSessionListener(sessionListener);
     }
 
+    /**
+     * Parses the cache entry for the given response. If this request isn't cacheable, nothing is
+     * cached. If the API doesn't allow us to cache the response as is, but provides a validator
+     * (an ETag or a Last-Modified header), then an entry that has to be revalidated on every read
+     * is produced. Volley will then send the corresponding conditional headers and serve any "304
+     * Not Modified" responses from the cached bytes. Responses the API marks as "no-store" are
+     * never cached, validator or not.
+     *
+     * @param networkResponse
+     *         The response to parse the cache headers from.
+     *
+     * @return The cache entry, or null if the response shouldn't be cached.
+     */
+    private Entry parseCacheEntry(NetworkResponse networkResponse) {
+        if (!shouldCache() || isNoStore(networkResponse)) {
+            return null;
+        }
+
+        Entry entry = HttpHeaderParser.parseCacheHeaders(networkResponse);
+
+        if (entry == null && networkResponse.headers != null) {
+            String etag = getHeader(networkResponse.headers, "ETag");
+            String lastModified = getHeader(networkResponse.headers, "Last-Modified");
+
+            if (Utils.notEmpty(etag) || Utils.notEmpty(lastModified)) {
+                String date = Utils.notEmpty(lastModified) ? lastModified : getHeader(networkResponse.headers, "Date");
+
+                entry = new Entry();
+                entry.data = networkResponse.data;
+                entry.etag = etag;
+                entry.serverDate = Utils.notEmpty(date) ? HttpHeaderParser.parseDateAsEpoch(date) : 0L;
+                entry.ttl = 0L;
+                entry.softTtl = 0L;
+                entry.responseHeaders = networkResponse.headers;
+            }
+        }
+
+        return entry;
+    }
+
+    /**
+     * Returns whether the "Cache-Control" header of the given response forbids storing it.
+     */
+    private boolean isNoStore(NetworkResponse networkResponse) {
+        String cacheControl = networkResponse.headers != null ? getHeader(networkResponse.headers, "Cache-Control") : null;
+
+        if (Utils.isEmpty(cacheControl)) {
+            return false;
+        }
+
+        for (String directive : cacheControl.split(",")) {
+            if ("no-store".equalsIgnoreCase(directive.trim())) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private String getHeader(Map<String, String> headers, String name) {
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            if (name.equalsIgnoreCase(header.getKey())) {
+                return header.getValue();
+            }
+        }
+
+        return null;
+    }
+
     private String getResponseBody(NetworkResponse networkResponse) {
         try {
             String charSet = HttpHeaderParser.parseCharset(networkResponse.headers);
@@ -0,0 +1,238 @@
+package com.podio.sdk.volley;
+
+import android.content.Context;
+
+import com.android.volley.Cache;
+import com.android.volley.Network;
+import com.android.volley.RequestQueue;
+import com.android.volley.toolbox.BasicNetwork;
+import com.android.volley.toolbox.DiskBasedCache;
+import com.android.volley.toolbox.HurlStack;
+import com.podio.sdk.internal.CircuitBreaker;
+
+import java.io.File;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+
+import javax.net.ssl.SSLSocketFactory;
+
+/**
+ * The network transport of one or more {@link VolleyClient} instances. A transport owns the request
+ * queues, and hence the network threads, the pooled connections and the HTTP cache. Any number of
+ * clients, each with a session of its own, may share a transport. The clients tag their requests
+ * and key their cached responses by client, so they never cancel or read each other's requests.
+ * <p>
+ * Requests are sent in order of priority. Background requests may occupy all but one of the
+ * network threads, any further background requests wait in a lane of their own until a thread is
+ * released, so an interactive request never has to wait for a background request to finish.
+ * <p>
+ * The transport also keeps a circuit breaker per host, so all clients fail fast while a host is
+ * down.
+ */
+public class VolleyTransport {
+    private static final String CACHE_DIRECTORY = "volley";
+
+    final RequestQueue requestQueue;
+    final RequestQueue refreshQueue;
+
+    private final int maxBackgroundRequests;
+    private final ArrayDeque<VolleyRequest<?>> backgroundRequests;
+    private int activeBackgroundRequests;
+
+    private final HashMap<String, CircuitBreaker> circuitBreakers;
+    private int failureThreshold;
+    private long openMillis;
+    private long maxOpenMillis;
+
+    /**
+     * Creates and starts a transport with the default number of network threads.
+     *
+     * @param context
+     *         The context to create the HTTP cache in.
+     * @param sslSocketFactory
+     *         Optional custom SSL socket factory to use in the HTTP requests.
+     */
+    public VolleyTransport(Context context, SSLSocketFactory sslSocketFactory) {
+        this(context, sslSocketFactory, RequestQueue.DEFAULT_NETWORK_THREAD_POOL_SIZE);
+    }
+
+    /**
+     * Creates and starts a transport. Any content cached by a previous transport is cleared, as it
+     * may belong to a user that isn't authenticated any more.
+     *
+     * @param context
+     *         The context to create the HTTP cache in.
+     * @param sslSocketFactory
+     *         Optional custom SSL socket factory to use in the HTTP requests.
+     * @param networkThreadPoolSize
+     *         The number of requests that can be executed in parallel.
+     */
+    public VolleyTransport(Context context, SSLSocketFactory sslSocketFactory, int networkThreadPoolSize) {
+        File cacheDirectory = new File(context.getCacheDir(), CACHE_DIRECTORY);
+        HurlStack stack = new TimingHurlStack(sslSocketFactory);
+
+        Network network = new BasicNetwork(stack);
+        requestQueue = new RequestQueue(new DiskBasedCache(cacheDirectory), network, networkThreadPoolSize);
+        refreshQueue = new RequestQueue(new DiskBasedCache(cacheDirectory), network);
+
+        maxBackgroundRequests = Math.max(networkThreadPoolSize - 1, 1);
+        backgroundRequests = new ArrayDeque<VolleyRequest<?>>();
+        activeBackgroundRequests = 0;
+
+        circuitBreakers = new HashMap<String, CircuitBreaker>();
+        failureThreshold = CircuitBreaker.DEFAULT_FAILURE_THRESHOLD;
+        openMillis = CircuitBreaker.DEFAULT_OPEN_MILLIS;
+        maxOpenMillis = CircuitBreaker.DEFAULT_MAX_OPEN_MILLIS;
+
+        requestQueue.start();
+        refreshQueue.start();
+
+        clearCache(requestQueue);
+        clearCache(refreshQueue);
+    }
+
+    /**
+     * Stops the network threads of this transport. Any clients using it will not be able to
+     * execute any further requests.
+     */
+    public void stop() {
+        requestQueue.stop();
+        refreshQueue.stop();
+    }
+
+    /**
+     * Configures the circuit breakers of this transport. Any hosts currently considered down are
+     * given a new chance.
+     *
+     * @param failureThreshold
+     *         The number of consecutive transient failures after which requests to a host fail
+     *         fast.
+     * @param openMillis
+     *         The time requests fail fast before a trial request is let through.
+     * @param maxOpenMillis
+     *         The maximum time requests fail fast, as the time doubles for each failed trial.
+     */
+    public void setCircuitBreakerPolicy(int failureThreshold, long openMillis, long maxOpenMillis) {
+        synchronized (circuitBreakers) {
+            this.failureThreshold = failureThreshold;
+            this.openMillis = openMillis;
+            this.maxOpenMillis = maxOpenMillis;
+            circuitBreakers.clear();
+        }
+    }
+
+    /**
+     * Returns the circuit breaker of the given host, creating it if needed.
+     *
+     * @param host
+     *         The host the requests are sent to.
+     *
+     * @return The circuit breaker of the host.
+     */
+    CircuitBreaker getCircuitBreaker(String host) {
+        String key = host != null ? host : "";
+
+        synchronized (circuitBreakers) {
+            CircuitBreaker circuitBreaker = circuitBreakers.get(key);
+
+            if (circuitBreaker == null) {
+                circuitBreaker = new CircuitBreaker(failureThreshold, openMillis, maxOpenMillis);
+                circuitBreakers.put(key, circuitBreaker);
+            }
+
+            return circuitBreaker;
+        }
+    }
+
+    /**
+     * Enqueues the given request on the request queue, or, if it's a background request and the
+     * background requests already occupy their share of the network threads, in the background
+     * lane.
+     *
+     * @param request
+     *         The request to enqueue.
+     */
+    void add(VolleyRequest<?> request) {
+        if (request.getPriority() == com.android.volley.Request.Priority.LOW) {
+            synchronized (backgroundRequests) {
+                if (activeBackgroundRequests >= maxBackgroundRequests) {
+                    backgroundRequests.add(request);
+                    return;
+                }
+
+                activeBackgroundRequests++;
+            }
+
+            request.setBackgroundLane(this);
+        }
+
+        requestQueue.add(request);
+    }
+
+    /**
+     * Cancels all requests with the given tag, whether they're waiting in the background lane or
+     * already are on the request queue.
+     *
+     * @param tag
+     *         The tag of the requests to cancel.
+     */
+    void cancelAll(Object tag) {
+        ArrayList<VolleyRequest<?>> canceled = new ArrayList<VolleyRequest<?>>();
+
+        synchronized (backgroundRequests) {
+            Iterator<VolleyRequest<?>> iterator = backgroundRequests.iterator();
+
+            while (iterator.hasNext()) {
+                VolleyRequest<?> request = iterator.next();
+
+                if (request.getTag() == tag) {
+                    iterator.remove();
+                    canceled.add(request);
+                }
+            }
+        }
+
+        for (VolleyRequest<?> request : canceled) {
+            request.cancel();
+        }
+
+        requestQueue.cancelAll(tag);
+    }
+
+    /**
+     * Called once for every background request that has been let through to the request queue,
+     * when it no longer occupies a network thread. The next background request in line, if any,
+     * takes its place.
+     */
+    void onBackgroundRequestReleased() {
+        VolleyRequest<?> next;
+
+        synchronized (backgroundRequests) {
+            activeBackgroundRequests--;
+
+            // Skip any requests that were canceled while waiting.
+            do {
+                next = backgroundRequests.poll();
+            } while (next != null && next.isCanceled());
+
+            if (next != null) {
+                activeBackgroundRequests++;
+            }
+        }
+
+        if (next != null) {
+            next.setBackgroundLane(this);
+            requestQueue.add(next);
+        }
+    }
+
+    private void clearCache(RequestQueue queue) {
+        Cache cache = queue.getCache();
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
+}